@@ -25,9 +25,12 @@ import network.vonix.vonixcore.config.XPSyncConfig;
 import network.vonix.vonixcore.config.ClaimsConfig;
 import network.vonix.vonixcore.config.ShopsConfig;
 import network.vonix.vonixcore.auth.AuthConfig;
+import network.vonix.vonixcore.chat.ChatPipeline;
 import network.vonix.vonixcore.claims.ClaimsManager;
 import network.vonix.vonixcore.claims.ClaimsCommands;
+import network.vonix.vonixcore.consumer.ChunkIndex;
 import network.vonix.vonixcore.consumer.Consumer;
+import network.vonix.vonixcore.protection.RollbackManager;
 import network.vonix.vonixcore.database.Database;
 import network.vonix.vonixcore.discord.DiscordManager;
 import network.vonix.vonixcore.economy.EconomyManager;
@@ -40,8 +43,11 @@ import network.vonix.vonixcore.auth.AuthenticationManager;
 import network.vonix.vonixcore.jobs.JobsManager;
 
 import java.sql.Connection;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -74,6 +80,9 @@ public class VonixCore {
     private boolean xpsyncEnabled = false;
     private boolean claimsEnabled = false;
 
+    // Shutdowns of the Essentials managers that were started, newest first
+    private final Deque<Map.Entry<String, Runnable>> essentialsShutdowns = new ArrayDeque<>();
+
     public static VonixCore getInstance() {
         return instance;
     }
@@ -153,6 +162,8 @@ public class VonixCore {
             try {
                 // Consumer handles protection data batching
                 Consumer.getInstance().start();
+                ChunkIndex.startBackfill(database);
+                RollbackManager.getInstance().markInterrupted();
                 protectionEnabled = true;
                 enabledModules.add("Protection");
                 LOGGER.info("[{}] Protection module enabled", MOD_NAME);
@@ -165,25 +176,38 @@ public class VonixCore {
         if (EssentialsConfig.CONFIG.enabled.get()) {
             try (Connection conn = database.getConnection()) {
                 if (EssentialsConfig.CONFIG.homesEnabled.get()) {
+                    essentialsStarted("Homes", () -> HomeManager.getInstance().shutdown());
                     HomeManager.getInstance().initializeTable(conn);
+                    HomeManager.getInstance().start();
                 }
                 if (EssentialsConfig.CONFIG.warpsEnabled.get()) {
+                    essentialsStarted("Warps", () -> WarpManager.getInstance().shutdown());
                     WarpManager.getInstance().initializeTable(conn);
+                    WarpManager.getInstance().loadWarps(conn);
                 }
                 if (EssentialsConfig.CONFIG.economyEnabled.get()) {
+                    essentialsStarted("Economy", () -> EconomyManager.getInstance().shutdown());
                     EconomyManager.getInstance().initializeTable(conn);
+                    EconomyManager.getInstance().start();
                     if (EssentialsConfig.CONFIG.shopsEnabled.get()) {
+                        essentialsStarted("Shops", () -> ShopManager.getInstance().shutdown());
                         ShopManager.getInstance().initializeTable(conn);
+                        ShopManager.getInstance().loadShops(conn);
                     }
                 }
                 if (EssentialsConfig.CONFIG.kitsEnabled.get()) {
+                    essentialsStarted("Kits", () -> KitManager.getInstance().shutdown());
                     KitManager.getInstance().initializeTable(conn);
                     KitManager.getInstance().loadDefaultKits();
+                    KitManager.getInstance().start();
                 }
+                essentialsStarted("Admin", () -> AdminManager.getInstance().shutdown());
                 AdminManager.getInstance().initializeTable(conn);
+                AdminManager.getInstance().loadPunishments(conn);
 
                 // Initialize Jobs system
                 if (EssentialsConfig.CONFIG.jobsEnabled.get()) {
+                    essentialsStarted("Jobs", () -> JobsManager.getInstance().shutdown());
                     network.vonix.vonixcore.jobs.JobsManager.getInstance().initialize(conn);
                     network.vonix.vonixcore.jobs.JobsCommands.register(event.getServer().getCommands().getDispatcher());
                     enabledModules.add("Jobs");
@@ -250,6 +274,11 @@ public class VonixCore {
         }
     }
 
+    // Remember a manager whose shutdown has to run, registered before it starts
+    private void essentialsStarted(String name, Runnable shutdown) {
+        essentialsShutdowns.push(Map.entry(name, shutdown));
+    }
+
     @SubscribeEvent
     public void onServerStopping(ServerStoppingEvent event) {
         LOGGER.info("[{}] Shutting down...", MOD_NAME);
@@ -292,6 +321,7 @@ public class VonixCore {
         // Shutdown Protection consumer
         if (protectionEnabled) {
             try {
+                RollbackManager.getInstance().shutdown();
                 Consumer.getInstance().stop();
                 LOGGER.debug("[{}] Protection consumer shutdown complete", MOD_NAME);
             } catch (Throwable e) {
@@ -309,17 +339,33 @@ public class VonixCore {
             LOGGER.error("[{}] Error during Auth shutdown", MOD_NAME, e);
         }
 
-        // Shutdown Jobs and Teleport
+        // Shutdown Jobs, Economy, Admin, Shops, Homes, Warps and Kits. Every
+        // manager that started is stopped on its own, even if Essentials
+        // failed to finish starting, so one failure cannot skip later flushes
+        while (!essentialsShutdowns.isEmpty()) {
+            Map.Entry<String, Runnable> manager = essentialsShutdowns.pop();
+            try {
+                manager.getValue().run();
+                LOGGER.debug("[{}] {} shutdown complete", MOD_NAME, manager.getKey());
+            } catch (Throwable e) {
+                LOGGER.error("[{}] Error during {} shutdown", MOD_NAME, manager.getKey(), e);
+            }
+        }
         if (essentialsEnabled) {
             try {
-                JobsManager.getInstance().shutdown();
                 network.vonix.vonixcore.teleport.TeleportManager.getInstance().clear();
-                LOGGER.debug("[{}] Jobs/Teleport shutdown complete", MOD_NAME);
             } catch (Throwable e) {
-                LOGGER.error("[{}] Error during Jobs shutdown", MOD_NAME, e);
+                LOGGER.error("[{}] Error during Teleport shutdown", MOD_NAME, e);
             }
         }
 
+        // Shutdown chat pipeline
+        try {
+            ChatPipeline.getInstance().shutdown();
+        } catch (Throwable e) {
+            LOGGER.error("[{}] Error during chat pipeline shutdown", MOD_NAME, e);
+        }
+
         // Shutdown async executor
         try {
             ASYNC_EXECUTOR.shutdown();
@@ -8,12 +8,17 @@ import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.food.FoodData;
 import net.minecraft.world.level.GameType;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.config.DatabaseConfig;
+import network.vonix.vonixcore.database.Database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages admin features - bans, mutes, vanish, god mode, etc.
@@ -22,12 +27,23 @@ public class AdminManager {
 
     private static AdminManager instance;
 
+    private static final String KIND_BAN = "ban";
+    private static final String KIND_MUTE = "mute";
+    // How long change log rows are kept for other servers to poll
+    private static final long CHANGE_RETENTION_SECONDS = 24 * 60 * 60;
+
     // In-memory states (cleared on restart)
     private final Set<UUID> vanishedPlayers = new HashSet<>();
     private final Set<UUID> godModePlayers = new HashSet<>();
     private final Set<UUID> flyingPlayers = new HashSet<>();
     private final Map<UUID, UUID> replyTargets = new HashMap<>();
 
+    // Active bans and mutes, mirrored from vc_bans and vc_mutes
+    private final PunishmentIndex<BanInfo> bans = new PunishmentIndex<>();
+    private final PunishmentIndex<MuteInfo> mutes = new PunishmentIndex<>();
+    private volatile long lastChangeId;
+    private ScheduledExecutorService scheduler;
+
     public static AdminManager getInstance() {
         if (instance == null) {
             instance = new AdminManager();
@@ -60,20 +76,240 @@ public class AdminManager {
                         created_at INTEGER NOT NULL
                     )
                 """);
+
+        // Ban/mute change log, polled by other servers sharing the database
+        Database db = VonixCore.getInstance().getDatabase();
+        conn.createStatement().execute("CREATE TABLE IF NOT EXISTS vc_punishment_changes ("
+                + Database.idColumnSql(db)
+                + ", uuid VARCHAR(36) NOT NULL, kind VARCHAR(8) NOT NULL, changed_at BIGINT NOT NULL)");
     }
 
-    // ===== Ban Management =====
+    // ===== Punishment Cache =====
 
-    public boolean banPlayer(UUID uuid, String bannedBy, String reason, Long expiresAt) {
+    /**
+     * Load active bans and mutes into memory, then start removing them as
+     * they expire and, if enabled, picking up changes made by other servers.
+     */
+    public void loadPunishments(Connection conn) throws SQLException {
+        bans.clear();
+        mutes.clear();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT uuid, banned_by, reason, expires_at, created_at FROM vc_bans");
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                UUID uuid = parseUuid(rs.getString("uuid"));
+                if (uuid != null) {
+                    BanInfo ban = readBan(rs);
+                    bans.put(uuid, ban, ban.expiresAt());
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT uuid, muted_by, reason, expires_at, created_at FROM vc_mutes");
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                UUID uuid = parseUuid(rs.getString("uuid"));
+                if (uuid != null) {
+                    MuteInfo mute = readMute(rs);
+                    mutes.put(uuid, mute, mute.expiresAt());
+                }
+            }
+        }
+
+        // Only changes made from now on need to be picked up
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(id) FROM vc_punishment_changes");
+                ResultSet rs = stmt.executeQuery()) {
+            lastChangeId = rs.next() ? rs.getLong(1) : 0;
+        }
+        pruneChanges(conn);
+
+        startScheduler();
+        VonixCore.LOGGER.info("[VonixCore] Loaded {} ban(s) and {} mute(s)", bans.size(), mutes.size());
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void startScheduler() {
+        shutdown();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "VonixCore-Admin");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweepExpired, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::pruneChanges, 1, 1, TimeUnit.HOURS);
+
+        int syncInterval = DatabaseConfig.CONFIG.punishmentSyncInterval.get();
+        if (syncInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::pollChanges, syncInterval, syncInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    // Drop expired punishments from memory, then their rows
+    private void sweepExpired() {
+        long now = nowSeconds();
+        List<UUID> expiredBans = bans.expire(now);
+        List<UUID> expiredMutes = mutes.expire(now);
+        if (expiredBans.isEmpty() && expiredMutes.isEmpty()) {
+            return;
+        }
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
+            deleteExpired(conn, "vc_bans", expiredBans, now);
+            deleteExpired(conn, "vc_mutes", expiredMutes, now);
+        } catch (SQLException e) {
+            VonixCore.LOGGER.error("[VonixCore] Failed to remove expired punishments: {}", e.getMessage());
+        }
+    }
+
+    // Only rows still expired, in case another server punished again meanwhile
+    private static void deleteExpired(Connection conn, String table, List<UUID> uuids, long now)
+            throws SQLException {
+        if (uuids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM " + table + " WHERE uuid = ? AND expires_at < ?")) {
+            for (UUID uuid : uuids) {
+                stmt.setString(1, uuid.toString());
+                stmt.setLong(2, now);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Reload the bans and mutes other servers changed since the last poll
+    private void pollChanges() {
         try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT OR REPLACE INTO vc_bans (uuid, banned_by, reason, expires_at, created_at) VALUES (?, ?, ?, ?, ?)");
+            Set<UUID> changedBans = new HashSet<>();
+            Set<UUID> changedMutes = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT id, uuid, kind FROM vc_punishment_changes WHERE id > ? ORDER BY id")) {
+                stmt.setLong(1, lastChangeId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastChangeId = rs.getLong("id");
+                        UUID uuid = parseUuid(rs.getString("uuid"));
+                        if (uuid != null) {
+                            (KIND_BAN.equals(rs.getString("kind")) ? changedBans : changedMutes).add(uuid);
+                        }
+                    }
+                }
+            }
+            for (UUID uuid : changedBans) {
+                reloadBan(conn, uuid);
+            }
+            for (UUID uuid : changedMutes) {
+                reloadMute(conn, uuid);
+            }
+        } catch (SQLException e) {
+            VonixCore.LOGGER.error("[VonixCore] Failed to poll punishment changes: {}", e.getMessage());
+        }
+    }
+
+    private void reloadBan(Connection conn, UUID uuid) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT banned_by, reason, expires_at, created_at FROM vc_bans WHERE uuid = ?")) {
             stmt.setString(1, uuid.toString());
-            stmt.setString(2, bannedBy);
-            stmt.setString(3, reason);
-            stmt.setObject(4, expiresAt);
-            stmt.setLong(5, System.currentTimeMillis() / 1000L);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    BanInfo ban = readBan(rs);
+                    bans.put(uuid, ban, ban.expiresAt());
+                } else {
+                    bans.remove(uuid);
+                }
+            }
+        }
+    }
+
+    private void reloadMute(Connection conn, UUID uuid) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT muted_by, reason, expires_at, created_at FROM vc_mutes WHERE uuid = ?")) {
+            stmt.setString(1, uuid.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    MuteInfo mute = readMute(rs);
+                    mutes.put(uuid, mute, mute.expiresAt());
+                } else {
+                    mutes.remove(uuid);
+                }
+            }
+        }
+    }
+
+    // Tell other servers sharing the database to reload this player
+    private static void recordChange(Connection conn, UUID uuid, String kind) {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO vc_punishment_changes (uuid, kind, changed_at) VALUES (?, ?, ?)")) {
+            stmt.setString(1, uuid.toString());
+            stmt.setString(2, kind);
+            stmt.setLong(3, nowSeconds());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            VonixCore.LOGGER.warn("[VonixCore] Failed to record punishment change: {}", e.getMessage());
+        }
+    }
+
+    private void pruneChanges() {
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
+            pruneChanges(conn);
+        } catch (SQLException e) {
+            VonixCore.LOGGER.warn("[VonixCore] Failed to prune punishment changes: {}", e.getMessage());
+        }
+    }
+
+    private static void pruneChanges(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM vc_punishment_changes WHERE changed_at < ?")) {
+            stmt.setLong(1, nowSeconds() - CHANGE_RETENTION_SECONDS);
             stmt.executeUpdate();
+        }
+    }
+
+    private static BanInfo readBan(ResultSet rs) throws SQLException {
+        Long expiresAt = rs.getObject("expires_at") != null ? rs.getLong("expires_at") : null;
+        return new BanInfo(rs.getString("banned_by"), rs.getString("reason"), expiresAt, rs.getLong("created_at"));
+    }
+
+    private static MuteInfo readMute(ResultSet rs) throws SQLException {
+        Long expiresAt = rs.getObject("expires_at") != null ? rs.getLong("expires_at") : null;
+        return new MuteInfo(rs.getString("muted_by"), rs.getString("reason"), expiresAt, rs.getLong("created_at"));
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    // ===== Ban Management =====
+
+    public boolean banPlayer(UUID uuid, String bannedBy, String reason, Long expiresAt) {
+        Database db = VonixCore.getInstance().getDatabase();
+        long createdAt = nowSeconds();
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(Database.upsertSql(db, "vc_bans", 1,
+                    "uuid", "banned_by", "reason", "expires_at", "created_at"))) {
+                stmt.setString(1, uuid.toString());
+                stmt.setString(2, bannedBy);
+                stmt.setString(3, reason);
+                stmt.setObject(4, expiresAt);
+                stmt.setLong(5, createdAt);
+                stmt.executeUpdate();
+            }
+            bans.put(uuid, new BanInfo(bannedBy, reason, expiresAt, createdAt), expiresAt);
+            recordChange(conn, uuid, KIND_BAN);
             return true;
         } catch (SQLException e) {
             VonixCore.LOGGER.error("[VonixCore] Failed to ban player: {}", e.getMessage());
@@ -83,38 +319,27 @@ public class AdminManager {
 
     public boolean unbanPlayer(UUID uuid) {
         try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement("DELETE FROM vc_bans WHERE uuid = ?");
-            stmt.setString(1, uuid.toString());
-            return stmt.executeUpdate() > 0;
+            boolean removed;
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM vc_bans WHERE uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+                removed = stmt.executeUpdate() > 0;
+            }
+            bans.remove(uuid);
+            if (removed) {
+                recordChange(conn, uuid, KIND_BAN);
+            }
+            return removed;
         } catch (SQLException e) {
             VonixCore.LOGGER.error("[VonixCore] Failed to unban player: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * @return The player's active ban, or null. Served from memory.
+     */
     public BanInfo getBan(UUID uuid) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT banned_by, reason, expires_at, created_at FROM vc_bans WHERE uuid = ?");
-            stmt.setString(1, uuid.toString());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Long expiresAt = rs.getObject("expires_at") != null ? rs.getLong("expires_at") : null;
-                // Check if expired
-                if (expiresAt != null && expiresAt < System.currentTimeMillis() / 1000L) {
-                    unbanPlayer(uuid);
-                    return null;
-                }
-                return new BanInfo(
-                        rs.getString("banned_by"),
-                        rs.getString("reason"),
-                        expiresAt,
-                        rs.getLong("created_at"));
-            }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to check ban: {}", e.getMessage());
-        }
-        return null;
+        return bans.get(uuid, nowSeconds());
     }
 
     public boolean isBanned(UUID uuid) {
@@ -124,15 +349,20 @@ public class AdminManager {
     // ===== Mute Management =====
 
     public boolean mutePlayer(UUID uuid, String mutedBy, String reason, Long expiresAt) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT OR REPLACE INTO vc_mutes (uuid, muted_by, reason, expires_at, created_at) VALUES (?, ?, ?, ?, ?)");
-            stmt.setString(1, uuid.toString());
-            stmt.setString(2, mutedBy);
-            stmt.setString(3, reason);
-            stmt.setObject(4, expiresAt);
-            stmt.setLong(5, System.currentTimeMillis() / 1000L);
-            stmt.executeUpdate();
+        Database db = VonixCore.getInstance().getDatabase();
+        long createdAt = nowSeconds();
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(Database.upsertSql(db, "vc_mutes", 1,
+                    "uuid", "muted_by", "reason", "expires_at", "created_at"))) {
+                stmt.setString(1, uuid.toString());
+                stmt.setString(2, mutedBy);
+                stmt.setString(3, reason);
+                stmt.setObject(4, expiresAt);
+                stmt.setLong(5, createdAt);
+                stmt.executeUpdate();
+            }
+            mutes.put(uuid, new MuteInfo(mutedBy, reason, expiresAt, createdAt), expiresAt);
+            recordChange(conn, uuid, KIND_MUTE);
             return true;
         } catch (SQLException e) {
             VonixCore.LOGGER.error("[VonixCore] Failed to mute player: {}", e.getMessage());
@@ -142,33 +372,31 @@ public class AdminManager {
 
     public boolean unmutePlayer(UUID uuid) {
         try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement("DELETE FROM vc_mutes WHERE uuid = ?");
-            stmt.setString(1, uuid.toString());
-            return stmt.executeUpdate() > 0;
+            boolean removed;
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM vc_mutes WHERE uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+                removed = stmt.executeUpdate() > 0;
+            }
+            mutes.remove(uuid);
+            if (removed) {
+                recordChange(conn, uuid, KIND_MUTE);
+            }
+            return removed;
         } catch (SQLException e) {
             VonixCore.LOGGER.error("[VonixCore] Failed to unmute player: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * @return The player's active mute, or null. Served from memory.
+     */
+    public MuteInfo getMute(UUID uuid) {
+        return mutes.get(uuid, nowSeconds());
+    }
+
     public boolean isMuted(UUID uuid) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT expires_at FROM vc_mutes WHERE uuid = ?");
-            stmt.setString(1, uuid.toString());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Long expiresAt = rs.getObject("expires_at") != null ? rs.getLong("expires_at") : null;
-                if (expiresAt != null && expiresAt < System.currentTimeMillis() / 1000L) {
-                    unmutePlayer(uuid);
-                    return false;
-                }
-                return true;
-            }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to check mute: {}", e.getMessage());
-        }
-        return false;
+        return getMute(uuid) != null;
     }
 
     // ===== Vanish =====
@@ -271,4 +499,13 @@ public class AdminManager {
             return expiresAt == null;
         }
     }
+
+    /**
+     * Mute info record.
+     */
+    public record MuteInfo(String mutedBy, String reason, Long expiresAt, long createdAt) {
+        public boolean isPermanent() {
+            return expiresAt == null;
+        }
+    }
 }
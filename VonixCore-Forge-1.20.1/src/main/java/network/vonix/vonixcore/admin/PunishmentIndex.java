@@ -0,0 +1,82 @@
+package network.vonix.vonixcore.admin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of active punishments (bans or mutes) by player.
+ * Lookups read a concurrent map and never lock. Temporary punishments are
+ * also kept in a queue ordered by expiry, so {@link #expire} only looks at
+ * the ones that are due. A punishment replaced or removed before it expires
+ * stays in the queue until its time comes and is then skipped.
+ *
+ * Times are epoch seconds, like the expires_at columns; a punishment is
+ * active up to and including its expiry second.
+ */
+final class PunishmentIndex<T> {
+
+    private final Map<UUID, Entry<T>> entries = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final PriorityQueue<Entry<T>> expiries = new PriorityQueue<>(
+            Comparator.comparingLong(Entry::expiresAt));
+
+    /**
+     * Add or replace a player's punishment.
+     *
+     * @param expiresAt Expiry in epoch seconds, or null if permanent
+     */
+    synchronized void put(UUID uuid, T value, Long expiresAt) {
+        Entry<T> entry = new Entry<>(uuid, value, expiresAt != null ? expiresAt : Long.MAX_VALUE);
+        entries.put(uuid, entry);
+        if (expiresAt != null) {
+            expiries.add(entry);
+        }
+    }
+
+    synchronized T remove(UUID uuid) {
+        Entry<T> entry = entries.remove(uuid);
+        return entry != null ? entry.value() : null;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        expiries.clear();
+    }
+
+    /**
+     * @return The player's punishment if it is active at the given time
+     */
+    T get(UUID uuid, long now) {
+        Entry<T> entry = entries.get(uuid);
+        return entry != null && entry.expiresAt() >= now ? entry.value() : null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove every punishment that has expired by the given time.
+     *
+     * @return The players whose punishment was removed
+     */
+    synchronized List<UUID> expire(long now) {
+        List<UUID> expired = new ArrayList<>();
+        Entry<T> head;
+        while ((head = expiries.peek()) != null && head.expiresAt() < now) {
+            expiries.poll();
+            if (entries.remove(head.uuid(), head)) {
+                expired.add(head.uuid());
+            }
+        }
+        return expired;
+    }
+
+    private record Entry<T>(UUID uuid, T value, long expiresAt) {
+    }
+}
@@ -0,0 +1,45 @@
+package network.vonix.vonixcore.chat;
+
+import net.minecraft.world.entity.player.ChatVisiblity;
+import network.vonix.vonixcore.admin.AdminManager;
+import network.vonix.vonixcore.command.UtilityCommands;
+
+import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Decides who may chat and who sees a message. Player chat is dropped for
+ * muted senders and hidden from recipients who ignore the sender or only
+ * accept system messages. Broadcasts reach everyone who has chat shown.
+ */
+final class ChatFilter {
+
+    private final Predicate<UUID> muted;
+    private final BiPredicate<UUID, UUID> ignoring;
+
+    ChatFilter() {
+        this(uuid -> AdminManager.getInstance().isMuted(uuid), UtilityCommands::isIgnoring);
+    }
+
+    /**
+     * @param muted    Whether a player is muted
+     * @param ignoring Whether the first player ignores the second
+     */
+    ChatFilter(Predicate<UUID> muted, BiPredicate<UUID, UUID> ignoring) {
+        this.muted = muted;
+        this.ignoring = ignoring;
+    }
+
+    boolean canChat(UUID sender) {
+        return !muted.test(sender);
+    }
+
+    boolean showsChat(UUID recipient, ChatVisiblity visibility, UUID sender) {
+        return visibility == ChatVisiblity.FULL && !ignoring.test(recipient, sender);
+    }
+
+    static boolean showsBroadcast(ChatVisiblity visibility) {
+        return visibility != ChatVisiblity.HIDDEN;
+    }
+}
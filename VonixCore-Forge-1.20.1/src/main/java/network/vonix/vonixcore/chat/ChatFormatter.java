@@ -9,7 +9,10 @@ import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.server.level.ServerPlayer;
 import network.vonix.vonixcore.permissions.PermissionManager;
 
-import java.util.regex.Matcher;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -19,49 +22,33 @@ import java.util.regex.Pattern;
  */
 public class ChatFormatter {
 
-    // Legacy color code pattern (&a, &l, etc.)
-    private static final Pattern LEGACY_COLOR = Pattern.compile("&([0-9a-fk-or])");
-    // Hex color pattern (&#RRGGBB or &x&R&R&G&G&B&B)
-    private static final Pattern HEX_COLOR = Pattern.compile("&#([0-9A-Fa-f]{6})");
-    // MiniMessage tags
-    private static final Pattern MINI_TAG = Pattern.compile("<([^>]+)>");
+    private static final Pattern LEGACY_CODE = Pattern.compile("§[0-9a-fk-or]");
+    private static final Pattern LEGACY_HEX = Pattern.compile("§x(§[0-9A-Fa-f]){6}");
+    private static final Pattern MINI_TAG = Pattern.compile("<[^>]+>");
+    private static final Component SEPARATOR = Component.literal("§7: §f");
+
+    // Compiled prefix, suffix and name per player, reused while the prefix,
+    // suffix and nickname they were compiled from stay the same
+    private static final Map<UUID, Parts> PARTS = new ConcurrentHashMap<>();
 
     /**
      * Format a chat message with prefix and suffix.
      */
     public static Component formatChatMessage(ServerPlayer player, String message) {
-        PermissionManager pm = PermissionManager.getInstance();
-
-        String prefix = pm.getPrefix(player.getUUID());
-        String suffix = pm.getSuffix(player.getUUID());
-
-        String nickname = network.vonix.vonixcore.command.UtilityCommands.getNickname(player.getUUID());
-        String playerName = nickname != null ? nickname : player.getName().getString();
+        Parts parts = getParts(player);
 
         // Build the full message: [prefix] name [suffix]: message
         MutableComponent result = Component.empty();
-
-        // Add prefix
-        if (prefix != null && !prefix.isEmpty()) {
-            result.append(parseColors(prefix));
+        if (parts.prefix() != null) {
+            result.append(parts.prefix());
         }
-
-        // Add player name with hover
-        MutableComponent nameComponent = Component.literal(playerName)
-                .setStyle(Style.EMPTY.withHoverEvent(new HoverEvent(
-                        HoverEvent.Action.SHOW_TEXT,
-                        Component.literal("§7Click to message §e" + playerName))).withClickEvent(new ClickEvent(
-                                ClickEvent.Action.SUGGEST_COMMAND,
-                                "/msg " + playerName + " ")));
-        result.append(nameComponent);
-
-        // Add suffix
-        if (suffix != null && !suffix.isEmpty()) {
-            result.append(parseColors(suffix));
+        result.append(parts.name());
+        if (parts.suffix() != null) {
+            result.append(parts.suffix());
         }
 
         // Add separator and message
-        result.append(Component.literal("§7: §f"));
+        result.append(SEPARATOR);
         result.append(parseColors(message));
 
         return result;
@@ -71,112 +58,60 @@ public class ChatFormatter {
      * Format display name for tab list / scoreboard.
      */
     public static Component formatDisplayName(ServerPlayer player) {
-        PermissionManager pm = PermissionManager.getInstance();
-
-        String prefix = pm.getPrefix(player.getUUID());
-        String suffix = pm.getSuffix(player.getUUID());
-        String playerName = player.getName().getString();
+        Parts parts = getParts(player);
 
         MutableComponent result = Component.empty();
-
-        if (prefix != null && !prefix.isEmpty()) {
-            result.append(parseColors(prefix));
+        if (parts.prefix() != null) {
+            result.append(parts.prefix());
         }
-
-        result.append(Component.literal(playerName));
-
-        if (suffix != null && !suffix.isEmpty()) {
-            result.append(parseColors(suffix));
+        result.append(Component.literal(player.getName().getString()));
+        if (parts.suffix() != null) {
+            result.append(parts.suffix());
         }
-
         return result;
     }
 
     /**
-     * Parse legacy color codes and hex colors.
+     * Forget a player's compiled chat parts (on logout).
      */
-    public static MutableComponent parseColors(String text) {
-        if (text == null || text.isEmpty()) {
-            return Component.empty();
-        }
+    public static void clearCache(UUID uuid) {
+        PARTS.remove(uuid);
+    }
 
-        // Convert & codes to § codes
-        text = text.replace("&", "§");
-
-        // Parse hex colors (&#RRGGBB -> §x§R§R§G§G§B§B)
-        Matcher hexMatcher = Pattern.compile("§#([0-9A-Fa-f]{6})").matcher(text);
-        StringBuffer hexResult = new StringBuffer();
-        while (hexMatcher.find()) {
-            String hex = hexMatcher.group(1);
-            StringBuilder replacement = new StringBuilder("§x");
-            for (char c : hex.toCharArray()) {
-                replacement.append("§").append(c);
-            }
-            hexMatcher.appendReplacement(hexResult, replacement.toString());
-        }
-        hexMatcher.appendTail(hexResult);
-        text = hexResult.toString();
+    private static Parts getParts(ServerPlayer player) {
+        PermissionManager pm = PermissionManager.getInstance();
+        // Never wait for a permissions load here, chat formats on one ordered thread
+        String prefix = pm.getCachedPrefix(player.getUUID());
+        String suffix = pm.getCachedSuffix(player.getUUID());
+        String nickname = network.vonix.vonixcore.command.UtilityCommands.getNickname(player.getUUID());
+        String playerName = nickname != null ? nickname : player.getName().getString();
 
-        // Parse MiniMessage-style tags
-        text = parseMiniMessageTags(text);
+        Parts parts = PARTS.get(player.getUUID());
+        if (parts != null && parts.matches(prefix, suffix, playerName)) {
+            return parts;
+        }
 
-        return Component.literal(text);
+        // Player name with hover
+        Component name = Component.literal(playerName)
+                .setStyle(Style.EMPTY.withHoverEvent(new HoverEvent(
+                        HoverEvent.Action.SHOW_TEXT,
+                        Component.literal("§7Click to message §e" + playerName))).withClickEvent(new ClickEvent(
+                                ClickEvent.Action.SUGGEST_COMMAND,
+                                "/msg " + playerName + " ")));
+        parts = new Parts(prefix, suffix, playerName,
+                prefix != null && !prefix.isEmpty() ? parseColors(prefix) : null,
+                suffix != null && !suffix.isEmpty() ? parseColors(suffix) : null,
+                name);
+        PARTS.put(player.getUUID(), parts);
+        return parts;
     }
 
     /**
-     * Parse MiniMessage-style tags to legacy codes.
+     * Parse legacy color codes, hex colors and MiniMessage-style tags into a
+     * component tree.
      */
-    private static String parseMiniMessageTags(String text) {
-        // Color tags: <red>, <blue>, <#FF0000>
-        text = text.replaceAll("<black>", "§0");
-        text = text.replaceAll("<dark_blue>", "§1");
-        text = text.replaceAll("<dark_green>", "§2");
-        text = text.replaceAll("<dark_aqua>", "§3");
-        text = text.replaceAll("<dark_red>", "§4");
-        text = text.replaceAll("<dark_purple>", "§5");
-        text = text.replaceAll("<gold>", "§6");
-        text = text.replaceAll("<gray>", "§7");
-        text = text.replaceAll("<dark_gray>", "§8");
-        text = text.replaceAll("<blue>", "§9");
-        text = text.replaceAll("<green>", "§a");
-        text = text.replaceAll("<aqua>", "§b");
-        text = text.replaceAll("<red>", "§c");
-        text = text.replaceAll("<light_purple>", "§d");
-        text = text.replaceAll("<yellow>", "§e");
-        text = text.replaceAll("<white>", "§f");
-
-        // Format tags
-        text = text.replaceAll("<bold>", "§l");
-        text = text.replaceAll("<b>", "§l");
-        text = text.replaceAll("<italic>", "§o");
-        text = text.replaceAll("<i>", "§o");
-        text = text.replaceAll("<underlined>", "§n");
-        text = text.replaceAll("<u>", "§n");
-        text = text.replaceAll("<strikethrough>", "§m");
-        text = text.replaceAll("<st>", "§m");
-        text = text.replaceAll("<obfuscated>", "§k");
-        text = text.replaceAll("<obf>", "§k");
-        text = text.replaceAll("<reset>", "§r");
-        text = text.replaceAll("<r>", "§r");
-
-        // Hex colors: <#RRGGBB>
-        Matcher hexMatch = Pattern.compile("<#([0-9A-Fa-f]{6})>").matcher(text);
-        StringBuffer hexBuf = new StringBuffer();
-        while (hexMatch.find()) {
-            String hex = hexMatch.group(1);
-            StringBuilder replacement = new StringBuilder("§x");
-            for (char c : hex.toCharArray()) {
-                replacement.append("§").append(c);
-            }
-            hexMatch.appendReplacement(hexBuf, replacement.toString());
-        }
-        hexMatch.appendTail(hexBuf);
-        text = hexBuf.toString();
-
-        // Close tags (</color>, </bold>, etc.) - just remove them
-        text = text.replaceAll("</[^>]+>", "");
-
-        return text;
+    public static MutableComponent parseColors(String text) {
+        return ChatMarkup.parse(text);
     }
 
     /**
@@ -185,9 +120,9 @@ public class ChatFormatter {
     public static String stripColors(String text) {
         if (text == null)
             return "";
-        return text.replaceAll("§[0-9a-fk-or]", "")
-                .replaceAll("§x(§[0-9A-Fa-f]){6}", "")
-                .replaceAll("<[^>]+>", "");
+        text = LEGACY_CODE.matcher(text).replaceAll("");
+        text = LEGACY_HEX.matcher(text).replaceAll("");
+        return MINI_TAG.matcher(text).replaceAll("");
     }
 
     /**
@@ -240,4 +175,13 @@ public class ChatFormatter {
 
         return result;
     }
+
+    private record Parts(String prefixSource, String suffixSource, String nameSource,
+            Component prefix, Component suffix, Component name) {
+
+        boolean matches(String prefix, String suffix, String name) {
+            return Objects.equals(prefixSource, prefix) && Objects.equals(suffixSource, suffix)
+                    && nameSource.equals(name);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package network.vonix.vonixcore.chat;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+import net.minecraft.network.chat.TextColor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-pass compiler from chat markup to a component tree.
+ * Understands legacy codes (&a, §l), hex colors (&#RRGGBB) and the
+ * MiniMessage-style tags (<red>, <bold>, <#RRGGBB>). Each run of text with the
+ * same style becomes one styled literal. Colors reset formatting like legacy
+ * codes do, and closing tags are dropped. Anything that is not a known code
+ * or tag is kept as text.
+ */
+final class ChatMarkup {
+
+    private static final Map<String, ChatFormatting> TAGS = new HashMap<>();
+
+    static {
+        for (ChatFormatting format : ChatFormatting.values()) {
+            if (format.isColor()) {
+                TAGS.put(format.getName(), format);
+            }
+        }
+        TAGS.put("bold", ChatFormatting.BOLD);
+        TAGS.put("b", ChatFormatting.BOLD);
+        TAGS.put("italic", ChatFormatting.ITALIC);
+        TAGS.put("i", ChatFormatting.ITALIC);
+        TAGS.put("underlined", ChatFormatting.UNDERLINE);
+        TAGS.put("u", ChatFormatting.UNDERLINE);
+        TAGS.put("strikethrough", ChatFormatting.STRIKETHROUGH);
+        TAGS.put("st", ChatFormatting.STRIKETHROUGH);
+        TAGS.put("obfuscated", ChatFormatting.OBFUSCATED);
+        TAGS.put("obf", ChatFormatting.OBFUSCATED);
+        TAGS.put("reset", ChatFormatting.RESET);
+        TAGS.put("r", ChatFormatting.RESET);
+    }
+
+    private ChatMarkup() {
+    }
+
+    static MutableComponent parse(String text) {
+        MutableComponent root = Component.empty();
+        if (text == null || text.isEmpty()) {
+            return root;
+        }
+
+        StringBuilder run = new StringBuilder(text.length());
+        Style style = Style.EMPTY;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if ((c == '&' || c == '§') && i + 1 < length) {
+                char code = text.charAt(i + 1);
+                if (code == '#' && isHex(text, i + 2, i + 8)) {
+                    style = flush(root, run, style, hexColor(text, i + 2));
+                    i += 8;
+                    continue;
+                }
+                ChatFormatting format = ChatFormatting.getByCode(code);
+                if (format != null) {
+                    style = flush(root, run, style, apply(style, format));
+                    i += 2;
+                    continue;
+                }
+            } else if (c == '<') {
+                int close = text.indexOf('>', i + 1);
+                if (close > i + 1) {
+                    if (text.charAt(i + 1) == '/') {
+                        if (close > i + 2) {
+                            i = close + 1;
+                            continue;
+                        }
+                    } else if (text.charAt(i + 1) == '#' && close == i + 8 && isHex(text, i + 2, close)) {
+                        style = flush(root, run, style, hexColor(text, i + 2));
+                        i = close + 1;
+                        continue;
+                    } else {
+                        ChatFormatting format = TAGS.get(text.substring(i + 1, close));
+                        if (format != null) {
+                            style = flush(root, run, style, apply(style, format));
+                            i = close + 1;
+                            continue;
+                        }
+                    }
+                }
+            }
+            run.append(c);
+            i++;
+        }
+        flush(root, run, style, style);
+        return root;
+    }
+
+    private static Style apply(Style style, ChatFormatting format) {
+        return format == ChatFormatting.RESET ? Style.EMPTY : style.applyLegacyFormat(format);
+    }
+
+    private static Style hexColor(String text, int start) {
+        return Style.EMPTY.withColor(TextColor.fromRgb(Integer.parseInt(text, start, start + 6, 16)));
+    }
+
+    // Emit the pending text in the current style, then switch to the next
+    private static Style flush(MutableComponent root, StringBuilder run, Style style, Style next) {
+        if (run.length() > 0) {
+            root.append(Component.literal(run.toString()).setStyle(style));
+            run.setLength(0);
+        }
+        return next;
+    }
+
+    private static boolean isHex(String text, int start, int end) {
+        if (end > text.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (Character.digit(text.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
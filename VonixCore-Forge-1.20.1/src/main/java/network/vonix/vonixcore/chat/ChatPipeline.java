@@ -0,0 +1,170 @@
+package network.vonix.vonixcore.chat;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import network.vonix.vonixcore.VonixCore;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Delivers chat and broadcast messages off the server thread.
+ * The recipient list is copied on the calling thread; formatting, the mute
+ * check and per-recipient filtering (ignores, chat visibility, Discord
+ * preferences) run on a single chat thread, so messages keep their order.
+ * Each message is formatted once and sent to every recipient as one shared
+ * packet.
+ */
+public class ChatPipeline {
+
+    private static ChatPipeline instance;
+
+    // Warn about messages slower than this, at most once per interval
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW_WARN_INTERVAL_MILLIS = 60_000;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "VonixCore-Chat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ChatFilter filter = new ChatFilter();
+
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile long lastSlowWarning;
+
+    public static ChatPipeline getInstance() {
+        if (instance == null) {
+            instance = new ChatPipeline();
+        }
+        return instance;
+    }
+
+    /**
+     * @return False if the sender is muted and their chat must be dropped
+     */
+    public boolean canChat(UUID sender) {
+        return filter.canChat(sender);
+    }
+
+    /**
+     * Format and deliver a player's chat message.
+     *
+     * @param onSent Run on the chat thread once the message was delivered
+     *               (not when the sender is muted), may be null
+     */
+    public void submit(ServerPlayer sender, String message, Runnable onSent) {
+        long queued = System.nanoTime();
+        List<ServerPlayer> recipients = List.copyOf(sender.server.getPlayerList().getPlayers());
+        execute(() -> {
+            UUID senderId = sender.getUUID();
+            if (!filter.canChat(senderId)) {
+                sender.sendSystemMessage(Component.literal("§cYou are muted."));
+                return;
+            }
+
+            Component formatted = ChatFormatter.formatChatMessage(sender, message);
+            deliver(formatted, recipients,
+                    player -> filter.showsChat(player.getUUID(), player.getChatVisibility(), senderId), queued);
+            sender.server.sendSystemMessage(formatted);
+
+            if (onSent != null) {
+                onSent.run();
+            }
+        });
+    }
+
+    /**
+     * Broadcast a system message to the players accepted by a filter.
+     */
+    public void broadcast(MinecraftServer server, Component message, Predicate<ServerPlayer> filter) {
+        long queued = System.nanoTime();
+        List<ServerPlayer> recipients = List.copyOf(server.getPlayerList().getPlayers());
+        execute(() -> {
+            deliver(message, recipients, player -> ChatFilter.showsBroadcast(player.getChatVisibility())
+                    && filter.test(player), queued);
+            server.sendSystemMessage(message);
+        });
+    }
+
+    /**
+     * @return A one-line summary of messages, deliveries and latency
+     */
+    public String getStats() {
+        long count = messages.get();
+        long averageMicros = count == 0 ? 0 : totalLatencyNanos.get() / count / 1000;
+        return String.format("%d messages, %d deliveries, %d filtered, avg %dus, max %dus",
+                count, deliveries.get(), filtered.get(), averageMicros, maxLatencyNanos.get() / 1000);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Runnable task) {
+        Runnable safe = () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                VonixCore.LOGGER.error("[Chat] Failed to deliver message", e);
+            }
+        };
+        try {
+            executor.execute(safe);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, deliver on the caller
+            safe.run();
+        }
+    }
+
+    private void deliver(Component message, List<ServerPlayer> recipients, Predicate<ServerPlayer> visible,
+            long queued) {
+        // One packet for everyone instead of one per sendSystemMessage call
+        ClientboundSystemChatPacket packet = new ClientboundSystemChatPacket(message, false);
+        int sent = 0;
+        for (ServerPlayer player : recipients) {
+            if (player.hasDisconnected() || !visible.test(player)) {
+                continue;
+            }
+            player.connection.send(packet);
+            sent++;
+        }
+        record(sent, recipients.size() - sent, System.nanoTime() - queued);
+    }
+
+    private void record(int sent, int skipped, long latency) {
+        messages.incrementAndGet();
+        deliveries.addAndGet(sent);
+        filtered.addAndGet(skipped);
+        totalLatencyNanos.addAndGet(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+
+        long now = System.currentTimeMillis();
+        if (latency > SLOW_NANOS && now - lastSlowWarning > SLOW_WARN_INTERVAL_MILLIS) {
+            lastSlowWarning = now;
+            VonixCore.LOGGER.warn("[Chat] Message to {} players took {}ms ({})", sent + skipped,
+                    TimeUnit.NANOSECONDS.toMillis(latency), getStats());
+        }
+    }
+}
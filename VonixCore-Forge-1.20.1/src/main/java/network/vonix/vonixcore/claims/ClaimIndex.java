@@ -0,0 +1,199 @@
+package network.vonix.vonixcore.claims;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Spatial and owner index over loaded claims.
+ * Each claim is registered in every chunk column it covers, per world, so a
+ * position lookup reads one small bucket instead of scanning every claim.
+ * Claims covering more than {@link #MAX_INDEXED_CHUNKS} chunks are kept in a
+ * per-world list that is checked on every lookup instead.
+ *
+ * Buckets are immutable arrays replaced on change, so lookups never lock.
+ * Changes are serialized on the index.
+ */
+final class ClaimIndex {
+
+    /** Claims larger than this many chunks are not bucketed. */
+    static final int MAX_INDEXED_CHUNKS = 1024;
+
+    private static final Claim[] EMPTY = new Claim[0];
+
+    private final Map<String, WorldIndex> worlds = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Claim>> byOwner = new ConcurrentHashMap<>();
+
+    synchronized void add(Claim claim) {
+        WorldIndex index = worlds.computeIfAbsent(claim.getWorld(), w -> new WorldIndex());
+        if (chunkCount(claim) > MAX_INDEXED_CHUNKS) {
+            index.large = append(index.large, claim);
+        } else {
+            forEachChunk(claim, key -> index.buckets.merge(key, new Claim[] { claim },
+                    (existing, added) -> append(existing, claim)));
+        }
+        byOwner.computeIfAbsent(claim.getOwner(), o -> ConcurrentHashMap.newKeySet()).add(claim);
+    }
+
+    synchronized void remove(Claim claim) {
+        WorldIndex index = worlds.get(claim.getWorld());
+        if (index != null) {
+            if (chunkCount(claim) > MAX_INDEXED_CHUNKS) {
+                index.large = without(index.large, claim);
+            } else {
+                forEachChunk(claim, key -> index.buckets.computeIfPresent(key, (k, existing) -> {
+                    Claim[] remaining = without(existing, claim);
+                    return remaining.length == 0 ? null : remaining;
+                }));
+            }
+        }
+        Set<Claim> owned = byOwner.get(claim.getOwner());
+        if (owned != null) {
+            owned.remove(claim);
+            if (owned.isEmpty()) {
+                byOwner.remove(claim.getOwner(), owned);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        worlds.clear();
+        byOwner.clear();
+    }
+
+    /**
+     * Find the claim containing a block.
+     */
+    Claim find(String world, int x, int y, int z) {
+        WorldIndex index = worlds.get(world);
+        if (index == null) {
+            return null;
+        }
+        Claim[] bucket = index.buckets.get(chunkKey(x >> 4, z >> 4));
+        if (bucket != null) {
+            for (Claim claim : bucket) {
+                if (contains(claim, x, y, z)) {
+                    return claim;
+                }
+            }
+        }
+        for (Claim claim : index.large) {
+            if (contains(claim, x, y, z)) {
+                return claim;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find any claim overlapping a column rectangle (Y is ignored).
+     */
+    Claim findOverlapping(String world, int minX, int minZ, int maxX, int maxZ) {
+        WorldIndex index = worlds.get(world);
+        if (index == null) {
+            return null;
+        }
+        for (Claim claim : index.large) {
+            if (overlaps(claim, minX, minZ, maxX, maxZ)) {
+                return claim;
+            }
+        }
+
+        long chunks = (long) ((maxX >> 4) - (minX >> 4) + 1) * ((maxZ >> 4) - (minZ >> 4) + 1);
+        if (chunks > index.buckets.size()) {
+            // Fewer buckets than chunks in the area, walk the buckets instead
+            for (Claim[] bucket : index.buckets.values()) {
+                for (Claim claim : bucket) {
+                    if (overlaps(claim, minX, minZ, maxX, maxZ)) {
+                        return claim;
+                    }
+                }
+            }
+            return null;
+        }
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                Claim[] bucket = index.buckets.get(chunkKey(cx, cz));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Claim claim : bucket) {
+                    if (overlaps(claim, minX, minZ, maxX, maxZ)) {
+                        return claim;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Claims owned by a player.
+     */
+    List<Claim> getOwned(UUID owner) {
+        Set<Claim> owned = byOwner.get(owner);
+        return owned == null ? Collections.emptyList() : new ArrayList<>(owned);
+    }
+
+    int countOwned(UUID owner) {
+        Set<Claim> owned = byOwner.get(owner);
+        return owned == null ? 0 : owned.size();
+    }
+
+    private static boolean contains(Claim claim, int x, int y, int z) {
+        return x >= claim.getX1() && x <= claim.getX2()
+                && y >= claim.getY1() && y <= claim.getY2()
+                && z >= claim.getZ1() && z <= claim.getZ2();
+    }
+
+    private static boolean overlaps(Claim claim, int minX, int minZ, int maxX, int maxZ) {
+        return !(maxX < claim.getX1() || minX > claim.getX2() || maxZ < claim.getZ1() || minZ > claim.getZ2());
+    }
+
+    private static long chunkCount(Claim claim) {
+        return (long) ((claim.getX2() >> 4) - (claim.getX1() >> 4) + 1)
+                * ((claim.getZ2() >> 4) - (claim.getZ1() >> 4) + 1);
+    }
+
+    private static void forEachChunk(Claim claim, LongConsumer action) {
+        for (int cx = claim.getX1() >> 4; cx <= claim.getX2() >> 4; cx++) {
+            for (int cz = claim.getZ1() >> 4; cz <= claim.getZ2() >> 4; cz++) {
+                action.accept(chunkKey(cx, cz));
+            }
+        }
+    }
+
+    // ChunkPos.asLong layout
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    private static Claim[] append(Claim[] claims, Claim claim) {
+        Claim[] copy = Arrays.copyOf(claims, claims.length + 1);
+        copy[claims.length] = claim;
+        return copy;
+    }
+
+    private static Claim[] without(Claim[] claims, Claim claim) {
+        for (int i = 0; i < claims.length; i++) {
+            if (claims[i] == claim) {
+                Claim[] copy = new Claim[claims.length - 1];
+                System.arraycopy(claims, 0, copy, 0, i);
+                System.arraycopy(claims, i + 1, copy, i, claims.length - i - 1);
+                return copy;
+            }
+        }
+        return claims;
+    }
+
+    private static final class WorldIndex {
+        final Map<Long, Claim[]> buckets = new ConcurrentHashMap<>();
+        volatile Claim[] large = EMPTY;
+    }
+}
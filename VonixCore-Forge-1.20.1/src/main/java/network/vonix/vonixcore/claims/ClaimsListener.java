@@ -7,6 +7,7 @@ import net.minecraft.tags.BlockTags;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.ChestBlock;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.level.BlockEvent;
 import net.minecraftforge.event.level.ExplosionEvent;
@@ -98,14 +99,9 @@ public class ClaimsListener {
         BlockPos pos = event.getPos();
         var state = event.getLevel().getBlockState(pos);
 
-        // Check if in claim
-        Claim claim = ClaimsManager.getInstance().getClaimAt(world, pos);
-        if (claim == null)
-            return; // Not in claim
-
-        // Check if player can interact
-        if (claim.canInteract(player.getUUID()))
-            return; // Owner or trusted
+        // Not in a claim, or owner or trusted
+        if (ClaimsManager.getInstance().canInteract(player.getUUID(), world, pos))
+            return;
 
         // Check for VonixCore shop bypass
         if (ClaimsConfig.CONFIG.allowVonixShopsBypass.get()) {
@@ -208,6 +204,14 @@ public class ClaimsListener {
         }
     }
 
+    /**
+     * Drop the player's cached claim permission on logout
+     */
+    @SubscribeEvent
+    public static void onPlayerLeave(PlayerEvent.PlayerLoggedOutEvent event) {
+        ClaimsManager.getInstance().clearPermissionCache(event.getEntity().getUUID());
+    }
+
     /**
      * Handle explosions
      */
@@ -7,6 +7,7 @@ import network.vonix.vonixcore.config.ClaimsConfig;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages land claims - creation, deletion, and permission checks.
@@ -16,6 +17,12 @@ public class ClaimsManager {
     private static ClaimsManager instance;
 
     private final Map<Integer, Claim> claims = new ConcurrentHashMap<>();
+    // Chunk buckets and owner lists, kept in step with the claims map
+    private final ClaimIndex index = new ClaimIndex();
+    // Last claim each player was checked in, with the resolved permission
+    private final Map<UUID, CachedPermission> permissionCache = new ConcurrentHashMap<>();
+    // Bumped by every claim or trust change; older cache entries are stale
+    private final AtomicLong permissionVersion = new AtomicLong();
     private final Map<UUID, BlockPos> corner1Selections = new ConcurrentHashMap<>();
     private final Map<UUID, BlockPos> corner2Selections = new ConcurrentHashMap<>();
 
@@ -54,6 +61,8 @@ public class ClaimsManager {
      */
     private void loadClaims(Connection conn) throws SQLException {
         claims.clear();
+        index.clear();
+        permissionVersion.incrementAndGet();
         String sql = "SELECT * FROM vonixcore_claims";
         try (Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
@@ -70,6 +79,7 @@ public class ClaimsManager {
                 Set<UUID> trusted = parseTrusted(trustedJson);
                 Claim claim = new Claim(id, owner, ownerName, world, x1, y1, z1, x2, y2, z2, trusted, createdAt);
                 claims.put(id, claim);
+                index.add(claim);
             }
         }
     }
@@ -88,23 +98,15 @@ public class ClaimsManager {
         }
 
         // Check overlap
-        for (Claim existing : claims.values()) {
-            if (existing.getWorld().equals(world)) {
-                if (claimsOverlap(pos1, pos2, existing)) {
-                    return null; // Overlaps
-                }
-            }
+        if (index.findOverlapping(world, Math.min(pos1.getX(), pos2.getX()), Math.min(pos1.getZ(), pos2.getZ()),
+                Math.max(pos1.getX(), pos2.getX()), Math.max(pos1.getZ(), pos2.getZ())) != null) {
+            return null; // Overlaps
         }
 
         // Check player claim limit
         int maxClaims = ClaimsConfig.CONFIG.maxClaimsPerPlayer.get();
-        if (maxClaims > 0) {
-            long playerClaims = claims.values().stream()
-                    .filter(c -> c.getOwner().equals(owner))
-                    .count();
-            if (playerClaims >= maxClaims) {
-                return null; // Limit reached
-            }
+        if (maxClaims > 0 && index.countOwned(owner) >= maxClaims) {
+            return null; // Limit reached
         }
 
         try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
@@ -135,6 +137,8 @@ public class ClaimsManager {
                                 pos2.getX(), pos2.getY(), pos2.getZ(),
                                 new HashSet<>(), System.currentTimeMillis());
                         claims.put(id, claim);
+                        index.add(claim);
+                        permissionVersion.incrementAndGet();
                         return claim;
                     }
                 }
@@ -158,7 +162,11 @@ public class ClaimsManager {
                 ps.setInt(1, claimId);
                 ps.executeUpdate();
             }
-            claims.remove(claimId);
+            Claim removed = claims.remove(claimId);
+            if (removed != null) {
+                index.remove(removed);
+            }
+            permissionVersion.incrementAndGet();
             return true;
         } catch (SQLException e) {
             VonixCore.LOGGER.error("[VonixCore] Failed to delete claim: {}", e.getMessage());
@@ -170,25 +178,14 @@ public class ClaimsManager {
      * Get claim at a position
      */
     public Claim getClaimAt(String world, BlockPos pos) {
-        for (Claim claim : claims.values()) {
-            if (claim.contains(world, pos)) {
-                return claim;
-            }
-        }
-        return null;
+        return index.find(world, pos.getX(), pos.getY(), pos.getZ());
     }
 
     /**
      * Get all claims owned by a player
      */
     public List<Claim> getPlayerClaims(UUID owner) {
-        List<Claim> result = new ArrayList<>();
-        for (Claim claim : claims.values()) {
-            if (claim.getOwner().equals(owner)) {
-                result.add(claim);
-            }
-        }
-        return result;
+        return index.getOwned(owner);
     }
 
     /**
@@ -200,6 +197,7 @@ public class ClaimsManager {
             return false;
 
         claim.addTrusted(player);
+        permissionVersion.incrementAndGet();
         saveTrusted(claimId, claim.getTrusted());
         return true;
     }
@@ -213,6 +211,7 @@ public class ClaimsManager {
             return false;
 
         claim.removeTrusted(player);
+        permissionVersion.incrementAndGet();
         saveTrusted(claimId, claim.getTrusted());
         return true;
     }
@@ -221,20 +220,38 @@ public class ClaimsManager {
      * Check if player can build at position
      */
     public boolean canBuild(UUID player, String world, BlockPos pos) {
-        Claim claim = getClaimAt(world, pos);
-        if (claim == null)
-            return true; // No claim = can build
-        return claim.canInteract(player);
+        return checkPermission(player, world, pos);
     }
 
     /**
      * Check if player can interact at position
      */
     public boolean canInteract(UUID player, String world, BlockPos pos) {
+        return checkPermission(player, world, pos);
+    }
+
+    /**
+     * Forget a player's cached claim permission (on logout).
+     */
+    public void clearPermissionCache(UUID player) {
+        permissionCache.remove(player);
+    }
+
+    // Players mostly act inside the claim they were last checked in, so that
+    // claim's bounds and the permission resolved for it are tried first
+    private boolean checkPermission(UUID player, String world, BlockPos pos) {
+        long version = permissionVersion.get();
+        CachedPermission cached = permissionCache.get(player);
+        if (cached != null && cached.version() == version && cached.claim().contains(world, pos)) {
+            return cached.allowed();
+        }
+
         Claim claim = getClaimAt(world, pos);
         if (claim == null)
-            return true; // No claim = can interact
-        return claim.canInteract(player);
+            return true; // No claim = can build and interact
+        boolean allowed = claim.canInteract(player);
+        permissionCache.put(player, new CachedPermission(claim, allowed, version));
+        return allowed;
     }
 
     // Selection management
@@ -264,16 +281,6 @@ public class ClaimsManager {
     }
 
     // Helper methods
-    private boolean claimsOverlap(BlockPos pos1, BlockPos pos2, Claim existing) {
-        int minX = Math.min(pos1.getX(), pos2.getX());
-        int maxX = Math.max(pos1.getX(), pos2.getX());
-        int minZ = Math.min(pos1.getZ(), pos2.getZ());
-        int maxZ = Math.max(pos1.getZ(), pos2.getZ());
-
-        return !(maxX < existing.getX1() || minX > existing.getX2() ||
-                maxZ < existing.getZ1() || minZ > existing.getZ2());
-    }
-
     private Set<UUID> parseTrusted(String json) {
         Set<UUID> trusted = new HashSet<>();
         if (json == null || json.isEmpty() || json.equals("[]"))
@@ -328,4 +335,7 @@ public class ClaimsManager {
     public Claim getClaim(int id) {
         return claims.get(id);
     }
+
+    private record CachedPermission(Claim claim, boolean allowed, long version) {
+    }
 }
@@ -13,10 +13,14 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.state.BlockState;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.config.ProtectionConfig;
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+import network.vonix.vonixcore.consumer.Consumer;
+import network.vonix.vonixcore.database.Database;
+import network.vonix.vonixcore.protection.LogQuery;
+import network.vonix.vonixcore.protection.RollbackManager;
+import network.vonix.vonixcore.protection.RollbackTask;
 
 import java.sql.*;
 import java.util.*;
@@ -29,12 +33,12 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ProtectionCommands {
 
+    private static final String MIGRATING_MESSAGE =
+            "§cLogs are being migrated to the compact schema. Try again when it finishes.";
+
     // Players currently in inspector mode
     private static final Set<UUID> inspectorMode = ConcurrentHashMap.newKeySet();
 
-    // History of rollbacks for undo
-    private static final Map<UUID, Deque<RollbackData>> rollbackHistory = new ConcurrentHashMap<>();
-
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
         // /co command (CoreProtect compatibility)
         dispatcher.register(
@@ -64,10 +68,15 @@ public class ProtectionCommands {
                                 .then(Commands.argument("params", StringArgumentType.greedyString())
                                         .executes(ProtectionCommands::restoreCommand)))
                         .then(Commands.literal("undo").executes(ProtectionCommands::undoCommand))
+                        .then(Commands.literal("cancel").executes(ProtectionCommands::cancelCommand))
+                        .then(Commands.literal("resume").executes(ProtectionCommands::resumeCommand))
                         .then(Commands.literal("purge")
                                 .then(Commands.argument("time", StringArgumentType.string())
                                         .executes(ProtectionCommands::purgeCommand)))
                         .then(Commands.literal("status").executes(ProtectionCommands::statusCommand))
+                        .then(Commands.literal("migrate")
+                                .requires(source -> source.hasPermission(4))
+                                .executes(ProtectionCommands::migrateCommand))
                         .then(Commands.literal("near")
                                 .then(Commands.argument("radius", IntegerArgumentType.integer(1, 100))
                                         .executes(
@@ -95,9 +104,12 @@ public class ProtectionCommands {
         sendSuccess(source, Component.literal("§b/co rollback u:<user> t:<time> r:<radius> §7- Rollback changes"));
         sendSuccess(source, Component.literal("§b/co restore u:<user> t:<time> r:<radius> §7- Restore changes"));
         sendSuccess(source, Component.literal("§b/co undo §7- Undo last rollback/restore"));
+        sendSuccess(source, Component.literal("§b/co cancel §7- Stop your running rollback/restore"));
+        sendSuccess(source, Component.literal("§b/co resume §7- Continue an interrupted rollback/restore"));
         sendSuccess(source, Component.literal("§b/co purge t:<time> §7- Delete old data"));
         sendSuccess(source, Component.literal("§b/co near [radius] §7- Lookup nearby changes"));
         sendSuccess(source, Component.literal("§b/co status §7- Show database status"));
+        sendSuccess(source, Component.literal("§b/co migrate §7- Convert old logs to the compact schema"));
         sendSuccess(source, Component.literal(""));
         sendSuccess(source, Component.literal("§7Parameters:"));
         sendSuccess(source, Component.literal("§7  u:<user> §f- Player name"));
@@ -138,16 +150,14 @@ public class ProtectionCommands {
         String world = player.level().dimension().location().toString();
 
         CompletableFuture.runAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                String sql = "SELECT time, user, type, old_type, new_type, action FROM vp_block " +
-                        "WHERE world = ? AND x = ? AND y = ? AND z = ? " +
-                        "ORDER BY time DESC LIMIT 10";
+            Database database = VonixCore.getInstance().getDatabase();
+            try (Connection conn = database.getConnection()) {
+                List<Object> queryParams = new ArrayList<>();
+                String sql = LogQuery.blockQuery(new LogQuery.BlockFilter(world).at(pos.getX(), pos.getY(), pos.getZ()),
+                        database.isMySQL(), queryParams) + "ORDER BY time DESC LIMIT 10";
 
                 try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setString(1, world);
-                    stmt.setInt(2, pos.getX());
-                    stmt.setInt(3, pos.getY());
-                    stmt.setInt(4, pos.getZ());
+                    LogQuery.bind(stmt, queryParams);
 
                     try (ResultSet rs = stmt.executeQuery()) {
                         List<Component> results = new ArrayList<>();
@@ -221,62 +231,23 @@ public class ProtectionCommands {
 
         // Execute query async
         CompletableFuture.runAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                StringBuilder sql = new StringBuilder(
-                        "SELECT time, user, x, y, z, type, old_type, new_type, action FROM vp_block WHERE world = ? ");
-
-                List<Object> queryParams = new ArrayList<>();
-                queryParams.add(world);
-
-                // Time filter
+            Database database = VonixCore.getInstance().getDatabase();
+            try (Connection conn = database.getConnection()) {
                 long minTime = (System.currentTimeMillis() / 1000L) - parsed.time;
-                sql.append("AND time >= ? ");
-                queryParams.add(minTime);
-
-                // Radius filter
-                sql.append("AND x >= ? AND x <= ? AND y >= ? AND y <= ? AND z >= ? AND z <= ? ");
-                queryParams.add(playerPos.getX() - parsed.radius);
-                queryParams.add(playerPos.getX() + parsed.radius);
-                queryParams.add(playerPos.getY() - parsed.radius);
-                queryParams.add(playerPos.getY() + parsed.radius);
-                queryParams.add(playerPos.getZ() - parsed.radius);
-                queryParams.add(playerPos.getZ() + parsed.radius);
-
-                // User filter
-                if (parsed.user != null && !parsed.user.isEmpty()) {
-                    sql.append("AND user = ? ");
-                    queryParams.add(parsed.user);
-                }
-
-                // Block filter
-                if (parsed.block != null && !parsed.block.isEmpty()) {
-                    sql.append("AND (type LIKE ? OR old_type LIKE ? OR new_type LIKE ?) ");
-                    String blockPattern = "%" + parsed.block + "%";
-                    queryParams.add(blockPattern);
-                    queryParams.add(blockPattern);
-                    queryParams.add(blockPattern);
-                }
-
-                // Action filter
-                if (parsed.action != null) {
-                    sql.append("AND action = ? ");
-                    queryParams.add(parsed.action);
-                }
+                LogQuery.BlockFilter filter = new LogQuery.BlockFilter(world)
+                        .since(minTime)
+                        .radius(playerPos.getX(), playerPos.getY(), playerPos.getZ(), parsed.radius)
+                        .user(parsed.user)
+                        .block(parsed.block)
+                        .action(parsed.action);
 
+                List<Object> queryParams = new ArrayList<>();
+                StringBuilder sql = new StringBuilder(LogQuery.blockQuery(filter, database.isMySQL(), queryParams));
                 sql.append("ORDER BY time DESC LIMIT ?");
                 queryParams.add(maxResults);
 
                 try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
-                    for (int i = 0; i < queryParams.size(); i++) {
-                        Object param = queryParams.get(i);
-                        if (param instanceof String) {
-                            stmt.setString(i + 1, (String) param);
-                        } else if (param instanceof Long) {
-                            stmt.setLong(i + 1, (Long) param);
-                        } else if (param instanceof Integer) {
-                            stmt.setInt(i + 1, (Integer) param);
-                        }
-                    }
+                    LogQuery.bind(stmt, queryParams);
 
                     try (ResultSet rs = stmt.executeQuery()) {
                         List<Component> results = new ArrayList<>();
@@ -377,118 +348,80 @@ public class ProtectionCommands {
         String world = player.level().dimension().location().toString();
         String operation = isRollback ? "rollback" : "restore";
 
-        sendSuccess(ctx.getSource(), Component.literal(String.format("§6[VonixCore] §fStarting %s... (r:%d t:%s)",
-                operation, parsed.radius, formatDuration(parsed.time))));
-
-        // Execute async
-        LookupParams finalParsed = parsed;
-        CompletableFuture.runAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                long minTime = (System.currentTimeMillis() / 1000L) - finalParsed.time;
-
-                StringBuilder sql = new StringBuilder(
-                        "SELECT id, x, y, z, old_type, old_data, new_type, new_data, action FROM vp_block WHERE world = ? AND time >= ? ");
-
-                List<Object> queryParams = new ArrayList<>();
-                queryParams.add(world);
-                queryParams.add(minTime);
-
-                // Radius filter
-                sql.append("AND x >= ? AND x <= ? AND y >= ? AND y <= ? AND z >= ? AND z <= ? ");
-                queryParams.add(playerPos.getX() - finalParsed.radius);
-                queryParams.add(playerPos.getX() + finalParsed.radius);
-                queryParams.add(playerPos.getY() - finalParsed.radius);
-                queryParams.add(playerPos.getY() + finalParsed.radius);
-                queryParams.add(playerPos.getZ() - finalParsed.radius);
-                queryParams.add(playerPos.getZ() + finalParsed.radius);
-
-                // User filter
-                if (finalParsed.user != null && !finalParsed.user.isEmpty()) {
-                    sql.append("AND user = ? ");
-                    queryParams.add(finalParsed.user);
-                }
-
-                // Block filter
-                if (finalParsed.block != null && !finalParsed.block.isEmpty()) {
-                    sql.append("AND (type LIKE ? OR old_type LIKE ? OR new_type LIKE ?) ");
-                    String blockPattern = "%" + finalParsed.block + "%";
-                    queryParams.add(blockPattern);
-                    queryParams.add(blockPattern);
-                    queryParams.add(blockPattern);
-                }
+        if (CompactLogSchema.getInstance().isMigrating()) {
+            ctx.getSource().sendFailure(Component.literal(MIGRATING_MESSAGE));
+            return 0;
+        }
 
-                sql.append("ORDER BY time ");
-                sql.append(isRollback ? "DESC" : "ASC");
+        RollbackTask task = new RollbackTask(player.getUUID(), world, isRollback, playerPos.getX(),
+                playerPos.getY(), playerPos.getZ(), parsed.radius, parsed.user, parsed.block,
+                (System.currentTimeMillis() / 1000L) - parsed.time);
 
-                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
-                    for (int i = 0; i < queryParams.size(); i++) {
-                        Object param = queryParams.get(i);
-                        if (param instanceof String) {
-                            stmt.setString(i + 1, (String) param);
-                        } else if (param instanceof Long) {
-                            stmt.setLong(i + 1, (Long) param);
-                        } else if (param instanceof Integer) {
-                            stmt.setInt(i + 1, (Integer) param);
-                        }
-                    }
+        if (!RollbackManager.getInstance().start(task)) {
+            ctx.getSource().sendFailure(Component.literal(
+                    "§cYou already have a rollback/restore running. Use /co cancel to stop it."));
+            return 0;
+        }
 
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        List<BlockChange> changes = new ArrayList<>();
+        sendSuccess(ctx.getSource(), Component.literal(String.format("§6[VonixCore] §fStarting %s... (r:%d t:%s)",
+                operation, parsed.radius, formatDuration(parsed.time))));
 
-                        while (rs.next()) {
-                            BlockChange change = new BlockChange();
-                            change.id = rs.getLong("id");
-                            change.x = rs.getInt("x");
-                            change.y = rs.getInt("y");
-                            change.z = rs.getInt("z");
-                            change.oldType = rs.getString("old_type");
-                            change.oldData = rs.getString("old_data");
-                            change.newType = rs.getString("new_type");
-                            change.newData = rs.getString("new_data");
-                            change.action = rs.getInt("action");
-                            changes.add(change);
-                        }
+        return 1;
+    }
 
-                        if (changes.isEmpty()) {
-                            player.getServer().execute(() -> player.sendSystemMessage(
-                                    Component.literal("§6[VonixCore] §7No changes to " + operation + ".")));
-                            return;
-                        }
+    private static int cancelCommand(CommandContext<CommandSourceStack> ctx) {
+        ServerPlayer player;
+        try {
+            player = ctx.getSource().getPlayerOrException();
+        } catch (Exception e) {
+            ctx.getSource().sendFailure(Component.literal("§cThis command requires a player."));
+            return 0;
+        }
 
-                        // Apply changes on main thread
-                        player.getServer().execute(() -> {
-                            int modified = 0;
-                            for (BlockChange change : changes) {
-                                BlockPos pos = new BlockPos(change.x, change.y, change.z);
-                                String targetBlock = isRollback ? change.oldType : change.newType;
-
-                                if (targetBlock != null && !targetBlock.isEmpty()) {
-                                    BlockState state = getBlockState(targetBlock);
-                                    if (state != null) {
-                                        player.level().setBlock(pos, state, 3);
-                                        modified++;
-                                    }
-                                }
-                            }
+        if (!RollbackManager.getInstance().cancel(player.getUUID())) {
+            ctx.getSource().sendFailure(Component.literal("§cYou have no rollback/restore running."));
+            return 0;
+        }
+        sendSuccess(ctx.getSource(), Component.literal("§6[VonixCore] §fCancelling..."));
+        return 1;
+    }
 
-                            player.sendSystemMessage(Component.literal(String.format(
-                                    "§6[VonixCore] §f%s complete. §a%d §fblocks modified.",
-                                    isRollback ? "Rollback" : "Restore", modified)));
+    private static int resumeCommand(CommandContext<CommandSourceStack> ctx) {
+        ServerPlayer player;
+        try {
+            player = ctx.getSource().getPlayerOrException();
+        } catch (Exception e) {
+            ctx.getSource().sendFailure(Component.literal("§cThis command requires a player."));
+            return 0;
+        }
 
-                            // Store for undo
-                            RollbackData undoData = new RollbackData();
-                            undoData.changes = changes;
-                            undoData.wasRollback = isRollback;
-                            undoData.world = world;
+        if (CompactLogSchema.getInstance().isMigrating()) {
+            ctx.getSource().sendFailure(Component.literal(MIGRATING_MESSAGE));
+            return 0;
+        }
+        if (RollbackManager.getInstance().getTask(player.getUUID()) != null) {
+            ctx.getSource().sendFailure(Component.literal("§cYou already have a rollback/restore running."));
+            return 0;
+        }
 
-                            rollbackHistory.computeIfAbsent(player.getUUID(), k -> new ArrayDeque<>()).push(undoData);
-                        });
+        CompletableFuture.runAsync(() -> {
+            try {
+                RollbackTask task = RollbackManager.getInstance().loadInterrupted(player.getUUID());
+                player.getServer().execute(() -> {
+                    if (task == null) {
+                        player.sendSystemMessage(Component.literal("§cNo interrupted rollback/restore to resume."));
+                    } else if (!RollbackManager.getInstance().start(task)) {
+                        player.sendSystemMessage(Component.literal("§cYou already have a rollback/restore running."));
+                    } else {
+                        player.sendSystemMessage(Component.literal(String.format(
+                                "§6[VonixCore] §fResuming %s §7(%,d blocks already changed)",
+                                task.isRollback() ? "rollback" : "restore", task.getBlocksChanged())));
                     }
-                }
+                });
             } catch (SQLException e) {
-                VonixCore.LOGGER.error("[Protection] Rollback error: {}", e.getMessage());
+                VonixCore.LOGGER.error("[Protection] Resume error: {}", e.getMessage());
                 player.getServer().execute(
-                        () -> player.sendSystemMessage(Component.literal("§cError executing " + operation + ".")));
+                        () -> player.sendSystemMessage(Component.literal("§cError loading rollback to resume.")));
             }
         });
 
@@ -504,31 +437,34 @@ public class ProtectionCommands {
             return 0;
         }
 
-        Deque<RollbackData> history = rollbackHistory.get(player.getUUID());
-        if (history == null || history.isEmpty()) {
-            ctx.getSource().sendFailure(Component.literal("§cNo rollback/restore to undo."));
+        if (CompactLogSchema.getInstance().isMigrating()) {
+            ctx.getSource().sendFailure(Component.literal(MIGRATING_MESSAGE));
             return 0;
         }
-
-        RollbackData lastOp = history.pop();
-
-        int modified = 0;
-        for (BlockChange change : lastOp.changes) {
-            BlockPos pos = new BlockPos(change.x, change.y, change.z);
-            // Undo = reverse of what we did
-            String targetBlock = lastOp.wasRollback ? change.newType : change.oldType;
-
-            if (targetBlock != null && !targetBlock.isEmpty()) {
-                BlockState state = getBlockState(targetBlock);
-                if (state != null) {
-                    player.level().setBlock(pos, state, 3);
-                    modified++;
-                }
-            }
+        if (RollbackManager.getInstance().getTask(player.getUUID()) != null) {
+            ctx.getSource().sendFailure(Component.literal("§cYou already have a rollback/restore running."));
+            return 0;
         }
 
-        sendSuccess(ctx.getSource(), Component.literal(String.format(
-                "§6[VonixCore] §fUndo complete. §a%d §fblocks restored.", modified)));
+        CompletableFuture.runAsync(() -> {
+            try {
+                RollbackTask task = RollbackManager.getInstance().loadUndo(player.getUUID());
+                player.getServer().execute(() -> {
+                    if (task == null) {
+                        player.sendSystemMessage(Component.literal("§cNo rollback/restore to undo."));
+                    } else if (!RollbackManager.getInstance().start(task)) {
+                        player.sendSystemMessage(Component.literal("§cYou already have a rollback/restore running."));
+                    } else {
+                        player.sendSystemMessage(Component.literal(String.format(
+                                "§6[VonixCore] §fUndoing last %s...", task.isRollback() ? "restore" : "rollback")));
+                    }
+                });
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[Protection] Undo error: {}", e.getMessage());
+                player.getServer().execute(
+                        () -> player.sendSystemMessage(Component.literal("§cError loading rollback to undo.")));
+            }
+        });
 
         return 1;
     }
@@ -555,16 +491,18 @@ public class ProtectionCommands {
             try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
                 int deleted = 0;
 
-                // Purge block logs
-                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM vp_block WHERE time < ?")) {
-                    stmt.setLong(1, cutoff);
-                    deleted += stmt.executeUpdate();
+                List<String> tables = new ArrayList<>(List.of("vp_block", "vp_container"));
+                if (CompactLogSchema.isPresent()) {
+                    tables.add(CompactLogSchema.BLOCK_TABLE);
+                    tables.add(CompactLogSchema.CONTAINER_TABLE);
                 }
 
-                // Purge container logs
-                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM vp_container WHERE time < ?")) {
-                    stmt.setLong(1, cutoff);
-                    deleted += stmt.executeUpdate();
+                // Purge block and container logs
+                for (String table : tables) {
+                    try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + table + " WHERE time < ?")) {
+                        stmt.setLong(1, cutoff);
+                        deleted += stmt.executeUpdate();
+                    }
                 }
 
                 int finalDeleted = deleted;
@@ -581,6 +519,46 @@ public class ProtectionCommands {
         return 1;
     }
 
+    private static int migrateCommand(CommandContext<CommandSourceStack> ctx) {
+        if (!CompactLogSchema.isEnabled()) {
+            ctx.getSource().sendFailure(Component.literal(
+                    "§cEnable storage.compact_schema in vonixcore-protection.toml and restart first."));
+            return 0;
+        }
+        if (CompactLogSchema.getInstance().isMigrating()) {
+            ctx.getSource().sendFailure(Component.literal("§cA migration is already running."));
+            return 0;
+        }
+
+        sendSuccess(ctx.getSource(), Component.literal("§6[VonixCore] §fMigrating logs to the compact schema..."));
+
+        CompletableFuture.runAsync(() -> {
+            long[] lastReport = { System.currentTimeMillis() };
+            try {
+                long moved = CompactLogSchema.getInstance().migrate((table, rows) -> {
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport[0] >= 5000) {
+                        lastReport[0] = now;
+                        ctx.getSource().getServer().execute(() -> sendSuccess(ctx.getSource(), Component.literal(
+                                String.format("§6[VonixCore] §7%s: §f%,d §7rows migrated...", table, rows))));
+                    }
+                });
+                ctx.getSource().getServer().execute(() -> sendSuccess(ctx.getSource(), Component.literal(
+                        String.format("§6[VonixCore] §fMigration complete. §a%,d §frows converted.",
+                                Math.max(0, moved)))));
+            } catch (IllegalStateException e) {
+                ctx.getSource().getServer().execute(() -> ctx.getSource().sendFailure(Component.literal(
+                        "§cCannot migrate yet: " + e.getMessage() + ".")));
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[Protection] Migration error: {}", e.getMessage());
+                ctx.getSource().getServer().execute(() -> ctx.getSource().sendFailure(Component.literal(
+                        "§cMigration stopped: " + e.getMessage() + ". Run /co migrate again to resume.")));
+            }
+        });
+
+        return 1;
+    }
+
     private static int statusCommand(CommandContext<CommandSourceStack> ctx) {
         CompletableFuture.runAsync(() -> {
             try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
@@ -588,11 +566,13 @@ public class ProtectionCommands {
                 long containerCount = 0;
 
                 try (Statement stmt = conn.createStatement()) {
-                    try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM vp_block")) {
+                    try (ResultSet rs = stmt.executeQuery(
+                            "SELECT COUNT(*) FROM " + CompactLogSchema.blockSource())) {
                         if (rs.next())
                             blockCount = rs.getLong(1);
                     }
-                    try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM vp_container")) {
+                    try (ResultSet rs = stmt.executeQuery(
+                            "SELECT COUNT(*) FROM " + CompactLogSchema.containerSource())) {
                         if (rs.next())
                             containerCount = rs.getLong(1);
                     }
@@ -600,6 +580,7 @@ public class ProtectionCommands {
 
                 long finalBlockCount = blockCount;
                 long finalContainerCount = containerCount;
+                Consumer consumer = Consumer.getInstance();
                 ctx.getSource().getServer().execute(() -> {
                     sendSuccess(ctx.getSource(), Component.literal("§6§l=== VonixCore Protection Status ==="));
                     sendSuccess(ctx.getSource(),
@@ -607,7 +588,19 @@ public class ProtectionCommands {
                     sendSuccess(ctx.getSource(),
                             Component.literal(String.format("§7Container logs: §f%,d", finalContainerCount)));
                     sendSuccess(ctx.getSource(), Component.literal(String.format("§7Queue size: §f%d",
-                            network.vonix.vonixcore.consumer.Consumer.getInstance().getQueueSize())));
+                            consumer.getQueueSize())));
+                    sendSuccess(ctx.getSource(), Component.literal(String.format(
+                            "§7Spilled to disk: §f%,d §7pending §7(§f%,d §7total, §f%,d §7from a full buffer)%s",
+                            consumer.getSpillPendingRows(), consumer.getRowsSpilled(),
+                            consumer.getRowsSpilledByProducers(),
+                            consumer.isDatabaseAvailable() ? "" : " §c[database unavailable]")));
+                    sendSuccess(ctx.getSource(), Component.literal(String.format(
+                            "§7Rows written: §f%,d §7(§c%,d §7failed) in §f%,d §7statements",
+                            consumer.getRowsWritten(), consumer.getRowsFailed(), consumer.getStatementsExecuted())));
+                    sendSuccess(ctx.getSource(), Component.literal(String.format(
+                            "§7Throughput: §f%,.0f §7rows/s, last flush §f%d §7rows in §f%dms",
+                            consumer.getRowsPerSecond(), consumer.getLastFlushRows(),
+                            consumer.getLastFlushMillis())));
                 });
 
             } catch (SQLException e) {
@@ -725,18 +718,6 @@ public class ProtectionCommands {
         return name.substring(0, 1).toUpperCase() + name.substring(1);
     }
 
-    private static BlockState getBlockState(String blockId) {
-        if (blockId == null || blockId.isEmpty())
-            return Blocks.AIR.defaultBlockState();
-
-        try {
-            net.minecraft.resources.ResourceLocation loc = new net.minecraft.resources.ResourceLocation(blockId);
-            return net.minecraftforge.registries.ForgeRegistries.BLOCKS.getValue(loc).defaultBlockState();
-        } catch (Exception e) {
-            return Blocks.AIR.defaultBlockState();
-        }
-    }
-
     // Data classes
 
     private static class LookupParams {
@@ -747,17 +728,4 @@ public class ProtectionCommands {
         Integer action;
         String exclude;
     }
-
-    private static class BlockChange {
-        long id;
-        int x, y, z;
-        String oldType, oldData, newType, newData;
-        int action;
-    }
-
-    private static class RollbackData {
-        List<BlockChange> changes;
-        boolean wasRollback;
-        String world;
-    }
 }
@@ -691,6 +691,14 @@ public class UtilityCommands {
         return 1;
     }
 
+    /**
+     * Check if a player is ignoring another.
+     */
+    public static boolean isIgnoring(UUID player, UUID target) {
+        Set<UUID> ignored = ignoreList.get(player);
+        return ignored != null && ignored.contains(target);
+    }
+
     // === ITEM COMMANDS ===
 
     private static int wearHat(CommandContext<CommandSourceStack> ctx) {
@@ -5,6 +5,8 @@ import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.arguments.EntityArgument;
@@ -15,6 +17,7 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.admin.AdminManager;
+import network.vonix.vonixcore.chat.ChatPipeline;
 import network.vonix.vonixcore.economy.EconomyManager;
 import network.vonix.vonixcore.homes.HomeManager;
 import network.vonix.vonixcore.kits.KitManager;
@@ -22,6 +25,7 @@ import network.vonix.vonixcore.teleport.TeleportManager;
 import network.vonix.vonixcore.warps.WarpManager;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Comprehensive command registration for all VonixCore features.
@@ -121,6 +125,8 @@ public class VonixCoreCommands {
                 (VonixCore.getInstance().isProtectionEnabled() ? "§aEnabled" : "§cDisabled")), false);
         ctx.getSource().sendSuccess(() -> Component.literal("§7- Essentials: " +
                 (VonixCore.getInstance().isEssentialsEnabled() ? "§aEnabled" : "§cDisabled")), false);
+        ctx.getSource().sendSuccess(() -> Component.literal("§7- Chat: §f" +
+                ChatPipeline.getInstance().getStats()), false);
         return 1;
     }
 
@@ -161,13 +167,16 @@ public class VonixCoreCommands {
         if (player == null)
             return 0;
 
-        if (HomeManager.getInstance().setHome(player, name)) {
-            player.sendSystemMessage(Component.literal("§a[VC] Home '" + name + "' set!"));
-            return 1;
-        } else {
-            player.sendSystemMessage(Component.literal("§c[VC] You've reached your home limit!"));
-            return 0;
-        }
+        HomeManager.getInstance().setHome(player, name).whenCompleteAsync((set, error) -> {
+            if (error != null) {
+                player.sendSystemMessage(Component.literal("§c[VC] Failed to set home, try again later."));
+            } else if (set) {
+                player.sendSystemMessage(Component.literal("§a[VC] Home '" + name + "' set!"));
+            } else {
+                player.sendSystemMessage(Component.literal("§c[VC] You've reached your home limit!"));
+            }
+        }, ctx.getSource().getServer());
+        return 1;
     }
 
     private static int teleportHome(CommandContext<CommandSourceStack> ctx, String name) {
@@ -175,23 +184,32 @@ public class VonixCoreCommands {
         if (player == null)
             return 0;
 
-        var home = HomeManager.getInstance().getHome(player.getUUID(), name);
-        if (home == null) {
-            player.sendSystemMessage(Component.literal("§c[VC] Home '" + name + "' not found!"));
-            return 0;
-        }
-
         var server = ctx.getSource().getServer();
-        for (var level : server.getAllLevels()) {
-            if (level.dimension().location().toString().equals(home.world())) {
-                TeleportManager.getInstance().teleportPlayer(player, level, home.x(), home.y(), home.z(), home.yaw(),
-                        home.pitch());
-                player.sendSystemMessage(Component.literal("§a[VC] Teleported to home '" + name + "'!"));
-                return 1;
+        // Homes are usually in memory already; the teleport itself runs on the server thread
+        HomeManager.getInstance().getHome(player.getUUID(), name).whenCompleteAsync((home, error) -> {
+            if (error != null) {
+                player.sendSystemMessage(Component.literal("§c[VC] Failed to load homes, try again later."));
+                return;
             }
-        }
-        player.sendSystemMessage(Component.literal("§c[VC] World not found!"));
-        return 0;
+            if (home == null) {
+                player.sendSystemMessage(Component.literal("§c[VC] Home '" + name + "' not found!"));
+                return;
+            }
+            if (player.isRemoved()) {
+                return;
+            }
+
+            for (var level : server.getAllLevels()) {
+                if (level.dimension().location().toString().equals(home.world())) {
+                    TeleportManager.getInstance().teleportPlayer(player, level, home.x(), home.y(), home.z(),
+                            home.yaw(), home.pitch());
+                    player.sendSystemMessage(Component.literal("§a[VC] Teleported to home '" + name + "'!"));
+                    return;
+                }
+            }
+            player.sendSystemMessage(Component.literal("§c[VC] World not found!"));
+        }, server);
+        return 1;
     }
 
     private static int deleteHome(CommandContext<CommandSourceStack> ctx, String name) {
@@ -199,12 +217,16 @@ public class VonixCoreCommands {
         if (player == null)
             return 0;
 
-        if (HomeManager.getInstance().deleteHome(player.getUUID(), name)) {
-            player.sendSystemMessage(Component.literal("§a[VC] Home '" + name + "' deleted!"));
-            return 1;
-        }
-        player.sendSystemMessage(Component.literal("§c[VC] Home not found!"));
-        return 0;
+        HomeManager.getInstance().deleteHome(player.getUUID(), name).whenCompleteAsync((deleted, error) -> {
+            if (error != null) {
+                player.sendSystemMessage(Component.literal("§c[VC] Failed to delete home, try again later."));
+            } else if (deleted) {
+                player.sendSystemMessage(Component.literal("§a[VC] Home '" + name + "' deleted!"));
+            } else {
+                player.sendSystemMessage(Component.literal("§c[VC] Home not found!"));
+            }
+        }, ctx.getSource().getServer());
+        return 1;
     }
 
     private static int listHomes(CommandContext<CommandSourceStack> ctx) {
@@ -212,13 +234,16 @@ public class VonixCoreCommands {
         if (player == null)
             return 0;
 
-        var homes = HomeManager.getInstance().getHomes(player.getUUID());
-        if (homes.isEmpty()) {
-            player.sendSystemMessage(Component.literal("§7[VC] You have no homes set."));
-        } else {
-            player.sendSystemMessage(Component.literal("§6[VC] Your homes: §e" +
-                    String.join(", ", homes.stream().map(h -> h.name()).toList())));
-        }
+        HomeManager.getInstance().getHomes(player.getUUID()).whenCompleteAsync((homes, error) -> {
+            if (error != null) {
+                player.sendSystemMessage(Component.literal("§c[VC] Failed to load homes, try again later."));
+            } else if (homes.isEmpty()) {
+                player.sendSystemMessage(Component.literal("§7[VC] You have no homes set."));
+            } else {
+                player.sendSystemMessage(Component.literal("§6[VC] Your homes: §e" +
+                        String.join(", ", homes.stream().map(h -> h.name()).toList())));
+            }
+        }, ctx.getSource().getServer());
         return 1;
     }
 
@@ -227,6 +252,7 @@ public class VonixCoreCommands {
     private static void registerWarpCommands(CommandDispatcher<CommandSourceStack> dispatcher) {
         dispatcher.register(Commands.literal("warp")
                 .then(Commands.argument("name", StringArgumentType.word())
+                        .suggests(VonixCoreCommands::suggestWarps)
                         .executes(ctx -> teleportWarp(ctx, StringArgumentType.getString(ctx, "name"))))
                 .executes(VonixCoreCommands::listWarps));
 
@@ -238,11 +264,18 @@ public class VonixCoreCommands {
         dispatcher.register(Commands.literal("delwarp")
                 .requires(src -> src.hasPermission(3))
                 .then(Commands.argument("name", StringArgumentType.word())
+                        .suggests(VonixCoreCommands::suggestWarps)
                         .executes(ctx -> deleteWarp(ctx, StringArgumentType.getString(ctx, "name")))));
 
         dispatcher.register(Commands.literal("warps").executes(VonixCoreCommands::listWarps));
     }
 
+    private static CompletableFuture<Suggestions> suggestWarps(CommandContext<CommandSourceStack> ctx,
+            SuggestionsBuilder builder) {
+        WarpManager.getInstance().getWarpNames(builder.getRemaining()).forEach(builder::suggest);
+        return builder.buildFuture();
+    }
+
     private static int setWarp(CommandContext<CommandSourceStack> ctx, String name) {
         ServerPlayer player = ctx.getSource().getPlayer();
         if (player == null)
@@ -439,7 +472,9 @@ public class VonixCoreCommands {
                                 .executes(VonixCoreCommands::payCommand))));
 
         dispatcher.register(Commands.literal("baltop")
-                .executes(VonixCoreCommands::baltopCommand));
+                .executes(ctx -> baltopCommand(ctx, 1))
+                .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                        .executes(ctx -> baltopCommand(ctx, IntegerArgumentType.getInteger(ctx, "page")))));
 
         dispatcher.register(Commands.literal("eco")
                 .requires(src -> src.hasPermission(4))
@@ -477,23 +512,29 @@ public class VonixCoreCommands {
         if (sender == null)
             return 0;
 
-        EconomyManager.getInstance().transfer(sender.getUUID(), target.getUUID(), amount).thenAccept(success -> {
-            if (success) {
-                sender.sendSystemMessage(Component.literal("§a[VC] Sent " + EconomyManager.getInstance().format(amount)
-                        + " to " + target.getName().getString()));
-                target.sendSystemMessage(Component.literal("§a[VC] Received " + EconomyManager.getInstance().format(amount)
-                        + " from " + sender.getName().getString()));
-            } else {
-                sender.sendSystemMessage(Component.literal("§c[VC] Insufficient funds!"));
+        long cents = EconomyManager.toCents(amount);
+        EconomyManager.getInstance().transferMinor(sender.getUUID(), target.getUUID(), cents).thenAccept(result -> {
+            switch (result) {
+                case SUCCESS -> {
+                    sender.sendSystemMessage(Component.literal("§a[VC] Sent " + EconomyManager.getInstance().format(amount)
+                            + " to " + target.getName().getString()));
+                    target.sendSystemMessage(Component.literal("§a[VC] Received " + EconomyManager.getInstance().format(amount)
+                            + " from " + sender.getName().getString()));
+                }
+                case INSUFFICIENT_FUNDS -> sender.sendSystemMessage(Component.literal("§c[VC] Insufficient funds!"));
+                case SAME_ACCOUNT -> sender.sendSystemMessage(Component.literal("§c[VC] You cannot pay yourself!"));
+                case INVALID_AMOUNT -> sender.sendSystemMessage(Component.literal("§c[VC] Invalid amount!"));
+                default -> sender.sendSystemMessage(Component.literal("§c[VC] Payment failed, try again later."));
             }
         });
         return 1;
     }
 
-    private static int baltopCommand(CommandContext<CommandSourceStack> ctx) {
-        EconomyManager.getInstance().getTopBalances(10).thenAccept(top -> {
+    private static int baltopCommand(CommandContext<CommandSourceStack> ctx, int page) {
+        EconomyManager eco = EconomyManager.getInstance();
+        eco.getBalancePage(page, 10).thenAccept(top -> {
             ctx.getSource().sendSuccess(() -> Component.literal("§6§l----- Balance Top -----"), false);
-            int rank = 1;
+            int rank = (page - 1) * 10 + 1;
             for (var entry : top) {
                 int r = rank++;
                 var player = ctx.getSource().getServer().getPlayerList().getPlayer(entry.uuid());
@@ -501,6 +542,12 @@ public class VonixCoreCommands {
                 ctx.getSource().sendSuccess(() -> Component.literal("§e" + r + ". §f" + name + " §7- §a" +
                         EconomyManager.getInstance().format(entry.balance())), false);
             }
+            ServerPlayer self = ctx.getSource().getPlayer();
+            int ownRank = self != null ? eco.getRank(self.getUUID()) : 0;
+            if (ownRank > 0) {
+                ctx.getSource().sendSuccess(() -> Component.literal(String.format("§7Your rank: §e#%d §7of %d",
+                        ownRank, eco.getAccountCount())), false);
+            }
         });
         return 1;
     }
@@ -553,19 +600,21 @@ public class VonixCoreCommands {
         if (player == null)
             return 0;
 
-        var result = KitManager.getInstance().giveKit(player, name);
-        switch (result) {
-            case SUCCESS -> player.sendSystemMessage(Component.literal("§a[VC] Kit '" + name + "' received!"));
-            case NOT_FOUND -> player.sendSystemMessage(Component.literal("§c[VC] Kit not found!"));
-            case ON_COOLDOWN -> {
-                int remaining = KitManager.getInstance().getRemainingCooldown(player.getUUID(), name);
-                player.sendSystemMessage(
-                        Component.literal("§c[VC] Kit on cooldown! " + formatTime(remaining) + " remaining."));
+        KitManager.getInstance().giveKit(player, name).whenCompleteAsync((claim, error) -> {
+            if (error != null) {
+                player.sendSystemMessage(Component.literal("§c[VC] Failed to load your kits, try again later."));
+                return;
             }
-            case ALREADY_CLAIMED ->
-                player.sendSystemMessage(Component.literal("§c[VC] You've already claimed this one-time kit!"));
-        }
-        return result == KitManager.KitResult.SUCCESS ? 1 : 0;
+            switch (claim.result()) {
+                case SUCCESS -> player.sendSystemMessage(Component.literal("§a[VC] Kit '" + name + "' received!"));
+                case NOT_FOUND -> player.sendSystemMessage(Component.literal("§c[VC] Kit not found!"));
+                case ON_COOLDOWN -> player.sendSystemMessage(Component.literal(
+                        "§c[VC] Kit on cooldown! " + formatTime(claim.remainingSeconds()) + " remaining."));
+                case ALREADY_CLAIMED ->
+                    player.sendSystemMessage(Component.literal("§c[VC] You've already claimed this one-time kit!"));
+            }
+        }, player.getServer());
+        return 1;
     }
 
     private static int listKits(CommandContext<CommandSourceStack> ctx) {
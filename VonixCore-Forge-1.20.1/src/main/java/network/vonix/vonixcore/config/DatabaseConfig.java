@@ -58,7 +58,10 @@ public class DatabaseConfig {
         // Performance settings
         public final ForgeConfigSpec.IntValue consumerBatchSize;
         public final ForgeConfigSpec.IntValue consumerDelayMs;
+        public final ForgeConfigSpec.IntValue consumerQueueCapacity;
         public final ForgeConfigSpec.IntValue dataPurgeDays;
+        public final ForgeConfigSpec.IntValue punishmentSyncInterval;
+        public final ForgeConfigSpec.IntValue warpSyncInterval;
 
         static {
                 Pair<DatabaseConfig, ForgeConfigSpec> pair = new ForgeConfigSpec.Builder()
@@ -208,11 +211,27 @@ public class DatabaseConfig {
                                 "Delay between batch writes (ms)")
                                 .defineInRange("batch_delay_ms", 500, 100, 5000);
 
+                consumerQueueCapacity = builder.comment(
+                                "Maximum log entries buffered in memory (rounded up to a power of two)",
+                                "Overflow and rows written while the database is down are spilled to",
+                                "world/vonixcore/consumer-spill and replayed once it recovers")
+                                .defineInRange("queue_capacity", 65536, 1024, 1048576);
+
                 dataPurgeDays = builder.comment(
                                 "Auto-purge data older than X days",
                                 "0 = never purge")
                                 .defineInRange("purge_days", 30, 0, 365);
 
+                punishmentSyncInterval = builder.comment(
+                                "Seconds between checks for bans and mutes changed by other servers",
+                                "sharing this database. 0 = off (single server)")
+                                .defineInRange("punishment_sync_seconds", 0, 0, 3600);
+
+                warpSyncInterval = builder.comment(
+                                "Seconds between checks for warps changed by other servers",
+                                "sharing this database. 0 = off (single server)")
+                                .defineInRange("warp_sync_seconds", 0, 0, 3600);
+
                 builder.pop();
         }
 }
@@ -48,6 +48,7 @@ public class EssentialsConfig {
 
         // Economy settings
         public final ForgeConfigSpec.DoubleValue startingBalance;
+        public final ForgeConfigSpec.IntValue balanceFlushInterval;
 
         // Kits settings
         public final ForgeConfigSpec.IntValue defaultKitCooldown;
@@ -168,6 +169,11 @@ public class EssentialsConfig {
                                 "Starting balance for new players")
                                 .defineInRange("starting_balance", 100.0, 0.0, 1000000.0);
 
+                balanceFlushInterval = builder.comment(
+                                "Seconds between batched balance writes to the database.",
+                                "Changes in between are kept in memory and journaled to disk.")
+                                .defineInRange("balance_flush_interval", 5, 1, 300);
+
                 builder.pop().comment(
                                 "Kits Settings",
                                 "Configure the kit system")
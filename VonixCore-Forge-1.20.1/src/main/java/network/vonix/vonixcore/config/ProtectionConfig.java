@@ -32,6 +32,10 @@ public class ProtectionConfig {
     public final ForgeConfigSpec.IntValue maxRadius;
     public final ForgeConfigSpec.IntValue defaultTime;
     public final ForgeConfigSpec.IntValue maxLookupResults;
+    public final ForgeConfigSpec.IntValue rollbackTickBudget;
+
+    // Storage settings
+    public final ForgeConfigSpec.BooleanValue compactSchema;
 
     static {
         Pair<ProtectionConfig, ForgeConfigSpec> pair = new ForgeConfigSpec.Builder()
@@ -120,6 +124,23 @@ public class ProtectionConfig {
                 "Prevent performance issues from very large queries")
                 .defineInRange("max_lookup_results", 1000, 100, 10000);
 
+        rollbackTickBudget = builder.comment(
+                "Milliseconds per server tick spent applying rollback/restore changes",
+                "Higher values finish large rollbacks sooner at the cost of TPS")
+                .defineInRange("tick_budget_ms", 10, 1, 45);
+
+        builder.pop().comment(
+                "Storage Settings",
+                "Configure how block and container logs are stored")
+                .push("storage");
+
+        compactSchema = builder.comment(
+                "Store block and container logs in a compact, dictionary-encoded form",
+                "Players, worlds and block/item ids are stored once and referenced by id",
+                "Run /co migrate afterwards to convert existing rows",
+                "Do not disable again once compact rows have been written, they would no longer be visible")
+                .define("compact_schema", false);
+
         builder.pop();
     }
 }
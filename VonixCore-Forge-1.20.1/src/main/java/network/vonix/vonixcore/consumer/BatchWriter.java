@@ -0,0 +1,129 @@
+package network.vonix.vonixcore.consumer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes a group of same-table queue entries through a single prepared
+ * statement.
+ * SQLite uses plain JDBC batching; MySQL and PostgreSQL additionally pack
+ * rows into multi-row VALUES statements to cut round trips.
+ */
+final class BatchWriter {
+
+    /** Rows packed into one multi-row INSERT (keeps well below driver parameter limits). */
+    static final int MULTI_ROW_LIMIT = 100;
+
+    // INSERT statements keyed by "table#column,names#rows", built once and reused across flushes
+    private static final Map<String, String> SQL_CACHE = new ConcurrentHashMap<>();
+
+    private BatchWriter() {
+    }
+
+    /**
+     * Build (or fetch from cache) the INSERT statement for a number of rows.
+     */
+    static String insertSql(Consumer.BatchableEntry entry, int rows) {
+        return SQL_CACHE.computeIfAbsent(entry.getTable() + '#' + String.join(",", entry.getColumns()) + '#' + rows,
+                key -> buildInsertSql(entry.getTable(), entry.getColumns(), rows));
+    }
+
+    /**
+     * Write all rows of one table.
+     *
+     * @param conn     Connection with auto-commit disabled
+     * @param rows     Entries that all target the same table
+     * @param multiRow Whether to use multi-row VALUES statements
+     * @return Number of statements sent to the database
+     */
+    static int write(Connection conn, List<Consumer.BatchableEntry> rows, boolean multiRow) throws SQLException {
+        Consumer.BatchableEntry first = rows.get(0);
+
+        if (!multiRow || rows.size() == 1) {
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql(first, 1))) {
+                for (Consumer.BatchableEntry row : rows) {
+                    bind(stmt, 0, row.getValues());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            return 1;
+        }
+
+        int columns = first.getColumns().length;
+        int perStatement = Math.min(MULTI_ROW_LIMIT, rows.size());
+        int fullStatements = rows.size() / perStatement;
+        int index = 0;
+        int statements = 0;
+
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql(first, perStatement))) {
+            for (int s = 0; s < fullStatements; s++) {
+                for (int r = 0; r < perStatement; r++) {
+                    bind(stmt, r * columns, rows.get(index++).getValues());
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            statements++;
+        }
+
+        int remaining = rows.size() - index;
+        if (remaining > 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql(first, remaining))) {
+                for (int r = 0; r < remaining; r++) {
+                    bind(stmt, r * columns, rows.get(index++).getValues());
+                }
+                stmt.executeUpdate();
+                statements++;
+            }
+        }
+
+        return statements;
+    }
+
+    /**
+     * Bind one row's values starting after {@code offset} parameters.
+     */
+    static void bind(PreparedStatement stmt, int offset, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            int index = offset + i + 1;
+            if (value == null) {
+                stmt.setNull(index, Types.NULL);
+            } else if (value instanceof Long l) {
+                stmt.setLong(index, l);
+            } else if (value instanceof Integer n) {
+                stmt.setInt(index, n);
+            } else if (value instanceof Double d) {
+                stmt.setDouble(index, d);
+            } else {
+                stmt.setString(index, value.toString());
+            }
+        }
+    }
+
+    private static String buildInsertSql(String table, String[] columns, int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        sql.append(String.join(", ", columns)).append(") VALUES ");
+
+        StringBuilder placeholders = new StringBuilder("(");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0)
+                placeholders.append(", ");
+            placeholders.append('?');
+        }
+        placeholders.append(')');
+
+        for (int r = 0; r < rows; r++) {
+            if (r > 0)
+                sql.append(", ");
+            sql.append(placeholders);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package network.vonix.vonixcore.consumer;
+
+import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.database.Database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chunk key column for the block log.
+ * Every block row carries its chunk packed into one BIGINT (ChunkPos.asLong
+ * layout), indexed together with world and time. Radius lookups turn into a
+ * short IN-list of chunk keys, each resolved by an index range scan on time,
+ * instead of a range scan over the whole x column.
+ *
+ * Rows logged before the column existed are filled in once in the
+ * background; until that finishes lookups fall back to plain coordinate
+ * ranges.
+ */
+public final class ChunkIndex {
+
+    /** Largest IN-list the planner will build; larger areas use coordinate ranges. */
+    public static final int MAX_CHUNK_KEYS = 256;
+
+    private static final int BACKFILL_BATCH = 10000;
+    private static final String MARKER_FILE = "chunk-index.done";
+
+    private static volatile boolean ready = false;
+
+    private ChunkIndex() {
+    }
+
+    /**
+     * Chunk key of a block position (ChunkPos.asLong layout).
+     */
+    public static long chunkKey(int x, int z) {
+        return ((long) (z >> 4) << 32) | ((x >> 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * All chunk keys overlapping a block-coordinate rectangle.
+     *
+     * @return The keys, or null if there are more than {@link #MAX_CHUNK_KEYS}
+     */
+    public static List<Long> chunkKeys(int minX, int minZ, int maxX, int maxZ) {
+        int minChunkX = minX >> 4, maxChunkX = maxX >> 4;
+        int minChunkZ = minZ >> 4, maxChunkZ = maxZ >> 4;
+        long count = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        if (count > MAX_CHUNK_KEYS) {
+            return null;
+        }
+
+        List<Long> keys = new ArrayList<>((int) count);
+        for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                keys.add(((long) cz << 32) | (cx & 0xFFFFFFFFL));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return True once every block row has a chunk key, so chunk predicates
+     *         are safe to use
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add the chunk column and index to the legacy block table.
+     */
+    public static void createSchema(Statement stmt) {
+        executeIgnoreError(stmt, "ALTER TABLE vp_block ADD COLUMN chunk BIGINT");
+        executeIgnoreError(stmt, "CREATE INDEX IF NOT EXISTS idx_block_chunk ON vp_block (world, chunk, time)");
+    }
+
+    /**
+     * Fill in chunk keys for rows logged before the column existed. Runs in
+     * id-range batches off the main thread and marks the index ready when done.
+     */
+    public static void startBackfill(Database database) {
+        File marker = new File(database.getDataFolder(), MARKER_FILE);
+        if (marker.exists()) {
+            ready = true;
+            return;
+        }
+
+        VonixCore.executeAsync(() -> {
+            try (Connection conn = database.getConnection()) {
+                long filled = backfill(conn, "vp_block", chunkSql(database, "x", "z"));
+                if (CompactLogSchema.isPresent()) {
+                    boolean mysql = database.isMySQL();
+                    filled += backfill(conn, CompactLogSchema.BLOCK_TABLE, chunkSql(database,
+                            CompactLogSchema.unpackXSql("pos", mysql), CompactLogSchema.unpackZSql("pos", mysql)));
+                }
+
+                ready = true;
+                if (!marker.createNewFile()) {
+                    VonixCore.LOGGER.warn("[vonixcore] Could not write {}", marker.getName());
+                }
+                if (filled > 0) {
+                    VonixCore.LOGGER.info("[vonixcore] Chunk index backfill complete ({} rows)", filled);
+                }
+            } catch (SQLException | IOException e) {
+                VonixCore.LOGGER.error("[vonixcore] Chunk index backfill failed, lookups use coordinate ranges: {}",
+                        e.getMessage());
+            }
+        });
+    }
+
+    private static long backfill(Connection conn, String table, String chunkExpr) throws SQLException {
+        long minId;
+        long maxId;
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MIN(id), MAX(id) FROM " + table + " WHERE chunk IS NULL")) {
+            if (!rs.next() || rs.getObject(1) == null) {
+                return 0;
+            }
+            minId = rs.getLong(1);
+            maxId = rs.getLong(2);
+        }
+
+        VonixCore.LOGGER.info("[vonixcore] Backfilling chunk keys for {} (ids {} to {})", table, minId, maxId);
+        long filled = 0;
+        String sql = "UPDATE " + table + " SET chunk = " + chunkExpr + " WHERE id >= ? AND id < ? AND chunk IS NULL";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (long start = minId; start <= maxId; start += BACKFILL_BATCH) {
+                stmt.setLong(1, start);
+                stmt.setLong(2, start + BACKFILL_BATCH);
+                filled += stmt.executeUpdate();
+            }
+        }
+        return filled;
+    }
+
+    // Same value as chunkKey(); floor division, and the chunk x kept as unsigned 32 bits
+    private static String chunkSql(Database database, String x, String z) {
+        String chunkX = database.isMySQL() ? "FLOOR((" + x + ") / 16)" : "((" + x + ") >> 4)";
+        String chunkZ = database.isMySQL() ? "FLOOR((" + z + ") / 16)" : "((" + z + ") >> 4)";
+        return chunkZ + " * 4294967296 + (CASE WHEN " + chunkX + " < 0 THEN " + chunkX + " + 4294967296 ELSE "
+                + chunkX + " END)";
+    }
+
+    private static void executeIgnoreError(Statement stmt, String sql) {
+        try {
+            stmt.execute(sql);
+        } catch (SQLException ignored) {
+            // Column or index may already exist
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package network.vonix.vonixcore.consumer;
+
+import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.config.ProtectionConfig;
+import network.vonix.vonixcore.database.Database;
+import network.vonix.vonixcore.protection.RollbackManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Opt-in compact storage for the block and container logs.
+ * Instead of repeating player names, world names and registry ids as text on
+ * every row, compact rows store small integer ids interned into dictionary
+ * tables (vp_user, vp_world, vp_material) and the position packed into a
+ * single BIGINT with the same layout as BlockPos.asLong.
+ *
+ * Readers go through vp_block_view / vp_container_view, which decode compact
+ * rows and union them with any rows still in the legacy tables, so lookups
+ * keep working while /co migrate moves old data over. Both halves number their
+ * ids from 1, so a row is identified by (compact, id). Filtered block lookups
+ * use {@link network.vonix.vonixcore.protection.LogQuery} instead of the view,
+ * which filters each half against its own indexed columns.
+ */
+public final class CompactLogSchema {
+
+    public static final String BLOCK_TABLE = "vp_block_compact";
+    public static final String CONTAINER_TABLE = "vp_container_compact";
+    public static final String BLOCK_VIEW = "vp_block_view";
+    public static final String CONTAINER_VIEW = "vp_container_view";
+
+    /** Legacy half of the block union, with the same columns as the compact half. Alias l is vp_block. */
+    public static final String LEGACY_BLOCK_SELECT = "SELECT l.id AS id, l.time AS time, l.user AS user, "
+            + "l.world AS world, l.x AS x, l.y AS y, l.z AS z, l.chunk AS chunk, l.type AS type, "
+            + "l.old_type AS old_type, l.old_data AS old_data, l.new_type AS new_type, l.new_data AS new_data, "
+            + "l.action AS action, l.rolled_back AS rolled_back, 0 AS compact FROM vp_block l";
+
+    /** Rows copied per migration transaction. */
+    public static final int MIGRATION_CHUNK = 5000;
+
+    private static final String[] BLOCK_MIGRATION_COLUMNS = { "time", "user", "world", "x", "y", "z", "type",
+            "old_type", "old_data", "new_type", "new_data", "action", "rolled_back" };
+    private static final String[] CONTAINER_MIGRATION_COLUMNS = { "time", "user", "world", "x", "y", "z", "type",
+            "item", "amount", "action", "rolled_back" };
+
+    // Packed position layout, identical to BlockPos.asLong
+    private static final int PACKED_XZ_BITS = 26;
+    private static final int PACKED_Y_BITS = 12;
+    private static final int X_OFFSET = PACKED_Y_BITS + PACKED_XZ_BITS;
+    private static final int Z_OFFSET = PACKED_Y_BITS;
+    private static final long XZ_MASK = (1L << PACKED_XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << PACKED_Y_BITS) - 1;
+
+    private static final int SOURCE_POS = -1;
+    private static final int SOURCE_CHUNK = -2;
+
+    private static CompactLogSchema instance;
+    private static volatile boolean present = false;
+
+    // Name to UUID of players seen since startup
+    private static final Map<String, UUID> playerIds = new ConcurrentHashMap<>();
+
+    // Actors are logged by name, so vp_user is keyed on username; uuid holds the player's UUID when known
+    private final IdDictionary users = new IdDictionary("SELECT id FROM vp_user WHERE username = ?",
+            this::insertUser);
+    private final IdDictionary worlds = new IdDictionary("SELECT id FROM vp_world WHERE name = ?",
+            "INSERT INTO vp_world (name) VALUES (?)");
+    private final IdDictionary materials = new IdDictionary("SELECT id FROM vp_material WHERE name = ?",
+            "INSERT INTO vp_material (name) VALUES (?)");
+
+
+    // Column mapping per legacy table and column count
+    private final Map<String, Layout> layouts = new ConcurrentHashMap<>();
+    private final AtomicBoolean migrating = new AtomicBoolean(false);
+
+    CompactLogSchema() {
+    }
+
+    public static CompactLogSchema getInstance() {
+        if (instance == null) {
+            instance = new CompactLogSchema();
+        }
+        return instance;
+    }
+
+    /**
+     * @return True if new block and container rows are written in compact form
+     */
+    public static boolean isEnabled() {
+        return ProtectionConfig.CONFIG.compactSchema.get();
+    }
+
+    /**
+     * @return True if the compact tables exist, whether or not new rows are
+     *         still written to them. Readers must include them while true.
+     */
+    public static boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * @return True if the compact block table was created by an earlier run
+     */
+    public static boolean tablesExist(Connection conn) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String name : new String[] { BLOCK_TABLE, BLOCK_TABLE.toUpperCase() }) {
+            try (ResultSet rs = meta.getTables(null, null, name, null)) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Table or view that lookups should read block history from
+     */
+    public static String blockSource() {
+        return present ? BLOCK_VIEW : "vp_block";
+    }
+
+    /**
+     * @return Table or view that lookups should read container history from
+     */
+    public static String containerSource() {
+        return present ? CONTAINER_VIEW : "vp_container";
+    }
+
+    /**
+     * Remember a player's UUID so it is stored with their name when they are
+     * first interned into vp_user.
+     */
+    public static void rememberPlayer(String name, UUID uuid) {
+        playerIds.put(name, uuid);
+    }
+
+    /**
+     * Stand-in UUID for actors without one (#fire, #tnt, ...). Name based
+     * (version 3), so it never matches a real player UUID.
+     */
+    static UUID actorUuid(String name) {
+        return UUID.nameUUIDFromBytes(("VonixCoreActor:" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Pack a block position into one long (BlockPos.asLong layout).
+     */
+    public static long packPos(int x, int y, int z) {
+        return ((x & XZ_MASK) << X_OFFSET) | ((z & XZ_MASK) << Z_OFFSET) | (y & Y_MASK);
+    }
+
+    public static int unpackX(long pos) {
+        return (int) (pos >> X_OFFSET);
+    }
+
+    public static int unpackY(long pos) {
+        return (int) (pos << (64 - PACKED_Y_BITS) >> (64 - PACKED_Y_BITS));
+    }
+
+    public static int unpackZ(long pos) {
+        return (int) (pos << (64 - X_OFFSET) >> (64 - PACKED_XZ_BITS));
+    }
+
+    /**
+     * Create the dictionary tables, compact tables and read views.
+     */
+    public static void createSchema(Statement stmt, Database database, String autoIncrement, String textType)
+            throws SQLException {
+        stmt.execute(String.format("""
+                CREATE TABLE IF NOT EXISTS vp_world (
+                    id INTEGER PRIMARY KEY %s,
+                    name %s UNIQUE NOT NULL
+                )
+                """, autoIncrement, textType));
+
+        stmt.execute(String.format("""
+                CREATE TABLE IF NOT EXISTS vp_material (
+                    id INTEGER PRIMARY KEY %s,
+                    name %s UNIQUE NOT NULL
+                )
+                """, autoIncrement, textType));
+
+        stmt.execute(String.format("""
+                CREATE TABLE IF NOT EXISTS vp_block_compact (
+                    id INTEGER PRIMARY KEY %s,
+                    time BIGINT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    world_id INTEGER NOT NULL,
+                    pos BIGINT NOT NULL,
+                    chunk BIGINT,
+                    type_id INTEGER NOT NULL,
+                    old_type_id INTEGER,
+                    old_data %s,
+                    new_type_id INTEGER,
+                    new_data %s,
+                    action INTEGER NOT NULL,
+                    rolled_back INTEGER DEFAULT 0
+                )
+                """, autoIncrement, textType, textType));
+
+        stmt.execute(String.format("""
+                CREATE TABLE IF NOT EXISTS vp_container_compact (
+                    id INTEGER PRIMARY KEY %s,
+                    time BIGINT NOT NULL,
+                    user_id INTEGER NOT NULL,
+                    world_id INTEGER NOT NULL,
+                    pos BIGINT NOT NULL,
+                    type_id INTEGER NOT NULL,
+                    item_id INTEGER NOT NULL,
+                    amount INTEGER NOT NULL,
+                    action INTEGER NOT NULL,
+                    rolled_back INTEGER DEFAULT 0
+                )
+                """, autoIncrement));
+
+        executeIgnoreError(stmt, "CREATE INDEX IF NOT EXISTS idx_block_compact_time ON vp_block_compact (time)");
+        executeIgnoreError(stmt,
+                "CREATE INDEX IF NOT EXISTS idx_block_compact_user ON vp_block_compact (user_id, time)");
+        executeIgnoreError(stmt,
+                "CREATE INDEX IF NOT EXISTS idx_block_compact_pos ON vp_block_compact (world_id, pos)");
+        executeIgnoreError(stmt, "ALTER TABLE vp_block_compact ADD COLUMN chunk BIGINT");
+        executeIgnoreError(stmt,
+                "CREATE INDEX IF NOT EXISTS idx_block_compact_chunk ON vp_block_compact (world_id, chunk, time)");
+        executeIgnoreError(stmt,
+                "CREATE INDEX IF NOT EXISTS idx_container_compact_time ON vp_container_compact (time)");
+        executeIgnoreError(stmt,
+                "CREATE INDEX IF NOT EXISTS idx_container_compact_pos ON vp_container_compact (world_id, pos)");
+        executeIgnoreError(stmt, "CREATE UNIQUE INDEX IF NOT EXISTS idx_user_username ON vp_user (username)");
+        repairUserIds(stmt.getConnection());
+
+        boolean mysql = database.isMySQL();
+        String x = unpackSql("c.pos", X_OFFSET, PACKED_XZ_BITS, mysql);
+        String y = unpackSql("c.pos", 0, PACKED_Y_BITS, mysql);
+        String z = unpackSql("c.pos", Z_OFFSET, PACKED_XZ_BITS, mysql);
+
+        createView(stmt, database, BLOCK_VIEW, compactBlockSelect(mysql) + " UNION ALL " + LEGACY_BLOCK_SELECT);
+
+        createView(stmt, database, CONTAINER_VIEW, String.format("""
+                SELECT c.id AS id, c.time AS time, u.username AS user, w.name AS world,
+                    %s AS x, %s AS y, %s AS z,
+                    t.name AS type, i.name AS item, c.amount AS amount, c.action AS action,
+                    c.rolled_back AS rolled_back, 1 AS compact
+                FROM vp_container_compact c
+                JOIN vp_user u ON u.id = c.user_id
+                JOIN vp_world w ON w.id = c.world_id
+                JOIN vp_material t ON t.id = c.type_id
+                JOIN vp_material i ON i.id = c.item_id
+                UNION ALL
+                SELECT id, time, user, world, x, y, z, type, item, amount, action, rolled_back, 0 AS compact
+                FROM vp_container
+                """, x, y, z));
+        present = true;
+    }
+
+    /**
+     * Compact half of the block union: dictionary ids and the packed position
+     * decoded back into the legacy columns. Alias c is the compact table.
+     */
+    public static String compactBlockSelect(boolean mysql) {
+        return String.format("""
+                SELECT c.id AS id, c.time AS time, u.username AS user, w.name AS world,
+                    %s AS x, %s AS y, %s AS z, c.chunk AS chunk,
+                    t.name AS type, ot.name AS old_type, c.old_data AS old_data,
+                    nt.name AS new_type, c.new_data AS new_data, c.action AS action,
+                    c.rolled_back AS rolled_back, 1 AS compact
+                FROM vp_block_compact c
+                JOIN vp_user u ON u.id = c.user_id
+                JOIN vp_world w ON w.id = c.world_id
+                JOIN vp_material t ON t.id = c.type_id
+                LEFT JOIN vp_material ot ON ot.id = c.old_type_id
+                LEFT JOIN vp_material nt ON nt.id = c.new_type_id""",
+                unpackXSql("c.pos", mysql), unpackYSql("c.pos", mysql), unpackZSql("c.pos", mysql));
+    }
+
+    /**
+     * Earlier versions stored the actor name in vp_user.uuid. Give those rows
+     * a real UUID column value; their ids, and so the logged rows, stay.
+     */
+    private static void repairUserIds(Connection conn) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id, username FROM vp_user WHERE uuid = username")) {
+            while (rs.next()) {
+                rows.add(new Object[] { rs.getInt(1), rs.getString(2) });
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE vp_user SET uuid = ? WHERE id = ?")) {
+            for (Object[] row : rows) {
+                stmt.setString(1, actorUuid((String) row[1]).toString());
+                stmt.setInt(2, (Integer) row[0]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        VonixCore.LOGGER.info("[vonixcore] Moved {} actor names out of vp_user.uuid", rows.size());
+    }
+
+    private void insertUser(Connection conn, String name) throws SQLException {
+        UUID uuid = playerIds.get(name);
+        if (uuid != null) {
+            try {
+                insertUser(conn, uuid, name);
+                return;
+            } catch (SQLException e) {
+                // UUID already stored under the player's previous name; keep that row as it is
+            }
+        }
+        insertUser(conn, actorUuid(name), name);
+    }
+
+    private static void insertUser(Connection conn, UUID uuid, String name) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO vp_user (uuid, username) VALUES (?, ?)")) {
+            stmt.setString(1, uuid.toString());
+            stmt.setString(2, name);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Rewrite legacy block and container entries into compact rows.
+     * Dictionary ids missing from the cache are created immediately, so the
+     * connection must still be in auto-commit mode: ids must never come from
+     * a transaction that may later be rolled back.
+     */
+    List<Consumer.QueueEntry> encode(Connection conn, List<Consumer.QueueEntry> entries) throws SQLException {
+        List<Consumer.QueueEntry> encoded = new ArrayList<>(entries.size());
+        for (Consumer.QueueEntry entry : entries) {
+            if (entry instanceof Consumer.BatchableEntry batchable) {
+                encoded.add(encode(conn, batchable));
+            } else {
+                encoded.add(entry);
+            }
+        }
+        return encoded;
+    }
+
+    private Consumer.BatchableEntry encode(Connection conn, Consumer.BatchableEntry entry) throws SQLException {
+        String table = entry.getTable();
+        if (!"vp_block".equals(table) && !"vp_container".equals(table)) {
+            return entry;
+        }
+
+        String[] columns = entry.getColumns();
+        Layout layout = layouts.computeIfAbsent(table + '#' + columns.length, key -> buildLayout(table, columns));
+        Object[] in = entry.getValues();
+        Object[] out = new Object[layout.columns.length];
+
+        for (int i = 0; i < out.length; i++) {
+            int source = layout.sources[i];
+            if (source == SOURCE_POS) {
+                out[i] = packPos(((Number) in[layout.x]).intValue(), ((Number) in[layout.y]).intValue(),
+                        ((Number) in[layout.z]).intValue());
+            } else if (source == SOURCE_CHUNK) {
+                out[i] = ChunkIndex.chunkKey(((Number) in[layout.x]).intValue(), ((Number) in[layout.z]).intValue());
+            } else if (layout.dictionaries[i] != null) {
+                out[i] = layout.dictionaries[i].idFor(conn, (String) in[source]);
+            } else {
+                out[i] = in[source];
+            }
+        }
+        return new Consumer.RowEntry(layout.table, layout.columns, out);
+    }
+
+    private Layout buildLayout(String table, String[] columns) {
+        List<String> outColumns = new ArrayList<>();
+        List<Integer> sources = new ArrayList<>();
+        List<IdDictionary> dictionaries = new ArrayList<>();
+        int x = -1, y = -1, z = -1;
+
+        for (int i = 0; i < columns.length; i++) {
+            String column = columns[i];
+            switch (column) {
+                case "x" -> {
+                    x = i;
+                    outColumns.add("pos");
+                    sources.add(SOURCE_POS);
+                    dictionaries.add(null);
+                }
+                case "y" -> y = i;
+                case "z" -> z = i;
+                case "chunk" -> {
+                    // Recomputed below, rows read from the legacy table may not have it yet
+                }
+                case "user", "world", "type", "old_type", "new_type", "item" -> {
+                    outColumns.add(column + "_id");
+                    sources.add(i);
+                    dictionaries.add(switch (column) {
+                        case "user" -> users;
+                        case "world" -> worlds;
+                        default -> materials;
+                    });
+                }
+                default -> {
+                    outColumns.add(column);
+                    sources.add(i);
+                    dictionaries.add(null);
+                }
+            }
+        }
+
+        if ("vp_block".equals(table)) {
+            outColumns.add("chunk");
+            sources.add(SOURCE_CHUNK);
+            dictionaries.add(null);
+        }
+
+        int[] sourceArray = sources.stream().mapToInt(Integer::intValue).toArray();
+        return new Layout("vp_block".equals(table) ? BLOCK_TABLE : CONTAINER_TABLE,
+                outColumns.toArray(new String[0]), sourceArray, dictionaries.toArray(new IdDictionary[0]), x, y, z);
+    }
+
+    /**
+     * @return True while a migration is running
+     */
+    public boolean isMigrating() {
+        return migrating.get();
+    }
+
+    /**
+     * Move every row from the legacy block and container tables into the
+     * compact tables. Rows are copied and deleted in chunks, one transaction
+     * per chunk, so the migration can be interrupted and simply run again.
+     *
+     * Moved rows get new ids, so nothing may still refer to legacy rows by
+     * id: rollbacks refuse to start while a migration runs, and a migration
+     * refuses to start while a rollback runs, can be resumed from a legacy
+     * id or can be undone through legacy journal ranges.
+     *
+     * @param progress Called after each chunk with the legacy table name and
+     *                 the rows moved from it so far
+     * @return Total rows moved, or -1 if a migration is already running
+     * @throws IllegalStateException If rollbacks still refer to legacy rows
+     */
+    public long migrate(BiConsumer<String, Long> progress) throws SQLException {
+        if (!migrating.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            checkNoLegacyReferences();
+            return migrateTable("vp_block", BLOCK_MIGRATION_COLUMNS, progress)
+                    + migrateTable("vp_container", CONTAINER_MIGRATION_COLUMNS, progress);
+        } finally {
+            migrating.set(false);
+        }
+    }
+
+    private void checkNoLegacyReferences() throws SQLException {
+        if (RollbackManager.getInstance().hasRunningTasks()) {
+            throw new IllegalStateException("a rollback is running, wait for it to finish");
+        }
+        int references;
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
+            references = RollbackManager.countLegacyReferences(conn);
+        }
+        if (references > 0) {
+            throw new IllegalStateException(references
+                    + " rollback(s) can still be resumed or undone against the old logs, finish those first");
+        }
+    }
+
+    private long migrateTable(String table, String[] columns, BiConsumer<String, Long> progress)
+            throws SQLException {
+        Database database = VonixCore.getInstance().getDatabase();
+        boolean multiRow = database.isMySQL() || database.isPostgreSQL();
+        String select = "SELECT id, " + String.join(", ", columns) + " FROM " + table
+                + " WHERE id > ? ORDER BY id LIMIT ?";
+        long moved = 0;
+        long lastId = 0;
+
+        try (Connection conn = database.getConnection()) {
+            while (true) {
+                List<Consumer.BatchableEntry> rows = new ArrayList<>(MIGRATION_CHUNK);
+                long firstId = -1;
+                conn.setAutoCommit(true);
+
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setLong(1, lastId);
+                    stmt.setInt(2, MIGRATION_CHUNK);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            long id = rs.getLong(1);
+                            if (firstId < 0) {
+                                firstId = id;
+                            }
+                            lastId = id;
+                            Object[] values = new Object[columns.length];
+                            for (int i = 0; i < columns.length; i++) {
+                                values[i] = rs.getObject(i + 2);
+                            }
+                            rows.add(encode(conn, new Consumer.RowEntry(table, columns, values)));
+                        }
+                    }
+                }
+
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                conn.setAutoCommit(false);
+                try {
+                    BatchWriter.write(conn, rows, multiRow);
+                    try (PreparedStatement delete = conn.prepareStatement(
+                            "DELETE FROM " + table + " WHERE id >= ? AND id <= ?")) {
+                        delete.setLong(1, firstId);
+                        delete.setLong(2, lastId);
+                        delete.executeUpdate();
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+
+                moved += rows.size();
+                progress.accept(table, moved);
+            }
+            conn.setAutoCommit(true);
+        }
+
+        if (moved > 0) {
+            VonixCore.LOGGER.info("[vonixcore] Migrated {} rows from {} to the compact schema", moved, table);
+        }
+        return moved;
+    }
+
+    public static String unpackXSql(String column, boolean mysql) {
+        return unpackSql(column, X_OFFSET, PACKED_XZ_BITS, mysql);
+    }
+
+    public static String unpackYSql(String column, boolean mysql) {
+        return unpackSql(column, 0, PACKED_Y_BITS, mysql);
+    }
+
+    public static String unpackZSql(String column, boolean mysql) {
+        return unpackSql(column, Z_OFFSET, PACKED_XZ_BITS, mysql);
+    }
+
+    // Sign-extend one packed field; bit operators are unsigned in MySQL, hence the cast
+    private static String unpackSql(String column, int shift, int bits, boolean mysql) {
+        String raw = "((" + column + " >> " + shift + ") & " + ((1L << bits) - 1) + ")";
+        if (mysql) {
+            raw = "CAST(" + raw + " AS SIGNED)";
+        }
+        return "(CASE WHEN " + raw + " >= " + (1L << (bits - 1)) + " THEN " + raw + " - " + (1L << bits)
+                + " ELSE " + raw + " END)";
+    }
+
+    private static void createView(Statement stmt, Database database, String name, String select)
+            throws SQLException {
+        if (database.isSQLite()) {
+            stmt.execute("DROP VIEW IF EXISTS " + name);
+            stmt.execute("CREATE VIEW " + name + " AS " + select);
+        } else {
+            stmt.execute("CREATE OR REPLACE VIEW " + name + " AS " + select);
+        }
+    }
+
+    private static void executeIgnoreError(Statement stmt, String sql) {
+        try {
+            stmt.execute(sql);
+        } catch (SQLException ignored) {
+            // Index may already exist or syntax not supported
+        }
+    }
+
+    private record Layout(String table, String[] columns, int[] sources, IdDictionary[] dictionaries, int x, int y,
+            int z) {
+    }
+
+    /**
+     * Name to id mapping backed by a dictionary table, cached in memory.
+     */
+    static final class IdDictionary {
+        private final String selectSql;
+        private final Inserter inserter;
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        IdDictionary(String selectSql, String insertSql) {
+            this(selectSql, (conn, name) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                    stmt.setString(1, name);
+                    stmt.executeUpdate();
+                }
+            });
+        }
+
+        IdDictionary(String selectSql, Inserter inserter) {
+            this.selectSql = selectSql;
+            this.inserter = inserter;
+        }
+
+        /**
+         * @return Id for the name, creating it if needed; null for a null name
+         */
+        Integer idFor(Connection conn, String name) throws SQLException {
+            if (name == null) {
+                return null;
+            }
+            Integer id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+
+            id = select(conn, name);
+            if (id == null) {
+                try {
+                    inserter.insert(conn, name);
+                } catch (SQLException e) {
+                    // Another writer may have inserted it first; the select below decides
+                }
+                id = select(conn, name);
+                if (id == null) {
+                    throw new SQLException("Could not intern '" + name + "'");
+                }
+            }
+            ids.put(name, id);
+            return id;
+        }
+
+        private Integer select(Connection conn, String name) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                stmt.setString(1, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : null;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Inserter {
+        void insert(Connection conn, String name) throws SQLException;
+    }
+}
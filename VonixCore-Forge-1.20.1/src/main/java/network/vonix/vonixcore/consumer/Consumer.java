@@ -3,28 +3,61 @@ package network.vonix.vonixcore.consumer;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.config.DatabaseConfig;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Consumer queue system for batching database writes.
  * Optimizes performance by batching multiple log entries into single
- * transactions.
+ * transactions. Entries are grouped by target table and written through one
+ * prepared statement per table per flush.
+ *
+ * Entries are buffered in a bounded ring buffer so producers (the server
+ * thread) never block and memory stays flat. When the buffer is full, entries
+ * go to a second bounded overflow buffer which the consumer thread moves to
+ * segment files under world/vonixcore/consumer-spill. Only when both are full
+ * does a producer append to the spill file itself, so no row is discarded.
+ * Rows are also spilled while the database is unreachable and replayed once
+ * it recovers.
  */
 public class Consumer {
 
+    private static final long SPILL_SEGMENT_BYTES = 8L * 1024 * 1024;
+
     private static Consumer instance;
 
-    private final ConcurrentLinkedQueue<QueueEntry> queue = new ConcurrentLinkedQueue<>();
-    private final ScheduledExecutorService executor;
+    private volatile LogRingBuffer<QueueEntry> queue;
+    private volatile LogRingBuffer<QueueEntry> overflow;
+    private volatile SpillFile spill;
+    private ScheduledExecutorService executor;
+    private final Object flushLock = new Object();
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicBoolean paused = new AtomicBoolean(false);
+    private volatile boolean databaseAvailable = true;
+
+    // Throughput counters (shown in /vp status)
+    private final AtomicLong rowsWritten = new AtomicLong(0);
+    private final AtomicLong rowsFailed = new AtomicLong(0);
+    private final AtomicLong rowsSpilled = new AtomicLong(0);
+    private final AtomicLong rowsSpilledByProducers = new AtomicLong(0);
+    private final AtomicLong statementsExecuted = new AtomicLong(0);
+    private final AtomicLong flushCount = new AtomicLong(0);
+    private final AtomicLong totalFlushNanos = new AtomicLong(0);
+    private volatile int lastFlushRows = 0;
+    private volatile long lastFlushMillis = 0;
 
     public static Consumer getInstance() {
         if (instance == null) {
@@ -34,11 +67,6 @@ public class Consumer {
     }
 
     private Consumer() {
-        executor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "vonixcore-Consumer");
-            thread.setDaemon(true);
-            return thread;
-        });
     }
 
     /**
@@ -46,21 +74,32 @@ public class Consumer {
      */
     public void start() {
         if (running.compareAndSet(false, true)) {
+            int capacity = DatabaseConfig.CONFIG.consumerQueueCapacity.get();
+            File spillFolder = new File(VonixCore.getInstance().getDatabase().getDataFolder(), "consumer-spill");
+            queue = new LogRingBuffer<>(capacity);
+            overflow = new LogRingBuffer<>(capacity);
+            spill = new SpillFile(spillFolder, SPILL_SEGMENT_BYTES);
+            databaseAvailable = true;
+
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "vonixcore-Consumer");
+                thread.setDaemon(true);
+                return thread;
+            });
             int delayMs = DatabaseConfig.CONFIG.consumerDelayMs.get();
-            executor.scheduleAtFixedRate(this::processQueue, delayMs, delayMs, TimeUnit.MILLISECONDS);
-            VonixCore.LOGGER.info("[vonixcore] Consumer started with {}ms delay", delayMs);
+            executor.scheduleWithFixedDelay(this::processQueue, delayMs, delayMs, TimeUnit.MILLISECONDS);
+            VonixCore.LOGGER.info("[vonixcore] Consumer started with {}ms delay, {} entry buffer", delayMs,
+                    queue.capacity());
         }
     }
 
     /**
      * Stop the consumer and flush remaining entries.
+     * If the database is unavailable, whatever is still buffered is spilled to
+     * disk instead so shutdown never hangs and no rows are lost.
      */
     public void stop() {
         if (running.compareAndSet(true, false)) {
-            // Process remaining queue entries
-            while (!queue.isEmpty()) {
-                processQueue();
-            }
             executor.shutdown();
             try {
                 if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
@@ -70,7 +109,20 @@ public class Consumer {
                 executor.shutdownNow();
                 Thread.currentThread().interrupt();
             }
-            VonixCore.LOGGER.info("[vonixcore] Consumer stopped");
+
+            synchronized (flushLock) {
+                // Drain until empty or until the database stops answering
+                while (!queue.isEmpty() && databaseAvailable) {
+                    if (flushOnce() == 0) {
+                        break;
+                    }
+                }
+                spillOverflow();
+                spillBuffered();
+                spill.close();
+            }
+            VonixCore.LOGGER.info("[vonixcore] Consumer stopped ({} rows awaiting replay on disk)",
+                    spill.getPendingRows());
         }
     }
 
@@ -90,11 +142,21 @@ public class Consumer {
 
     /**
      * Add an entry to the queue.
+     * Never blocks on the database: if the buffer is full the entry is handed
+     * to the overflow buffer, which the consumer thread spills to disk. Only
+     * when both are full is the entry appended to the spill file right away;
+     * the consumer thread syncs it to disk on its next run.
      * 
      * @param entry The queue entry to add
      */
     public void queueEntry(QueueEntry entry) {
-        queue.offer(entry);
+        LogRingBuffer<QueueEntry> buffer = queue;
+        if (buffer == null) {
+            return; // Consumer not running
+        }
+        if (!buffer.offer(entry) && !overflow.offer(entry) && spillEntry(entry)) {
+            rowsSpilledByProducers.incrementAndGet();
+        }
     }
 
     /**
@@ -103,40 +165,350 @@ public class Consumer {
      * @return Number of pending entries
      */
     public int getQueueSize() {
-        return queue.size();
+        LogRingBuffer<QueueEntry> buffer = queue;
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * Get the number of rows spilled to disk and not yet replayed.
+     */
+    public long getSpillPendingRows() {
+        SpillFile file = spill;
+        return file == null ? 0 : file.getPendingRows();
+    }
+
+    /**
+     * Get the total number of rows spilled to disk since startup.
+     */
+    public long getRowsSpilled() {
+        return rowsSpilled.get();
     }
 
     /**
-     * Process the queue, batching entries for efficiency.
+     * Get the number of rows spilled straight from a full buffer and overflow
+     * buffer since startup.
+     */
+    public long getRowsSpilledByProducers() {
+        return rowsSpilledByProducers.get();
+    }
+
+    /**
+     * Check whether the last flush attempt reached the database.
+     */
+    public boolean isDatabaseAvailable() {
+        return databaseAvailable;
+    }
+
+    /**
+     * Get the total number of rows written since startup.
+     */
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /**
+     * Get the number of rows that could not be written.
+     */
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    /**
+     * Get the number of INSERT statements sent to the database.
+     */
+    public long getStatementsExecuted() {
+        return statementsExecuted.get();
+    }
+
+    /**
+     * Get the number of non-empty flushes performed.
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Get the number of rows written by the most recent flush.
+     */
+    public int getLastFlushRows() {
+        return lastFlushRows;
+    }
+
+    /**
+     * Get the duration of the most recent flush in milliseconds.
+     */
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    /**
+     * Get average write throughput while flushing, in rows per second.
+     */
+    public double getRowsPerSecond() {
+        long nanos = totalFlushNanos.get();
+        return nanos == 0 ? 0 : rowsWritten.get() * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Scheduled task: replay spilled rows if the database is back, then flush
+     * the buffer. While the database is down the buffer is moved to disk so it
+     * never fills up.
      */
     private void processQueue() {
-        if (paused.get() || queue.isEmpty()) {
+        if (paused.get()) {
             return;
         }
 
+        synchronized (flushLock) {
+            try {
+                spillOverflow();
+                if (spill.getPendingRows() > 0 && !replaySpill()) {
+                    spillBuffered();
+                    return;
+                }
+                if (!queue.isEmpty()) {
+                    flushOnce();
+                }
+                if (!databaseAvailable) {
+                    spillBuffered();
+                }
+            } catch (RuntimeException e) {
+                VonixCore.LOGGER.error("[vonixcore] Unexpected error in consumer", e);
+            }
+        }
+    }
+
+    /**
+     * Drain up to one batch from the buffer and write it.
+     * Entries are grouped per table so each table is written with one reused
+     * prepared statement (JDBC batch, plus multi-row VALUES on MySQL/PostgreSQL).
+     *
+     * @return Number of entries drained from the buffer
+     */
+    private int flushOnce() {
+        int batchSize = DatabaseConfig.CONFIG.consumerBatchSize.get();
+        List<QueueEntry> drained = new ArrayList<>(Math.min(batchSize, queue.size()));
+        QueueEntry entry;
+        while (drained.size() < batchSize && (entry = queue.poll()) != null) {
+            drained.add(entry);
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        if (!writeEntries(drained)) {
+            // Connection or commit failed: nothing was persisted, keep the rows on disk
+            for (QueueEntry failed : drained) {
+                spillEntry(failed);
+            }
+            spill.flush();
+        }
+        return drained.size();
+    }
+
+    /**
+     * Replay spilled segments oldest-first, one batch per transaction. The
+     * rows committed so far are recorded after each commit, so a retry goes on
+     * from there. A segment is deleted once fully replayed, or kept as
+     * .corrupt if it holds a corrupt record.
+     *
+     * @return False if the database is still unavailable
+     */
+    private boolean replaySpill() {
         int batchSize = DatabaseConfig.CONFIG.consumerBatchSize.get();
-        int processed = 0;
+        for (File segment : spill.sealedSegments()) {
+            SpillFile.Contents contents;
+            try {
+                contents = spill.read(segment);
+            } catch (IOException e) {
+                VonixCore.LOGGER.error("[vonixcore] Failed to read spill segment {}, moving it aside: {}",
+                        segment.getName(), e.getMessage());
+                spill.quarantine(segment);
+                continue;
+            }
+            List<RowEntry> rows = contents.rows();
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                int to = Math.min(rows.size(), from + batchSize);
+                if (!writeEntries(new ArrayList<>(rows.subList(from, to)))) {
+                    return false;
+                }
+                spill.replayed(segment, to - from);
+            }
+            VonixCore.LOGGER.info("[vonixcore] Replayed {} spilled log rows from {}", rows.size(),
+                    segment.getName());
+            if (contents.corrupt()) {
+                VonixCore.LOGGER.error("[vonixcore] Spill segment {} has a corrupt record after the replayed "
+                        + "rows, keeping the rest as {}.corrupt", segment.getName(), segment.getName());
+                spill.quarantine(segment);
+            } else {
+                spill.delete(segment);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write entries in one transaction.
+     *
+     * @return False if the database could not be reached or the commit failed
+     */
+    private boolean writeEntries(List<QueueEntry> entries) {
+        long start = System.nanoTime();
 
         try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
+            // Intern dictionary ids before the transaction so they are never rolled back
+            if (CompactLogSchema.isEnabled()) {
+                entries = CompactLogSchema.getInstance().encode(conn, entries);
+            }
+
             conn.setAutoCommit(false);
+            boolean multiRow = VonixCore.getInstance().getDatabase().isMySQL()
+                    || VonixCore.getInstance().getDatabase().isPostgreSQL();
 
-            QueueEntry entry;
-            while (processed < batchSize && (entry = queue.poll()) != null) {
-                try {
-                    entry.execute(conn);
-                    processed++;
-                } catch (SQLException e) {
-                    VonixCore.LOGGER.error("[vonixcore] Failed to process queue entry: {}", e.getMessage());
+            // Group entries by target table, preserving arrival order
+            Map<String, List<BatchableEntry>> byTable = new LinkedHashMap<>();
+            List<QueueEntry> unbatched = new ArrayList<>();
+            for (QueueEntry entry : entries) {
+                if (entry instanceof BatchableEntry batchable) {
+                    byTable.computeIfAbsent(batchable.getTable(), k -> new ArrayList<>()).add(batchable);
+                } else {
+                    unbatched.add(entry);
                 }
             }
 
+            int written = 0;
+            for (Map.Entry<String, List<BatchableEntry>> group : byTable.entrySet()) {
+                written += writeGroup(conn, group.getKey(), group.getValue(), multiRow);
+            }
+            for (QueueEntry single : unbatched) {
+                written += writeSingle(conn, single);
+            }
+
             conn.commit();
 
-            if (processed > 0) {
-                VonixCore.LOGGER.debug("[vonixcore] Processed {} queue entries", processed);
+            if (!databaseAvailable) {
+                VonixCore.LOGGER.info("[vonixcore] Database reachable again, resuming log writes");
+            }
+            databaseAvailable = true;
+
+            long elapsed = System.nanoTime() - start;
+            rowsWritten.addAndGet(written);
+            flushCount.incrementAndGet();
+            totalFlushNanos.addAndGet(elapsed);
+            lastFlushRows = written;
+            lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            VonixCore.LOGGER.debug("[vonixcore] Processed {} queue entries across {} tables in {}ms",
+                    written, byTable.size(), lastFlushMillis);
+            return true;
+        } catch (SQLException e) {
+            if (databaseAvailable) {
+                VonixCore.LOGGER.error("[vonixcore] Database error during queue processing, spilling logs to disk: {}",
+                        e.getMessage());
+            }
+            databaseAvailable = false;
+            return false;
+        }
+    }
+
+    /**
+     * Move entries that did not fit in the buffer to the spill file, and sync
+     * rows producers appended themselves.
+     */
+    private void spillOverflow() {
+        QueueEntry entry;
+        while ((entry = overflow.poll()) != null) {
+            spillEntry(entry);
+        }
+        spill.flush();
+    }
+
+    /**
+     * Move everything currently buffered to the spill file.
+     */
+    private void spillBuffered() {
+        QueueEntry entry;
+        int moved = 0;
+        while ((entry = queue.poll()) != null) {
+            spillEntry(entry);
+            moved++;
+        }
+        if (moved > 0) {
+            spill.flush();
+        }
+    }
+
+    /**
+     * @return False if the entry could not be spilled; it is counted as failed
+     */
+    private boolean spillEntry(QueueEntry entry) {
+        if (!(entry instanceof BatchableEntry batchable)) {
+            VonixCore.LOGGER.error("[vonixcore] Cannot spill {} to disk, it has no row layout",
+                    entry.getClass().getSimpleName());
+            rowsFailed.incrementAndGet();
+            return false;
+        }
+        try {
+            spill.append(batchable);
+            rowsSpilled.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            rowsFailed.incrementAndGet();
+            VonixCore.LOGGER.error("[vonixcore] Failed to spill log row to disk: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Write one table's rows as a batch. If the batch is rejected the group is
+     * rolled back to a savepoint and retried row by row, so one bad row only
+     * drops itself.
+     */
+    private int writeGroup(Connection conn, String table, List<BatchableEntry> rows, boolean multiRow) {
+        Savepoint savepoint = null;
+        try {
+            savepoint = conn.setSavepoint();
+            statementsExecuted.addAndGet(BatchWriter.write(conn, rows, multiRow));
+            return rows.size();
+        } catch (SQLException e) {
+            VonixCore.LOGGER.warn("[vonixcore] Batch insert into {} failed ({}), retrying {} rows individually",
+                    table, e.getMessage(), rows.size());
+            try {
+                if (savepoint != null) {
+                    conn.rollback(savepoint);
+                }
+            } catch (SQLException rollbackError) {
+                VonixCore.LOGGER.error("[vonixcore] Failed to roll back batch for {}: {}", table,
+                        rollbackError.getMessage());
+                rowsFailed.addAndGet(rows.size());
+                return 0;
             }
+        }
+
+        int written = 0;
+        for (BatchableEntry row : rows) {
+            written += writeSingle(conn, row);
+        }
+        return written;
+    }
+
+    private int writeSingle(Connection conn, QueueEntry entry) {
+        Savepoint savepoint = null;
+        try {
+            savepoint = conn.setSavepoint();
+            entry.execute(conn);
+            statementsExecuted.incrementAndGet();
+            return 1;
         } catch (SQLException e) {
-            VonixCore.LOGGER.error("[vonixcore] Database error during queue processing: {}", e.getMessage());
+            VonixCore.LOGGER.error("[vonixcore] Failed to process queue entry: {}", e.getMessage());
+            rowsFailed.incrementAndGet();
+            try {
+                if (savepoint != null) {
+                    conn.rollback(savepoint);
+                }
+            } catch (SQLException ignored) {
+                // Transaction is already unusable; commit will surface the error
+            }
+            return 0;
         }
     }
 
@@ -147,10 +519,75 @@ public class Consumer {
         void execute(Connection conn) throws SQLException;
     }
 
+    /**
+     * Queue entry that inserts a single row and can be batched with other rows
+     * of the same table. All entries for one table must share the same column
+     * layout. Values are only materialized on the consumer thread.
+     */
+    public interface BatchableEntry extends QueueEntry {
+        /**
+         * @return Target table name
+         */
+        String getTable();
+
+        /**
+         * @return Column names in bind order
+         */
+        String[] getColumns();
+
+        /**
+         * @return Column values in the same order as {@link #getColumns()}
+         *         (Long, Integer, Double, String or null)
+         */
+        Object[] getValues();
+
+        @Override
+        default void execute(Connection conn) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement(BatchWriter.insertSql(this, 1))) {
+                BatchWriter.bind(stmt, 0, getValues());
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Generic row with precomputed values, used for replayed and re-encoded
+     * rows.
+     */
+    public static final class RowEntry implements BatchableEntry {
+        private final String table;
+        private final String[] columns;
+        private final Object[] values;
+
+        public RowEntry(String table, String[] columns, Object[] values) {
+            this.table = table;
+            this.columns = columns;
+            this.values = values;
+        }
+
+        @Override
+        public String getTable() {
+            return table;
+        }
+
+        @Override
+        public String[] getColumns() {
+            return columns;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return values;
+        }
+    }
+
     /**
      * Block log entry for the queue.
      */
-    public static class BlockLogEntry implements QueueEntry {
+    public static class BlockLogEntry implements BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "chunk", "type",
+                "old_type", "old_data", "new_type", "new_data", "action" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -179,30 +616,29 @@ public class Consumer {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_block (time, user, world, x, y, z, type, old_type, old_data, new_type, new_data, action) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, type);
-                stmt.setString(8, oldType);
-                stmt.setString(9, oldData);
-                stmt.setString(10, newType);
-                stmt.setString(11, newData);
-                stmt.setInt(12, action);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_block";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, ChunkIndex.chunkKey(x, z), type, oldType, oldData,
+                    newType, newData, action };
         }
     }
 
     /**
      * Container log entry for the queue.
      */
-    public static class ContainerLogEntry implements QueueEntry {
+    public static class ContainerLogEntry implements BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "type", "item", "amount",
+                "action" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -227,21 +663,18 @@ public class Consumer {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_container (time, user, world, x, y, z, type, item, amount, action) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, containerType);
-                stmt.setString(8, item);
-                stmt.setInt(9, amount);
-                stmt.setInt(10, action);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_container";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, containerType, item, amount, action };
         }
     }
 }
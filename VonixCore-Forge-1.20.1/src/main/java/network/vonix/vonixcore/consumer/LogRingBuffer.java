@@ -0,0 +1,87 @@
+package network.vonix.vonixcore.consumer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer.
+ * Producers never block: {@link #offer} returns false when the buffer is full
+ * so the caller can spill the element elsewhere. Size is O(1).
+ *
+ * Only one thread may call {@link #poll} at a time.
+ */
+final class LogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final int capacity;
+
+    // Next slot to be claimed by a producer
+    private final AtomicLong producerIndex = new AtomicLong(0);
+    // Next slot to be read by the consumer
+    private final AtomicLong consumerIndex = new AtomicLong(0);
+
+    /**
+     * @param requestedCapacity Minimum capacity; rounded up to a power of two
+     */
+    LogRingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Add an element without blocking.
+     *
+     * @return False if the buffer is full
+     */
+    boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        slots.lazySet((int) (index & mask), element);
+        return true;
+    }
+
+    /**
+     * Remove the oldest element.
+     * Returns null when empty, or when the next slot has been claimed by a
+     * producer that has not finished publishing it yet.
+     */
+    E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) (index & mask);
+        E element = slots.get(offset);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * @return Number of elements currently buffered
+     */
+    int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,403 @@
+package network.vonix.vonixcore.consumer;
+
+import network.vonix.vonixcore.VonixCore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk overflow for the consumer queue.
+ * Rows that cannot be buffered in memory or written to the database are
+ * appended to numbered segment files and replayed oldest-first once the
+ * database is reachable again. Segments left behind by a crash are picked up
+ * on the next start.
+ *
+ * Record layout: [int length][int crc32][payload], payload = table, column
+ * names and typed values. A torn record at the end of a segment is ignored. A
+ * corrupt record anywhere else ends the segment: the rows before it are
+ * replayed and the file is kept as .corrupt for manual inspection.
+ *
+ * Segments are replayed in several transactions. The number of rows already
+ * committed is kept next to the segment in a .replayed file, so a retry or a
+ * restart continues after them instead of writing them twice.
+ */
+final class SpillFile {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final String PROGRESS_SUFFIX = ".replayed";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    // Returned by readRecord for a record that fails its checks before the end of the file
+    private static final byte[] CORRUPT = new byte[0];
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_LONG = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_STRING = 3;
+    private static final byte TAG_DOUBLE = 4;
+
+    private final File directory;
+    private final long segmentBytes;
+    private final AtomicLong pendingRows = new AtomicLong(0);
+
+    private long nextSegment;
+    private File activeFile;
+    private FileOutputStream activeFileStream;
+    private DataOutputStream activeStream;
+    private long activeBytes;
+    private boolean unflushed;
+
+    SpillFile(File directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        long highest = -1;
+        for (File segment : listSegments()) {
+            highest = Math.max(highest, segmentNumber(segment));
+            pendingRows.addAndGet(countRecords(segment) - replayedRows(segment));
+        }
+        this.nextSegment = highest + 1;
+
+        if (pendingRows.get() > 0) {
+            VonixCore.LOGGER.info("[vonixcore] Found {} spilled log rows awaiting replay", pendingRows.get());
+        }
+    }
+
+    /**
+     * Append an entry to the active segment. Called from the consumer thread,
+     * and from producers when the overflow buffer is full as well. Bytes reach
+     * the disk on the next {@link #flush()}.
+     */
+    synchronized void append(Consumer.BatchableEntry entry) throws IOException {
+        byte[] payload = encode(entry);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        if (activeStream == null) {
+            openSegment();
+        }
+        activeStream.writeInt(payload.length);
+        activeStream.writeInt((int) crc.getValue());
+        activeStream.write(payload);
+        activeBytes += payload.length + 8;
+        unflushed = true;
+        pendingRows.incrementAndGet();
+
+        if (activeBytes >= segmentBytes) {
+            sealActive();
+        }
+    }
+
+    /**
+     * Push buffered bytes of the active segment to disk. Does nothing if
+     * nothing was appended since the last flush.
+     */
+    synchronized void flush() {
+        if (activeStream == null || !unflushed) {
+            return;
+        }
+        try {
+            activeStream.flush();
+            activeFileStream.getFD().sync();
+            unflushed = false;
+        } catch (IOException e) {
+            VonixCore.LOGGER.error("[vonixcore] Failed to flush spill segment: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Close the active segment so it can be replayed, and return all segments
+     * awaiting replay, oldest first.
+     */
+    synchronized List<File> sealedSegments() {
+        sealActive();
+        return listSegments();
+    }
+
+    /**
+     * Rows of a segment still to be replayed.
+     *
+     * @param rows    Intact rows after those already replayed
+     * @param corrupt True if reading stopped at a corrupt record rather than
+     *                the end of the segment
+     */
+    record Contents(List<Consumer.RowEntry> rows, boolean corrupt) {
+    }
+
+    /**
+     * Read the intact records of a segment that were not replayed yet.
+     */
+    Contents read(File segment) throws IOException {
+        long skip = replayedRows(segment);
+        List<Consumer.RowEntry> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            byte[] payload;
+            while ((payload = readRecord(in)) != null) {
+                if (payload == CORRUPT) {
+                    return new Contents(entries, true);
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                try {
+                    entries.add(decode(payload));
+                } catch (IOException e) {
+                    return new Contents(entries, true);
+                }
+            }
+        }
+        return new Contents(entries, false);
+    }
+
+    /**
+     * Record that the next rows of a segment were committed.
+     */
+    void replayed(File segment, int rows) {
+        long total = replayedRows(segment) + rows;
+        Path progress = progressFile(segment).toPath();
+        Path temp = new File(directory, progress.getFileName() + ".tmp").toPath();
+        try {
+            Files.writeString(temp, Long.toString(total), StandardCharsets.UTF_8);
+            Files.move(temp, progress, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            VonixCore.LOGGER.error("[vonixcore] Failed to record replay progress of spill segment {}: {}",
+                    segment.getName(), e.getMessage());
+        }
+        pendingRows.addAndGet(-rows);
+    }
+
+    /**
+     * Remove a segment after all of its rows were replayed.
+     */
+    void delete(File segment) {
+        long rows = countRecords(segment) - replayedRows(segment);
+        if (!segment.delete()) {
+            VonixCore.LOGGER.warn("[vonixcore] Could not delete replayed spill segment {}", segment.getName());
+            return;
+        }
+        progressFile(segment).delete();
+        pendingRows.addAndGet(-rows);
+    }
+
+    /**
+     * Rename a segment holding a corrupt record so it is no longer replayed.
+     * It is kept for manual inspection.
+     */
+    void quarantine(File segment) {
+        long rows = countRecords(segment) - replayedRows(segment);
+        File target = new File(directory, segment.getName() + CORRUPT_SUFFIX);
+        if (!segment.renameTo(target)) {
+            VonixCore.LOGGER.warn("[vonixcore] Could not move spill segment {} aside", segment.getName());
+            return;
+        }
+        progressFile(segment).delete();
+        pendingRows.addAndGet(-rows);
+    }
+
+    /**
+     * @return Number of rows on disk awaiting replay
+     */
+    long getPendingRows() {
+        return Math.max(0, pendingRows.get());
+    }
+
+    synchronized void close() {
+        sealActive();
+    }
+
+    private void openSegment() throws IOException {
+        activeFile = new File(directory, String.format("%s%08d%s", PREFIX, nextSegment++, SUFFIX));
+        activeFileStream = new FileOutputStream(activeFile, true);
+        activeStream = new DataOutputStream(new BufferedOutputStream(activeFileStream, 64 * 1024));
+        activeBytes = 0;
+    }
+
+    private void sealActive() {
+        if (activeStream == null) {
+            return;
+        }
+        try {
+            activeStream.flush();
+            activeFileStream.getFD().sync();
+            activeStream.close();
+        } catch (IOException e) {
+            VonixCore.LOGGER.error("[vonixcore] Failed to close spill segment {}: {}", activeFile.getName(),
+                    e.getMessage());
+        }
+        activeStream = null;
+        activeFileStream = null;
+        activeFile = null;
+        unflushed = false;
+    }
+
+    private List<File> listSegments() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    private static long segmentNumber(File segment) {
+        String name = segment.getName();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private File progressFile(File segment) {
+        return new File(directory, segment.getName() + PROGRESS_SUFFIX);
+    }
+
+    // Rows of a segment committed by an earlier, unfinished replay
+    private long replayedRows(File segment) {
+        File progress = progressFile(segment);
+        if (!progress.exists()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(progress.toPath(), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            VonixCore.LOGGER.warn("[vonixcore] Could not read replay progress of spill segment {}: {}",
+                    segment.getName(), e.getMessage());
+            return 0;
+        }
+    }
+
+    // Intact records only; counting stops at a corrupt one like reading does
+    private static long countRecords(File segment) {
+        long count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            byte[] payload;
+            while ((payload = readRecord(in)) != null && payload != CORRUPT) {
+                count++;
+            }
+        } catch (IOException e) {
+            VonixCore.LOGGER.warn("[vonixcore] Could not scan spill segment {}: {}", segment.getName(),
+                    e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * @return The next record payload, null at end of file or at a torn final
+     *         record, or {@link #CORRUPT} for a bad record with more data after it
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        int length;
+        int checksum;
+        try {
+            length = in.readInt();
+            checksum = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0 || length > 16 * 1024 * 1024) {
+            return CORRUPT;
+        }
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() == checksum) {
+            return payload;
+        }
+        // A mismatch in the last record is a write cut short by a crash
+        return in.available() == 0 ? null : CORRUPT;
+    }
+
+    private static byte[] encode(Consumer.BatchableEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        String[] columns = entry.getColumns();
+        Object[] values = entry.getValues();
+        out.writeUTF(entry.getTable());
+        out.writeShort(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            out.writeUTF(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                out.writeByte(TAG_NULL);
+            } else if (value instanceof Long l) {
+                out.writeByte(TAG_LONG);
+                out.writeLong(l);
+            } else if (value instanceof Integer n) {
+                out.writeByte(TAG_INT);
+                out.writeInt(n);
+            } else if (value instanceof Double d) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(d);
+            } else {
+                out.writeByte(TAG_STRING);
+                writeLongUTF(out, value.toString());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Consumer.RowEntry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        String table = in.readUTF();
+        int count = in.readUnsignedShort();
+        String[] columns = new String[count];
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = in.readUTF();
+            byte tag = in.readByte();
+            values[i] = switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_LONG -> in.readLong();
+                case TAG_INT -> in.readInt();
+                case TAG_DOUBLE -> in.readDouble();
+                case TAG_STRING -> readLongUTF(in);
+                default -> throw new IOException("Unknown value tag " + tag);
+            };
+        }
+        return new Consumer.RowEntry(table, columns, values);
+    }
+
+    // writeUTF is limited to 64KB; chat messages and sign text can exceed it
+    private static void writeLongUTF(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readLongUTF(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -5,11 +5,18 @@ import com.zaxxer.hikari.HikariDataSource;
 import net.minecraft.server.MinecraftServer;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.config.DatabaseConfig;
+import network.vonix.vonixcore.consumer.ChunkIndex;
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+import network.vonix.vonixcore.protection.RollbackManager;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
 
 /**
  * Database manager using HikariCP for connection pooling.
@@ -74,11 +81,7 @@ public class Database {
      * Configure SQLite connection (single file, all data in one database).
      */
     private void configureSqlite(HikariConfig config) {
-        File worldFolder = server.getWorldPath(net.minecraft.world.level.storage.LevelResource.ROOT).toFile();
-        File dataFolder = new File(worldFolder, "vonixcore");
-        if (!dataFolder.exists()) {
-            dataFolder.mkdirs();
-        }
+        File dataFolder = getDataFolder();
 
         String fileName = DatabaseConfig.CONFIG.sqliteFile.get();
         File dbFile = new File(dataFolder, fileName);
@@ -203,6 +206,7 @@ public class Database {
                         x INTEGER NOT NULL,
                         y INTEGER NOT NULL,
                         z INTEGER NOT NULL,
+                        chunk BIGINT,
                         type %s NOT NULL,
                         old_type %s,
                         old_data %s,
@@ -369,6 +373,17 @@ public class Database {
             // Create indexes for query optimization
             createIndexes(stmt);
 
+            // Chunk key column for spatial lookups (added to existing block tables)
+            ChunkIndex.createSchema(stmt);
+
+            // Rollback task progress, for resuming after a restart
+            RollbackManager.createSchema(stmt, autoIncrement, textType);
+
+            // Dictionary-encoded log tables and their read views (opt-in, kept readable once created)
+            if (CompactLogSchema.isEnabled() || CompactLogSchema.tablesExist(conn)) {
+                CompactLogSchema.createSchema(stmt, this, autoIncrement, textType);
+            }
+
             VonixCore.LOGGER.info("[VonixCore] Database tables created/verified");
         }
     }
@@ -395,6 +410,45 @@ public class Database {
         };
     }
 
+    /**
+     * Build an insert-or-update statement in the dialect of a database. The
+     * first keyCount columns form the table's primary or unique key; the other
+     * columns are overwritten when a row with that key exists.
+     *
+     * @return SQL with one placeholder per column, in column order
+     */
+    public static String upsertSql(Database db, String table, int keyCount, String... columns) {
+        String insert = " INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        List<String> values = Arrays.asList(columns).subList(keyCount, columns.length);
+        if (db.isMySQL()) {
+            StringJoiner set = new StringJoiner(", ");
+            values.forEach(value -> set.add(value + " = VALUES(" + value + ")"));
+            return "INSERT" + insert + " ON DUPLICATE KEY UPDATE " + set;
+        }
+        if (db.isPostgreSQL()) {
+            StringJoiner set = new StringJoiner(", ");
+            values.forEach(value -> set.add(value + " = EXCLUDED." + value));
+            return "INSERT" + insert + " ON CONFLICT ("
+                    + String.join(", ", Arrays.asList(columns).subList(0, keyCount)) + ") DO UPDATE SET " + set;
+        }
+        return "INSERT OR REPLACE" + insert;
+    }
+
+    /**
+     * Column definition of an auto-incrementing "id" primary key in the
+     * dialect of a database, for change log tables.
+     */
+    public static String idColumnSql(Database db) {
+        if (db.isMySQL()) {
+            return "id BIGINT AUTO_INCREMENT PRIMARY KEY";
+        }
+        if (db.isPostgreSQL()) {
+            return "id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY";
+        }
+        return "id INTEGER PRIMARY KEY AUTOINCREMENT";
+    }
+
     /**
      * Create database indexes for query optimization.
      */
@@ -448,6 +502,20 @@ public class Database {
         return dataSource.getConnection();
     }
 
+    /**
+     * Get the per-world data folder (world/vonixcore), creating it if needed.
+     *
+     * @return The data folder
+     */
+    public File getDataFolder() {
+        File worldFolder = server.getWorldPath(net.minecraft.world.level.storage.LevelResource.ROOT).toFile();
+        File dataFolder = new File(worldFolder, "vonixcore");
+        if (!dataFolder.exists()) {
+            dataFolder.mkdirs();
+        }
+        return dataFolder;
+    }
+
     /**
      * Get the current database type.
      *
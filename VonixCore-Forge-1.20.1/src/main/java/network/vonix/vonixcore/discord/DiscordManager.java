@@ -12,6 +12,7 @@ import net.minecraft.network.chat.TextColor;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.chat.ChatPipeline;
 import network.vonix.vonixcore.config.DiscordConfig;
 import okhttp3.*;
 import org.javacord.api.DiscordApi;
@@ -267,6 +268,19 @@ public class DiscordManager {
 
     // ========= Player Preferences =========
 
+    /**
+     * Broadcast a message from Discord to the players who have not filtered
+     * it out.
+     *
+     * @param crossServer True for messages relayed from other servers
+     * @param event       True for join/leave/death/advancement messages
+     */
+    private void broadcastToMinecraft(Component message, boolean crossServer, boolean event) {
+        ChatPipeline.getInstance().broadcast(server, message,
+                player -> !(crossServer && hasServerMessagesFiltered(player.getUUID()))
+                        && !(event && hasEventsFiltered(player.getUUID())));
+    }
+
     public boolean hasServerMessagesFiltered(UUID playerUuid) {
         if (playerPreferences == null) {
             return false;
@@ -673,15 +687,15 @@ public class DiscordManager {
                 cleanedContent = content.substring(authorName.length() + 1);
             }
 
+            // Identify channel type
+            String eventChanId = DiscordConfig.CONFIG.eventChannelId.get();
+            boolean isEventChannel = !eventChanId.isEmpty() && String.valueOf(channelId).equals(eventChanId);
+
             String formattedMessage;
             if (isWebhook) {
                 // Special formatting for cross-server messages (webhooks)
                 String displayName = authorName;
 
-                // Identify channel type
-                String eventChanId = DiscordConfig.CONFIG.eventChannelId.get();
-                boolean isEventChannel = !eventChanId.isEmpty() && String.valueOf(channelId).equals(eventChanId);
-
                 if (displayName.startsWith("[") && displayName.contains("]")) {
                     int endBracket = displayName.indexOf("]");
                     String serverPrefix = displayName.substring(0, endBracket + 1);
@@ -757,7 +771,7 @@ public class DiscordManager {
                 }
 
                 // Broadcast
-                server.getPlayerList().broadcastSystemMessage(finalComponent, false);
+                broadcastToMinecraft(finalComponent, isWebhook, isWebhook && (isEventChannel || isEvent));
             }
         } catch (Exception e) {
             VonixCore.LOGGER.error("[Discord] Error processing message", e);
@@ -809,7 +823,7 @@ public class DiscordManager {
                 try {
                     // Send to Minecraft chat system
                     if (server != null) {
-                        server.getPlayerList().broadcastSystemMessage(advancementComponent, false);
+                        broadcastToMinecraft(advancementComponent, false, true);
                         
                         long processingTime = System.currentTimeMillis() - startTime;
                         if (DiscordConfig.CONFIG.debugLogging.get()) {
@@ -891,7 +905,7 @@ public class DiscordManager {
                         playerName, advancementTitle, serverPrefix);
                 
                 if (server != null && fallbackComponent != null) {
-                    server.getPlayerList().broadcastSystemMessage(fallbackComponent, false);
+                    broadcastToMinecraft(fallbackComponent, false, true);
                     long totalTime = System.currentTimeMillis() - fallbackStartTime;
                     VonixCore.LOGGER.info("[Discord] Successfully used basic fallback processing for advancement embed. " +
                             "Player: {} | Title: {} | Time: {}ms {}", 
@@ -926,7 +940,7 @@ public class DiscordManager {
             MutableComponent originalEmbedComponent = convertEmbedToMinecraftComponent(embed, event);
             
             if (server != null && originalEmbedComponent != null) {
-                server.getPlayerList().broadcastSystemMessage(originalEmbedComponent, false);
+                broadcastToMinecraft(originalEmbedComponent, false, true);
                 long totalTime = System.currentTimeMillis() - fallbackStartTime;
                 VonixCore.LOGGER.info("[Discord] Successfully fell back to original embed display for advancement. " +
                         "Time: {}ms | Embed title: {} | Fields: {} {}", 
@@ -958,7 +972,7 @@ public class DiscordManager {
             MutableComponent errorComponent = createMinimalErrorComponent(serverPrefix, contextInfo);
             
             if (server != null && errorComponent != null) {
-                server.getPlayerList().broadcastSystemMessage(errorComponent, false);
+                broadcastToMinecraft(errorComponent, false, true);
                 long totalTime = System.currentTimeMillis() - fallbackStartTime;
                 VonixCore.LOGGER.warn("[Discord] Used minimal error message for advancement embed. " +
                         "Time: {}ms | Server prefix: '{}' {}", 
@@ -1462,7 +1476,7 @@ public class DiscordManager {
                 MutableComponent eventComponent = componentBuilder.buildEventMessage(data, serverPrefix);
                 
                 if (server != null) {
-                    server.getPlayerList().broadcastSystemMessage(eventComponent, false);
+                    broadcastToMinecraft(eventComponent, false, true);
                     
                     if (DiscordConfig.CONFIG.debugLogging.get()) {
                         VonixCore.LOGGER.info("[Discord] Successfully processed event embed: {} {} {}", 
@@ -1509,7 +1523,7 @@ public class DiscordManager {
                         playerName, action, serverPrefix);
                 
                 if (server != null && fallbackComponent != null) {
-                    server.getPlayerList().broadcastSystemMessage(fallbackComponent, false);
+                    broadcastToMinecraft(fallbackComponent, false, true);
                     VonixCore.LOGGER.info("[Discord] Used fallback processing for event embed: {} {} {}", 
                             playerName, action, contextInfo);
                     return;
@@ -1519,7 +1533,7 @@ public class DiscordManager {
             // Ultimate fallback: convert embed to basic format
             MutableComponent originalComponent = convertEmbedToMinecraftComponent(embed, event);
             if (server != null && originalComponent != null) {
-                server.getPlayerList().broadcastSystemMessage(originalComponent, false);
+                broadcastToMinecraft(originalComponent, false, true);
                 VonixCore.LOGGER.info("[Discord] Used original embed display for event fallback {}", contextInfo);
             }
             
@@ -0,0 +1,228 @@
+package network.vonix.vonixcore.economy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory balance ranking for /baltop.
+ * Accounts are kept in a treap ordered by balance (highest first, ties by
+ * UUID) with subtree sizes, so updates, rank lookups and fetching any page
+ * are O(log n) without touching the database. The ledger feeds it every
+ * balance change; the rest is seeded from vc_economy at startup.
+ */
+final class BalanceLeaderboard {
+
+    private final Map<UUID, Long> balances = new HashMap<>();
+    private Node root;
+    private long seed = System.nanoTime() | 1;
+    private volatile boolean ready = false;
+
+    /**
+     * Record the current balance of an account.
+     */
+    synchronized void update(UUID uuid, long cents) {
+        Long previous = balances.put(uuid, cents);
+        if (previous != null) {
+            if (previous == cents) {
+                return;
+            }
+            root = remove(root, previous, uuid);
+        }
+        root = insert(root, new Node(cents, uuid, nextPriority()));
+    }
+
+    /**
+     * Record a balance read from the database, unless a newer one is known.
+     */
+    synchronized void seed(UUID uuid, long cents) {
+        if (!balances.containsKey(uuid)) {
+            update(uuid, cents);
+        }
+    }
+
+    /**
+     * @return True once every stored account has been seeded
+     */
+    boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    synchronized int size() {
+        return balances.size();
+    }
+
+    /**
+     * Accounts ranked offset+1 to offset+limit.
+     */
+    synchronized List<EconomyManager.BalanceEntry> page(int offset, int limit) {
+        List<EconomyManager.BalanceEntry> out = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+        collect(root, offset, limit, out);
+        return out;
+    }
+
+    /**
+     * @return 1-based rank of an account, or 0 if it is not known
+     */
+    synchronized int rank(UUID uuid) {
+        Long cents = balances.get(uuid);
+        if (cents == null) {
+            return 0;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(cents, uuid, node);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    // In-order walk that skips whole subtrees before the offset
+    private static void collect(Node node, int offset, int limit, List<EconomyManager.BalanceEntry> out) {
+        while (node != null && out.size() < limit) {
+            int leftSize = size(node.left);
+            if (offset < leftSize) {
+                collect(node.left, offset, limit, out);
+                offset = 0;
+            } else {
+                offset -= leftSize;
+            }
+            if (out.size() >= limit) {
+                return;
+            }
+            if (offset == 0) {
+                out.add(new EconomyManager.BalanceEntry(node.uuid, node.cents / 100.0));
+            } else {
+                offset--;
+            }
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.cents, added.uuid);
+            added.left = parts[0];
+            added.right = parts[1];
+            added.resize();
+            return added;
+        }
+        if (compare(added.cents, added.uuid, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        node.resize();
+        return node;
+    }
+
+    private static Node remove(Node node, long cents, UUID uuid) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(cents, uuid, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, cents, uuid);
+        } else {
+            node.right = remove(node.right, cents, uuid);
+        }
+        node.resize();
+        return node;
+    }
+
+    // Split into nodes ranked before the key and the rest
+    private static Node[] split(Node node, long cents, UUID uuid) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(cents, uuid, node) > 0) {
+            Node[] parts = split(node.right, cents, uuid);
+            node.right = parts[0];
+            node.resize();
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, cents, uuid);
+        node.left = parts[1];
+        node.resize();
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.resize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.resize();
+        return right;
+    }
+
+    // Negative if the key ranks before the node: higher balance first, then UUID
+    private static int compare(long cents, UUID uuid, Node node) {
+        if (cents != node.cents) {
+            return cents > node.cents ? -1 : 1;
+        }
+        return uuid.compareTo(node.uuid);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // xorshift, good enough for treap priorities
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) seed;
+    }
+
+    private static final class Node {
+        final long cents;
+        final UUID uuid;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(long cents, UUID uuid, int priority) {
+            this.cents = cents;
+            this.uuid = uuid;
+            this.priority = priority;
+        }
+
+        void resize() {
+            size = 1 + BalanceLeaderboard.size(left) + BalanceLeaderboard.size(right);
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package network.vonix.vonixcore.economy;
+
+import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.database.Database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind store for balances.
+ * Balances live in memory as whole cents and are changed under a per-account
+ * lock. Each change marks the account dirty and queues a {@link LedgerJournal}
+ * record, which the economy thread appends in batches; dirty accounts are
+ * written to vc_economy in one batch every few seconds, so a burst of deposits
+ * costs one row write. After a crash the journal is replayed on the next
+ * start.
+ *
+ * Accounts stay in memory while their player is online. Accounts loaded for
+ * anyone else (shop owners, job payouts, /pay) are dropped after their next
+ * flush.
+ */
+final class BalanceLedger {
+
+    private static final String JOURNAL_FOLDER = "economy-journal";
+
+    /** Returned by an update to leave the balance unchanged and report failure. */
+    static final long REJECT = -1;
+
+    private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Account>> loading = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Accounts of online players, kept in memory
+    private final Set<UUID> retained = ConcurrentHashMap.newKeySet();
+    // Accounts no player holds, dropped once they are written
+    private final Set<UUID> evictions = ConcurrentHashMap.newKeySet();
+    // Journal records waiting for the economy thread, in mutation order
+    private final Queue<byte[]> journalQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean journalScheduled = new AtomicBoolean(false);
+    private final Object flushLock = new Object();
+    private final BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+
+    private volatile long startingCents;
+    private LedgerJournal journal;
+    private ScheduledExecutorService executor;
+
+    BalanceLedger(long startingCents) {
+        this.startingCents = startingCents;
+    }
+
+    void setStartingCents(long startingCents) {
+        this.startingCents = startingCents;
+    }
+
+    /**
+     * Replay the journal left by an unclean shutdown, then start the periodic
+     * flush.
+     */
+    void start(int flushIntervalSeconds) {
+        Database database = VonixCore.getInstance().getDatabase();
+        journal = new LedgerJournal(new File(database.getDataFolder(), JOURNAL_FOLDER));
+        try {
+            Map<UUID, Long> replayed = journal.replay();
+            for (Map.Entry<UUID, Long> entry : replayed.entrySet()) {
+                accounts.put(entry.getKey(), new Account(entry.getValue()));
+                leaderboard.update(entry.getKey(), entry.getValue());
+                dirty.add(entry.getKey());
+                evictions.add(entry.getKey());
+            }
+            if (!replayed.isEmpty()) {
+                VonixCore.LOGGER.info("[VonixCore] Recovered {} unsaved balance(s) from the economy journal",
+                        replayed.size());
+            }
+        } catch (IOException e) {
+            VonixCore.LOGGER.error("[VonixCore] Failed to read economy journal: {}", e.getMessage());
+        }
+        flush();
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "VonixCore-Economy");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+        executor.execute(this::seedLeaderboard);
+    }
+
+    BalanceLeaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    // Load every stored balance once; changes made meanwhile are newer and win
+    private void seedLeaderboard() {
+        Database database = VonixCore.getInstance().getDatabase();
+        try (Connection conn = database.getConnection()) {
+            // PostgreSQL only streams inside a transaction
+            if (database.isPostgreSQL()) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT uuid, balance FROM vc_economy",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(database.isMySQL() ? Integer.MIN_VALUE : 1000);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        try {
+                            leaderboard.seed(UUID.fromString(rs.getString("uuid")),
+                                    Math.round(rs.getDouble("balance") * 100));
+                        } catch (IllegalArgumentException ignored) {
+                            // Not a player row
+                        }
+                    }
+                }
+            } finally {
+                if (database.isPostgreSQL()) {
+                    conn.commit();
+                    conn.setAutoCommit(true);
+                }
+            }
+            leaderboard.markReady();
+            VonixCore.LOGGER.info("[VonixCore] Balance leaderboard loaded ({} accounts)", leaderboard.size());
+        } catch (SQLException e) {
+            VonixCore.LOGGER.error("[VonixCore] Failed to load balance leaderboard, /baltop uses the database: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the periodic flush and write every dirty account.
+     */
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        flush();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to close economy journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get an account, loading it from the database if it is not in memory.
+     */
+    CompletableFuture<Account> load(UUID uuid) {
+        Account account = accounts.get(uuid);
+        if (account != null) {
+            return CompletableFuture.completedFuture(account);
+        }
+        CompletableFuture<Account> future = new CompletableFuture<>();
+        CompletableFuture<Account> pending = loading.putIfAbsent(uuid, future);
+        if (pending != null) {
+            return pending;
+        }
+        VonixCore.executeAsync(() -> {
+            try {
+                future.complete(loadNow(uuid));
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to load balance for {}: {}", uuid, e.getMessage());
+                future.completeExceptionally(e);
+            } finally {
+                loading.remove(uuid, future);
+            }
+        });
+        return future;
+    }
+
+    private Account loadNow(UUID uuid) throws SQLException {
+        Account existing = accounts.get(uuid);
+        if (existing != null) {
+            return existing;
+        }
+
+        Long cents = null;
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection();
+                PreparedStatement stmt = conn.prepareStatement("SELECT balance FROM vc_economy WHERE uuid = ?")) {
+            stmt.setString(1, uuid.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    cents = Math.round(rs.getDouble("balance") * 100);
+                }
+            }
+        }
+
+        // New player, create the account with the starting balance
+        Account account = new Account(cents != null ? cents : startingCents);
+        Account raced = accounts.putIfAbsent(uuid, account);
+        if (raced != null) {
+            return raced;
+        }
+        if (!retained.contains(uuid)) {
+            evictions.add(uuid);
+        }
+        leaderboard.seed(uuid, account.cents);
+        if (cents == null) {
+            synchronized (account) {
+                markChanged(uuid, account.cents);
+            }
+        }
+        return account;
+    }
+
+    /**
+     * Atomically change a balance. The operator gets the current balance in
+     * cents and returns the new one, or {@link #REJECT} to leave it as is.
+     *
+     * @return False if the change was rejected or the account could not be
+     *         loaded
+     */
+    CompletableFuture<Boolean> update(UUID uuid, LongUnaryOperator operator) {
+        return load(uuid).thenCompose(account -> {
+            Boolean result = null;
+            synchronized (account) {
+                if (!account.evicted) {
+                    long next = operator.applyAsLong(account.cents);
+                    if (next < 0) {
+                        result = false;
+                    } else {
+                        if (next != account.cents) {
+                            account.cents = next;
+                            markChanged(uuid, next);
+                        }
+                        result = true;
+                    }
+                }
+            }
+            // Evicted between lookup and lock, load it again
+            return result != null ? CompletableFuture.completedFuture(result) : update(uuid, operator);
+        }).exceptionally(e -> false);
+    }
+
+    /**
+     * Move money between two accounts atomically. Both accounts are locked in
+     * UUID order, so concurrent transfers in opposite directions cannot
+     * deadlock, and the two new balances are journaled together.
+     */
+    CompletableFuture<EconomyManager.TransferResult> transfer(UUID from, UUID to, long cents) {
+        return transfer(from, to, cents, 0);
+    }
+
+    /**
+     * Move money between two accounts atomically, charging the source a fee
+     * on top. The fee leaves the economy, so the source pays
+     * {@code cents + feeCents} and the target receives {@code cents}.
+     */
+    CompletableFuture<EconomyManager.TransferResult> transfer(UUID from, UUID to, long cents, long feeCents) {
+        if (cents <= 0 || feeCents < 0) {
+            return CompletableFuture.completedFuture(EconomyManager.TransferResult.INVALID_AMOUNT);
+        }
+        if (from.equals(to)) {
+            return CompletableFuture.completedFuture(EconomyManager.TransferResult.SAME_ACCOUNT);
+        }
+        return load(from).thenCombine(load(to), (source, target) -> move(from, source, to, target, cents,
+                feeCents, () -> markTransferred(from, source.cents, to, target.cents)))
+                .thenCompose(result -> result != null
+                        ? CompletableFuture.completedFuture(result)
+                        : transfer(from, to, cents, feeCents))
+                .exceptionally(e -> EconomyManager.TransferResult.ACCOUNT_UNAVAILABLE);
+    }
+
+    /**
+     * Debit one account and credit the other under both locks.
+     *
+     * @param onMoved Runs while both locks are still held
+     * @return The result, or null if either account was evicted and has to be
+     *         loaded again
+     */
+    static EconomyManager.TransferResult move(UUID fromId, Account from, UUID toId, Account to, long cents,
+            Runnable onMoved) {
+        return move(fromId, from, toId, to, cents, 0, onMoved);
+    }
+
+    /**
+     * Debit {@code cents + feeCents} from one account and credit {@code cents}
+     * to the other under both locks.
+     */
+    static EconomyManager.TransferResult move(UUID fromId, Account from, UUID toId, Account to, long cents,
+            long feeCents, Runnable onMoved) {
+        boolean fromFirst = fromId.compareTo(toId) < 0;
+        Account first = fromFirst ? from : to;
+        Account second = fromFirst ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                if (from.evicted || to.evicted) {
+                    return null;
+                }
+                long debited;
+                long credited;
+                try {
+                    debited = Math.addExact(cents, feeCents);
+                    credited = Math.addExact(to.cents, cents);
+                } catch (ArithmeticException e) {
+                    return EconomyManager.TransferResult.INVALID_AMOUNT;
+                }
+                if (from.cents < debited) {
+                    return EconomyManager.TransferResult.INSUFFICIENT_FUNDS;
+                }
+                from.cents -= debited;
+                to.cents = credited;
+                onMoved.run();
+                return EconomyManager.TransferResult.SUCCESS;
+            }
+        }
+    }
+
+    private void markTransferred(UUID from, long fromCents, UUID to, long toCents) {
+        dirty.add(from);
+        dirty.add(to);
+        leaderboard.update(from, fromCents);
+        leaderboard.update(to, toCents);
+        queueJournal(LedgerJournal.record(from, fromCents, to, toCents));
+    }
+
+    // Caller holds the account lock, so journal records stay in mutation order
+    private void markChanged(UUID uuid, long cents) {
+        dirty.add(uuid);
+        leaderboard.update(uuid, cents);
+        queueJournal(LedgerJournal.record(uuid, cents));
+    }
+
+    // Accounts are marked dirty before their record is queued, so a flush that drains the queue covers them
+    private void queueJournal(byte[] record) {
+        if (journal == null) {
+            return;
+        }
+        journalQueue.add(record);
+        ScheduledExecutorService current = executor;
+        if (current == null) {
+            writeJournal();
+            return;
+        }
+        if (journalScheduled.compareAndSet(false, true)) {
+            try {
+                current.execute(() -> {
+                    journalScheduled.set(false);
+                    writeJournal();
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; stop() drains the queue
+                journalScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Append every queued journal record in one write.
+     */
+    private void writeJournal() {
+        synchronized (journalQueue) {
+            List<byte[]> batch = new ArrayList<>();
+            byte[] record;
+            while ((record = journalQueue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                journal.appendAll(batch);
+            } catch (IOException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to journal {} balance change(s): {}", batch.size(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run a database query on the economy thread after a flush, so it sees
+     * every change made before this call.
+     */
+    <T> CompletableFuture<T> afterFlush(Supplier<T> query) {
+        Supplier<T> task = () -> {
+            flush();
+            return query.get();
+        };
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            try {
+                return CompletableFuture.supplyAsync(task, current);
+            } catch (RejectedExecutionException e) {
+                // Shutting down, fall through
+            }
+        }
+        return CompletableFuture.supplyAsync(task, VonixCore::executeAsync);
+    }
+
+    /**
+     * Keep an account in memory (player joined).
+     */
+    void retain(UUID uuid) {
+        retained.add(uuid);
+        evictions.remove(uuid);
+    }
+
+    /**
+     * Write an account soon and then drop it from memory (player left).
+     */
+    void release(UUID uuid) {
+        retained.remove(uuid);
+        evictions.add(uuid);
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            current.execute(this::flush);
+        }
+    }
+
+    /**
+     * Write every dirty account in one batch.
+     */
+    void flush() {
+        if (journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            writeJournal();
+            long segment;
+            try {
+                // Every change journaled before this point is in the batch below
+                segment = journal.rotate();
+            } catch (IOException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to rotate economy journal: {}", e.getMessage());
+                return;
+            }
+
+            List<UUID> ids = new ArrayList<>(dirty);
+            dirty.removeAll(ids);
+            List<Long> balances = new ArrayList<>(ids.size());
+            for (UUID uuid : ids) {
+                Account account = accounts.get(uuid);
+                synchronized (account) {
+                    balances.add(account.cents);
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                try {
+                    write(ids, balances);
+                } catch (SQLException e) {
+                    VonixCore.LOGGER.error("[VonixCore] Failed to save {} balance(s), will retry: {}", ids.size(),
+                            e.getMessage());
+                    dirty.addAll(ids);
+                    return;
+                }
+            }
+            journal.deleteBefore(segment);
+            evictClean();
+        }
+    }
+
+    private void write(List<UUID> ids, List<Long> balances) throws SQLException {
+        Database database = VonixCore.getInstance().getDatabase();
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    Database.upsertSql(database, "vc_economy", 1, "uuid", "balance"))) {
+                for (int i = 0; i < ids.size(); i++) {
+                    stmt.setString(1, ids.get(i).toString());
+                    stmt.setDouble(2, balances.get(i) / 100.0);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void evictClean() {
+        for (UUID uuid : evictions) {
+            Account account = accounts.get(uuid);
+            if (account == null) {
+                evictions.remove(uuid);
+                continue;
+            }
+            synchronized (account) {
+                if (!dirty.contains(uuid) && !retained.contains(uuid)) {
+                    account.evicted = true;
+                    accounts.remove(uuid, account);
+                    evictions.remove(uuid);
+                }
+            }
+        }
+    }
+
+    /**
+     * One balance. Fields are guarded by the object's monitor.
+     */
+    static final class Account {
+        long cents;
+        // Dropped from the ledger; holders must load the account again
+        boolean evicted;
+
+        Account(long cents) {
+            this.cents = cents;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package network.vonix.vonixcore.economy;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import network.vonix.vonixcore.consumer.ChunkIndex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory index of every chest shop, by world, chunk and block.
+ * A lookup reads a single chunk bucket, so a block without a shop is
+ * answered from memory just like one with a shop.
+ *
+ * Buckets are concurrent maps, so lookups never lock. Changes are serialized
+ * on the index, which also drops buckets once they are empty.
+ */
+final class ChestShopIndex {
+
+    private final Map<String, Map<Long, Map<Long, Located>>> worlds = new ConcurrentHashMap<>();
+
+    ShopManager.ChestShop get(String world, int x, int y, int z) {
+        Map<Long, Located> chunk = chunk(world, x >> 4, z >> 4);
+        if (chunk == null) {
+            return null;
+        }
+        Located located = chunk.get(BlockPos.asLong(x, y, z));
+        return located != null ? located.shop() : null;
+    }
+
+    /**
+     * @return The shop that was replaced, or null
+     */
+    synchronized ShopManager.ChestShop put(String world, int x, int y, int z, ShopManager.ChestShop shop) {
+        Located previous = worlds.computeIfAbsent(world, w -> new ConcurrentHashMap<>())
+                .computeIfAbsent(ChunkIndex.chunkKey(x, z), k -> new ConcurrentHashMap<>())
+                .put(BlockPos.asLong(x, y, z), new Located(x, y, z, shop));
+        return previous != null ? previous.shop() : null;
+    }
+
+    /**
+     * Replace a shop with an updated copy, if there is one.
+     *
+     * @return The updated shop, or null if there is no shop there
+     */
+    synchronized ShopManager.ChestShop update(String world, int x, int y, int z,
+            UnaryOperator<ShopManager.ChestShop> update) {
+        Map<Long, Located> chunk = chunk(world, x >> 4, z >> 4);
+        if (chunk == null) {
+            return null;
+        }
+        Located updated = chunk.computeIfPresent(BlockPos.asLong(x, y, z),
+                (k, located) -> new Located(x, y, z, update.apply(located.shop())));
+        return updated != null ? updated.shop() : null;
+    }
+
+    /**
+     * @return The removed shop, or null
+     */
+    synchronized ShopManager.ChestShop remove(String world, int x, int y, int z) {
+        Map<Long, Map<Long, Located>> chunks = worlds.get(world);
+        if (chunks == null) {
+            return null;
+        }
+        long key = ChunkIndex.chunkKey(x, z);
+        Map<Long, Located> chunk = chunks.get(key);
+        if (chunk == null) {
+            return null;
+        }
+        Located removed = chunk.remove(BlockPos.asLong(x, y, z));
+        if (chunk.isEmpty()) {
+            chunks.remove(key);
+        }
+        return removed != null ? removed.shop() : null;
+    }
+
+    synchronized void clear() {
+        worlds.clear();
+    }
+
+    /**
+     * Shops in a chunk, as a live view.
+     */
+    Collection<Located> inChunk(String world, int chunkX, int chunkZ) {
+        Map<Long, Located> chunk = chunk(world, chunkX, chunkZ);
+        return chunk != null ? Collections.unmodifiableCollection(chunk.values()) : Collections.emptyList();
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<Long, Map<Long, Located>> chunks : worlds.values()) {
+            for (Map<Long, Located> chunk : chunks.values()) {
+                size += chunk.size();
+            }
+        }
+        return size;
+    }
+
+    private Map<Long, Located> chunk(String world, int chunkX, int chunkZ) {
+        Map<Long, Map<Long, Located>> chunks = worlds.get(world);
+        return chunks != null ? chunks.get(ChunkPos.asLong(chunkX, chunkZ)) : null;
+    }
+
+    /** A shop and its block position. */
+    record Located(int x, int y, int z, ShopManager.ChestShop shop) {
+    }
+}
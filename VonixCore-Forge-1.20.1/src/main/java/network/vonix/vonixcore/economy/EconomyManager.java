@@ -1,6 +1,7 @@
 package network.vonix.vonixcore.economy;
 
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.config.EssentialsConfig;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,12 +13,14 @@ import java.util.UUID;
 
 /**
  * Manages player economy - balances, transactions, and baltop.
+ * Balances are held in a write-behind {@link BalanceLedger}; the database is
+ * updated in batches rather than on every change.
  */
 public class EconomyManager {
 
     private static EconomyManager instance;
     private double startingBalance = 100.0;
-    private final java.util.concurrent.ConcurrentHashMap<UUID, Double> balanceCache = new java.util.concurrent.ConcurrentHashMap<>();
+    private final BalanceLedger ledger = new BalanceLedger(toCents(startingBalance));
 
     public static EconomyManager getInstance() {
         if (instance == null) {
@@ -39,92 +42,54 @@ public class EconomyManager {
         conn.createStatement().execute("CREATE INDEX IF NOT EXISTS idx_economy_balance ON vc_economy (balance DESC)");
     }
 
+    /**
+     * Start the balance ledger. Call after the table exists.
+     */
+    public void start() {
+        ledger.start(EssentialsConfig.CONFIG.balanceFlushInterval.get());
+    }
+
+    /**
+     * Write all pending balance changes and stop the ledger.
+     */
+    public void shutdown() {
+        ledger.stop();
+    }
+
     /**
      * Load player balance asynchronously on join.
      */
     public void loadBalanceAsync(UUID uuid) {
-        VonixCore.executeAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement(
-                        "SELECT balance FROM vc_economy WHERE uuid = ?");
-                stmt.setString(1, uuid.toString());
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    balanceCache.put(uuid, rs.getDouble("balance"));
-                } else {
-                    // New player, insert default balance
-                    setBalance(uuid, startingBalance);
-                }
-            } catch (SQLException e) {
-                VonixCore.LOGGER.error("[VonixCore] Failed to load balance for {}: {}", uuid, e.getMessage());
-                // Fallback to starting balance in cache to prevent errors
-                balanceCache.put(uuid, startingBalance);
-            }
-        });
+        ledger.retain(uuid);
+        ledger.load(uuid);
     }
 
     /**
-     * Unload player balance on quit.
+     * Unload player balance on quit. Pending changes are written first.
      */
     public void unloadBalance(UUID uuid) {
-        balanceCache.remove(uuid);
+        ledger.release(uuid);
     }
 
     /**
      * Get a player's balance.
      */
     public java.util.concurrent.CompletableFuture<Double> getBalance(UUID uuid) {
-        // Check cache first
-        if (balanceCache.containsKey(uuid)) {
-            return java.util.concurrent.CompletableFuture.completedFuture(balanceCache.get(uuid));
-        }
-
-        // Load asynchronously
-        return java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement(
-                        "SELECT balance FROM vc_economy WHERE uuid = ?");
-                stmt.setString(1, uuid.toString());
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    double balance = rs.getDouble("balance");
-                    balanceCache.put(uuid, balance);
-                    return balance;
-                } else {
-                    // Create new account with starting balance
-                    setBalance(uuid, startingBalance);
-                    return startingBalance;
-                }
-            } catch (SQLException e) {
-                VonixCore.LOGGER.error("[VonixCore] Failed to get balance: {}", e.getMessage());
-                return 0.0;
-            }
-        });
+        return ledger.load(uuid)
+                .thenApply(account -> {
+                    synchronized (account) {
+                        return account.cents / 100.0;
+                    }
+                })
+                .exceptionally(e -> 0.0);
     }
 
     /**
      * Set a player's balance.
      */
     public java.util.concurrent.CompletableFuture<Boolean> setBalance(UUID uuid, double balance) {
-        double newBalance = Math.max(0, balance);
-        
-        // Update cache immediately
-        balanceCache.put(uuid, newBalance);
-        
-        // Persist to DB asynchronously
-        return java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement(
-                        "INSERT OR REPLACE INTO vc_economy (uuid, balance) VALUES (?, ?)");
-                stmt.setString(1, uuid.toString());
-                stmt.setDouble(2, newBalance);
-                stmt.executeUpdate();
-                return true;
-            } catch (SQLException e) {
-                VonixCore.LOGGER.error("[VonixCore] Failed to save balance for {}: {}", uuid, e.getMessage());
-                return false;
-            }
-        });
+        long cents = Math.max(0, toCents(balance));
+        return ledger.update(uuid, current -> cents);
     }
 
     /**
@@ -133,8 +98,9 @@ public class EconomyManager {
     public java.util.concurrent.CompletableFuture<Boolean> deposit(UUID uuid, double amount) {
         if (amount <= 0)
             return java.util.concurrent.CompletableFuture.completedFuture(false);
-            
-        return getBalance(uuid).thenCompose(current -> setBalance(uuid, current + amount));
+
+        long cents = toCents(amount);
+        return ledger.update(uuid, current -> current + cents);
     }
 
     /**
@@ -143,39 +109,53 @@ public class EconomyManager {
     public java.util.concurrent.CompletableFuture<Boolean> withdraw(UUID uuid, double amount) {
         if (amount <= 0)
             return java.util.concurrent.CompletableFuture.completedFuture(false);
-            
-        return getBalance(uuid).thenCompose(current -> {
-            if (current < amount)
-                return java.util.concurrent.CompletableFuture.completedFuture(false);
-            return setBalance(uuid, current - amount);
-        });
+
+        long cents = toCents(amount);
+        return ledger.update(uuid, current -> current < cents ? BalanceLedger.REJECT : current - cents);
     }
 
     /**
      * Transfer money between players.
      */
     public java.util.concurrent.CompletableFuture<Boolean> transfer(UUID from, UUID to, double amount) {
-        if (amount <= 0)
-            return java.util.concurrent.CompletableFuture.completedFuture(false);
-            
-        return getBalance(from).thenCompose(fromBalance -> {
-            if (fromBalance < amount)
-                return java.util.concurrent.CompletableFuture.completedFuture(false);
-                
-            return withdraw(from, amount).thenCompose(success -> {
-                if (success) {
-                    return deposit(to, amount).thenApply(depositSuccess -> {
-                        if (!depositSuccess) {
-                            // Rollback (best effort)
-                            deposit(from, amount);
-                            return false;
-                        }
-                        return true;
-                    });
-                }
-                return java.util.concurrent.CompletableFuture.completedFuture(false);
-            });
-        });
+        return transferMinor(from, to, toCents(amount)).thenApply(result -> result == TransferResult.SUCCESS);
+    }
+
+    /**
+     * Transfer an amount in cents between players as one atomic step. Either
+     * both balances change or neither does.
+     */
+    public java.util.concurrent.CompletableFuture<TransferResult> transferMinor(UUID from, UUID to, long cents) {
+        return ledger.transfer(from, to, cents);
+    }
+
+    /**
+     * Transfer an amount in cents between players as one atomic step and
+     * charge the sender a fee on top, such as a shop tax. The sender pays
+     * {@code cents + feeCents}, the receiver gets {@code cents} and the fee
+     * leaves the economy.
+     */
+    public java.util.concurrent.CompletableFuture<TransferResult> transferMinor(UUID from, UUID to, long cents,
+            long feeCents) {
+        return ledger.transfer(from, to, cents, feeCents);
+    }
+
+    /**
+     * Buy up to {@code maxUnits} units at {@code unitCents} each from the
+     * server as one guarded update. Charges for as many units as the balance
+     * covers.
+     *
+     * @return The number of units paid for, 0 if none were affordable
+     */
+    public java.util.concurrent.CompletableFuture<Integer> purchase(UUID uuid, long unitCents, int maxUnits) {
+        if (unitCents <= 0 || maxUnits <= 0)
+            return java.util.concurrent.CompletableFuture.completedFuture(0);
+
+        int[] units = new int[1];
+        return ledger.update(uuid, current -> {
+            units[0] = (int) Math.min(maxUnits, current / unitCents);
+            return units[0] == 0 ? BalanceLedger.REJECT : current - units[0] * unitCents;
+        }).thenApply(paid -> paid ? units[0] : 0);
     }
 
     /**
@@ -189,12 +169,27 @@ public class EconomyManager {
      * Get top balances.
      */
     public java.util.concurrent.CompletableFuture<List<BalanceEntry>> getTopBalances(int limit) {
-        return java.util.concurrent.CompletableFuture.supplyAsync(() -> {
+        return getBalancePage(1, limit);
+    }
+
+    /**
+     * Get one page of the balance ranking, starting at page 1.
+     */
+    public java.util.concurrent.CompletableFuture<List<BalanceEntry>> getBalancePage(int page, int pageSize) {
+        int offset = Math.max(0, page - 1) * pageSize;
+        BalanceLeaderboard leaderboard = ledger.getLeaderboard();
+        if (leaderboard.isReady()) {
+            return java.util.concurrent.CompletableFuture.completedFuture(leaderboard.page(offset, pageSize));
+        }
+
+        // Leaderboard still loading, ask the database once recent changes are written
+        return ledger.afterFlush(() -> {
             List<BalanceEntry> top = new ArrayList<>();
             try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
                 PreparedStatement stmt = conn.prepareStatement(
-                        "SELECT uuid, balance FROM vc_economy ORDER BY balance DESC LIMIT ?");
-                stmt.setInt(1, limit);
+                        "SELECT uuid, balance FROM vc_economy ORDER BY balance DESC LIMIT ? OFFSET ?");
+                stmt.setInt(1, pageSize);
+                stmt.setInt(2, offset);
                 ResultSet rs = stmt.executeQuery();
                 while (rs.next()) {
                     top.add(new BalanceEntry(
@@ -208,6 +203,22 @@ public class EconomyManager {
         });
     }
 
+    /**
+     * Get a player's 1-based position in the balance ranking, or 0 while the
+     * ranking is still loading.
+     */
+    public int getRank(UUID uuid) {
+        BalanceLeaderboard leaderboard = ledger.getLeaderboard();
+        return leaderboard.isReady() ? leaderboard.rank(uuid) : 0;
+    }
+
+    /**
+     * Number of accounts in the balance ranking.
+     */
+    public int getAccountCount() {
+        return ledger.getLeaderboard().size();
+    }
+
     /**
      * Format currency for display.
      */
@@ -217,6 +228,25 @@ public class EconomyManager {
 
     public void setStartingBalance(double balance) {
         this.startingBalance = balance;
+        ledger.setStartingCents(toCents(balance));
+    }
+
+    /**
+     * Convert an amount of money to whole cents, rounding half up.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Outcome of a transfer.
+     */
+    public enum TransferResult {
+        SUCCESS,
+        INSUFFICIENT_FUNDS,
+        INVALID_AMOUNT,
+        SAME_ACCOUNT,
+        ACCOUNT_UNAVAILABLE
     }
 
     /**
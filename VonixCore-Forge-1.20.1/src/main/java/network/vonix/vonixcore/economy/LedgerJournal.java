@@ -0,0 +1,192 @@
+package network.vonix.vonixcore.economy;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only journal of balance changes not yet written to the database.
+ * Every mutation appends the account's new balance, so replaying the
+ * segments oldest-first and keeping the last value per account rebuilds
+ * exactly what was in memory. Segments are rotated before each database
+ * flush and deleted once that flush commits.
+ *
+ * Record layout: [long uuid msb][long uuid lsb][long cents]. A torn record
+ * at the end of a segment is ignored.
+ */
+final class LedgerJournal {
+
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".log";
+    private static final int RECORD_BYTES = 24;
+
+    private final File directory;
+    private long activeSegment;
+    private FileOutputStream activeStream;
+
+    LedgerJournal(File directory) {
+        this.directory = directory;
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        long highest = -1;
+        for (File segment : listSegments()) {
+            highest = Math.max(highest, segmentNumber(segment));
+        }
+        this.activeSegment = highest + 1;
+    }
+
+    /**
+     * Record the new balance of an account. The record is forced to disk
+     * before this returns, so it survives a crash of the server process or of
+     * the machine.
+     */
+    void append(UUID uuid, long cents) throws IOException {
+        write(record(uuid, cents));
+    }
+
+    /**
+     * Record the new balances of both sides of a transfer in a single write,
+     * so a crash never keeps one side without the other.
+     */
+    void append(UUID first, long firstCents, UUID second, long secondCents) throws IOException {
+        write(record(first, firstCents, second, secondCents));
+    }
+
+    /**
+     * Write records built by {@link #record} in one write, in list order, and
+     * force them to disk.
+     */
+    void appendAll(List<byte[]> records) throws IOException {
+        int length = 0;
+        for (byte[] record : records) {
+            length += record.length;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(length);
+        for (byte[] record : records) {
+            batch.put(record);
+        }
+        write(batch.array());
+    }
+
+    static byte[] record(UUID uuid, long cents) {
+        ByteBuffer records = ByteBuffer.allocate(RECORD_BYTES);
+        put(records, uuid, cents);
+        return records.array();
+    }
+
+    static byte[] record(UUID first, long firstCents, UUID second, long secondCents) {
+        ByteBuffer records = ByteBuffer.allocate(RECORD_BYTES * 2);
+        put(records, first, firstCents);
+        put(records, second, secondCents);
+        return records.array();
+    }
+
+    private static void put(ByteBuffer records, UUID uuid, long cents) {
+        records.putLong(uuid.getMostSignificantBits());
+        records.putLong(uuid.getLeastSignificantBits());
+        records.putLong(cents);
+    }
+
+    private synchronized void write(byte[] records) throws IOException {
+        if (activeStream == null) {
+            activeStream = new FileOutputStream(segmentFile(activeSegment), true);
+        }
+        activeStream.write(records);
+        // One sync per batch; file metadata is not needed to replay
+        activeStream.getChannel().force(false);
+    }
+
+    /**
+     * Close the active segment and start a new one.
+     *
+     * @return Number of the new segment; every older segment is covered by a
+     *         flush that starts after this call
+     */
+    synchronized long rotate() throws IOException {
+        if (activeStream != null) {
+            activeStream.close();
+            activeStream = null;
+        }
+        return ++activeSegment;
+    }
+
+    /**
+     * Delete every segment older than the given one.
+     */
+    void deleteBefore(long segment) {
+        for (File file : listSegments()) {
+            if (segmentNumber(file) < segment) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Read the last recorded balance of every account, oldest segment first.
+     */
+    Map<UUID, Long> replay() throws IOException {
+        Map<UUID, Long> balances = new LinkedHashMap<>();
+        for (File segment : listSegments()) {
+            if (segmentNumber(segment) >= activeSegment) {
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+                byte[] record = new byte[RECORD_BYTES];
+                while (true) {
+                    try {
+                        in.readFully(record);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    ByteBuffer fields = ByteBuffer.wrap(record);
+                    UUID uuid = new UUID(fields.getLong(), fields.getLong());
+                    balances.put(uuid, fields.getLong());
+                }
+            }
+        }
+        return balances;
+    }
+
+    synchronized void close() throws IOException {
+        if (activeStream != null) {
+            activeStream.close();
+            activeStream = null;
+        }
+    }
+
+    private File segmentFile(long number) {
+        return new File(directory, PREFIX + number + SUFFIX);
+    }
+
+    private List<File> listSegments() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        List<File> segments = new ArrayList<>(Arrays.asList(files));
+        segments.sort(Comparator.comparingLong(LedgerJournal::segmentNumber));
+        return segments;
+    }
+
+    private static long segmentNumber(File file) {
+        String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
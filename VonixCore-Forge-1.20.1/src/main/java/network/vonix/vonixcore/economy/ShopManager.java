@@ -14,6 +14,9 @@ import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages chest-based block shops with holograms.
@@ -26,8 +29,16 @@ public class ShopManager {
     // Players in shop creation mode: UUID -> creation state
     private final Map<UUID, ShopCreationState> creatingShop = new HashMap<>();
 
-    // Cached shops for quick lookup
-    private final Map<String, ChestShop> shopCache = new ConcurrentHashMap<>();
+    // Seconds between batched chest shop writes
+    private static final int FLUSH_INTERVAL_SECONDS = 2;
+
+    // Every chest shop, loaded at startup; the database is written behind it
+    private final ChestShopIndex shops = new ChestShopIndex();
+    // Rows waiting to be written, by location
+    private final Map<ShopPos, Write> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService executor;
+    private volatile boolean loaded;
 
     public static ShopManager getInstance() {
         if (instance == null) {
@@ -133,97 +144,27 @@ public class ShopManager {
             int quantity) {
         UUID uuid = player.getUUID();
         String world = player.level().dimension().location().toString();
-        long createdAt = System.currentTimeMillis() / 1000L;
 
-        // Cache immediately
-        String key = shopKey(world, pos);
-        shopCache.put(key, new ChestShop(uuid, itemId, buyPrice, sellPrice, quantity));
+        shops.put(world, pos.getX(), pos.getY(), pos.getZ(), new ChestShop(uuid, itemId, buyPrice, sellPrice, quantity));
         creatingShop.remove(uuid);
-
-        // Save to database asynchronously
-        VonixCore.executeAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement(
-                        "INSERT INTO vc_chest_shops (owner_uuid, world, x, y, z, item_id, buy_price, sell_price, stock, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-                stmt.setString(1, uuid.toString());
-                stmt.setString(2, world);
-                stmt.setInt(3, pos.getX());
-                stmt.setInt(4, pos.getY());
-                stmt.setInt(5, pos.getZ());
-                stmt.setString(6, itemId);
-                stmt.setObject(7, buyPrice);
-                stmt.setObject(8, sellPrice);
-                stmt.setInt(9, quantity);
-                stmt.setLong(10, createdAt);
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                VonixCore.LOGGER.error("[VonixCore] Failed to create chest shop: {}", e.getMessage());
-                // Remove from cache if save failed to prevent inconsistencies?
-                // Or retry. For now, we log error.
-            }
-        });
-
+        markDirty(world, pos, Write.REPLACE);
         return true;
     }
 
     /**
-     * Get shop at a location.
+     * Get shop at a location. Answered from memory.
      */
     public ChestShop getShopAt(String world, BlockPos pos) {
-        String key = shopKey(world, pos);
-
-        // Check cache first
-        if (shopCache.containsKey(key)) {
-            return shopCache.get(key);
-        }
-
-        // Load from database
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT owner_uuid, item_id, buy_price, sell_price, stock FROM vc_chest_shops WHERE world = ? AND x = ? AND y = ? AND z = ?");
-            stmt.setString(1, world);
-            stmt.setInt(2, pos.getX());
-            stmt.setInt(3, pos.getY());
-            stmt.setInt(4, pos.getZ());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                ChestShop shop = new ChestShop(
-                        UUID.fromString(rs.getString("owner_uuid")),
-                        rs.getString("item_id"),
-                        rs.getObject("buy_price") != null ? rs.getDouble("buy_price") : null,
-                        rs.getObject("sell_price") != null ? rs.getDouble("sell_price") : null,
-                        rs.getInt("stock"));
-                shopCache.put(key, shop);
-                return shop;
-            }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to get shop: {}", e.getMessage());
-        }
-        return null;
+        return shops.get(world, pos.getX(), pos.getY(), pos.getZ());
     }
 
     /**
      * Delete a shop.
      */
     public boolean deleteShop(String world, BlockPos pos) {
-        // Update cache immediately
-        String key = shopKey(world, pos);
-        shopCache.remove(key);
-
-        // Update database asynchronously
-        VonixCore.executeAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement(
-                        "DELETE FROM vc_chest_shops WHERE world = ? AND x = ? AND y = ? AND z = ?");
-                stmt.setString(1, world);
-                stmt.setInt(2, pos.getX());
-                stmt.setInt(3, pos.getY());
-                stmt.setInt(4, pos.getZ());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                VonixCore.LOGGER.error("[VonixCore] Failed to delete shop: {}", e.getMessage());
-            }
-        });
+        if (shops.remove(world, pos.getX(), pos.getY(), pos.getZ()) != null) {
+            markDirty(world, pos, Write.DELETE);
+        }
         return true;
     }
 
@@ -234,97 +175,183 @@ public class ShopManager {
      * @return true if successful
      */
     public boolean updateStock(String world, BlockPos pos, int delta) {
-        String key = shopKey(world, pos);
-        
-        // Update cache immediately if present
-        if (shopCache.containsKey(key)) {
-            ChestShop old = shopCache.get(key);
-            shopCache.put(key, new ChestShop(old.owner(), old.itemId(), old.buyPrice(), old.sellPrice(),
-                    Math.max(0, old.stock() + delta)));
-        } else {
-             // If not in cache, we can't easily update it without fetching first.
-             // But since we are pushing async, we should try to fetch-update if critical,
-             // or just issue the DB update.
-             // However, `handleCustomerClick` relies on the cache being up to date for subsequent clicks.
-             // If it's not in cache, `getShopAt` would have fetched it.
-             // So it SHOULD be in cache unless it was evicted or never loaded.
+        ChestShop updated = shops.update(world, pos.getX(), pos.getY(), pos.getZ(),
+                old -> new ChestShop(old.owner(), old.itemId(), old.buyPrice(), old.sellPrice(),
+                        Math.max(0, old.stock() + delta)));
+        if (updated != null) {
+            markDirty(world, pos, Write.UPDATE);
         }
-
-        // Update database asynchronously
-        VonixCore.executeAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement(
-                        "UPDATE vc_chest_shops SET stock = stock + ? WHERE world = ? AND x = ? AND y = ? AND z = ?");
-                stmt.setInt(1, delta);
-                stmt.setString(2, world);
-                stmt.setInt(3, pos.getX());
-                stmt.setInt(4, pos.getY());
-                stmt.setInt(5, pos.getZ());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                VonixCore.LOGGER.error("[VonixCore] Failed to update shop stock: {}", e.getMessage());
-            }
-        });
-        
         return true;
     }
 
     /**
      * Get all shops in a specific chunk.
      * Used for respawning holograms on chunk load.
-     * Populates cache with full shop data.
      */
     public List<ChestShopLocation> getShopsInChunk(String world, int chunkX, int chunkZ) {
-        List<ChestShopLocation> shops = new ArrayList<>();
-        int minX = chunkX * 16;
-        int maxX = minX + 15;
-        int minZ = chunkZ * 16;
-        int maxZ = minZ + 15;
+        List<ChestShopLocation> locations = new ArrayList<>();
+        for (ChestShopIndex.Located located : shops.inChunk(world, chunkX, chunkZ)) {
+            locations.add(new ChestShopLocation(new BlockPos(located.x(), located.y(), located.z()),
+                    located.shop().itemId()));
+        }
+        return locations;
+    }
 
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT * FROM vc_chest_shops WHERE world = ? AND x >= ? AND x <= ? AND z >= ? AND z <= ?");
-            stmt.setString(1, world);
-            stmt.setInt(2, minX);
-            stmt.setInt(3, maxX);
-            stmt.setInt(4, minZ);
-            stmt.setInt(5, maxZ);
-            ResultSet rs = stmt.executeQuery();
+    // ===== CHEST SHOP STORAGE =====
+
+    /**
+     * Load every chest shop into memory and start the periodic write of
+     * changed shops.
+     */
+    public void loadShops(Connection conn) throws SQLException {
+        shops.clear();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT owner_uuid, world, x, y, z, item_id, buy_price, sell_price, stock FROM vc_chest_shops");
+                ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                BlockPos pos = new BlockPos(rs.getInt("x"), rs.getInt("y"), rs.getInt("z"));
-                String itemId = rs.getString("item_id");
-                
-                // Create full shop object and cache it
                 ChestShop shop = new ChestShop(
                         UUID.fromString(rs.getString("owner_uuid")),
-                        itemId,
+                        rs.getString("item_id"),
                         rs.getObject("buy_price") != null ? rs.getDouble("buy_price") : null,
                         rs.getObject("sell_price") != null ? rs.getDouble("sell_price") : null,
                         rs.getInt("stock"));
-                
-                shopCache.put(shopKey(world, pos), shop);
-                
-                shops.add(new ChestShopLocation(pos, itemId));
+                shops.put(rs.getString("world"), rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), shop);
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to get shops in chunk: {}", e.getMessage());
         }
-        return shops;
+        loaded = true;
+        VonixCore.LOGGER.info("[VonixCore] Loaded {} chest shop(s)", shops.size());
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "VonixCore-Shops");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
+        }
     }
 
     /**
-     * Asynchronously load shops in a chunk and return locations via callback.
+     * @return True once every chest shop has been loaded into memory
      */
-    public void loadShopsInChunkAsync(String world, int chunkX, int chunkZ, java.util.function.Consumer<List<ChestShopLocation>> callback) {
-        VonixCore.executeAsync(() -> {
-            List<ChestShopLocation> shops = getShopsInChunk(world, chunkX, chunkZ);
-            // Callback on main thread if needed, or let caller handle it.
-            // Since DisplayEntityManager needs to spawn entities, it probably needs main thread.
-            // But let's just return the list and let caller schedule.
-             if (callback != null) {
-                 callback.accept(shops);
-             }
-        });
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Stop the periodic write and write every changed shop.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        flush();
+    }
+
+    private void markDirty(String world, BlockPos pos, Write write) {
+        pending.merge(new ShopPos(world, pos.getX(), pos.getY(), pos.getZ()), write, Write::then);
+    }
+
+    // Write the current state of every changed shop in one transaction
+    private void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<ShopPos, Write> batch = new HashMap<>();
+            for (ShopPos key : pending.keySet()) {
+                Write write = pending.remove(key);
+                if (write != null) {
+                    batch.put(key, write);
+                }
+            }
+
+            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement delete = conn.prepareStatement(
+                        "DELETE FROM vc_chest_shops WHERE world = ? AND x = ? AND y = ? AND z = ?");
+                        PreparedStatement insert = conn.prepareStatement(
+                                "INSERT INTO vc_chest_shops (owner_uuid, world, x, y, z, item_id, buy_price, sell_price, stock, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                        PreparedStatement update = conn.prepareStatement(
+                                "UPDATE vc_chest_shops SET stock = ? WHERE world = ? AND x = ? AND y = ? AND z = ?")) {
+                    long now = System.currentTimeMillis() / 1000L;
+                    for (Map.Entry<ShopPos, Write> entry : batch.entrySet()) {
+                        ShopPos key = entry.getKey();
+                        ChestShop shop = shops.get(key.world(), key.x(), key.y(), key.z());
+                        if (entry.getValue() != Write.UPDATE) {
+                            setLocation(delete, 1, key);
+                            delete.addBatch();
+                        }
+                        if (shop == null) {
+                            continue;
+                        }
+                        if (entry.getValue() == Write.REPLACE) {
+                            insert.setString(1, shop.owner().toString());
+                            setLocation(insert, 2, key);
+                            insert.setString(6, shop.itemId());
+                            insert.setObject(7, shop.buyPrice());
+                            insert.setObject(8, shop.sellPrice());
+                            insert.setInt(9, shop.stock());
+                            insert.setLong(10, now);
+                            insert.addBatch();
+                        } else if (entry.getValue() == Write.UPDATE) {
+                            update.setInt(1, shop.stock());
+                            setLocation(update, 2, key);
+                            update.addBatch();
+                        }
+                    }
+                    delete.executeBatch();
+                    insert.executeBatch();
+                    update.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to save {} chest shop(s), retrying: {}", batch.size(),
+                        e.getMessage());
+                // Put them back in front of anything changed meanwhile
+                batch.forEach((key, write) -> pending.merge(key, write, (newer, older) -> older.then(newer)));
+            }
+        }
+    }
+
+    private static void setLocation(PreparedStatement stmt, int index, ShopPos key) throws SQLException {
+        stmt.setString(index, key.world());
+        stmt.setInt(index + 1, key.x());
+        stmt.setInt(index + 2, key.y());
+        stmt.setInt(index + 3, key.z());
+    }
+
+    private record ShopPos(String world, int x, int y, int z) {
+    }
+
+    /** Pending row write for a location; later writes merge into earlier ones. */
+    private enum Write {
+        /** Delete any row, then insert the current shop. */
+        REPLACE,
+        /** Write the current stock. */
+        UPDATE,
+        /** Delete the row. */
+        DELETE;
+
+        Write then(Write next) {
+            // A stock change keeps a pending insert or delete as it is
+            return next == UPDATE ? this : next;
+        }
     }
 
     /**
@@ -565,10 +592,6 @@ public class ShopManager {
 
     // ===== UTILITY =====
 
-    private String shopKey(String world, BlockPos pos) {
-        return world + ":" + pos.getX() + "," + pos.getY() + "," + pos.getZ();
-    }
-
     public static String getItemId(ItemStack stack) {
         ResourceLocation key = BuiltInRegistries.ITEM.getKey(stack.getItem());
         return key != null ? key.toString() : "minecraft:air";
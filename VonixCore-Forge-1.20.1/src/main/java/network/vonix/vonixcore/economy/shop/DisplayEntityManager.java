@@ -1,27 +1,44 @@
 package network.vonix.vonixcore.economy.shop;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.phys.AABB;
+import net.minecraft.world.level.ChunkPos;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.economy.ShopManager;
 
-import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Manages floating item displays above chest shops.
  * Uses ItemEntity with NoGravity NBT tag for visual representation.
+ *
+ * Displays are tracked per world and chunk, including ones loaded back from
+ * disk, so removing one never has to search the world for it. Chunk loads
+ * look up their shops in memory and queue the missing displays, which are
+ * spawned a few per tick.
  */
 public class DisplayEntityManager {
 
+    public static final String DISPLAY_TAG = "vonix_shop_display";
+
     private static DisplayEntityManager instance;
 
-    // Track display entities: "world:x,y,z" -> Entity UUID
-    private final Map<String, UUID> displayEntities = new ConcurrentHashMap<>();
+    // Display spawns per server tick, so a burst of chunk loads is spread out
+    private static final int SPAWNS_PER_TICK = 16;
+
+    // Track display entities: world -> chunk -> block -> entity UUID
+    private final Map<String, Map<Long, Map<Long, UUID>>> displays = new ConcurrentHashMap<>();
+    private final Set<UUID> displayIds = ConcurrentHashMap.newKeySet();
+    private final Queue<PendingSpawn> pendingSpawns = new ConcurrentLinkedQueue<>();
 
     public static DisplayEntityManager getInstance() {
         if (instance == null) {
@@ -34,8 +51,6 @@ public class DisplayEntityManager {
      * Spawn a floating item display above a chest shop
      */
     public void spawnDisplay(ServerLevel level, BlockPos pos, ItemStack displayItem) {
-        String key = locationKey(level, pos);
-
         // Remove existing display if any
         removeDisplay(level, pos);
 
@@ -64,13 +79,16 @@ public class DisplayEntityManager {
             itemEntity.setDeltaMovement(0, 0, 0);
 
             // Add custom tag for identification
-            itemEntity.addTag("vonix_shop_display");
+            itemEntity.addTag(DISPLAY_TAG);
 
-            // Spawn the entity
-            level.addFreshEntity(itemEntity);
+            // Track the entity before it joins, so the join check accepts it
+            track(level, pos, itemEntity.getUUID());
 
-            // Track the entity
-            displayEntities.put(key, itemEntity.getUUID());
+            // Spawn the entity
+            if (!level.addFreshEntity(itemEntity)) {
+                untrack(level, pos, itemEntity.getUUID());
+                return;
+            }
 
             VonixCore.LOGGER.debug("[Shop] Spawned display at {} with UUID {}", pos, itemEntity.getUUID());
 
@@ -84,39 +102,15 @@ public class DisplayEntityManager {
      * Remove a display entity at a location
      */
     public void removeDisplay(ServerLevel level, BlockPos pos) {
-        String key = locationKey(level, pos);
-        UUID entityId = displayEntities.remove(key);
+        UUID entityId = untrack(level, pos, null);
 
         if (entityId != null) {
-            // Find and remove the entity
+            // Find and remove the entity. If its chunk is not loaded, it is
+            // discarded once it loads back, as its shop is gone
             var entity = level.getEntity(entityId);
             if (entity != null) {
                 entity.discard();
                 VonixCore.LOGGER.debug("[Shop] Removed display entity at {}", pos);
-            } else {
-                // Entity might have been unloaded, try to find by position
-                removeDisplayByPosition(level, pos);
-            }
-        } else {
-            // No tracked entity, try to find by position anyway
-            removeDisplayByPosition(level, pos);
-        }
-    }
-
-    /**
-     * Remove display entity by searching near a position
-     */
-    private void removeDisplayByPosition(ServerLevel level, BlockPos pos) {
-        AABB searchBox = new AABB(
-                pos.getX() - 0.5, pos.getY() + 0.5, pos.getZ() - 0.5,
-                pos.getX() + 1.5, pos.getY() + 2.0, pos.getZ() + 1.5);
-
-        List<ItemEntity> items = level.getEntitiesOfClass(ItemEntity.class, searchBox);
-
-        for (ItemEntity item : items) {
-            if (item.getTags().contains("vonix_shop_display")) {
-                item.discard();
-                VonixCore.LOGGER.debug("[Shop] Removed display entity by position at {}", pos);
             }
         }
     }
@@ -133,77 +127,160 @@ public class DisplayEntityManager {
      * Check if a display exists at a location
      */
     public boolean hasDisplay(ServerLevel level, BlockPos pos) {
-        String key = locationKey(level, pos);
-        return displayEntities.containsKey(key);
+        Map<Long, UUID> chunk = chunk(level, ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        return chunk != null && chunk.containsKey(pos.asLong());
     }
 
     /**
-     * Respawn all displays in a chunk (called on chunk load)
+     * Queue the missing displays of a chunk's shops (called on chunk load)
      */
     public void respawnDisplaysInChunk(ServerLevel level, int chunkX, int chunkZ) {
         String world = level.dimension().location().toString();
+        var shops = ShopManager.getInstance().getShopsInChunk(world, chunkX, chunkZ);
+        if (shops.isEmpty()) {
+            return;
+        }
 
-        // Query database asynchronously
-        network.vonix.vonixcore.economy.ShopManager.getInstance().loadShopsInChunkAsync(world, chunkX, chunkZ, (shops) -> {
-            if (shops.isEmpty()) {
-                return;
+        Map<Long, UUID> chunk = chunk(level, ChunkPos.asLong(chunkX, chunkZ));
+        for (var shopLoc : shops) {
+            // Skip if already tracked (might have been loaded via entity load)
+            if (chunk == null || !chunk.containsKey(shopLoc.pos().asLong())) {
+                pendingSpawns.add(new PendingSpawn(level, shopLoc.pos(), shopLoc.itemId()));
             }
+        }
+    }
 
-            // Schedule spawning on main thread
-            level.getServer().execute(() -> {
-                 // Double check if level is still loaded/valid if needed
-                 if (level.getServer().getLevel(level.dimension()) == null) return;
+    /**
+     * Spawn a batch of queued displays (called every server tick)
+     */
+    public void tick(MinecraftServer server) {
+        for (int i = 0; i < SPAWNS_PER_TICK; i++) {
+            PendingSpawn spawn = pendingSpawns.poll();
+            if (spawn == null) {
+                return;
+            }
+            ServerLevel level = spawn.level();
+            // Queued twice, unloaded again, or the shop is gone meanwhile
+            if (server.getLevel(level.dimension()) != level || !level.isLoaded(spawn.pos())
+                    || hasDisplay(level, spawn.pos())
+                    || ShopManager.getInstance().getShopAt(level.dimension().location().toString(),
+                            spawn.pos()) == null) {
+                continue;
+            }
 
-                VonixCore.LOGGER.debug("[Shop] Respawning {} display(s) in chunk {},{}", shops.size(), chunkX, chunkZ);
+            // Create display item from item ID
+            ItemStack displayItem = ItemUtils.createItemFromId(spawn.itemId());
+            if (!displayItem.isEmpty()) {
+                spawnDisplay(level, spawn.pos(), displayItem);
+            }
+        }
+    }
 
-                // Respawn each shop's display
-                for (var shopLoc : shops) {
-                    String key = locationKey(level, shopLoc.pos());
+    /**
+     * Check a display entity joining a level, usually loaded back with its
+     * chunk. It is tracked if it belongs to a shop that has no other live
+     * display.
+     *
+     * @return False if the entity is stale or a duplicate and should not join
+     */
+    public boolean acceptDisplay(ServerLevel level, ItemEntity entity) {
+        BlockPos pos = BlockPos.containing(entity.getX(), entity.getY() - 1.25, entity.getZ());
+        Map<Long, UUID> chunk = chunk(level, ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        UUID tracked = chunk != null ? chunk.get(pos.asLong()) : null;
+        if (entity.getUUID().equals(tracked)) {
+            return true;
+        }
 
-                    // Skip if already tracked (might have been loaded via entity load)
-                    if (displayEntities.containsKey(key)) {
-                        continue;
-                    }
+        ShopManager shops = ShopManager.getInstance();
+        if (shops.isLoaded() && shops.getShopAt(level.dimension().location().toString(), pos) == null) {
+            return false;
+        }
+        if (tracked != null) {
+            Entity current = level.getEntity(tracked);
+            if (current != null && current.isAlive()) {
+                return false;
+            }
+        }
+        track(level, pos, entity.getUUID());
+        return true;
+    }
 
-                    // Create display item from item ID
-                    ItemStack displayItem = ItemUtils.createItemFromId(shopLoc.itemId());
-                    if (!displayItem.isEmpty()) {
-                        spawnDisplay(level, shopLoc.pos(), displayItem);
-                    }
-                }
-            });
-        });
+    /**
+     * Forget a display entity that was killed or discarded.
+     */
+    public void onDisplayRemoved(ServerLevel level, ItemEntity entity) {
+        if (displayIds.contains(entity.getUUID())) {
+            untrack(level, BlockPos.containing(entity.getX(), entity.getY() - 1.25, entity.getZ()),
+                    entity.getUUID());
+        }
     }
 
     /**
      * Remove all displays in a level (called on shutdown)
      */
     public void removeAllDisplays(ServerLevel level) {
-        String prefix = level.dimension().location().toString();
-        displayEntities.entrySet().removeIf(entry -> {
-            if (entry.getKey().startsWith(prefix)) {
-                var entity = level.getEntity(entry.getValue());
+        Map<Long, Map<Long, UUID>> chunks = displays.remove(level.dimension().location().toString());
+        if (chunks == null) {
+            return;
+        }
+        for (Map<Long, UUID> chunk : chunks.values()) {
+            for (UUID entityId : chunk.values()) {
+                displayIds.remove(entityId);
+                var entity = level.getEntity(entityId);
                 if (entity != null) {
                     entity.discard();
                 }
-                return true;
             }
-            return false;
-        });
-    }
-
-    /**
-     * Generate location key
-     */
-    private String locationKey(ServerLevel level, BlockPos pos) {
-        return level.dimension().location().toString() + ":" +
-                pos.getX() + "," + pos.getY() + "," + pos.getZ();
+        }
     }
 
     /**
      * Check if an entity is a shop display entity
      */
     public boolean isShopDisplay(UUID entityId) {
-        return displayEntities.containsValue(entityId);
+        return displayIds.contains(entityId);
+    }
+
+    private Map<Long, UUID> chunk(ServerLevel level, long chunkKey) {
+        Map<Long, Map<Long, UUID>> chunks = displays.get(level.dimension().location().toString());
+        return chunks != null ? chunks.get(chunkKey) : null;
+    }
+
+    private synchronized void track(ServerLevel level, BlockPos pos, UUID entityId) {
+        UUID previous = displays.computeIfAbsent(level.dimension().location().toString(),
+                w -> new ConcurrentHashMap<>())
+                .computeIfAbsent(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), k -> new ConcurrentHashMap<>())
+                .put(pos.asLong(), entityId);
+        if (previous != null) {
+            displayIds.remove(previous);
+        }
+        displayIds.add(entityId);
+    }
+
+    // Untrack the display at a position, only if it is the given entity when
+    // one is given; returns the untracked entity
+    private synchronized UUID untrack(ServerLevel level, BlockPos pos, UUID expected) {
+        Map<Long, Map<Long, UUID>> chunks = displays.get(level.dimension().location().toString());
+        if (chunks == null) {
+            return null;
+        }
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Map<Long, UUID> chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            return null;
+        }
+        UUID current = chunk.get(pos.asLong());
+        if (current == null || (expected != null && !expected.equals(current))) {
+            return null;
+        }
+        chunk.remove(pos.asLong());
+        if (chunk.isEmpty()) {
+            chunks.remove(chunkKey);
+        }
+        displayIds.remove(current);
+        return current;
+    }
+
+    private record PendingSpawn(ServerLevel level, BlockPos pos, String itemId) {
     }
 }
@@ -14,6 +14,9 @@ import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.level.block.entity.BarrelBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.event.ServerChatEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
 import net.minecraftforge.event.entity.player.PlayerContainerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.level.BlockEvent;
@@ -140,35 +143,33 @@ public class ShopEventListener {
             double taxAmount = price * taxRate;
             double totalPrice = price + taxAmount;
 
-            eco.getBalance(player.getUUID()).thenAccept(balance -> {
-                if (balance < totalPrice) {
-                    VonixCore.execute(() -> player.sendSystemMessage(Component.literal("§cInsufficient funds! Need " + symbol + String.format("%.2f", totalPrice))));
-                    return;
-                }
+            // Buyer pays price plus tax, owner gets the price, in one transfer
+            eco.transferMinor(player.getUUID(), shop.owner(), EconomyManager.toCents(price),
+                    EconomyManager.toCents(taxAmount)).thenAccept(result -> VonixCore.execute(() -> {
+                        if (result == EconomyManager.TransferResult.INSUFFICIENT_FUNDS) {
+                            player.sendSystemMessage(Component.literal("§cInsufficient funds! Need " + symbol + String.format("%.2f", totalPrice)));
+                            return;
+                        }
+                        if (result != EconomyManager.TransferResult.SUCCESS) {
+                            player.sendSystemMessage(Component.literal("§cTransaction failed!"));
+                            return;
+                        }
 
-                eco.withdraw(player.getUUID(), totalPrice).thenAccept(withdrew -> {
-                    if (withdrew) {
-                        eco.deposit(shop.owner(), price).thenRun(() -> {
-                            ShopManager.getInstance().updateStock(world, pos, -1);
-                            VonixCore.execute(() -> {
-                                var leftover = ItemUtils.giveItems(player, shop.itemId(), 1);
-                                if (!leftover.isEmpty()) {
-                                    player.drop(leftover, false);
-                                }
-
-                                if (network.vonix.vonixcore.config.ShopsConfig.CONFIG.transactionLogEnabled.get()) {
-                                    network.vonix.vonixcore.economy.TransactionLog.getInstance().logShopBuy(
-                                            player.getUUID(), shop.owner(), price, taxAmount,
-                                            0, shop.itemId(), 1, world, pos.getX(), pos.getY(), pos.getZ());
-                                }
-
-                                String taxInfo = taxAmount > 0.001 ? String.format(" §7(+%s%.2f tax)", symbol, taxAmount) : "";
-                                player.sendSystemMessage(Component.literal("§aPurchased 1x " + shop.itemId() + " for " + symbol + String.format("%.2f", price) + taxInfo));
-                            });
-                        });
-                    }
-                });
-            });
+                        ShopManager.getInstance().updateStock(world, pos, -1);
+                        var leftover = ItemUtils.giveItems(player, shop.itemId(), 1);
+                        if (!leftover.isEmpty()) {
+                            player.drop(leftover, false);
+                        }
+
+                        if (network.vonix.vonixcore.config.ShopsConfig.CONFIG.transactionLogEnabled.get()) {
+                            network.vonix.vonixcore.economy.TransactionLog.getInstance().logShopBuy(
+                                    player.getUUID(), shop.owner(), price, taxAmount,
+                                    0, shop.itemId(), 1, world, pos.getX(), pos.getY(), pos.getZ());
+                        }
+
+                        String taxInfo = taxAmount > 0.001 ? String.format(" §7(+%s%.2f tax)", symbol, taxAmount) : "";
+                        player.sendSystemMessage(Component.literal("§aPurchased 1x " + shop.itemId() + " for " + symbol + String.format("%.2f", price) + taxInfo));
+                    }));
 
         } else if (isSneaking && shop.sellPrice() != null && shop.sellPrice() > 0) {
             // Sell one item
@@ -182,32 +183,37 @@ public class ShopEventListener {
             double taxAmount = price * taxRate;
             double sellerReceives = price - taxAmount;
 
-            eco.getBalance(shop.owner()).thenAccept(ownerBalance -> {
-                if (ownerBalance < price) {
-                    VonixCore.execute(() -> player.sendSystemMessage(Component.literal("§cThe shop owner doesn't have enough money!")));
-                    return;
-                }
+            if (!ItemUtils.removeItems(player, shop.itemId(), 1)) {
+                return;
+            }
 
-                VonixCore.execute(() -> {
-                    if (ItemUtils.removeItems(player, shop.itemId(), 1)) {
-                        eco.withdraw(shop.owner(), price).thenAccept(withdrew -> {
-                            if (withdrew) {
-                                eco.deposit(player.getUUID(), sellerReceives).thenRun(() -> {
-                                    ShopManager.getInstance().updateStock(world, pos, 1);
-                                    if (network.vonix.vonixcore.config.ShopsConfig.CONFIG.transactionLogEnabled.get()) {
-                                        network.vonix.vonixcore.economy.TransactionLog.getInstance().logShopSell(
-                                                player.getUUID(), shop.owner(), price, taxAmount,
-                                                0, shop.itemId(), 1, world, pos.getX(), pos.getY(), pos.getZ());
-                                    }
-
-                                    String taxInfo = taxAmount > 0.001 ? String.format(" §7(-%s%.2f tax)", symbol, taxAmount) : "";
-                                    player.sendSystemMessage(Component.literal("§aSold 1x " + shop.itemId() + " for " + symbol + String.format("%.2f", sellerReceives) + taxInfo));
-                                });
+            // Owner pays the price, seller gets it minus tax, in one transfer
+            long taxCents = EconomyManager.toCents(taxAmount);
+            eco.transferMinor(shop.owner(), player.getUUID(), EconomyManager.toCents(price) - taxCents, taxCents)
+                    .thenAccept(result -> VonixCore.execute(() -> {
+                        if (result != EconomyManager.TransferResult.SUCCESS) {
+                            // Nothing was paid, hand the item back
+                            var leftover = ItemUtils.giveItems(player, shop.itemId(), 1);
+                            if (!leftover.isEmpty()) {
+                                player.drop(leftover, false);
                             }
-                        });
-                    }
-                });
-            });
+                            player.sendSystemMessage(Component.literal(
+                                    result == EconomyManager.TransferResult.INSUFFICIENT_FUNDS
+                                            ? "§cThe shop owner doesn't have enough money!"
+                                            : "§cTransaction failed!"));
+                            return;
+                        }
+
+                        ShopManager.getInstance().updateStock(world, pos, 1);
+                        if (network.vonix.vonixcore.config.ShopsConfig.CONFIG.transactionLogEnabled.get()) {
+                            network.vonix.vonixcore.economy.TransactionLog.getInstance().logShopSell(
+                                    player.getUUID(), shop.owner(), price, taxAmount,
+                                    0, shop.itemId(), 1, world, pos.getX(), pos.getY(), pos.getZ());
+                        }
+
+                        String taxInfo = taxAmount > 0.001 ? String.format(" §7(-%s%.2f tax)", symbol, taxAmount) : "";
+                        player.sendSystemMessage(Component.literal("§aSold 1x " + shop.itemId() + " for " + symbol + String.format("%.2f", sellerReceives) + taxInfo));
+                    }));
         } else {
             // Show shop info
             player.sendSystemMessage(Component.literal("§6=== Shop ==="));
@@ -564,20 +570,49 @@ public class ShopEventListener {
             return;
         if (!EssentialsConfig.CONFIG.shopsEnabled.get())
             return;
-        // Skip if mod or database not yet initialized (happens during world generation)
-        if (VonixCore.getInstance() == null || VonixCore.getInstance().getDatabase() == null)
+        // Skip if shops are not loaded yet (happens during world generation)
+        if (!ShopManager.getInstance().isLoaded())
             return;
 
         if (event.getLevel() instanceof ServerLevel level) {
+            // Answered from memory; missing displays are spawned on later ticks
             var chunk = event.getChunk();
-            // Schedule on next tick to avoid issues during chunk load
-            level.getServer().execute(() -> {
-                // Double-check database is still available
-                if (VonixCore.getInstance() == null || VonixCore.getInstance().getDatabase() == null)
-                    return;
-                DisplayEntityManager.getInstance().respawnDisplaysInChunk(
-                        level, chunk.getPos().x, chunk.getPos().z);
-            });
+            DisplayEntityManager.getInstance().respawnDisplaysInChunk(
+                    level, chunk.getPos().x, chunk.getPos().z);
+        }
+    }
+
+    /**
+     * Spawn queued shop displays
+     */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !EssentialsConfig.CONFIG.shopsEnabled.get())
+            return;
+        DisplayEntityManager.getInstance().tick(event.getServer());
+    }
+
+    /**
+     * Track shop displays loaded back with their chunk, dropping stale copies
+     */
+    @SubscribeEvent
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.getLevel() instanceof ServerLevel level && event.getEntity() instanceof ItemEntity itemEntity
+                && itemEntity.getTags().contains(DisplayEntityManager.DISPLAY_TAG)
+                && EssentialsConfig.CONFIG.shopsEnabled.get()
+                && !DisplayEntityManager.getInstance().acceptDisplay(level, itemEntity)) {
+            event.setCanceled(true);
+        }
+    }
+
+    /**
+     * Forget shop displays that were killed rather than unloaded
+     */
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (event.getLevel() instanceof ServerLevel level && event.getEntity() instanceof ItemEntity itemEntity
+                && itemEntity.getRemovalReason() != null && itemEntity.getRemovalReason().shouldDestroy()) {
+            DisplayEntityManager.getInstance().onDisplayRemoved(level, itemEntity);
         }
     }
 
@@ -591,7 +626,7 @@ public class ShopEventListener {
 
         // Check if the entity is a shop display item
         if (event.getTarget() instanceof ItemEntity itemEntity) {
-            if (itemEntity.getTags().contains("vonix_shop_display")) {
+            if (itemEntity.getTags().contains(DisplayEntityManager.DISPLAY_TAG)) {
                 // Cancel any interaction with shop display entities
                 event.setCanceled(true);
             }
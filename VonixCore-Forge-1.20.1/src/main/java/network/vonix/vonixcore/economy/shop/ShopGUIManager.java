@@ -125,21 +125,16 @@ public class ShopGUIManager {
                     return;
                 }
                 double price = shopItem.buyPrice();
-                EconomyManager.getInstance().has(player.getUUID(), price).thenAccept(hasFunds -> {
-                    if (hasFunds) {
-                        EconomyManager.getInstance().withdraw(player.getUUID(), price).thenAccept(withdrew -> {
-                            if (withdrew) {
-                                VonixCore.execute(() -> {
-                                    var leftover = ItemUtils.giveItems(player, itemId, 1);
-                                    if (!leftover.isEmpty()) player.drop(leftover, false);
-                                    player.sendSystemMessage(Component.literal("§aPurchased 1x " + itemId + " for " + symbol + String.format("%.2f", price)));
-                                });
-                            }
-                        });
-                    } else {
+                // The withdrawal is the funds check, so the balance is read and charged once
+                EconomyManager.getInstance().withdraw(player.getUUID(), price).thenAccept(withdrew -> VonixCore.execute(() -> {
+                    if (!withdrew) {
                         player.sendSystemMessage(Component.literal("§cInsufficient funds! Need " + symbol + String.format("%.2f", price)));
+                        return;
                     }
-                });
+                    var leftover = ItemUtils.giveItems(player, itemId, 1);
+                    if (!leftover.isEmpty()) player.drop(leftover, false);
+                    player.sendSystemMessage(Component.literal("§aPurchased 1x " + itemId + " for " + symbol + String.format("%.2f", price)));
+                }));
 
             } else if (event.isRightClick()) { // Sell 1
                 if (shopItem.sellPrice() == null || shopItem.sellPrice() <= 0) {
@@ -152,8 +147,15 @@ public class ShopGUIManager {
                 }
                 double price = shopItem.sellPrice();
                 if (ItemUtils.removeItems(player, itemId, 1)) {
-                    EconomyManager.getInstance().deposit(player.getUUID(), price);
-                    player.sendSystemMessage(Component.literal("§aSold 1x " + itemId + " for " + symbol + String.format("%.2f", price)));
+                    EconomyManager.getInstance().deposit(player.getUUID(), price).thenAccept(deposited -> VonixCore.execute(() -> {
+                        if (!deposited) {
+                            var leftover = ItemUtils.giveItems(player, itemId, 1);
+                            if (!leftover.isEmpty()) player.drop(leftover, false);
+                            player.sendSystemMessage(Component.literal("§cTransaction failed!"));
+                            return;
+                        }
+                        player.sendSystemMessage(Component.literal("§aSold 1x " + itemId + " for " + symbol + String.format("%.2f", price)));
+                    }));
                 }
 
             } else if (event.isShiftClick() && event.isLeftClick()) { // Bulk Buy
@@ -163,26 +165,18 @@ public class ShopGUIManager {
                 }
                 int amount = 64;
                 double pricePerItem = shopItem.buyPrice();
-                EconomyManager.getInstance().getBalance(player.getUUID()).thenAccept(balance -> {
-                    int affordable = (int) (balance / pricePerItem);
-                    int toBuy = Math.min(amount, affordable);
-
+                long unitCents = EconomyManager.toCents(pricePerItem);
+                // Works out how many are affordable and charges for them in one update
+                EconomyManager.getInstance().purchase(player.getUUID(), unitCents, amount).thenAccept(toBuy -> VonixCore.execute(() -> {
                     if (toBuy <= 0) {
                         player.sendSystemMessage(Component.literal("§cInsufficient funds!"));
                         return;
                     }
-
-                    double totalPrice = pricePerItem * toBuy;
-                    EconomyManager.getInstance().withdraw(player.getUUID(), totalPrice).thenAccept(withdrew -> {
-                        if (withdrew) {
-                            VonixCore.execute(() -> {
-                                var leftover = ItemUtils.giveItems(player, itemId, toBuy);
-                                if (!leftover.isEmpty()) player.drop(leftover, false);
-                                player.sendSystemMessage(Component.literal("§aPurchased " + toBuy + "x " + itemId + " for " + symbol + String.format("%.2f", totalPrice)));
-                            });
-                        }
-                    });
-                });
+                    double totalPrice = unitCents * toBuy / 100.0;
+                    var leftover = ItemUtils.giveItems(player, itemId, toBuy);
+                    if (!leftover.isEmpty()) player.drop(leftover, false);
+                    player.sendSystemMessage(Component.literal("§aPurchased " + toBuy + "x " + itemId + " for " + symbol + String.format("%.2f", totalPrice)));
+                }));
             }
         }
     }
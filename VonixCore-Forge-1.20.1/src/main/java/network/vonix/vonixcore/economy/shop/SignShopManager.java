@@ -8,6 +8,7 @@ import net.minecraft.world.level.block.SignBlock;
 import net.minecraft.world.level.block.entity.SignBlockEntity;
 import net.minecraft.world.level.block.entity.SignText;
 import net.minecraft.world.level.block.state.BlockState;
+import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.config.EssentialsConfig;
 import network.vonix.vonixcore.economy.EconomyManager;
 
@@ -139,24 +140,20 @@ public class SignShopManager {
 
         if (result.isBuySign) {
             double totalPrice = result.price * result.quantity;
-            eco.getBalance(player.getUUID()).thenAccept(balance -> {
-                if (balance < totalPrice) {
+            // The withdrawal is the funds check, so the balance is read and charged once
+            eco.withdraw(player.getUUID(), totalPrice).thenAccept(withdrew -> VonixCore.execute(() -> {
+                if (!withdrew) {
                     player.sendSystemMessage(
                             Component.literal("§cInsufficient funds! Need " + symbol + String.format("%.2f", totalPrice)));
                     return;
                 }
-
-                eco.withdraw(player.getUUID(), totalPrice).thenAccept(withdrew -> {
-                    if (withdrew) {
-                        var leftover = ItemUtils.giveItems(player, result.itemId, result.quantity);
-                        if (!leftover.isEmpty()) {
-                            player.drop(leftover, false);
-                        }
-                        player.sendSystemMessage(Component.literal("§aPurchased " + result.quantity + "x " + result.itemId
-                                + " for " + symbol + String.format("%.2f", totalPrice)));
-                    }
-                });
-            });
+                var leftover = ItemUtils.giveItems(player, result.itemId, result.quantity);
+                if (!leftover.isEmpty()) {
+                    player.drop(leftover, false);
+                }
+                player.sendSystemMessage(Component.literal("§aPurchased " + result.quantity + "x " + result.itemId
+                        + " for " + symbol + String.format("%.2f", totalPrice)));
+            }));
 
         } else {
             int playerHas = ItemUtils.countItems(player, result.itemId);
@@ -170,10 +167,19 @@ public class SignShopManager {
             double totalPrice = result.price * result.quantity;
 
             if (ItemUtils.removeItems(player, result.itemId, result.quantity)) {
-                eco.deposit(player.getUUID(), totalPrice).thenRun(() -> {
+                eco.deposit(player.getUUID(), totalPrice).thenAccept(deposited -> VonixCore.execute(() -> {
+                    if (!deposited) {
+                        // Nothing was paid, hand the items back
+                        var leftover = ItemUtils.giveItems(player, result.itemId, result.quantity);
+                        if (!leftover.isEmpty()) {
+                            player.drop(leftover, false);
+                        }
+                        player.sendSystemMessage(Component.literal("§cTransaction failed!"));
+                        return;
+                    }
                     player.sendSystemMessage(Component.literal("§aSold " + result.quantity + "x " + result.itemId + " for "
                             + symbol + String.format("%.2f", totalPrice)));
-                });
+                }));
             }
         }
     }
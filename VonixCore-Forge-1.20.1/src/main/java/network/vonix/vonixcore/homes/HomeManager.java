@@ -1,32 +1,62 @@
 package network.vonix.vonixcore.homes;
 
-import net.minecraft.core.BlockPos;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.database.Database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Manages player homes - set, delete, and teleport to saved locations.
+ *
+ * A player's homes are loaded into memory when they join and served from
+ * there. Changes are applied in memory and written behind in one batch every
+ * few seconds.
  */
 public class HomeManager {
 
     private static HomeManager instance;
 
+    // Seconds between batched home writes
+    private static final int FLUSH_INTERVAL_SECONDS = 2;
+
+    // Homes of online players: UUID -> name -> home, sorted by name
+    private final Map<UUID, Map<String, Home>> homes = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Map<String, Home>>> loading = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    // Rows waiting to be written; a null home deletes the row
+    private final Map<HomeKey, Write> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final Supplier<Database> database;
+    private ScheduledExecutorService executor;
+
     public static HomeManager getInstance() {
         if (instance == null) {
-            instance = new HomeManager();
+            instance = new HomeManager(() -> VonixCore.getInstance().getDatabase());
         }
         return instance;
     }
 
+    HomeManager(Supplier<Database> database) {
+        this.database = database;
+    }
+
     /**
      * Initialize homes table in database.
      */
@@ -49,134 +79,267 @@ public class HomeManager {
     }
 
     /**
-     * Set or update a home for a player.
+     * Start the periodic write of changed homes.
      */
-    public boolean setHome(ServerPlayer player, String name) {
-        UUID uuid = player.getUUID();
-        String world = player.level().dimension().location().toString();
-        double x = player.getX();
-        double y = player.getY();
-        double z = player.getZ();
-        float yaw = player.getYRot();
-        float pitch = player.getXRot();
-
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            // Check home limit
-            int homeCount = getHomeCount(uuid);
-            int maxHomes = VonixCore.getInstance().getMaxHomes();
-            if (homeCount >= maxHomes && !homeExists(uuid, name)) {
-                return false; // At limit
-            }
+    public void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "VonixCore-Homes");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
+        }
+    }
 
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT OR REPLACE INTO vc_homes (uuid, name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
-            stmt.setString(1, uuid.toString());
-            stmt.setString(2, name.toLowerCase());
-            stmt.setString(3, world);
-            stmt.setDouble(4, x);
-            stmt.setDouble(5, y);
-            stmt.setDouble(6, z);
-            stmt.setFloat(7, yaw);
-            stmt.setFloat(8, pitch);
-            stmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to set home: {}", e.getMessage());
-            return false;
+    /**
+     * Stop the periodic write and write every changed home.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
         }
+        flush();
+        homes.clear();
     }
 
     /**
-     * Delete a home.
+     * Load a player's homes into memory on join.
      */
-    public boolean deleteHome(UUID uuid, String name) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "DELETE FROM vc_homes WHERE uuid = ? AND name = ?");
-            stmt.setString(1, uuid.toString());
-            stmt.setString(2, name.toLowerCase());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to delete home: {}", e.getMessage());
-            return false;
+    public void loadHomesAsync(UUID uuid) {
+        // Homes are disabled
+        if (executor == null) {
+            return;
         }
+        online.add(uuid);
+        load(uuid);
     }
 
     /**
-     * Get a home location.
+     * Drop a player's homes from memory on quit. Pending changes are still
+     * written, and a later load sees them.
      */
-    public Home getHome(UUID uuid, String name) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT world, x, y, z, yaw, pitch FROM vc_homes WHERE uuid = ? AND name = ?");
-            stmt.setString(1, uuid.toString());
-            stmt.setString(2, name.toLowerCase());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Home(
-                        name,
-                        rs.getString("world"),
-                        rs.getDouble("x"),
-                        rs.getDouble("y"),
-                        rs.getDouble("z"),
-                        rs.getFloat("yaw"),
-                        rs.getFloat("pitch"));
+    public void unloadHomes(UUID uuid) {
+        online.remove(uuid);
+        homes.remove(uuid);
+    }
+
+    /**
+     * Set or update a home for a player at their current location.
+     *
+     * @return False if the player has reached their home limit
+     */
+    public CompletableFuture<Boolean> setHome(ServerPlayer player, String name) {
+        Home home = new Home(name.toLowerCase(), player.level().dimension().location().toString(),
+                player.getX(), player.getY(), player.getZ(), player.getYRot(), player.getXRot());
+        return setHome(player.getUUID(), home, VonixCore.getInstance().getMaxHomes());
+    }
+
+    CompletableFuture<Boolean> setHome(UUID uuid, Home home, int maxHomes) {
+        String key = home.name();
+        return load(uuid).thenApply(playerHomes -> {
+            synchronized (playerHomes) {
+                if (playerHomes.size() >= maxHomes && !playerHomes.containsKey(key)) {
+                    return false; // At limit
+                }
+                playerHomes.put(key, home);
+                pending.put(new HomeKey(uuid, key), new Write(home));
+                return true;
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to get home: {}", e.getMessage());
-        }
-        return null;
+        });
     }
 
     /**
-     * Get all homes for a player.
+     * Delete a home.
      */
-    public List<Home> getHomes(UUID uuid) {
-        List<Home> homes = new ArrayList<>();
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT name, world, x, y, z, yaw, pitch FROM vc_homes WHERE uuid = ? ORDER BY name");
-            stmt.setString(1, uuid.toString());
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                homes.add(new Home(
-                        rs.getString("name"),
-                        rs.getString("world"),
-                        rs.getDouble("x"),
-                        rs.getDouble("y"),
-                        rs.getDouble("z"),
-                        rs.getFloat("yaw"),
-                        rs.getFloat("pitch")));
+    public CompletableFuture<Boolean> deleteHome(UUID uuid, String name) {
+        String key = name.toLowerCase();
+        return load(uuid).thenApply(playerHomes -> {
+            synchronized (playerHomes) {
+                if (playerHomes.remove(key) == null) {
+                    return false;
+                }
+                pending.put(new HomeKey(uuid, key), new Write(null));
+                return true;
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to list homes: {}", e.getMessage());
-        }
-        return homes;
+        });
+    }
+
+    /**
+     * Get a home location.
+     */
+    public CompletableFuture<Home> getHome(UUID uuid, String name) {
+        return load(uuid).thenApply(playerHomes -> playerHomes.get(name.toLowerCase()));
+    }
+
+    /**
+     * Get all homes for a player, sorted by name.
+     */
+    public CompletableFuture<List<Home>> getHomes(UUID uuid) {
+        return load(uuid).thenApply(playerHomes -> new ArrayList<>(playerHomes.values()));
     }
 
     /**
      * Get home count for a player.
      */
-    public int getHomeCount(UUID uuid) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT COUNT(*) FROM vc_homes WHERE uuid = ?");
-            stmt.setString(1, uuid.toString());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to count homes: {}", e.getMessage());
-        }
-        return 0;
+    public CompletableFuture<Integer> getHomeCount(UUID uuid) {
+        return load(uuid).thenApply(Map::size);
     }
 
     /**
      * Check if a home exists.
      */
-    public boolean homeExists(UUID uuid, String name) {
-        return getHome(uuid, name) != null;
+    public CompletableFuture<Boolean> homeExists(UUID uuid, String name) {
+        return load(uuid).thenApply(playerHomes -> playerHomes.containsKey(name.toLowerCase()));
+    }
+
+    // Get a player's homes, loading them from the database if they are not in memory
+    private CompletableFuture<Map<String, Home>> load(UUID uuid) {
+        Map<String, Home> cached = homes.get(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Map<String, Home>> future = new CompletableFuture<>();
+        CompletableFuture<Map<String, Home>> inFlight = loading.putIfAbsent(uuid, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        VonixCore.executeAsync(() -> {
+            try {
+                future.complete(loadNow(uuid));
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to load homes for {}: {}", uuid, e.getMessage());
+                future.completeExceptionally(e);
+            } finally {
+                loading.remove(uuid, future);
+            }
+        });
+        return future;
+    }
+
+    private Map<String, Home> loadNow(UUID uuid) throws SQLException {
+        Map<String, Home> existing = homes.get(uuid);
+        if (existing != null) {
+            return existing;
+        }
+
+        Map<String, Home> playerHomes = new ConcurrentSkipListMap<>();
+        // Hold off a running flush, so its rows are either stored or still pending
+        synchronized (flushLock) {
+            try (Connection conn = database.get().getConnection();
+                    PreparedStatement stmt = conn.prepareStatement(
+                            "SELECT name, world, x, y, z, yaw, pitch FROM vc_homes WHERE uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String name = rs.getString("name");
+                        playerHomes.put(name, new Home(
+                                name,
+                                rs.getString("world"),
+                                rs.getDouble("x"),
+                                rs.getDouble("y"),
+                                rs.getDouble("z"),
+                                rs.getFloat("yaw"),
+                                rs.getFloat("pitch")));
+                    }
+                }
+            }
+            // Changes not written yet are newer than the stored rows
+            for (Map.Entry<HomeKey, Write> entry : pending.entrySet()) {
+                if (entry.getKey().uuid().equals(uuid)) {
+                    Home home = entry.getValue().home();
+                    if (home != null) {
+                        playerHomes.put(entry.getKey().name(), home);
+                    } else {
+                        playerHomes.remove(entry.getKey().name());
+                    }
+                }
+            }
+        }
+
+        // Only kept in memory while the player is online
+        if (online.contains(uuid)) {
+            Map<String, Home> raced = homes.putIfAbsent(uuid, playerHomes);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return playerHomes;
+    }
+
+    // Write every changed home in one transaction
+    private void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<HomeKey, Write> batch = new HashMap<>();
+            for (HomeKey key : pending.keySet()) {
+                Write write = pending.remove(key);
+                if (write != null) {
+                    batch.put(key, write);
+                }
+            }
+
+            Database db = database.get();
+            try (Connection conn = db.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement upsert = conn.prepareStatement(Database.upsertSql(db, "vc_homes", 2, "uuid",
+                        "name", "world", "x", "y", "z", "yaw", "pitch"));
+                        PreparedStatement delete = conn.prepareStatement(
+                                "DELETE FROM vc_homes WHERE uuid = ? AND name = ?")) {
+                    for (Map.Entry<HomeKey, Write> entry : batch.entrySet()) {
+                        HomeKey key = entry.getKey();
+                        Home home = entry.getValue().home();
+                        if (home == null) {
+                            delete.setString(1, key.uuid().toString());
+                            delete.setString(2, key.name());
+                            delete.addBatch();
+                            continue;
+                        }
+                        upsert.setString(1, key.uuid().toString());
+                        upsert.setString(2, key.name());
+                        upsert.setString(3, home.world());
+                        upsert.setDouble(4, home.x());
+                        upsert.setDouble(5, home.y());
+                        upsert.setDouble(6, home.z());
+                        upsert.setFloat(7, home.yaw());
+                        upsert.setFloat(8, home.pitch());
+                        upsert.addBatch();
+                    }
+                    delete.executeBatch();
+                    upsert.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to save {} home(s), retrying: {}", batch.size(),
+                        e.getMessage());
+                // Anything changed meanwhile is newer and wins
+                batch.forEach(pending::putIfAbsent);
+            }
+        }
+    }
+
+    private record HomeKey(UUID uuid, String name) {
+    }
+
+    /** Pending row write; a null home deletes the row. */
+    private record Write(Home home) {
     }
 
     /**
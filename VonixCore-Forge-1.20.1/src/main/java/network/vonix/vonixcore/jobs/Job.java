@@ -30,7 +30,6 @@ public class Job {
         this.baseExpMultiplier = 1.0;
         this.baseIncomeMultiplier = 1.0;
         this.chatColor = "WHITE";
-        this.icon = Items.DIAMOND_PICKAXE;
     }
 
     /**
@@ -41,23 +40,6 @@ public class Job {
         return 100 * level + (level * level * 10);
     }
 
-    /**
-     * Get reward for an action
-     */
-    public JobReward getReward(ActionType actionType, String target) {
-        Map<String, JobReward> actionMap = actions.get(actionType);
-        if (actionMap == null)
-            return null;
-
-        // Try exact match first
-        JobReward reward = actionMap.get(target.toLowerCase());
-        if (reward != null)
-            return reward;
-
-        // Try wildcard
-        return actionMap.get("*");
-    }
-
     /**
      * Add a reward for an action
      */
@@ -121,7 +103,8 @@ public class Job {
     }
 
     public Item getIcon() {
-        return icon;
+        // Resolved late, so a job can be built before the item registry
+        return icon != null ? icon : Items.DIAMOND_PICKAXE;
     }
 
     public void setIcon(Item icon) {
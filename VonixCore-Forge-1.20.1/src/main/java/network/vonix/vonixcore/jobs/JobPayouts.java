@@ -0,0 +1,57 @@
+package network.vonix.vonixcore.jobs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Job earnings waiting to be paid out, by player and job.
+ * Actions only add to these totals; they are drained and settled together
+ * every few seconds, so a player breaking hundreds of blocks costs one
+ * deposit and one row write per job instead of one per block.
+ *
+ * Used on the server thread only.
+ */
+final class JobPayouts {
+
+    private final Map<UUID, Map<String, Payout>> pending = new HashMap<>();
+
+    void add(UUID player, String jobId, double income, double experience, double points) {
+        Payout payout = pending.computeIfAbsent(player, p -> new HashMap<>())
+                .computeIfAbsent(jobId, j -> new Payout());
+        payout.income += income;
+        payout.experience += experience;
+        payout.points += points;
+        payout.actions++;
+    }
+
+    /**
+     * Remove and return a player's earnings.
+     *
+     * @return Earnings by job, or null if there are none
+     */
+    Map<String, Payout> drain(UUID player) {
+        return pending.remove(player);
+    }
+
+    /**
+     * @return The players with earnings, as a copy
+     */
+    List<UUID> players() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /** Earnings in one job since the last payout. */
+    static final class Payout {
+        double income;
+        double experience;
+        double points;
+        int actions;
+    }
+}
@@ -0,0 +1,145 @@
+package network.vonix.vonixcore.jobs;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Job rewards compiled for lookup by action and target.
+ * Targets are registry objects (a Block, EntityType or Item), so an action
+ * looks up its rewards by identity and never builds a name string. Each
+ * target holds the reward of every job, indexed by job, and the income and
+ * experience multipliers of every level are worked out up front.
+ *
+ * A table is immutable; reloading the jobs compiles a new one.
+ */
+final class JobRewardTable {
+
+    /**
+     * Resolves a configured target name to its registry object.
+     */
+    @FunctionalInterface
+    interface TargetResolver {
+        /**
+         * @return The registry object, or null if the name is unknown
+         */
+        Object resolve(Job.ActionType action, String target);
+    }
+
+    static final JobRewardTable EMPTY = compile(List.of(), 1.0, 1.0, (action, target) -> null);
+
+    private final Map<String, Integer> jobIndexes;
+    private final Job[] jobs;
+    // Action -> target -> reward per job, null where a job has none
+    private final Map<Job.ActionType, Map<Object, Job.JobReward[]>> targets;
+    // Action -> "*" reward per job
+    private final Map<Job.ActionType, Job.JobReward[]> wildcards;
+    // Job -> multiplier per level, global multiplier included
+    private final double[][] incomeMultipliers;
+    private final double[][] expMultipliers;
+    private final int unresolved;
+
+    private JobRewardTable(Map<String, Integer> jobIndexes, Job[] jobs,
+            Map<Job.ActionType, Map<Object, Job.JobReward[]>> targets,
+            Map<Job.ActionType, Job.JobReward[]> wildcards, double[][] incomeMultipliers,
+            double[][] expMultipliers, int unresolved) {
+        this.jobIndexes = jobIndexes;
+        this.jobs = jobs;
+        this.targets = targets;
+        this.wildcards = wildcards;
+        this.incomeMultipliers = incomeMultipliers;
+        this.expMultipliers = expMultipliers;
+        this.unresolved = unresolved;
+    }
+
+    static JobRewardTable compile(Collection<Job> jobList, double globalIncomeMultiplier,
+            double globalExpMultiplier, TargetResolver resolver) {
+        Job[] jobs = jobList.toArray(new Job[0]);
+        Map<String, Integer> jobIndexes = new HashMap<>();
+        Map<Job.ActionType, Map<Object, Job.JobReward[]>> targets = new EnumMap<>(Job.ActionType.class);
+        Map<Job.ActionType, Job.JobReward[]> wildcards = new EnumMap<>(Job.ActionType.class);
+        double[][] incomeMultipliers = new double[jobs.length][];
+        double[][] expMultipliers = new double[jobs.length][];
+        int unresolved = 0;
+
+        for (Job.ActionType action : Job.ActionType.values()) {
+            targets.put(action, new IdentityHashMap<>());
+            wildcards.put(action, new Job.JobReward[jobs.length]);
+        }
+
+        for (int i = 0; i < jobs.length; i++) {
+            Job job = jobs[i];
+            jobIndexes.put(job.getId(), i);
+
+            for (Map.Entry<Job.ActionType, Map<String, Job.JobReward>> action : job.getActions().entrySet()) {
+                for (Map.Entry<String, Job.JobReward> reward : action.getValue().entrySet()) {
+                    if (reward.getKey().equals("*")) {
+                        wildcards.get(action.getKey())[i] = reward.getValue();
+                        continue;
+                    }
+                    Object target = resolver.resolve(action.getKey(), reward.getKey());
+                    if (target == null) {
+                        unresolved++;
+                        continue;
+                    }
+                    targets.get(action.getKey()).computeIfAbsent(target, t -> new Job.JobReward[jobs.length])[i] =
+                            reward.getValue();
+                }
+            }
+
+            // Index 0 is unused, levels start at 1
+            int maxLevel = Math.max(1, job.getMaxLevel());
+            incomeMultipliers[i] = new double[maxLevel + 1];
+            expMultipliers[i] = new double[maxLevel + 1];
+            for (int level = 1; level <= maxLevel; level++) {
+                incomeMultipliers[i][level] = job.getIncomeMultiplier(level) * globalIncomeMultiplier;
+                expMultipliers[i][level] = job.getExpMultiplier(level) * globalExpMultiplier;
+            }
+        }
+
+        return new JobRewardTable(jobIndexes, jobs, targets, wildcards, incomeMultipliers, expMultipliers,
+                unresolved);
+    }
+
+    /**
+     * @return The job's index in this table, or -1 if there is no such job
+     */
+    int indexOf(String jobId) {
+        Integer index = jobIndexes.get(jobId);
+        return index != null ? index : -1;
+    }
+
+    Job job(int jobIndex) {
+        return jobs[jobIndex];
+    }
+
+    /**
+     * @return The job's reward for the target, its "*" reward if it has none
+     *         for the target, or null
+     */
+    Job.JobReward reward(int jobIndex, Job.ActionType action, Object target) {
+        Job.JobReward[] rewards = targets.get(action).get(target);
+        Job.JobReward reward = rewards != null ? rewards[jobIndex] : null;
+        return reward != null ? reward : wildcards.get(action)[jobIndex];
+    }
+
+    double incomeMultiplier(int jobIndex, int level) {
+        double[] multipliers = incomeMultipliers[jobIndex];
+        return multipliers[Math.max(1, Math.min(level, multipliers.length - 1))];
+    }
+
+    double expMultiplier(int jobIndex, int level) {
+        double[] multipliers = expMultipliers[jobIndex];
+        return multipliers[Math.max(1, Math.min(level, multipliers.length - 1))];
+    }
+
+    /**
+     * @return The number of configured targets that did not resolve
+     */
+    int unresolvedCount() {
+        return unresolved;
+    }
+}
@@ -4,16 +4,20 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import net.minecraft.ChatFormatting;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.Items;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.level.BlockEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.database.Database;
 import network.vonix.vonixcore.economy.EconomyManager;
 
 import java.io.*;
@@ -25,9 +29,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages jobs, player job data, and job rewards for Forge 1.20.1.
+ *
+ * Earnings from actions are added up in memory and paid out every few
+ * seconds: one deposit per player, with the changed jobs written in one
+ * batch.
  */
 public class JobsManager {
 
@@ -36,12 +47,24 @@ public class JobsManager {
 
     // All available jobs
     private final Map<String, Job> jobs = new LinkedHashMap<>();
+    // Rewards of all jobs, compiled from the jobs above
+    private volatile JobRewardTable rewardTable = JobRewardTable.EMPTY;
 
     // Player job data (UUID -> list of their jobs)
     private final Map<UUID, java.util.concurrent.CopyOnWriteArrayList<PlayerJob>> playerJobs = new ConcurrentHashMap<>();
 
+    // Earnings not paid out yet, and jobs changed since they were written (server thread)
+    final JobPayouts payouts = new JobPayouts();
+    private final Set<PlayerJob> dirtyJobs = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int ticksSincePayout;
+    // Job reads and writes, in order
+    private ExecutorService writer;
+    // Rows a failed write left, written with the next batch
+    private final Map<JobKey, JobRow> unsaved = new ConcurrentHashMap<>();
+
     // Configuration
     private int maxJobs = 3;
+    private int payoutIntervalSeconds = 5;
     private boolean enabled = true;
     private double globalIncomeMultiplier = 1.0;
     private double globalExpMultiplier = 1.0;
@@ -60,6 +83,13 @@ public class JobsManager {
     public void initialize(Connection conn) throws SQLException {
         createTables(conn);
         loadJobsConfig();
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "VonixCore-Jobs");
+                t.setDaemon(true);
+                return t;
+            });
+        }
         // loadPlayerData(); // Removed bulk load in favor of on-join loading
 
         // Register event handler
@@ -113,6 +143,8 @@ public class JobsManager {
             maxJobs = ((Number) config.getOrDefault("maxJobs", 3)).intValue();
             globalIncomeMultiplier = ((Number) config.getOrDefault("globalIncomeMultiplier", 1.0)).doubleValue();
             globalExpMultiplier = ((Number) config.getOrDefault("globalExpMultiplier", 1.0)).doubleValue();
+            payoutIntervalSeconds = Math.max(1,
+                    ((Number) config.getOrDefault("payoutIntervalSeconds", 5)).intValue());
 
             // Load built-in jobs
             createBuiltInJobs();
@@ -121,6 +153,37 @@ public class JobsManager {
             VonixCore.LOGGER.warn("Failed to load jobs config: {}", e.getMessage());
             createBuiltInJobs();
         }
+        compileRewards();
+    }
+
+    /**
+     * Compile every job's rewards into the lookup table used by actions.
+     */
+    private void compileRewards() {
+        JobRewardTable table = JobRewardTable.compile(jobs.values(), globalIncomeMultiplier, globalExpMultiplier,
+                JobsManager::resolveTarget);
+        if (table.unresolvedCount() > 0) {
+            VonixCore.LOGGER.warn("[Jobs] {} job reward target(s) are not registered and were skipped",
+                    table.unresolvedCount());
+        }
+        rewardTable = table;
+    }
+
+    /**
+     * Resolve a reward target name to the block, entity type or item it
+     * names. Names without a namespace are in the minecraft namespace.
+     */
+    private static Object resolveTarget(Job.ActionType actionType, String target) {
+        ResourceLocation id = ResourceLocation.tryParse(target.indexOf(':') >= 0 ? target : "minecraft:" + target);
+        if (id == null) {
+            return null;
+        }
+        return switch (actionType) {
+            case BREAK, PLACE -> BuiltInRegistries.BLOCK.getOptional(id).orElse(null);
+            case KILL, BREED, TAME, SHEAR -> BuiltInRegistries.ENTITY_TYPE.getOptional(id).orElse(null);
+            case FISH, CRAFT, SMELT, BREW, ENCHANT -> BuiltInRegistries.ITEM.getOptional(id).orElse(null);
+            case EXPLORE -> null;
+        };
     }
 
     /**
@@ -288,6 +351,7 @@ public class JobsManager {
             config.put("maxJobs", 3);
             config.put("globalIncomeMultiplier", 1.0);
             config.put("globalExpMultiplier", 1.0);
+            config.put("payoutIntervalSeconds", 5);
             Files.writeString(path, GSON.toJson(config));
         } catch (IOException e) {
             VonixCore.LOGGER.warn("Failed to create jobs config: {}", e.getMessage());
@@ -295,7 +359,8 @@ public class JobsManager {
     }
 
     public void loadPlayerJobs(UUID uuid) {
-        VonixCore.executeAsync(() -> {
+        // After any write still queued from the player's last session
+        enqueue(() -> {
             try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
                 PreparedStatement stmt = conn.prepareStatement(
                         "SELECT * FROM vonixcore_player_jobs WHERE uuid = ?");
@@ -321,8 +386,17 @@ public class JobsManager {
         });
     }
 
+    /**
+     * Pay out a leaving player's earnings and write their jobs.
+     */
     public void unloadPlayerJobs(UUID uuid) {
-        playerJobs.remove(uuid);
+        settle(uuid, null);
+        List<PlayerJob> pJobs = playerJobs.remove(uuid);
+        if (pJobs != null && !pJobs.isEmpty()) {
+            pJobs.forEach(dirtyJobs::remove);
+            List<JobRow> rows = pJobs.stream().map(JobRow::of).toList();
+            enqueue(() -> saveRows(rows));
+        }
     }
 
     public boolean joinJob(ServerPlayer player, String jobId) {
@@ -368,7 +442,10 @@ public class JobsManager {
             return false;
         }
 
+        // Pay out what was earned in the job before leaving it
+        settle(player.getUUID(), player);
         pJobs.remove(toRemove);
+        dirtyJobs.remove(toRemove);
         deletePlayerJob(player.getUUID(), jobId.toLowerCase());
         Job job = jobs.get(jobId.toLowerCase());
         String jobName = job != null ? job.getName() : jobId;
@@ -377,48 +454,105 @@ public class JobsManager {
         return true;
     }
 
-    public void processAction(ServerPlayer player, Job.ActionType actionType, String target) {
+    /**
+     * Reward a player's jobs for an action.
+     *
+     * @param target The block, entity type or item acted on
+     */
+    public void processAction(ServerPlayer player, Job.ActionType actionType, Object target) {
         if (!enabled)
             return;
         List<PlayerJob> pJobs = playerJobs.get(player.getUUID());
         if (pJobs == null || pJobs.isEmpty())
             return;
 
-        EconomyManager eco = EconomyManager.getInstance();
+        JobRewardTable table = rewardTable;
 
         for (PlayerJob pJob : pJobs) {
-            Job job = jobs.get(pJob.getJobId());
-            if (job == null)
+            int jobIndex = table.indexOf(pJob.getJobId());
+            if (jobIndex < 0)
                 continue;
 
-            Job.JobReward reward = job.getReward(actionType, target);
+            Job.JobReward reward = table.reward(jobIndex, actionType, target);
             if (reward == null)
                 continue;
 
-            double incomeMultiplier = job.getIncomeMultiplier(pJob.getLevel()) * globalIncomeMultiplier;
-            double expMultiplier = job.getExpMultiplier(pJob.getLevel()) * globalExpMultiplier;
+            double incomeMultiplier = table.incomeMultiplier(jobIndex, pJob.getLevel());
+            double expMultiplier = table.expMultiplier(jobIndex, pJob.getLevel());
 
             double income = reward.income * incomeMultiplier;
-            double exp = reward.experience * expMultiplier;
+            double exp = Math.max(0, reward.experience * expMultiplier);
             double pts = reward.points * incomeMultiplier;
 
-            if (income != 0) {
-                if (income > 0) {
-                    eco.deposit(player.getUUID(), income);
-                } else {
-                    eco.withdraw(player.getUUID(), -income);
-                }
+            if (income != 0 || exp != 0 || pts != 0) {
+                payouts.add(player.getUUID(), pJob.getJobId(), income, exp, pts);
             }
-            if (pts != 0) {
-                pJob.addPoints(pts);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END)
+            return;
+        if (++ticksSincePayout < payoutIntervalSeconds * 20)
+            return;
+        ticksSincePayout = 0;
+
+        for (UUID uuid : payouts.players()) {
+            settle(uuid, event.getServer().getPlayerList().getPlayer(uuid));
+        }
+        saveDirtyJobs();
+    }
+
+    /**
+     * Pay out a player's earnings: one deposit or withdrawal for all their
+     * jobs, then experience and points, with a summary on the action bar.
+     *
+     * @param player The player to notify, or null
+     */
+    void settle(UUID uuid, ServerPlayer player) {
+        Map<String, JobPayouts.Payout> earned = payouts.drain(uuid);
+        if (earned == null)
+            return;
+
+        List<PlayerJob> pJobs = playerJobs.get(uuid);
+        JobRewardTable table = rewardTable;
+        double income = 0;
+        double exp = 0;
+
+        for (Map.Entry<String, JobPayouts.Payout> entry : earned.entrySet()) {
+            JobPayouts.Payout payout = entry.getValue();
+            income += payout.income;
+
+            int jobIndex = table.indexOf(entry.getKey());
+            PlayerJob pJob = pJobs == null ? null
+                    : pJobs.stream().filter(pj -> pj.getJobId().equals(entry.getKey())).findFirst().orElse(null);
+            if (pJob == null || jobIndex < 0)
+                continue;
+
+            Job job = table.job(jobIndex);
+            exp += payout.experience;
+            if (payout.points != 0) {
+                pJob.addPoints(payout.points);
             }
-            if (exp > 0) {
-                boolean leveledUp = pJob.addExperience(exp, job);
-                if (leveledUp) {
-                    player.sendSystemMessage(Component.literal("Level up! " + job.getName() +
-                            " §ris now level " + pJob.getLevel()).withStyle(ChatFormatting.GOLD));
-                }
+            if (payout.experience > 0 && pJob.addExperience(payout.experience, job) && player != null) {
+                player.sendSystemMessage(Component.literal("Level up! " + job.getName() +
+                        " §ris now level " + pJob.getLevel()).withStyle(ChatFormatting.GOLD));
             }
+            dirtyJobs.add(pJob);
+        }
+
+        EconomyManager eco = EconomyManager.getInstance();
+        if (income > 0) {
+            eco.deposit(uuid, income);
+        } else if (income < 0) {
+            eco.withdraw(uuid, -income);
+        }
+
+        if (player != null && (income != 0 || exp > 0)) {
+            String money = income >= 0 ? "§a+" + eco.format(income) : "§c-" + eco.format(-income);
+            player.displayClientMessage(Component.literal(
+                    money + " §7| §b+" + String.format("%.1f", exp) + " XP"), true);
         }
     }
 
@@ -429,8 +563,7 @@ public class JobsManager {
             return;
         if (!(event.getPlayer() instanceof ServerPlayer player))
             return;
-        String blockName = event.getState().getBlock().getDescriptionId().replace("block.minecraft.", "");
-        processAction(player, Job.ActionType.BREAK, blockName);
+        processAction(player, Job.ActionType.BREAK, event.getState().getBlock());
     }
 
     @SubscribeEvent
@@ -439,8 +572,7 @@ public class JobsManager {
             return;
         if (!(event.getEntity() instanceof ServerPlayer player))
             return;
-        String blockName = event.getPlacedBlock().getBlock().getDescriptionId().replace("block.minecraft.", "");
-        processAction(player, Job.ActionType.PLACE, blockName);
+        processAction(player, Job.ActionType.PLACE, event.getPlacedBlock().getBlock());
     }
 
     @SubscribeEvent
@@ -451,8 +583,7 @@ public class JobsManager {
             return;
         if (!(event.getSource().getEntity() instanceof ServerPlayer player))
             return;
-        String entityName = event.getEntity().getType().getDescriptionId().replace("entity.minecraft.", "");
-        processAction(player, Job.ActionType.KILL, entityName);
+        processAction(player, Job.ActionType.KILL, event.getEntity().getType());
     }
 
     @SubscribeEvent
@@ -462,9 +593,7 @@ public class JobsManager {
         if (!(event.getEntity() instanceof ServerPlayer player))
             return;
         for (net.minecraft.world.item.ItemStack drop : event.getDrops()) {
-            String itemName = drop.getItem().getDescriptionId().replace("item.minecraft.", "")
-                    .replace("block.minecraft.", "");
-            processAction(player, Job.ActionType.FISH, itemName);
+            processAction(player, Job.ActionType.FISH, drop.getItem());
         }
     }
 
@@ -474,9 +603,7 @@ public class JobsManager {
             return;
         if (!(event.getEntity() instanceof ServerPlayer player))
             return;
-        String itemName = event.getCrafting().getItem().getDescriptionId().replace("item.minecraft.", "")
-                .replace("block.minecraft.", "");
-        processAction(player, Job.ActionType.CRAFT, itemName);
+        processAction(player, Job.ActionType.CRAFT, event.getCrafting().getItem());
     }
 
     @SubscribeEvent
@@ -485,9 +612,7 @@ public class JobsManager {
             return;
         if (!(event.getEntity() instanceof ServerPlayer player))
             return;
-        String itemName = event.getSmelting().getItem().getDescriptionId().replace("item.minecraft.", "")
-                .replace("block.minecraft.", "");
-        processAction(player, Job.ActionType.SMELT, itemName);
+        processAction(player, Job.ActionType.SMELT, event.getSmelting().getItem());
     }
 
     @SubscribeEvent
@@ -496,8 +621,7 @@ public class JobsManager {
             return;
         if (!(event.getTamer() instanceof ServerPlayer player))
             return;
-        String entityName = event.getAnimal().getType().getDescriptionId().replace("entity.minecraft.", "");
-        processAction(player, Job.ActionType.TAME, entityName);
+        processAction(player, Job.ActionType.TAME, event.getAnimal().getType());
     }
 
     @SubscribeEvent
@@ -508,8 +632,7 @@ public class JobsManager {
             return;
         if (!(event.getCausedByPlayer() instanceof ServerPlayer player))
             return;
-        String entityName = event.getChild().getType().getDescriptionId().replace("entity.minecraft.", "");
-        processAction(player, Job.ActionType.BREED, entityName);
+        processAction(player, Job.ActionType.BREED, event.getChild().getType());
     }
 
     public List<PlayerJob> getPlayerJobs(UUID uuid) {
@@ -525,29 +648,14 @@ public class JobsManager {
     }
 
     private void savePlayerJob(PlayerJob pj) {
-        VonixCore.executeAsync(() -> {
-            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-                PreparedStatement stmt = conn.prepareStatement("""
-                        INSERT OR REPLACE INTO vonixcore_player_jobs
-                        (uuid, job_id, level, experience, points, joined_at, last_worked)
-                        VALUES (?, ?, ?, ?, ?, ?, ?)
-                        """);
-                stmt.setString(1, pj.getPlayerUuid().toString());
-                stmt.setString(2, pj.getJobId());
-                stmt.setInt(3, pj.getLevel());
-                stmt.setDouble(4, pj.getExperience());
-                stmt.setDouble(5, pj.getPoints());
-                stmt.setLong(6, pj.getJoinedAt());
-                stmt.setLong(7, pj.getLastWorked());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                VonixCore.LOGGER.warn("Failed to save player job: {}", e.getMessage());
-            }
-        });
+        JobRow row = JobRow.of(pj);
+        enqueue(() -> saveRows(List.of(row)));
     }
 
     private void deletePlayerJob(UUID uuid, String jobId) {
-        VonixCore.executeAsync(() -> {
+        enqueue(() -> {
+            // A retried write must not bring the row back
+            unsaved.remove(new JobKey(uuid, jobId));
             try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
                 PreparedStatement stmt = conn.prepareStatement(
                         "DELETE FROM vonixcore_player_jobs WHERE uuid = ? AND job_id = ?");
@@ -560,16 +668,125 @@ public class JobsManager {
         });
     }
 
+    // Write the jobs changed by payouts since the last write, and retry failed rows
+    private void saveDirtyJobs() {
+        if (dirtyJobs.isEmpty() && unsaved.isEmpty())
+            return;
+        List<JobRow> rows = dirtyJobs.stream().map(JobRow::of).toList();
+        dirtyJobs.clear();
+        enqueue(() -> saveRows(rows));
+    }
+
     public void saveAllJobs() {
+        List<JobRow> rows = allRows();
+        dirtyJobs.clear();
+        enqueue(() -> saveRows(rows));
+    }
+
+    /**
+     * Pay out all earnings, finish the queued writes and write every loaded
+     * job.
+     */
+    public void shutdown() {
+        for (UUID uuid : payouts.players()) {
+            settle(uuid, null);
+        }
+        List<JobRow> rows = allRows();
+        dirtyJobs.clear();
+
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                    writer.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                writer.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        saveRows(rows);
+    }
+
+    private List<JobRow> allRows() {
+        List<JobRow> rows = new ArrayList<>();
         for (List<PlayerJob> pJobs : playerJobs.values()) {
             for (PlayerJob pj : pJobs) {
-                savePlayerJob(pj);
+                rows.add(JobRow.of(pj));
             }
         }
+        return rows;
     }
 
-    public void shutdown() {
-        saveAllJobs();
+    // Run a job read or write on the jobs thread, after those queued before it
+    private void enqueue(Runnable task) {
+        if (writer != null) {
+            writer.execute(task);
+        } else {
+            VonixCore.executeAsync(task);
+        }
+    }
+
+    // Write job rows in one transaction, together with the rows of a failed write
+    private void saveRows(List<JobRow> rows) {
+        Map<JobKey, JobRow> batch = new LinkedHashMap<>();
+        for (JobKey key : unsaved.keySet()) {
+            JobRow row = unsaved.remove(key);
+            if (row != null) {
+                batch.put(key, row);
+            }
+        }
+        // Taken later, so they replace retried rows of the same job
+        for (JobRow row : rows) {
+            batch.put(row.key(), row);
+        }
+        if (batch.isEmpty())
+            return;
+        Database db = VonixCore.getInstance().getDatabase();
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(Database.upsertSql(db, "vonixcore_player_jobs", 2,
+                    "uuid", "job_id", "level", "experience", "points", "joined_at", "last_worked"))) {
+                for (JobRow row : batch.values()) {
+                    stmt.setString(1, row.uuid().toString());
+                    stmt.setString(2, row.jobId());
+                    stmt.setInt(3, row.level());
+                    stmt.setDouble(4, row.experience());
+                    stmt.setDouble(5, row.points());
+                    stmt.setLong(6, row.joinedAt());
+                    stmt.setLong(7, row.lastWorked());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            VonixCore.LOGGER.warn("Failed to save {} player job(s), retrying: {}", batch.size(), e.getMessage());
+            // Anything queued meanwhile is newer and wins
+            batch.forEach(unsaved::putIfAbsent);
+        }
+    }
+
+    /** A player job's values, taken on the server thread for writing. */
+    private record JobRow(UUID uuid, String jobId, int level, double experience, double points, long joinedAt,
+            long lastWorked) {
+        static JobRow of(PlayerJob pj) {
+            return new JobRow(pj.getPlayerUuid(), pj.getJobId(), pj.getLevel(), pj.getExperience(), pj.getPoints(),
+                    pj.getJoinedAt(), pj.getLastWorked());
+        }
+
+        JobKey key() {
+            return new JobKey(uuid, jobId);
+        }
+    }
+
+    private record JobKey(UUID uuid, String jobId) {
     }
 
     public void reload() {
@@ -29,20 +29,22 @@ public class PlayerJob {
     }
 
     /**
-     * Add experience and check for level up
+     * Add experience and level up as many times as it covers
      */
     public boolean addExperience(double amount, Job job) {
         this.experience += amount;
         this.lastWorked = System.currentTimeMillis();
 
         // Check for level up
+        boolean leveledUp = false;
         double required = job.getRequiredExp(level);
-        if (experience >= required && level < job.getMaxLevel()) {
+        while (experience >= required && level < job.getMaxLevel()) {
             experience -= required;
             level++;
-            return true; // Leveled up
+            leveledUp = true;
+            required = job.getRequiredExp(level);
         }
-        return false;
+        return leveledUp;
     }
 
     /**
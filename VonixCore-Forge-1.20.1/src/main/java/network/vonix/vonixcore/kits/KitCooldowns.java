@@ -0,0 +1,58 @@
+package network.vonix.vonixcore.kits;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A player's kit cooldowns, by lower-case kit name.
+ * A claim checks and sets the kit's last use in one atomic step, so two
+ * claims of the same kit at once cannot both succeed.
+ *
+ * Times are epoch seconds, like the last_used column.
+ */
+final class KitCooldowns {
+
+    private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+
+    long lastUsed(String kitName) {
+        return lastUsed.getOrDefault(kitName, 0L);
+    }
+
+    /**
+     * Set a kit's last use as it was stored.
+     */
+    void set(String kitName, long time) {
+        lastUsed.put(kitName, time);
+    }
+
+    /**
+     * @return Seconds until the kit can be claimed again, or 0
+     */
+    long remaining(String kitName, KitManager.Kit kit, long now) {
+        Long last = lastUsed.get(kitName);
+        return last != null ? Math.max(0, last + kit.cooldownSeconds() - now) : 0;
+    }
+
+    /**
+     * Claim a kit if it is off cooldown and, for a one-time kit, not claimed
+     * before. A successful claim sets the kit's last use to now.
+     */
+    KitManager.KitResult claim(String kitName, KitManager.Kit kit, long now) {
+        KitManager.KitResult[] result = { KitManager.KitResult.SUCCESS };
+        lastUsed.compute(kitName, (name, last) -> {
+            if (last == null) {
+                return now;
+            }
+            if (last + kit.cooldownSeconds() - now > 0) {
+                result[0] = KitManager.KitResult.ON_COOLDOWN;
+                return last;
+            }
+            if (kit.oneTime()) {
+                result[0] = KitManager.KitResult.ALREADY_CLAIMED;
+                return last;
+            }
+            return now;
+        });
+        return result[0];
+    }
+}
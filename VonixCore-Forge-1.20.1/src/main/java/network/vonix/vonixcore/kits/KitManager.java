@@ -6,22 +6,46 @@ import net.minecraft.world.item.Items;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.database.Database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages kits - predefined item sets players can claim with cooldowns.
+ *
+ * A player's cooldowns are loaded into memory when they join. Claims are
+ * checked and recorded in memory and written behind in one batch every few
+ * seconds.
  */
 public class KitManager {
 
     private static KitManager instance;
 
+    // Seconds between batched kit claim writes
+    private static final int FLUSH_INTERVAL_SECONDS = 2;
+
     // Kit definitions (loaded from config or defaults)
-    private final Map<String, Kit> kits = new HashMap<>();
+    private final Map<String, Kit> kits = new ConcurrentHashMap<>();
+    // Resolved items per kit, copied on each give
+    private final Map<String, List<ItemStack>> templates = new ConcurrentHashMap<>();
+
+    // Kit cooldowns of online players
+    private final Map<UUID, KitCooldowns> cooldowns = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<KitCooldowns>> loading = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    // Claims waiting to be written: last use by player and kit
+    private final Map<CooldownKey, Long> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService executor;
 
     public static KitManager getInstance() {
         if (instance == null) {
@@ -49,7 +73,7 @@ public class KitManager {
      */
     public void loadDefaultKits() {
         // Starter kit
-        kits.put("starter", new Kit("starter",
+        registerKit(new Kit("starter",
                 List.of(
                         new KitItem("minecraft:stone_sword", 1),
                         new KitItem("minecraft:stone_pickaxe", 1),
@@ -61,7 +85,7 @@ public class KitManager {
         ));
 
         // Tools kit
-        kits.put("tools", new Kit("tools",
+        registerKit(new Kit("tools",
                 List.of(
                         new KitItem("minecraft:iron_pickaxe", 1),
                         new KitItem("minecraft:iron_axe", 1),
@@ -71,7 +95,7 @@ public class KitManager {
                 false));
 
         // Food kit
-        kits.put("food", new Kit("food",
+        registerKit(new Kit("food",
                 List.of(
                         new KitItem("minecraft:cooked_beef", 32),
                         new KitItem("minecraft:golden_apple", 2),
@@ -81,88 +105,196 @@ public class KitManager {
     }
 
     /**
-     * Give a kit to a player.
+     * Start the periodic write of kit claims.
      */
-    public KitResult giveKit(ServerPlayer player, String kitName) {
-        Kit kit = kits.get(kitName.toLowerCase());
-        if (kit == null) {
-            return KitResult.NOT_FOUND;
+    public void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "VonixCore-Kits");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
         }
+    }
 
-        UUID uuid = player.getUUID();
-
-        // Check cooldown
-        long lastUsed = getLastUsed(uuid, kitName);
-        long now = System.currentTimeMillis() / 1000L;
-        long remaining = (lastUsed + kit.cooldownSeconds()) - now;
+    /**
+     * Stop the periodic write and write every pending claim.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        flush();
+        cooldowns.clear();
+    }
 
-        if (remaining > 0) {
-            return KitResult.ON_COOLDOWN;
+    /**
+     * Load a player's kit cooldowns into memory on join.
+     */
+    public void loadCooldownsAsync(UUID uuid) {
+        // Kits are disabled
+        if (executor == null) {
+            return;
         }
+        online.add(uuid);
+        load(uuid);
+    }
+
+    /**
+     * Drop a player's kit cooldowns from memory on quit. Pending claims are
+     * still written, and a later load sees them.
+     */
+    public void unloadCooldowns(UUID uuid) {
+        online.remove(uuid);
+        cooldowns.remove(uuid);
+    }
 
-        // Check if one-time kit already claimed
-        if (kit.oneTime() && lastUsed > 0) {
-            return KitResult.ALREADY_CLAIMED;
+    /**
+     * Give a kit to a player. The kit is claimed and given on the server
+     * thread, right away if the player's cooldowns are in memory.
+     */
+    public CompletableFuture<KitClaim> giveKit(ServerPlayer player, String kitName) {
+        String key = kitName.toLowerCase();
+        Kit kit = kits.get(key);
+        if (kit == null) {
+            return CompletableFuture.completedFuture(new KitClaim(KitResult.NOT_FOUND, 0));
         }
 
-        // Give items
-        for (KitItem item : kit.items()) {
-            ItemStack stack = createItemStack(item.itemId(), item.count());
-            if (!stack.isEmpty()) {
+        UUID uuid = player.getUUID();
+        return load(uuid).thenApplyAsync(playerCooldowns -> {
+            long now = System.currentTimeMillis() / 1000L;
+            KitResult result = playerCooldowns.claim(key, kit, now);
+            if (result == KitResult.ON_COOLDOWN) {
+                return new KitClaim(result, (int) playerCooldowns.remaining(key, kit, now));
+            }
+            if (result != KitResult.SUCCESS) {
+                return new KitClaim(result, 0);
+            }
+            pending.put(new CooldownKey(uuid, key), now);
+
+            // Give items
+            for (ItemStack template : templates.getOrDefault(key, List.of())) {
+                ItemStack stack = template.copy();
                 if (!player.getInventory().add(stack)) {
                     // Drop on ground if inventory full
                     player.drop(stack, false);
                 }
             }
+            return new KitClaim(KitResult.SUCCESS, 0);
+        }, player.getServer());
+    }
+
+    // Get a player's cooldowns, loading them from the database if they are not in memory
+    private CompletableFuture<KitCooldowns> load(UUID uuid) {
+        KitCooldowns cached = cooldowns.get(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<KitCooldowns> future = new CompletableFuture<>();
+        CompletableFuture<KitCooldowns> inFlight = loading.putIfAbsent(uuid, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        VonixCore.executeAsync(() -> {
+            try {
+                future.complete(loadNow(uuid));
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to load kit cooldowns for {}: {}", uuid, e.getMessage());
+                future.completeExceptionally(e);
+            } finally {
+                loading.remove(uuid, future);
+            }
+        });
+        return future;
+    }
+
+    private KitCooldowns loadNow(UUID uuid) throws SQLException {
+        KitCooldowns existing = cooldowns.get(uuid);
+        if (existing != null) {
+            return existing;
         }
 
-        // Set cooldown
-        setLastUsed(uuid, kitName, now);
+        KitCooldowns playerCooldowns = new KitCooldowns();
+        // Hold off a running flush, so its claims are either stored or still pending
+        synchronized (flushLock) {
+            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection();
+                    PreparedStatement stmt = conn.prepareStatement(
+                            "SELECT kit_name, last_used FROM vc_kit_cooldowns WHERE uuid = ?")) {
+                stmt.setString(1, uuid.toString());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        playerCooldowns.set(rs.getString("kit_name"), rs.getLong("last_used"));
+                    }
+                }
+            }
+            // Claims not written yet are newer than the stored rows
+            for (Map.Entry<CooldownKey, Long> entry : pending.entrySet()) {
+                if (entry.getKey().uuid().equals(uuid)) {
+                    playerCooldowns.set(entry.getKey().kitName(), entry.getValue());
+                }
+            }
+        }
 
-        return KitResult.SUCCESS;
+        // Only kept in memory while the player is online
+        if (online.contains(uuid)) {
+            KitCooldowns raced = cooldowns.putIfAbsent(uuid, playerCooldowns);
+            if (raced != null) {
+                return raced;
+            }
+        }
+        return playerCooldowns;
     }
 
-    /**
-     * Get remaining cooldown in seconds.
-     */
-    public int getRemainingCooldown(UUID uuid, String kitName) {
-        Kit kit = kits.get(kitName.toLowerCase());
-        if (kit == null)
-            return 0;
-
-        long lastUsed = getLastUsed(uuid, kitName);
-        long now = System.currentTimeMillis() / 1000L;
-        long remaining = (lastUsed + kit.cooldownSeconds()) - now;
-
-        return Math.max(0, (int) remaining);
-    }
-
-    private long getLastUsed(UUID uuid, String kitName) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT last_used FROM vc_kit_cooldowns WHERE uuid = ? AND kit_name = ?");
-            stmt.setString(1, uuid.toString());
-            stmt.setString(2, kitName.toLowerCase());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getLong("last_used");
+    // Write every pending claim in one transaction
+    private void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<CooldownKey, Long> batch = new HashMap<>();
+            for (CooldownKey key : pending.keySet()) {
+                Long time = pending.remove(key);
+                if (time != null) {
+                    batch.put(key, time);
+                }
+            }
+
+            Database db = VonixCore.getInstance().getDatabase();
+            try (Connection conn = db.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        Database.upsertSql(db, "vc_kit_cooldowns", 2, "uuid", "kit_name", "last_used"))) {
+                    for (Map.Entry<CooldownKey, Long> entry : batch.entrySet()) {
+                        stmt.setString(1, entry.getKey().uuid().toString());
+                        stmt.setString(2, entry.getKey().kitName());
+                        stmt.setLong(3, entry.getValue());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to save {} kit claim(s), retrying: {}", batch.size(),
+                        e.getMessage());
+                // Anything claimed meanwhile is newer and wins
+                batch.forEach(pending::putIfAbsent);
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to get kit cooldown: {}", e.getMessage());
-        }
-        return 0;
-    }
-
-    private void setLastUsed(UUID uuid, String kitName, long time) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT OR REPLACE INTO vc_kit_cooldowns (uuid, kit_name, last_used) VALUES (?, ?, ?)");
-            stmt.setString(1, uuid.toString());
-            stmt.setString(2, kitName.toLowerCase());
-            stmt.setLong(3, time);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to set kit cooldown: {}", e.getMessage());
         }
     }
 
@@ -184,7 +316,21 @@ public class KitManager {
      * Register a custom kit.
      */
     public void registerKit(Kit kit) {
-        kits.put(kit.name().toLowerCase(), kit);
+        String key = kit.name().toLowerCase();
+        templates.put(key, createTemplates(kit));
+        kits.put(key, kit);
+    }
+
+    // Resolve a kit's items once; each give copies the templates
+    private List<ItemStack> createTemplates(Kit kit) {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (KitItem item : kit.items()) {
+            ItemStack stack = createItemStack(item.itemId(), item.count());
+            if (!stack.isEmpty()) {
+                stacks.add(stack);
+            }
+        }
+        return List.copyOf(stacks);
     }
 
     private ItemStack createItemStack(String itemId, int count) {
@@ -204,6 +350,9 @@ public class KitManager {
         return ItemStack.EMPTY;
     }
 
+    private record CooldownKey(UUID uuid, String kitName) {
+    }
+
     /**
      * Kit result enum.
      */
@@ -214,6 +363,15 @@ public class KitManager {
         ALREADY_CLAIMED
     }
 
+    /**
+     * Outcome of giving a kit.
+     *
+     * @param remainingSeconds Cooldown left when the result is ON_COOLDOWN,
+     *                         otherwise 0
+     */
+    public record KitClaim(KitResult result, int remainingSeconds) {
+    }
+
     /**
      * Kit definition record.
      */
@@ -1,7 +1,6 @@
 package network.vonix.vonixcore.listener;
 
 import net.minecraft.core.BlockPos;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.Level;
@@ -43,8 +42,8 @@ public class BlockEventListener {
         String world = getWorldName(event.getLevel());
 
         long time = System.currentTimeMillis() / 1000L;
-        String blockType = getBlockId(state);
-        String blockData = serializeBlockState(state);
+        String blockType = BlockStateCache.getBlockId(state);
+        String blockData = BlockStateCache.getBlockData(state);
 
         Consumer.getInstance().queueEntry(new Consumer.BlockLogEntry(
                 time, user, world,
@@ -79,8 +78,8 @@ public class BlockEventListener {
         String world = getWorldName(event.getLevel());
 
         long time = System.currentTimeMillis() / 1000L;
-        String blockType = getBlockId(state);
-        String blockData = serializeBlockState(state);
+        String blockType = BlockStateCache.getBlockId(state);
+        String blockData = BlockStateCache.getBlockData(state);
 
         Consumer.getInstance().queueEntry(new Consumer.BlockLogEntry(
                 time, user, world,
@@ -116,8 +115,8 @@ public class BlockEventListener {
             if (state.isAir())
                 continue;
 
-            String blockType = getBlockId(state);
-            String blockData = serializeBlockState(state);
+            String blockType = BlockStateCache.getBlockId(state);
+            String blockData = BlockStateCache.getBlockData(state);
 
             Consumer.getInstance().queueEntry(new Consumer.BlockLogEntry(
                     time, user, world,
@@ -136,28 +135,4 @@ public class BlockEventListener {
         }
         return "unknown";
     }
-
-    /**
-     * Get the block ID as a string.
-     */
-    private static String getBlockId(BlockState state) {
-        ResourceLocation key = net.minecraft.core.registries.BuiltInRegistries.BLOCK.getKey(state.getBlock());
-        return key != null ? key.toString() : "minecraft:air";
-    }
-
-    /**
-     * Serialize block state properties to a string.
-     */
-    private static String serializeBlockState(BlockState state) {
-        if (state.getValues().isEmpty()) {
-            return null;
-        }
-        StringBuilder sb = new StringBuilder();
-        state.getValues().forEach((property, value) -> {
-            if (sb.length() > 0)
-                sb.append(",");
-            sb.append(property.getName()).append("=").append(value.toString());
-        });
-        return sb.toString();
-    }
 }
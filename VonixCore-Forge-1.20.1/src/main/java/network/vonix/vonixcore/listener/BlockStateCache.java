@@ -0,0 +1,65 @@
+package network.vonix.vonixcore.listener;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Block id and serialized properties per block state, for the logging hot path.
+ * Block states are canonical singletons that use identity equality, so each
+ * one is formatted once and every later event reuses the same strings.
+ */
+final class BlockStateCache {
+
+    private static final Map<BlockState, Entry> CACHE = new ConcurrentHashMap<>();
+
+    private BlockStateCache() {
+    }
+
+    /**
+     * Get the block ID as a string.
+     */
+    static String getBlockId(BlockState state) {
+        return get(state).id;
+    }
+
+    /**
+     * Get the block state properties as "name=value,..." or null if the block
+     * has none.
+     */
+    static String getBlockData(BlockState state) {
+        return get(state).data;
+    }
+
+    private static Entry get(BlockState state) {
+        Entry entry = CACHE.get(state);
+        if (entry == null) {
+            entry = CACHE.computeIfAbsent(state, s -> new Entry(blockId(s), serialize(s)));
+        }
+        return entry;
+    }
+
+    private static String blockId(BlockState state) {
+        ResourceLocation key = BuiltInRegistries.BLOCK.getKey(state.getBlock());
+        return key != null ? key.toString() : "minecraft:air";
+    }
+
+    private static String serialize(BlockState state) {
+        if (state.getValues().isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        state.getValues().forEach((property, value) -> {
+            if (sb.length() > 0)
+                sb.append(",");
+            sb.append(property.getName()).append("=").append(value.toString());
+        });
+        return sb.toString();
+    }
+
+    private record Entry(String id, String data) {
+    }
+}
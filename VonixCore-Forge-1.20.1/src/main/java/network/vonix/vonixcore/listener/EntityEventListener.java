@@ -13,10 +13,6 @@ import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.config.ProtectionConfig;
 import network.vonix.vonixcore.consumer.Consumer;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-
 /**
  * Entity event listener for logging entity-related events.
  */
@@ -68,7 +64,10 @@ public class EntityEventListener {
     /**
      * Entity log entry for the consumer queue.
      */
-    public static class EntityLogEntry implements Consumer.QueueEntry {
+    public static class EntityLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "entity_type",
+                "entity_data", "action" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -91,20 +90,18 @@ public class EntityEventListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_entity (time, user, world, x, y, z, entity_type, entity_data, action) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, entityType);
-                stmt.setString(8, entityData);
-                stmt.setInt(9, action);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_entity";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, entityType, entityData, action };
         }
     }
 }
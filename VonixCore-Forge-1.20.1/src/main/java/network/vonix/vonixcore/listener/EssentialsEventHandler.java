@@ -1,15 +1,16 @@
 package network.vonix.vonixcore.listener;
 
-import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.ServerChatEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.entity.player.PlayerNegotiationEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.chat.ChatFormatter;
+import network.vonix.vonixcore.chat.ChatPipeline;
 import network.vonix.vonixcore.command.UtilityCommands;
 import network.vonix.vonixcore.command.WorldCommands;
 import network.vonix.vonixcore.config.EssentialsConfig;
@@ -74,23 +75,24 @@ public class EssentialsEventHandler {
             return;
         }
 
-        ServerPlayer player = event.getPlayer();
-        String rawMessage = event.getRawText();
-
-        // Format the message with prefix/suffix
-        Component formatted = ChatFormatter.formatChatMessage(player, rawMessage);
-
         // Cancel the original event to prevent default rendering (which adds the double
         // name)
         event.setCanceled(true);
 
-        // Manually broadcast the formatted message to all players (tellraw style)
-        for (ServerPlayer p : player.getServer().getPlayerList().getPlayers()) {
-            p.sendSystemMessage(formatted);
-        }
+        // Format with prefix/suffix and broadcast to all players (tellraw style)
+        ChatPipeline.getInstance().submit(event.getPlayer(), event.getRawText(), null);
+    }
 
-        // Log to console
-        player.getServer().sendSystemMessage(formatted);
+    /**
+     * Load permission data while the player is still logging in, so the
+     * server thread never has to load it. The login waits a bounded time.
+     */
+    @SubscribeEvent
+    public static void onPlayerNegotiation(PlayerNegotiationEvent event) {
+        if (!EssentialsConfig.CONFIG.enabled.get() || event.getProfile().getId() == null) {
+            return;
+        }
+        event.enqueueWork(PermissionManager.getInstance().preloadForLogin(event.getProfile().getId()));
     }
 
     /**
@@ -102,8 +104,9 @@ public class EssentialsEventHandler {
             // Track for /seen command
             UtilityCommands.onPlayerJoin(player.getUUID());
 
-            // Pre-load permission data
-            PermissionManager.getInstance().getUser(player.getUUID());
+            // Keep permission data cached while online, loading it if the
+            // handshake did not
+            PermissionManager.getInstance().onPlayerJoin(player.getUUID());
         }
     }
 
@@ -121,6 +124,7 @@ public class EssentialsEventHandler {
 
             // Clear permission cache for this player
             PermissionManager.getInstance().clearUserCache(player.getUUID());
+            ChatFormatter.clearCache(player.getUUID());
         }
     }
 
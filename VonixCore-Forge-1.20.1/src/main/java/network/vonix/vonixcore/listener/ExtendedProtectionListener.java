@@ -24,9 +24,6 @@ import network.vonix.vonixcore.command.ProtectionCommands;
 import network.vonix.vonixcore.config.ProtectionConfig;
 import network.vonix.vonixcore.consumer.Consumer;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -248,8 +245,7 @@ public class ExtendedProtectionListener {
     }
 
     private static String getBlockId(BlockState state) {
-        var key = net.minecraftforge.registries.ForgeRegistries.BLOCKS.getKey(state.getBlock());
-        return key != null ? key.toString() : "minecraft:air";
+        return BlockStateCache.getBlockId(state);
     }
 
     private static String getEntityId(Entity entity) {
@@ -285,7 +281,10 @@ public class ExtendedProtectionListener {
     /**
      * Container transaction log entry.
      */
-    public static class ContainerLogEntry implements Consumer.QueueEntry {
+    public static class ContainerLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "type", "item", "amount",
+                "action" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -310,28 +309,28 @@ public class ExtendedProtectionListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_container (time, user, world, x, y, z, type, item, amount, action) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, type);
-                stmt.setString(8, item);
-                stmt.setInt(9, amount);
-                stmt.setInt(10, action);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_container";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, type, item, amount, action };
         }
     }
 
     /**
      * Entity kill log entry.
      */
-    public static class EntityLogEntry implements Consumer.QueueEntry {
+    public static class EntityLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "entity_type",
+                "entity_data", "action" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -354,27 +353,27 @@ public class ExtendedProtectionListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_entity (time, user, world, x, y, z, entity_type, entity_data, action) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, entityType);
-                stmt.setString(8, entityData);
-                stmt.setInt(9, action);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_entity";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, entityType, entityData, action };
         }
     }
 
     /**
      * Interaction log entry.
      */
-    public static class InteractionLogEntry implements Consumer.QueueEntry {
+    public static class InteractionLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "type" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -393,25 +392,27 @@ public class ExtendedProtectionListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_interaction (time, user, world, x, y, z, type) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, blockType);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_interaction";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, blockType };
         }
     }
 
     /**
      * Sign log entry.
      */
-    public static class SignLogEntry implements Consumer.QueueEntry {
+    public static class SignLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "world", "x", "y", "z", "text" };
+
         private final long time;
         private final String user;
         private final String world;
@@ -429,18 +430,18 @@ public class ExtendedProtectionListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_sign (time, user, world, x, y, z, text) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, world);
-                stmt.setInt(4, x);
-                stmt.setInt(5, y);
-                stmt.setInt(6, z);
-                stmt.setString(7, text);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_sign";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, world, x, y, z, text };
         }
     }
 }
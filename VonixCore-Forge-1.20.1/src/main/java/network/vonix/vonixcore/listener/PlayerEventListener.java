@@ -1,5 +1,6 @@
 package network.vonix.vonixcore.listener;
 
+import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
@@ -9,14 +10,11 @@ import net.minecraftforge.event.entity.player.PlayerEvent;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.config.ProtectionConfig;
 import network.vonix.vonixcore.config.EssentialsConfig;
+import network.vonix.vonixcore.consumer.CompactLogSchema;
 import network.vonix.vonixcore.consumer.Consumer;
-import network.vonix.vonixcore.chat.ChatFormatter;
+import network.vonix.vonixcore.chat.ChatPipeline;
 import network.vonix.vonixcore.xpsync.XPSyncManager;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-
 /**
  * Player event listener for logging chat and commands.
  */
@@ -24,24 +22,30 @@ import java.sql.SQLException;
 public class PlayerEventListener {
 
     /**
-     * Handle player join to load economy and jobs data.
+     * Handle player join to load economy, jobs, homes and kits data.
      */
     @SubscribeEvent
     public static void onPlayerJoin(PlayerEvent.PlayerLoggedInEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
+            CompactLogSchema.rememberPlayer(player.getName().getString(), player.getUUID());
             network.vonix.vonixcore.economy.EconomyManager.getInstance().loadBalanceAsync(player.getUUID());
             network.vonix.vonixcore.jobs.JobsManager.getInstance().loadPlayerJobs(player.getUUID());
+            network.vonix.vonixcore.homes.HomeManager.getInstance().loadHomesAsync(player.getUUID());
+            network.vonix.vonixcore.kits.KitManager.getInstance().loadCooldownsAsync(player.getUUID());
         }
     }
 
     /**
-     * Handle player quit to unload economy and jobs data.
+     * Handle player quit to unload jobs, economy, homes and kits data.
      */
     @SubscribeEvent
     public static void onPlayerQuit(PlayerEvent.PlayerLoggedOutEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
-            network.vonix.vonixcore.economy.EconomyManager.getInstance().unloadBalance(player.getUUID());
+            // Jobs pay out the last earnings, so they go before the balance is released
             network.vonix.vonixcore.jobs.JobsManager.getInstance().unloadPlayerJobs(player.getUUID());
+            network.vonix.vonixcore.economy.EconomyManager.getInstance().unloadBalance(player.getUUID());
+            network.vonix.vonixcore.homes.HomeManager.getInstance().unloadHomes(player.getUUID());
+            network.vonix.vonixcore.kits.KitManager.getInstance().unloadCooldowns(player.getUUID());
         }
     }
 
@@ -55,18 +59,24 @@ public class PlayerEventListener {
         String message = event.getRawText();
         long time = System.currentTimeMillis() / 1000L;
 
-        // Handle chat formatting
-        if (EssentialsConfig.CONFIG.chatFormattingEnabled.get()) {
-            event.setCanceled(true);
-            net.minecraft.network.chat.Component formatted = ChatFormatter.formatChatMessage(player, message);
-            player.server.getPlayerList().broadcastSystemMessage(formatted, false);
-            // Log to console manually since event is canceled
-            VonixCore.LOGGER.info("[Chat] " + formatted.getString());
-        }
-
         // Send to Discord
+        Runnable relay = null;
         if (network.vonix.vonixcore.config.DiscordConfig.CONFIG.enabled.get()) {
-            network.vonix.vonixcore.discord.DiscordManager.getInstance().sendMinecraftMessage(user, message);
+            relay = () -> network.vonix.vonixcore.discord.DiscordManager.getInstance().sendMinecraftMessage(user,
+                    message);
+        }
+
+        // Muted players are stopped before anything reaches Discord
+        if (!ChatPipeline.getInstance().canChat(player.getUUID())) {
+            event.setCanceled(true);
+            player.sendSystemMessage(Component.literal("§cYou are muted."));
+        } else if (EssentialsConfig.CONFIG.chatFormattingEnabled.get()) {
+            // The pipeline formats, filters and logs off the server thread,
+            // and only relays once the message went out
+            event.setCanceled(true);
+            ChatPipeline.getInstance().submit(player, message, relay);
+        } else if (relay != null) {
+            relay.run();
         }
 
         if (ProtectionConfig.CONFIG.logChat.get()) {
@@ -116,7 +126,9 @@ public class PlayerEventListener {
     /**
      * Chat log entry for the consumer queue.
      */
-    public static class ChatLogEntry implements Consumer.QueueEntry {
+    public static class ChatLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "message" };
+
         private final long time;
         private final String user;
         private final String message;
@@ -128,21 +140,27 @@ public class PlayerEventListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_chat (time, user, message) VALUES (?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, message);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_chat";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, message };
         }
     }
 
     /**
      * Command log entry for the consumer queue.
      */
-    public static class CommandLogEntry implements Consumer.QueueEntry {
+    public static class CommandLogEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "time", "user", "command" };
+
         private final long time;
         private final String user;
         private final String command;
@@ -154,14 +172,18 @@ public class PlayerEventListener {
         }
 
         @Override
-        public void execute(Connection conn) throws SQLException {
-            String sql = "INSERT INTO vp_command (time, user, command) VALUES (?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setLong(1, time);
-                stmt.setString(2, user);
-                stmt.setString(3, command);
-                stmt.executeUpdate();
-            }
+        public String getTable() {
+            return "vp_command";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { time, user, command };
         }
     }
 }
@@ -0,0 +1,283 @@
+package network.vonix.vonixcore.permissions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A user's effective permissions, flattened into one node trie.
+ * Every source that is consulted on a check (the user, then each group by
+ * weight followed by its parents) gets a rank in that order. Each trie node
+ * keeps the best exact and wildcard ("node.*") entry defined for its path,
+ * and a check walks the node's segments once, keeping the best entry seen.
+ * Lookups compare segments in place, so a check allocates nothing.
+ *
+ * Resolution matches the uncompiled rules: the first source defining a
+ * matching entry wins; within a source an exact entry beats a wildcard, and a
+ * shorter wildcard beats a longer one; a source holding "*" grants
+ * everything not decided by an earlier source.
+ *
+ * The chat prefix and suffix are resolved at the same time: the user's own,
+ * otherwise the first non-empty one among their groups by weight.
+ *
+ * A compiled set remembers the revisions it was built from and is rebuilt
+ * once the user, any group it used, or the set of groups changes.
+ */
+final class CompiledPermissions {
+
+    private static final int NONE = Integer.MAX_VALUE;
+    // Ranks step by this much so the wildcard depth fits below them
+    private static final int RANK_STEP = 1 << 12;
+
+    private final Node root;
+    private final int matchAll;
+    private final long groupsVersion;
+    private final int userRevision;
+    private final PermissionGroup[] groups;
+    private final int[] groupRevisions;
+    private final String prefix;
+    private final String suffix;
+
+    private CompiledPermissions(Node root, int matchAll, long groupsVersion, int userRevision,
+            PermissionGroup[] groups, int[] groupRevisions, String prefix, String suffix) {
+        this.root = root;
+        this.matchAll = matchAll;
+        this.groupsVersion = groupsVersion;
+        this.userRevision = userRevision;
+        this.groups = groups;
+        this.groupRevisions = groupRevisions;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Compile a user's permissions.
+     *
+     * @param groups        The user's groups, highest weight first
+     * @param allGroups     Every loaded group by name, for parent lookups
+     * @param groupsVersion Version of the loaded group set
+     */
+    static CompiledPermissions compile(PermissionUser user, List<PermissionGroup> groups,
+            Map<String, PermissionGroup> allGroups, long groupsVersion) {
+        // Read revisions before contents so a concurrent edit leaves this stale
+        int userRevision = user.getRevision();
+        Builder builder = new Builder();
+        List<PermissionGroup> used = new ArrayList<>();
+        List<Integer> usedRevisions = new ArrayList<>();
+
+        // Group weights decide the order, so every group counts even if a
+        // wildcard ends the walk before it
+        String prefix = user.getPrefix();
+        String suffix = user.getSuffix();
+        for (PermissionGroup group : groups) {
+            used.add(group);
+            usedRevisions.add(group.getRevision());
+            if (prefix.isEmpty())
+                prefix = group.getPrefix();
+            if (suffix.isEmpty())
+                suffix = group.getSuffix();
+        }
+
+        int rank = 0;
+        builder.add(user.getPermissions(), rank++);
+        if (user.hasPermission("*")) {
+            builder.matchAll(rank);
+        }
+        rank++;
+
+        for (PermissionGroup group : groups) {
+            // Walk the parent chain; a cycle ends it like a missing parent
+            Set<String> visited = new HashSet<>();
+            PermissionGroup current = group;
+            while (current != null && builder.matchAll == NONE && visited.add(current.getName())) {
+                if (current != group) {
+                    used.add(current);
+                    usedRevisions.add(current.getRevision());
+                }
+                builder.add(current.getPermissions(), rank++);
+                if (current.hasPermission("*")) {
+                    builder.matchAll(rank);
+                }
+                rank++;
+                current = current.getParent() != null ? allGroups.get(current.getParent()) : null;
+            }
+        }
+
+        int[] revisions = new int[usedRevisions.size()];
+        for (int i = 0; i < revisions.length; i++) {
+            revisions[i] = usedRevisions.get(i);
+        }
+        return new CompiledPermissions(builder.root.freeze(), builder.matchAll, groupsVersion, userRevision,
+                used.toArray(new PermissionGroup[0]), revisions, prefix, suffix);
+    }
+
+    /**
+     * @return True if nothing this was compiled from has changed since
+     */
+    boolean isCurrent(PermissionUser user, long currentGroupsVersion) {
+        if (groupsVersion != currentGroupsVersion || userRevision != user.getRevision()) {
+            return false;
+        }
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i].getRevision() != groupRevisions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @return The resolved value of a permission, or null if nothing sets it
+     */
+    Boolean getPermission(String permission) {
+        int best = resolve(permission);
+        return best == NONE ? null : (best & 1) == 1;
+    }
+
+    boolean hasPermission(String permission) {
+        int best = resolve(permission);
+        return best != NONE && (best & 1) == 1;
+    }
+
+    // Best encoded entry matching the permission, or NONE
+    private int resolve(String permission) {
+        int best = matchAll;
+        Node node = root;
+        int length = permission.length();
+        int start = 0;
+        while (true) {
+            int end = permission.indexOf('.', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(permission, start, end);
+            if (node == null) {
+                return best;
+            }
+            best = Math.min(best, node.wildcard);
+            if (end == length) {
+                return Math.min(best, node.exact);
+            }
+            start = end + 1;
+        }
+    }
+
+    // Priority in the high bits so the minimum is the winner; value in bit 0
+    private static int encode(int rank, int depth, boolean value) {
+        return ((rank * RANK_STEP + Math.min(depth, RANK_STEP - 1)) << 1) | (value ? 1 : 0);
+    }
+
+    // Lower-cased String.hashCode of a segment, without creating it
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + Character.toLowerCase(s.charAt(i));
+        }
+        return h;
+    }
+
+    /** Mutable trie used while compiling. */
+    private static final class Builder {
+        final MutableNode root = new MutableNode();
+        int matchAll = NONE;
+
+        void matchAll(int rank) {
+            if (matchAll == NONE) {
+                matchAll = encode(rank, 0, true);
+            }
+        }
+
+        // Sources are added in rank order, so an entry already set wins
+        void add(Map<String, Boolean> permissions, int rank) {
+            for (Map.Entry<String, Boolean> entry : permissions.entrySet()) {
+                String key = entry.getKey().toLowerCase();
+                boolean wildcard = key.endsWith(".*");
+                if (wildcard) {
+                    key = key.substring(0, key.length() - 2);
+                }
+                MutableNode node = root;
+                int depth = 0;
+                for (String segment : key.split("\\.", -1)) {
+                    node = node.children.computeIfAbsent(segment, s -> new MutableNode());
+                    depth++;
+                }
+                if (wildcard) {
+                    if (node.wildcard == NONE) {
+                        node.wildcard = encode(rank, depth, entry.getValue());
+                    }
+                } else if (node.exact == NONE) {
+                    node.exact = encode(rank, 0, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static final class MutableNode {
+        final Map<String, MutableNode> children = new HashMap<>();
+        int exact = NONE;
+        int wildcard = NONE;
+
+        Node freeze() {
+            String[] keys = children.keySet().toArray(new String[0]);
+            Arrays.sort(keys, (a, b) -> Integer.compare(a.hashCode(), b.hashCode()));
+            int[] hashes = new int[keys.length];
+            Node[] frozen = new Node[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                hashes[i] = keys[i].hashCode();
+                frozen[i] = children.get(keys[i]).freeze();
+            }
+            return new Node(keys, hashes, frozen, exact, wildcard);
+        }
+    }
+
+    /** Immutable trie node; children sorted by segment hash. */
+    private static final class Node {
+        final String[] keys;
+        final int[] hashes;
+        final Node[] children;
+        final int exact;
+        final int wildcard;
+
+        Node(String[] keys, int[] hashes, Node[] children, int exact, int wildcard) {
+            this.keys = keys;
+            this.hashes = hashes;
+            this.children = children;
+            this.exact = exact;
+            this.wildcard = wildcard;
+        }
+
+        Node child(String permission, int start, int end) {
+            int h = hash(permission, start, end);
+            int low = 0;
+            int high = hashes.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (hashes[mid] < h) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int length = end - start;
+            for (int i = low; i < hashes.length && hashes[i] == h; i++) {
+                String key = keys[i];
+                if (key.length() == length && permission.regionMatches(true, start, key, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
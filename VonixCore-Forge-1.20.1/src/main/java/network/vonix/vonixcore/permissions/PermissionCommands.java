@@ -194,7 +194,9 @@ public class PermissionCommands {
                         return 0;
                 }
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setUsername(target.getName().getString());
                 user.setPrimaryGroup(groupName);
                 pm.saveUser(user);
@@ -215,7 +217,9 @@ public class PermissionCommands {
                         return 0;
                 }
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setUsername(target.getName().getString());
                 user.addGroup(groupName);
                 pm.saveUser(user);
@@ -231,7 +235,9 @@ public class PermissionCommands {
                 String groupName = StringArgumentType.getString(ctx, "group");
                 PermissionManager pm = PermissionManager.getInstance();
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.removeGroup(groupName);
                 pm.saveUser(user);
 
@@ -246,7 +252,9 @@ public class PermissionCommands {
                 boolean value = BoolArgumentType.getBool(ctx, "value");
                 PermissionManager pm = PermissionManager.getInstance();
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setUsername(target.getName().getString());
                 user.setPermission(permission, value);
                 pm.saveUser(user);
@@ -262,7 +270,9 @@ public class PermissionCommands {
                 String permission = StringArgumentType.getString(ctx, "permission");
                 PermissionManager pm = PermissionManager.getInstance();
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.unsetPermission(permission);
                 pm.saveUser(user);
 
@@ -296,7 +306,9 @@ public class PermissionCommands {
                         return 0;
                 }
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setUsername(target.getName().getString());
                 user.setPrefix(prefix);
                 pm.saveUser(user);
@@ -318,7 +330,9 @@ public class PermissionCommands {
                         return 0;
                 }
 
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setUsername(target.getName().getString());
                 user.setSuffix(suffix);
                 pm.saveUser(user);
@@ -338,7 +352,9 @@ public class PermissionCommands {
                                         .literal("§cLuckPerms is active - use /lp user <user> meta clear ..."));
                         return 0;
                 }
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setPrefix("");
                 pm.saveUser(user);
                 ctx.getSource().sendSuccess(
@@ -355,7 +371,9 @@ public class PermissionCommands {
                                         .literal("§cLuckPerms is active - use /lp user <user> meta clear ..."));
                         return 0;
                 }
-                PermissionUser user = pm.getUser(target.getUUID());
+                PermissionUser user = getLoadedUser(ctx, target);
+                if (user == null)
+                        return 0;
                 user.setSuffix("");
                 pm.saveUser(user);
                 ctx.getSource().sendSuccess(
@@ -594,6 +612,17 @@ public class PermissionCommands {
                 return 1;
         }
 
+        // Null after telling the sender if the target's data is still loading
+        private static PermissionUser getLoadedUser(CommandContext<CommandSourceStack> ctx, ServerPlayer target) {
+                PermissionUser user = PermissionManager.getInstance().getUser(target.getUUID());
+                if (user.isPlaceholder()) {
+                        ctx.getSource().sendFailure(Component.literal("§cPermission data for §e"
+                                        + target.getName().getString() + "§c is still loading, try again"));
+                        return null;
+                }
+                return user;
+        }
+
         private static void saveGroupAsync(PermissionGroup group) {
                 new Thread(() -> {
                         try (var conn = VonixCore.getInstance().getDatabase().getConnection()) {
@@ -14,6 +14,10 @@ public class PermissionGroup {
     private int weight = 0;
     private String parent = null;
     private final Map<String, Boolean> permissions = new ConcurrentHashMap<>();
+    // Bumped on every change that affects permission checks or prefixes
+    private volatile int revision = 0;
+    // What the database holds, so saves only write the difference
+    private volatile Map<String, Boolean> persistedPermissions = Map.of();
 
     public PermissionGroup(String name) {
         this.name = name.toLowerCase();
@@ -38,6 +42,7 @@ public class PermissionGroup {
 
     public void setPrefix(String prefix) {
         this.prefix = prefix != null ? prefix : "";
+        revision++;
     }
 
     public String getSuffix() {
@@ -46,6 +51,7 @@ public class PermissionGroup {
 
     public void setSuffix(String suffix) {
         this.suffix = suffix != null ? suffix : "";
+        revision++;
     }
 
     public int getWeight() {
@@ -54,6 +60,7 @@ public class PermissionGroup {
 
     public void setWeight(int weight) {
         this.weight = weight;
+        revision++;
     }
 
     public String getParent() {
@@ -62,6 +69,7 @@ public class PermissionGroup {
 
     public void setParent(String parent) {
         this.parent = parent;
+        revision++;
     }
 
     public Map<String, Boolean> getPermissions() {
@@ -70,10 +78,24 @@ public class PermissionGroup {
 
     public void setPermission(String permission, boolean value) {
         permissions.put(permission.toLowerCase(), value);
+        revision++;
     }
 
     public void unsetPermission(String permission) {
         permissions.remove(permission.toLowerCase());
+        revision++;
+    }
+
+    int getRevision() {
+        return revision;
+    }
+
+    Map<String, Boolean> getPersistedPermissions() {
+        return persistedPermissions;
+    }
+
+    void setPersistedPermissions(Map<String, Boolean> permissions) {
+        this.persistedPermissions = permissions;
     }
 
     public Boolean getPermission(String permission) {
@@ -2,12 +2,17 @@ package network.vonix.vonixcore.permissions;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.server.ServerLifecycleHooks;
 import network.vonix.vonixcore.VonixCore;
 import network.vonix.vonixcore.database.Database;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Comprehensive permission system - LuckPerms replacement.
@@ -17,9 +22,27 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PermissionManager {
     private static PermissionManager instance;
 
+    // How long a login waits for the player's permissions to load
+    private static final long LOGIN_WAIT_SECONDS = 5;
+    // How long an off-thread caller waits for a user to load
+    private static final long LOAD_WAIT_MILLIS = 2000;
+    // Users that are not online are dropped after this long without a lookup
+    private static final long OFFLINE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long OFFLINE_SWEEP_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
     // Cache
     private final Map<UUID, PermissionUser> userCache = new ConcurrentHashMap<>();
+    // Loads in flight, and the defaults handed out until they finish
+    private final Map<UUID, CompletableFuture<PermissionUser>> loading = new ConcurrentHashMap<>();
+    private final Map<UUID, PermissionUser> placeholders = new ConcurrentHashMap<>();
+    // Online players stay cached; everyone else expires after the last access
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> offlineAccess = new ConcurrentHashMap<>();
+    private volatile long lastOfflineSweep = System.currentTimeMillis();
     private final Map<String, PermissionGroup> groupCache = new ConcurrentHashMap<>();
+    // Bumped whenever a group is added or removed; compiled permissions
+    // built against an older set are rebuilt
+    private final AtomicLong groupsVersion = new AtomicLong();
 
     // LuckPerms integration fallback
     private boolean useLuckPerms = false;
@@ -130,36 +153,43 @@ public class PermissionManager {
         defaultGroup.setPrefix("§7");
         defaultGroup.setWeight(0);
         saveGroup(conn, defaultGroup);
-        groupCache.put("default", defaultGroup);
         VonixCore.LOGGER.info("[Permissions] Created default group");
     }
 
     private void loadGroups(Connection conn) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM vc_groups")) {
-            ResultSet rs = ps.executeQuery();
+        // Every group with its permissions in one pass; a group without
+        // permissions comes back once with NULL permission columns
+        Map<String, PermissionGroup> loaded = new LinkedHashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement("""
+                    SELECT g.name, g.display_name, g.prefix, g.suffix, g.weight, g.parent, p.permission, p.value
+                    FROM vc_groups g
+                    LEFT JOIN vc_group_permissions p ON p.group_name = g.name
+                """);
+                ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                PermissionGroup group = new PermissionGroup(rs.getString("name"));
-                group.setDisplayName(rs.getString("display_name"));
-                group.setPrefix(rs.getString("prefix"));
-                group.setSuffix(rs.getString("suffix"));
-                group.setWeight(rs.getInt("weight"));
-                group.setParent(rs.getString("parent"));
-                loadGroupPermissions(conn, group);
-                groupCache.put(group.getName(), group);
+                String name = rs.getString("name").toLowerCase();
+                PermissionGroup group = loaded.get(name);
+                if (group == null) {
+                    group = new PermissionGroup(name);
+                    group.setDisplayName(rs.getString("display_name"));
+                    group.setPrefix(rs.getString("prefix"));
+                    group.setSuffix(rs.getString("suffix"));
+                    group.setWeight(rs.getInt("weight"));
+                    group.setParent(rs.getString("parent"));
+                    loaded.put(name, group);
+                }
+                String permission = rs.getString("permission");
+                if (permission != null) {
+                    group.setPermission(permission, rs.getBoolean("value"));
+                }
             }
         }
-        VonixCore.LOGGER.info("[Permissions] Loaded {} groups", groupCache.size());
-    }
-
-    private void loadGroupPermissions(Connection conn, PermissionGroup group) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(
-                "SELECT permission, value FROM vc_group_permissions WHERE group_name = ?")) {
-            ps.setString(1, group.getName());
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                group.setPermission(rs.getString("permission"), rs.getBoolean("value"));
-            }
+        for (PermissionGroup group : loaded.values()) {
+            group.setPersistedPermissions(new HashMap<>(group.getPermissions()));
+            groupCache.put(group.getName(), group);
         }
+        groupsVersion.incrementAndGet();
+        VonixCore.LOGGER.info("[Permissions] Loaded {} groups", groupCache.size());
     }
 
     // === PUBLIC API ===
@@ -172,24 +202,8 @@ public class PermissionManager {
         if (user == null)
             return false;
 
-        // Check user-specific permissions first
-        Boolean userPerm = user.getPermission(permission);
-        if (userPerm != null)
-            return userPerm;
-
-        // Check wildcard
-        if (user.hasPermission("*"))
-            return true;
-
-        // Check groups (primary first, then additional by weight)
-        List<PermissionGroup> groups = getUserGroups(user);
-        for (PermissionGroup group : groups) {
-            Boolean groupPerm = getGroupPermissionWithInheritance(group, permission);
-            if (groupPerm != null)
-                return groupPerm;
-        }
-
-        return false;
+        // User permissions first, then groups by weight with inheritance
+        return getCompiled(user).hasPermission(permission);
     }
 
     public boolean hasPermission(UUID uuid, String permission) {
@@ -202,39 +216,21 @@ public class PermissionManager {
         if (user == null)
             return false;
 
-        Boolean userPerm = user.getPermission(permission);
-        if (userPerm != null)
-            return userPerm;
-
-        List<PermissionGroup> groups = getUserGroups(user);
-        for (PermissionGroup group : groups) {
-            Boolean groupPerm = getGroupPermissionWithInheritance(group, permission);
-            if (groupPerm != null)
-                return groupPerm;
-        }
-        return false;
+        return getCompiled(user).hasPermission(permission);
     }
 
-    private Boolean getGroupPermissionWithInheritance(PermissionGroup group, String permission) {
-        if (group == null)
-            return null;
-
-        // Check this group
-        Boolean perm = group.getPermission(permission);
-        if (perm != null)
-            return perm;
-
-        // Wildcard check
-        if (group.hasPermission("*"))
-            return true;
-
-        // Check parent group (inheritance)
-        if (group.getParent() != null) {
-            PermissionGroup parent = groupCache.get(group.getParent());
-            return getGroupPermissionWithInheritance(parent, permission);
+    /**
+     * Get the user's compiled permissions, rebuilding them if the user or
+     * any of their groups changed since they were compiled.
+     */
+    private CompiledPermissions getCompiled(PermissionUser user) {
+        long version = groupsVersion.get();
+        CompiledPermissions compiled = user.getCompiled();
+        if (compiled == null || !compiled.isCurrent(user, version)) {
+            compiled = CompiledPermissions.compile(user, getUserGroups(user), groupCache, version);
+            user.setCompiled(compiled);
         }
-
-        return null;
+        return compiled;
     }
 
     private List<PermissionGroup> getUserGroups(PermissionUser user) {
@@ -260,46 +256,50 @@ public class PermissionManager {
         if (useLuckPerms)
             return getPrefixLuckPerms(uuid);
 
-        PermissionUser user = getUser(uuid);
+        return prefixOf(getUser(uuid));
+    }
+
+    /**
+     * Like {@link #getPrefix(UUID)}, but never waits for the user to load.
+     * Uses the default prefix until the user is cached.
+     */
+    public String getCachedPrefix(UUID uuid) {
+        if (useLuckPerms)
+            return getPrefixLuckPerms(uuid);
+
+        return prefixOf(getCachedUser(uuid));
+    }
+
+    private String prefixOf(PermissionUser user) {
         if (user == null)
             return "";
 
-        if (user.getPrefix() != null && !user.getPrefix().isEmpty()) {
-            return user.getPrefix();
-        } else {
-            // Debug log
-            // VonixCore.LOGGER.info("User {} has no personal prefix", uuid);
-        }
-
-        // Get from highest weight group
-        List<PermissionGroup> groups = getUserGroups(user);
-        for (PermissionGroup group : groups) {
-            if (group.getPrefix() != null && !group.getPrefix().isEmpty()) {
-                return group.getPrefix();
-            }
-        }
-        return "";
+        // User's own, otherwise from the highest weight group
+        return getCompiled(user).getPrefix();
     }
 
     public String getSuffix(UUID uuid) {
         if (useLuckPerms)
             return getSuffixLuckPerms(uuid);
 
-        PermissionUser user = getUser(uuid);
+        return suffixOf(getUser(uuid));
+    }
+
+    /**
+     * Like {@link #getSuffix(UUID)}, but never waits for the user to load.
+     */
+    public String getCachedSuffix(UUID uuid) {
+        if (useLuckPerms)
+            return getSuffixLuckPerms(uuid);
+
+        return suffixOf(getCachedUser(uuid));
+    }
+
+    private String suffixOf(PermissionUser user) {
         if (user == null)
             return "";
 
-        if (user.getSuffix() != null && !user.getSuffix().isEmpty()) {
-            return user.getSuffix();
-        }
-
-        List<PermissionGroup> groups = getUserGroups(user);
-        for (PermissionGroup group : groups) {
-            if (group.getSuffix() != null && !group.getSuffix().isEmpty()) {
-                return group.getSuffix();
-            }
-        }
-        return "";
+        return getCompiled(user).getSuffix();
     }
 
     public String getPrimaryGroup(UUID uuid) {
@@ -319,149 +319,339 @@ public class PermissionManager {
 
     // === USER MANAGEMENT ===
 
+    /**
+     * Get a user's permission data. Never touches the database on the server
+     * thread: if the user is not loaded yet, a load is started and a
+     * placeholder with default settings is returned until it finishes.
+     * Other threads wait a bounded time for the load instead.
+     */
     public PermissionUser getUser(UUID uuid) {
-        // IMPORTANT: Don't use computeIfAbsent with database I/O - it can cause
-        // deadlocks!
-        // The mapping function runs while holding a lock on the ConcurrentHashMap
-        // segment.
+        return lookupUser(uuid, !isServerThread());
+    }
+
+    /**
+     * Get a user's permission data without ever waiting. If the user is not
+     * loaded yet, a load is started and the placeholder is returned.
+     */
+    public PermissionUser getCachedUser(UUID uuid) {
+        return lookupUser(uuid, false);
+    }
+
+    private PermissionUser lookupUser(UUID uuid, boolean wait) {
+        expireOfflineUsers();
         PermissionUser user = userCache.get(uuid);
         if (user != null) {
+            if (!online.contains(uuid)) {
+                offlineAccess.put(uuid, System.currentTimeMillis());
+            }
             return user;
         }
-        // Load outside the lock
-        user = loadUser(uuid);
-        // Use putIfAbsent to handle race conditions safely
-        PermissionUser existing = userCache.putIfAbsent(uuid, user);
-        return existing != null ? existing : user;
-    }
 
-    private PermissionUser loadUser(UUID uuid) {
-        Database db = VonixCore.getInstance().getDatabase();
-        if (db == null)
-            return new PermissionUser(uuid);
+        CompletableFuture<PermissionUser> future = preloadUser(uuid);
+        if (wait) {
+            try {
+                return future.get(LOAD_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Fall through to the placeholder
+            }
+        }
+        // A failed load leaves nothing cached, the next lookup tries again
+        user = future.isCompletedExceptionally() ? null : future.getNow(null);
+        return user != null ? user : placeholders.computeIfAbsent(uuid, PermissionUser::placeholder);
+    }
 
-        try (Connection conn = db.getConnection()) {
-            try (PreparedStatement ps = conn.prepareStatement(
-                    "SELECT * FROM vc_user_permissions WHERE uuid = ?")) {
-                ps.setString(1, uuid.toString());
-                ResultSet rs = ps.executeQuery();
-                if (rs.next()) {
-                    PermissionUser user = new PermissionUser(uuid);
-                    user.setUsername(rs.getString("username"));
-                    user.setPrimaryGroup(rs.getString("primary_group"));
-                    user.setPrefix(rs.getString("prefix"));
-                    user.setSuffix(rs.getString("suffix"));
-                    loadUserGroups(conn, user);
-                    loadUserPermissions(conn, user);
-                    return user;
+    /**
+     * Start loading a user's permission data off the server thread.
+     */
+    public CompletableFuture<PermissionUser> preloadUser(UUID uuid) {
+        PermissionUser cached = userCache.get(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        // Don't use computeIfAbsent with database I/O, the mapping function
+        // runs while holding a lock on the map
+        CompletableFuture<PermissionUser> future = new CompletableFuture<>();
+        CompletableFuture<PermissionUser> pending = loading.putIfAbsent(uuid, future);
+        if (pending != null) {
+            return pending;
+        }
+        VonixCore.executeAsync(() -> {
+            try {
+                PermissionUser loaded = loadUser(uuid);
+                PermissionUser existing = userCache.putIfAbsent(uuid, loaded);
+                if (!online.contains(uuid)) {
+                    offlineAccess.put(uuid, System.currentTimeMillis());
                 }
+                future.complete(existing != null ? existing : loaded);
+            } catch (Exception e) {
+                VonixCore.LOGGER.error("[Permissions] Error loading user {}", uuid, e);
+                future.completeExceptionally(e);
+            } finally {
+                loading.remove(uuid, future);
+                placeholders.remove(uuid);
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[Permissions] Error loading user {}", uuid, e);
+        });
+        return future;
+    }
+
+    /**
+     * Load a joining player's permissions during the login handshake.
+     *
+     * @return Completes once the user is loaded, or after a bounded wait
+     */
+    public Future<Void> preloadForLogin(UUID uuid) {
+        if (useLuckPerms) {
+            return CompletableFuture.completedFuture(null);
         }
-        return new PermissionUser(uuid);
+        return preloadUser(uuid)
+                .handle((user, error) -> (Void) null)
+                .completeOnTimeout(null, LOGIN_WAIT_SECONDS, TimeUnit.SECONDS);
     }
 
-    private void loadUserGroups(Connection conn, PermissionUser user) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(
-                "SELECT group_name FROM vc_user_groups WHERE uuid = ? AND (expires_at IS NULL OR expires_at > CURRENT_TIMESTAMP)")) {
-            ps.setString(1, user.getUuid().toString());
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                user.addGroup(rs.getString("group_name"));
-            }
+    /**
+     * Track a player that joined; starts a load if the handshake did not.
+     */
+    public void onPlayerJoin(UUID uuid) {
+        online.add(uuid);
+        offlineAccess.remove(uuid);
+        if (!useLuckPerms) {
+            preloadUser(uuid);
         }
     }
 
-    private void loadUserPermissions(Connection conn, PermissionUser user) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(
-                "SELECT permission, value FROM vc_user_perms WHERE uuid = ?")) {
-            ps.setString(1, user.getUuid().toString());
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                user.setPermission(rs.getString("permission"), rs.getBoolean("value"));
+    // Drop cached users that are not online and were not looked up recently
+    private void expireOfflineUsers() {
+        long now = System.currentTimeMillis();
+        if (now - lastOfflineSweep < OFFLINE_SWEEP_MILLIS) {
+            return;
+        }
+        lastOfflineSweep = now;
+        offlineAccess.forEach((uuid, accessed) -> {
+            if (now - accessed > OFFLINE_TTL_MILLIS && offlineAccess.remove(uuid, accessed)) {
+                userCache.remove(uuid);
+            }
+        });
+    }
+
+    private static boolean isServerThread() {
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        return server != null && server.isSameThread();
+    }
+
+    /**
+     * Read a user from the database. Throws instead of returning defaults, so
+     * a failed read is never cached or saved over the stored data.
+     */
+    private PermissionUser loadUser(UUID uuid) throws SQLException {
+        Database db = VonixCore.getInstance().getDatabase();
+        if (db == null)
+            return new PermissionUser(uuid);
+
+        // User row, active groups and permissions in one round trip
+        try (Connection conn = db.getConnection();
+                PreparedStatement ps = conn.prepareStatement("""
+                            SELECT 0 AS kind, username AS name, primary_group AS group_name, prefix, suffix, NULL AS value
+                            FROM vc_user_permissions WHERE uuid = ?
+                            UNION ALL
+                            SELECT 1, NULL, group_name, NULL, NULL, NULL
+                            FROM vc_user_groups
+                            WHERE uuid = ? AND (expires_at IS NULL OR expires_at > CURRENT_TIMESTAMP)
+                            UNION ALL
+                            SELECT 2, permission, NULL, NULL, NULL, value
+                            FROM vc_user_perms WHERE uuid = ?
+                        """)) {
+            String id = uuid.toString();
+            ps.setString(1, id);
+            ps.setString(2, id);
+            ps.setString(3, id);
+            PermissionUser user = new PermissionUser(uuid);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    switch (rs.getInt("kind")) {
+                        case 0 -> {
+                            user.setUsername(rs.getString("name"));
+                            user.setPrimaryGroup(rs.getString("group_name"));
+                            user.setPrefix(rs.getString("prefix"));
+                            user.setSuffix(rs.getString("suffix"));
+                        }
+                        case 1 -> user.addGroup(rs.getString("group_name"));
+                        default -> user.setPermission(rs.getString("name"), rs.getBoolean("value"));
+                    }
+                }
             }
+            user.setPersisted(new HashMap<>(user.getPermissions()), new HashSet<>(user.getGroups()));
+            return user;
         }
     }
 
+    /**
+     * Save a user on the async executor. Placeholders are never saved, they
+     * would overwrite the stored data with defaults.
+     */
     public void saveUser(PermissionUser user) {
+        if (user.isPlaceholder()) {
+            VonixCore.LOGGER.warn("[Permissions] Not saving {}, their data is still loading", user.getUuid());
+            return;
+        }
+        VonixCore.executeAsync(() -> saveUserNow(user));
+    }
+
+    private void saveUserNow(PermissionUser user) {
         Database db = VonixCore.getInstance().getDatabase();
         if (db == null)
             return;
 
-        try (Connection conn = db.getConnection()) {
-            // Upsert user data
-            try (PreparedStatement ps = conn.prepareStatement("""
-                        INSERT OR REPLACE INTO vc_user_permissions
-                        (uuid, username, primary_group, prefix, suffix, updated_at)
-                        VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-                    """)) {
-                ps.setString(1, user.getUuid().toString());
-                ps.setString(2, user.getUsername());
-                ps.setString(3, user.getPrimaryGroup());
-                ps.setString(4, user.getPrefix());
-                ps.setString(5, user.getSuffix());
-                ps.executeUpdate();
+        // One save per user at a time, so each diffs against the last commit
+        synchronized (user) {
+            Map<String, Boolean> permissions = new HashMap<>(user.getPermissions());
+            Set<String> groups = new HashSet<>(user.getGroups());
+            String id = user.getUuid().toString();
+            try (Connection conn = db.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    // Upsert user data
+                    try (PreparedStatement ps = conn.prepareStatement(Database.upsertSql(db,
+                            "vc_user_permissions", 1, "uuid", "username", "primary_group", "prefix", "suffix",
+                            "updated_at"))) {
+                        ps.setString(1, id);
+                        ps.setString(2, user.getUsername());
+                        ps.setString(3, user.getPrimaryGroup());
+                        ps.setString(4, user.getPrefix());
+                        ps.setString(5, user.getSuffix());
+                        ps.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+                        ps.executeUpdate();
+                    }
+
+                    savePermissionDiff(conn,
+                            Database.upsertSql(db, "vc_user_perms", 2, "uuid", "permission", "value"),
+                            "DELETE FROM vc_user_perms WHERE uuid = ? AND permission = ?",
+                            id, user.getPersistedPermissions(), permissions);
+                    saveGroupDiff(conn, db, id, user.getPersistedGroups(), groups);
+                    conn.commit();
+                    user.setPersisted(permissions, groups);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[Permissions] Error saving user {}", user.getUuid(), e);
             }
+        }
+    }
 
-            // Save permissions
-            try (PreparedStatement del = conn.prepareStatement("DELETE FROM vc_user_perms WHERE uuid = ?")) {
-                del.setString(1, user.getUuid().toString());
-                del.executeUpdate();
+    // Write only the permission rows that changed since the last save
+    private static void savePermissionDiff(Connection conn, String upsertSql, String deleteSql, String owner,
+            Map<String, Boolean> persisted, Map<String, Boolean> current) throws SQLException {
+        try (PreparedStatement upsert = conn.prepareStatement(upsertSql)) {
+            boolean pending = false;
+            for (Map.Entry<String, Boolean> perm : current.entrySet()) {
+                if (!perm.getValue().equals(persisted.get(perm.getKey()))) {
+                    upsert.setString(1, owner);
+                    upsert.setString(2, perm.getKey());
+                    upsert.setBoolean(3, perm.getValue());
+                    upsert.addBatch();
+                    pending = true;
+                }
             }
-            for (Map.Entry<String, Boolean> perm : user.getPermissions().entrySet()) {
-                try (PreparedStatement ps = conn.prepareStatement(
-                        "INSERT INTO vc_user_perms (uuid, permission, value) VALUES (?, ?, ?)")) {
-                    ps.setString(1, user.getUuid().toString());
-                    ps.setString(2, perm.getKey());
-                    ps.setBoolean(3, perm.getValue());
-                    ps.executeUpdate();
+            if (pending)
+                upsert.executeBatch();
+        }
+        try (PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+            boolean pending = false;
+            for (String permission : persisted.keySet()) {
+                if (!current.containsKey(permission)) {
+                    delete.setString(1, owner);
+                    delete.setString(2, permission);
+                    delete.addBatch();
+                    pending = true;
                 }
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[Permissions] Error saving user {}", user.getUuid(), e);
+            if (pending)
+                delete.executeBatch();
+        }
+    }
+
+    // Added groups are stored without an expiry; removed ones are deleted
+    private static void saveGroupDiff(Connection conn, Database db, String uuid, Set<String> persisted,
+            Set<String> current) throws SQLException {
+        try (PreparedStatement upsert = conn.prepareStatement(
+                Database.upsertSql(db, "vc_user_groups", 2, "uuid", "group_name", "expires_at"))) {
+            boolean pending = false;
+            for (String group : current) {
+                if (!persisted.contains(group)) {
+                    upsert.setString(1, uuid);
+                    upsert.setString(2, group);
+                    upsert.setNull(3, Types.TIMESTAMP);
+                    upsert.addBatch();
+                    pending = true;
+                }
+            }
+            if (pending)
+                upsert.executeBatch();
+        }
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM vc_user_groups WHERE uuid = ? AND group_name = ?")) {
+            boolean pending = false;
+            for (String group : persisted) {
+                if (!current.contains(group)) {
+                    delete.setString(1, uuid);
+                    delete.setString(2, group);
+                    delete.addBatch();
+                    pending = true;
+                }
+            }
+            if (pending)
+                delete.executeBatch();
         }
     }
 
     // === GROUP MANAGEMENT ===
 
     public void saveGroup(Connection conn, PermissionGroup group) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement("""
-                    INSERT OR REPLACE INTO vc_groups
-                    (name, display_name, prefix, suffix, weight, parent)
-                    VALUES (?, ?, ?, ?, ?, ?)
-                """)) {
-            ps.setString(1, group.getName());
-            ps.setString(2, group.getDisplayName());
-            ps.setString(3, group.getPrefix());
-            ps.setString(4, group.getSuffix());
-            ps.setInt(5, group.getWeight());
-            ps.setString(6, group.getParent());
-            ps.executeUpdate();
-        }
-
-        // Save permissions
-        try (PreparedStatement del = conn.prepareStatement("DELETE FROM vc_group_permissions WHERE group_name = ?")) {
-            del.setString(1, group.getName());
-            del.executeUpdate();
-        }
-        for (Map.Entry<String, Boolean> perm : group.getPermissions().entrySet()) {
-            try (PreparedStatement ps = conn.prepareStatement(
-                    "INSERT INTO vc_group_permissions (group_name, permission, value) VALUES (?, ?, ?)")) {
-                ps.setString(1, group.getName());
-                ps.setString(2, perm.getKey());
-                ps.setBoolean(3, perm.getValue());
-                ps.executeUpdate();
+        Database db = VonixCore.getInstance().getDatabase();
+        // One save per group at a time, so each diffs against the last commit
+        synchronized (group) {
+            Map<String, Boolean> permissions = new HashMap<>(group.getPermissions());
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(Database.upsertSql(db, "vc_groups", 1,
+                        "name", "display_name", "prefix", "suffix", "weight", "parent"))) {
+                    ps.setString(1, group.getName());
+                    ps.setString(2, group.getDisplayName());
+                    ps.setString(3, group.getPrefix());
+                    ps.setString(4, group.getSuffix());
+                    ps.setInt(5, group.getWeight());
+                    ps.setString(6, group.getParent());
+                    ps.executeUpdate();
+                }
+
+                savePermissionDiff(conn,
+                        Database.upsertSql(db, "vc_group_permissions", 2, "group_name", "permission", "value"),
+                        "DELETE FROM vc_group_permissions WHERE group_name = ? AND permission = ?",
+                        group.getName(), group.getPersistedPermissions(), permissions);
+                conn.commit();
+                group.setPersistedPermissions(permissions);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
         }
 
-        groupCache.put(group.getName(), group);
+        if (groupCache.put(group.getName(), group) != group) {
+            groupsVersion.incrementAndGet();
+        }
     }
 
     public void createGroup(String name) {
         PermissionGroup group = new PermissionGroup(name.toLowerCase());
         group.setParent("default");
         groupCache.put(name.toLowerCase(), group);
+        groupsVersion.incrementAndGet();
 
         Database db = VonixCore.getInstance().getDatabase();
         if (db != null) {
@@ -477,6 +667,7 @@ public class PermissionManager {
         if (name.equalsIgnoreCase("default"))
             return; // Cannot delete default
         groupCache.remove(name.toLowerCase());
+        groupsVersion.incrementAndGet();
 
         Database db = VonixCore.getInstance().getDatabase();
         if (db != null) {
@@ -568,9 +759,16 @@ public class PermissionManager {
 
     public void clearCache() {
         userCache.clear();
+        offlineAccess.clear();
     }
 
+    /**
+     * Forget a player that logged out.
+     */
     public void clearUserCache(UUID uuid) {
+        online.remove(uuid);
+        offlineAccess.remove(uuid);
+        placeholders.remove(uuid);
         userCache.remove(uuid);
     }
 }
@@ -14,9 +14,32 @@ public class PermissionUser {
     private String suffix = "";
     private final Set<String> groups = ConcurrentHashMap.newKeySet();
     private final Map<String, Boolean> permissions = new ConcurrentHashMap<>();
+    // Bumped on every change that affects permission checks or prefixes
+    private volatile int revision = 0;
+    private volatile CompiledPermissions compiled;
+    private final boolean placeholder;
+    // What the database holds, so saves only write the difference
+    private volatile Map<String, Boolean> persistedPermissions = Map.of();
+    private volatile Set<String> persistedGroups = Set.of();
 
     public PermissionUser(UUID uuid) {
+        this(uuid, false);
+    }
+
+    private PermissionUser(UUID uuid, boolean placeholder) {
         this.uuid = uuid;
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * Default settings handed out while the real data is loading.
+     */
+    static PermissionUser placeholder(UUID uuid) {
+        return new PermissionUser(uuid, true);
+    }
+
+    public boolean isPlaceholder() {
+        return placeholder;
     }
 
     public UUID getUuid() {
@@ -37,6 +60,7 @@ public class PermissionUser {
 
     public void setPrimaryGroup(String group) {
         this.primaryGroup = group != null ? group : "default";
+        revision++;
     }
 
     public String getPrefix() {
@@ -45,6 +69,7 @@ public class PermissionUser {
 
     public void setPrefix(String prefix) {
         this.prefix = prefix != null ? prefix : "";
+        revision++;
     }
 
     public String getSuffix() {
@@ -53,6 +78,7 @@ public class PermissionUser {
 
     public void setSuffix(String suffix) {
         this.suffix = suffix != null ? suffix : "";
+        revision++;
     }
 
     public Set<String> getGroups() {
@@ -61,10 +87,12 @@ public class PermissionUser {
 
     public void addGroup(String group) {
         groups.add(group.toLowerCase());
+        revision++;
     }
 
     public void removeGroup(String group) {
         groups.remove(group.toLowerCase());
+        revision++;
     }
 
     public boolean hasGroup(String group) {
@@ -77,10 +105,37 @@ public class PermissionUser {
 
     public void setPermission(String permission, boolean value) {
         permissions.put(permission.toLowerCase(), value);
+        revision++;
     }
 
     public void unsetPermission(String permission) {
         permissions.remove(permission.toLowerCase());
+        revision++;
+    }
+
+    int getRevision() {
+        return revision;
+    }
+
+    Map<String, Boolean> getPersistedPermissions() {
+        return persistedPermissions;
+    }
+
+    Set<String> getPersistedGroups() {
+        return persistedGroups;
+    }
+
+    void setPersisted(Map<String, Boolean> permissions, Set<String> groups) {
+        this.persistedPermissions = permissions;
+        this.persistedGroups = groups;
+    }
+
+    CompiledPermissions getCompiled() {
+        return compiled;
+    }
+
+    void setCompiled(CompiledPermissions compiled) {
+        this.compiled = compiled;
     }
 
     public Boolean getPermission(String permission) {
@@ -0,0 +1,14 @@
+package network.vonix.vonixcore.protection;
+
+/**
+ * One block log row as read back for a rollback or restore.
+ */
+public class BlockChange {
+    public long id;
+    public long time;
+    public int x, y, z;
+    public String oldType, oldData, newType, newData;
+    public int action;
+    // Row lives in the compact table rather than vp_block
+    public boolean compact;
+}
@@ -0,0 +1,251 @@
+package network.vonix.vonixcore.protection;
+
+import network.vonix.vonixcore.consumer.ChunkIndex;
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shared WHERE-clause builders for block log lookups and rollbacks.
+ */
+public final class LogQuery {
+
+    // Low 38 bits of a packed position hold z and y; x sits above them
+    private static final long PACKED_BELOW_X = (1L << 38) - 1;
+
+    private LogQuery() {
+    }
+
+    /**
+     * Build a block log query over the legacy table and, when present, the
+     * compact table. The filter is rendered into each half of the UNION ALL
+     * against that table's own columns: world_id, the packed pos range and
+     * chunk on the compact side, so both halves can use their indexes.
+     * Every row carries a compact column (0 or 1); ids are only unique
+     * together with it.
+     *
+     * @return "SELECT * FROM (...) b", ready for further WHERE / ORDER BY
+     */
+    public static String blockQuery(BlockFilter filter, boolean mysql, List<Object> queryParams) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM (").append(CompactLogSchema.LEGACY_BLOCK_SELECT);
+        filter.appendLegacy(sql, queryParams);
+        if (CompactLogSchema.isPresent()) {
+            sql.append(" UNION ALL ").append(CompactLogSchema.compactBlockSelect(mysql));
+            filter.appendCompact(sql, queryParams, mysql);
+        }
+        return sql.append(") b ").toString();
+    }
+
+    /**
+     * Build the query for undoing a task: exactly the rows it journaled. Each
+     * half joins the journal ranges of its own compact value against its own
+     * base table, so every range is a primary key range scan.
+     *
+     * @return "SELECT * FROM (...) b", ready for further WHERE / ORDER BY
+     */
+    public static String journalQuery(long taskId, String world, boolean rolledBack, boolean mysql,
+            List<Object> queryParams) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM (").append(CompactLogSchema.LEGACY_BLOCK_SELECT)
+                .append(" JOIN vp_rollback_journal j ON j.task_id = ? AND j.compact = 0 ")
+                .append("AND l.id >= j.min_id AND l.id <= j.max_id WHERE l.world = ? AND l.rolled_back = ?");
+        queryParams.add(taskId);
+        queryParams.add(world);
+        queryParams.add(rolledBack ? 1 : 0);
+        if (CompactLogSchema.isPresent()) {
+            sql.append(" UNION ALL ").append(CompactLogSchema.compactBlockSelect(mysql))
+                    .append(" JOIN vp_rollback_journal j ON j.task_id = ? AND j.compact = 1 ")
+                    .append("AND c.id >= j.min_id AND c.id <= j.max_id ")
+                    .append("WHERE c.world_id = (SELECT id FROM vp_world WHERE name = ?) AND c.rolled_back = ?");
+            queryParams.add(taskId);
+            queryParams.add(world);
+            queryParams.add(rolledBack ? 1 : 0);
+        }
+        return sql.append(") b ").toString();
+    }
+
+    /**
+     * Append the legacy radius filter. While the area spans few enough chunks
+     * it is first narrowed to an IN-list of chunk keys, which the (world,
+     * chunk, time) index resolves directly; the coordinate ranges then trim
+     * the edges.
+     */
+    private static void appendRadiusFilter(StringBuilder sql, List<Object> queryParams, int minX, int maxX,
+            int minY, int maxY, int minZ, int maxZ) {
+        appendChunkFilter(sql, queryParams, "chunk", minX, maxX, minZ, maxZ);
+        sql.append("AND x >= ? AND x <= ? AND y >= ? AND y <= ? AND z >= ? AND z <= ? ");
+        queryParams.add(minX);
+        queryParams.add(maxX);
+        queryParams.add(minY);
+        queryParams.add(maxY);
+        queryParams.add(minZ);
+        queryParams.add(maxZ);
+    }
+
+    private static void appendChunkFilter(StringBuilder sql, List<Object> queryParams, String column, int minX,
+            int maxX, int minZ, int maxZ) {
+        List<Long> chunks = ChunkIndex.isReady() ? ChunkIndex.chunkKeys(minX, minZ, maxX, maxZ) : null;
+        if (chunks != null) {
+            sql.append("AND ").append(column).append(" IN (")
+                    .append(String.join(", ", Collections.nCopies(chunks.size(), "?"))).append(") ");
+            queryParams.addAll(chunks);
+        }
+    }
+
+    /**
+     * Block log predicates, rendered once per source table.
+     */
+    public static final class BlockFilter {
+        private final String world;
+        private long minTime = Long.MIN_VALUE;
+        private boolean hasArea;
+        private int minX, maxX, minY, maxY, minZ, maxZ;
+        private String user;
+        private String block;
+        private Integer action;
+        private Integer rolledBack;
+
+        public BlockFilter(String world) {
+            this.world = world;
+        }
+
+        public BlockFilter since(long minTime) {
+            this.minTime = minTime;
+            return this;
+        }
+
+        public BlockFilter radius(int centerX, int centerY, int centerZ, int radius) {
+            hasArea = true;
+            minX = centerX - radius;
+            maxX = centerX + radius;
+            minY = centerY - radius;
+            maxY = centerY + radius;
+            minZ = centerZ - radius;
+            maxZ = centerZ + radius;
+            return this;
+        }
+
+        public BlockFilter at(int x, int y, int z) {
+            return radius(x, y, z, 0);
+        }
+
+        public BlockFilter user(String user) {
+            this.user = user == null || user.isEmpty() ? null : user;
+            return this;
+        }
+
+        public BlockFilter block(String block) {
+            if (block == null || block.isEmpty()) {
+                this.block = null;
+            } else {
+                String blockId = block.toLowerCase();
+                this.block = blockId.contains(":") ? blockId : "minecraft:" + blockId;
+            }
+            return this;
+        }
+
+        public BlockFilter action(Integer action) {
+            this.action = action;
+            return this;
+        }
+
+        public BlockFilter rolledBack(boolean rolledBack) {
+            this.rolledBack = rolledBack ? 1 : 0;
+            return this;
+        }
+
+        void appendLegacy(StringBuilder sql, List<Object> queryParams) {
+            sql.append(" WHERE world = ? ");
+            queryParams.add(world);
+            if (minTime != Long.MIN_VALUE) {
+                sql.append("AND time >= ? ");
+                queryParams.add(minTime);
+            }
+            if (hasArea) {
+                appendRadiusFilter(sql, queryParams, minX, maxX, minY, maxY, minZ, maxZ);
+            }
+            if (user != null) {
+                sql.append("AND user = ? ");
+                queryParams.add(user);
+            }
+            if (block != null) {
+                sql.append("AND (type = ? OR old_type = ? OR new_type = ?) ");
+                queryParams.add(block);
+                queryParams.add(block);
+                queryParams.add(block);
+            }
+            appendFlags(sql, queryParams, "");
+        }
+
+        void appendCompact(StringBuilder sql, List<Object> queryParams, boolean mysql) {
+            sql.append(" WHERE c.world_id = (SELECT id FROM vp_world WHERE name = ?) ");
+            queryParams.add(world);
+            if (minTime != Long.MIN_VALUE) {
+                sql.append("AND c.time >= ? ");
+                queryParams.add(minTime);
+            }
+            if (hasArea) {
+                appendChunkFilter(sql, queryParams, "c.chunk", minX, maxX, minZ, maxZ);
+                if (minX == maxX && minY == maxY && minZ == maxZ) {
+                    sql.append("AND c.pos = ? ");
+                    queryParams.add(CompactLogSchema.packPos(minX, minY, minZ));
+                } else {
+                    // Positions sort by x first, so the x range is one pos range on the (world_id, pos) index
+                    sql.append("AND c.pos >= ? AND c.pos <= ? ");
+                    queryParams.add((long) minX << 38);
+                    queryParams.add(((long) maxX << 38) | PACKED_BELOW_X);
+                    String y = CompactLogSchema.unpackYSql("c.pos", mysql);
+                    String z = CompactLogSchema.unpackZSql("c.pos", mysql);
+                    sql.append("AND ").append(y).append(" >= ? AND ").append(y).append(" <= ? ");
+                    sql.append("AND ").append(z).append(" >= ? AND ").append(z).append(" <= ? ");
+                    queryParams.add(minY);
+                    queryParams.add(maxY);
+                    queryParams.add(minZ);
+                    queryParams.add(maxZ);
+                }
+            }
+            if (user != null) {
+                sql.append("AND c.user_id = (SELECT id FROM vp_user WHERE username = ?) ");
+                queryParams.add(user);
+            }
+            if (block != null) {
+                sql.append("AND (c.type_id = (SELECT id FROM vp_material WHERE name = ?) ")
+                        .append("OR c.old_type_id = (SELECT id FROM vp_material WHERE name = ?) ")
+                        .append("OR c.new_type_id = (SELECT id FROM vp_material WHERE name = ?)) ");
+                queryParams.add(block);
+                queryParams.add(block);
+                queryParams.add(block);
+            }
+            appendFlags(sql, queryParams, "c.");
+        }
+
+        private void appendFlags(StringBuilder sql, List<Object> queryParams, String prefix) {
+            if (action != null) {
+                sql.append("AND ").append(prefix).append("action = ? ");
+                queryParams.add(action);
+            }
+            if (rolledBack != null) {
+                sql.append("AND ").append(prefix).append("rolled_back = ? ");
+                queryParams.add(rolledBack);
+            }
+        }
+    }
+
+    /**
+     * Bind collected parameters in order.
+     */
+    public static void bind(PreparedStatement stmt, List<Object> queryParams) throws SQLException {
+        for (int i = 0; i < queryParams.size(); i++) {
+            Object param = queryParams.get(i);
+            if (param instanceof String) {
+                stmt.setString(i + 1, (String) param);
+            } else if (param instanceof Long) {
+                stmt.setLong(i + 1, (Long) param);
+            } else if (param instanceof Integer) {
+                stmt.setInt(i + 1, (Integer) param);
+            }
+        }
+    }
+}
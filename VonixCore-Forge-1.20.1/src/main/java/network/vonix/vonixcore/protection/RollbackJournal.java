@@ -0,0 +1,126 @@
+package network.vonix.vonixcore.protection;
+
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Durable record of which block log rows a rollback or restore touched.
+ * After each applied window the rows' rolled_back flag is flipped and the
+ * row ids are journaled as ranges, in the same transaction as the task's
+ * resume point. Undo reads the rows back through the journal, so nothing is
+ * kept in memory and it still works after a restart.
+ */
+final class RollbackJournal {
+
+    private RollbackJournal() {
+    }
+
+    /**
+     * Create the journal table.
+     */
+    static void createSchema(Statement stmt, String autoIncrement) throws SQLException {
+        stmt.execute(String.format("""
+                CREATE TABLE IF NOT EXISTS vp_rollback_journal (
+                    id INTEGER PRIMARY KEY %s,
+                    task_id BIGINT NOT NULL,
+                    compact INTEGER NOT NULL,
+                    min_id BIGINT NOT NULL,
+                    max_id BIGINT NOT NULL
+                )
+                """, autoIncrement));
+        try {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_rollback_journal_task ON vp_rollback_journal (task_id)");
+        } catch (SQLException ignored) {
+            // Index may already exist or syntax not supported
+        }
+    }
+
+    /**
+     * Mark the rows of an applied window and journal them. Runs inside the
+     * caller's transaction.
+     *
+     * @param journalTaskId Task to journal the rows under, or 0 to only mark
+     */
+    static void recordWindow(Connection conn, RollbackTask.Window window, boolean rolledBack, long journalTaskId)
+            throws SQLException {
+        List<Long> legacyIds = new ArrayList<>();
+        List<Long> compactIds = new ArrayList<>();
+        for (RollbackTask.ChunkBatch batch : window.batches.values()) {
+            for (BlockChange change : batch.changes) {
+                (change.compact ? compactIds : legacyIds).add(change.id);
+            }
+        }
+
+        recordRows(conn, "vp_block", false, legacyIds, rolledBack, journalTaskId);
+        recordRows(conn, CompactLogSchema.BLOCK_TABLE, true, compactIds, rolledBack, journalTaskId);
+    }
+
+    private static void recordRows(Connection conn, String table, boolean compact, List<Long> ids,
+            boolean rolledBack, long journalTaskId) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long[] sorted = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        List<long[]> ranges = toRanges(sorted);
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE " + table + " SET rolled_back = ? WHERE id >= ? AND id <= ?")) {
+            for (long[] range : ranges) {
+                stmt.setInt(1, rolledBack ? 1 : 0);
+                stmt.setLong(2, range[0]);
+                stmt.setLong(3, range[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        if (journalTaskId <= 0) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO vp_rollback_journal (task_id, compact, min_id, max_id) VALUES (?, ?, ?, ?)")) {
+            for (long[] range : ranges) {
+                stmt.setLong(1, journalTaskId);
+                stmt.setInt(2, compact ? 1 : 0);
+                stmt.setLong(3, range[0]);
+                stmt.setLong(4, range[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Collapse sorted ids into runs of consecutive values.
+     *
+     * @return Inclusive [min, max] pairs
+     */
+    static List<long[]> toRanges(long[] sortedIds) {
+        List<long[]> ranges = new ArrayList<>();
+        if (sortedIds.length == 0) {
+            return ranges;
+        }
+        long start = sortedIds[0];
+        long end = start;
+        for (int i = 1; i < sortedIds.length; i++) {
+            long id = sortedIds[i];
+            if (id == end || id == end + 1) {
+                end = id;
+            } else {
+                ranges.add(new long[] { start, end });
+                start = id;
+                end = id;
+            }
+        }
+        ranges.add(new long[] { start, end });
+        return ranges;
+    }
+}
@@ -0,0 +1,551 @@
+package network.vonix.vonixcore.protection;
+
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.config.ProtectionConfig;
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+import network.vonix.vonixcore.database.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs rollbacks and restores without stalling the server.
+ * Rows are streamed by a reader thread per task; each server tick applies at
+ * most the configured number of milliseconds of block changes, spread over
+ * all running tasks. Chunks are loaded ahead of time through region tickets.
+ *
+ * Progress is stored in vp_rollback_task after every applied window, so a
+ * task interrupted by a restart can be continued with /co resume. The rows
+ * each window touched are flagged and journaled in the same transaction (see
+ * {@link RollbackJournal}), which is what /co undo replays.
+ */
+@Mod.EventBusSubscriber(modid = VonixCore.MODID)
+public class RollbackManager {
+
+    static final int STATUS_RUNNING = 0;
+    static final int STATUS_COMPLETED = 1;
+    static final int STATUS_CANCELLED = 2;
+    // Also used for failed tasks, which can be retried with /co resume
+    static final int STATUS_INTERRUPTED = 3;
+    static final int STATUS_UNDONE = 4;
+
+    private static final long PROGRESS_INTERVAL_MS = 5000;
+
+    private static final TicketType<ChunkPos> ROLLBACK_TICKET = TicketType.create("vonixcore_rollback",
+            Comparator.comparingLong(ChunkPos::toLong), 20 * 60);
+
+    private static RollbackManager instance;
+
+    // Running tasks by owner, at most one per player
+    private final Map<UUID, RollbackTask> tasks = new ConcurrentHashMap<>();
+
+    private final ExecutorService readers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "VonixCore-Rollback-Reader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Single thread keeps task row updates in order
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "VonixCore-Rollback-IO");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private RollbackManager() {
+    }
+
+    public static RollbackManager getInstance() {
+        if (instance == null) {
+            instance = new RollbackManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Create the task table.
+     */
+    public static void createSchema(Statement stmt, String autoIncrement, String textType) throws SQLException {
+        stmt.execute(String.format("""
+                CREATE TABLE IF NOT EXISTS vp_rollback_task (
+                    id INTEGER PRIMARY KEY %s,
+                    owner %s NOT NULL,
+                    world %s NOT NULL,
+                    is_rollback INTEGER NOT NULL,
+                    center_x INTEGER NOT NULL,
+                    center_y INTEGER NOT NULL,
+                    center_z INTEGER NOT NULL,
+                    radius INTEGER NOT NULL,
+                    user_filter %s,
+                    block_filter %s,
+                    min_time BIGINT NOT NULL,
+                    resume_time BIGINT,
+                    resume_compact INTEGER,
+                    resume_id BIGINT,
+                    rows_done BIGINT DEFAULT 0,
+                    blocks_changed BIGINT DEFAULT 0,
+                    status INTEGER NOT NULL,
+                    undo_of BIGINT,
+                    created BIGINT NOT NULL
+                )
+                """, autoIncrement, textType, textType, textType, textType));
+        try {
+            stmt.execute("ALTER TABLE vp_rollback_task ADD COLUMN resume_compact INTEGER");
+        } catch (SQLException ignored) {
+            // Column already exists
+        }
+        RollbackJournal.createSchema(stmt, autoIncrement);
+    }
+
+    /**
+     * Mark tasks left running by a previous server session as interrupted so
+     * their owners can resume them.
+     */
+    public void markInterrupted() {
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE vp_rollback_task SET status = ? WHERE status = ?")) {
+            stmt.setInt(1, STATUS_INTERRUPTED);
+            stmt.setInt(2, STATUS_RUNNING);
+            int interrupted = stmt.executeUpdate();
+            if (interrupted > 0) {
+                VonixCore.LOGGER.info("[Protection] {} rollback(s) were interrupted and can be resumed with /co resume",
+                        interrupted);
+            }
+        } catch (SQLException e) {
+            VonixCore.LOGGER.error("[Protection] Failed to check interrupted rollbacks: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The running task of a player, or null
+     */
+    public RollbackTask getTask(UUID owner) {
+        return tasks.get(owner);
+    }
+
+    /**
+     * Start a task.
+     *
+     * @return False if the player already has a task running or the logs are
+     *         being migrated
+     */
+    public boolean start(RollbackTask task) {
+        if (tasks.putIfAbsent(task.owner, task) != null) {
+            return false;
+        }
+        // Checked after registering, a migration checks the other way round
+        if (CompactLogSchema.getInstance().isMigrating()) {
+            tasks.remove(task.owner);
+            return false;
+        }
+        Database database = VonixCore.getInstance().getDatabase();
+        readers.execute(() -> {
+            if (!persistStart(database, task)) {
+                task.state = RollbackTask.State.FAILED;
+                task.readerDone = true;
+                return;
+            }
+            task.read(database);
+        });
+        return true;
+    }
+
+    /**
+     * @return True while any task is running
+     */
+    public boolean hasRunningTasks() {
+        return !tasks.isEmpty();
+    }
+
+    /**
+     * Count the tasks that still point at legacy block rows by id: tasks
+     * running or resumable from a legacy id, and tasks not undone yet whose
+     * journal holds legacy ranges. Migrating gives those rows new ids, so
+     * /co migrate waits until there are none.
+     */
+    public static int countLegacyReferences(Connection conn) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM vp_rollback_task t WHERE t.status = ? "
+                + "OR (t.status = ? AND t.resume_id IS NOT NULL AND COALESCE(t.resume_compact, 0) = 0) "
+                + "OR (t.status <> ? AND EXISTS (SELECT 1 FROM vp_rollback_journal j "
+                + "WHERE j.task_id = t.id AND j.compact = 0))";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, STATUS_RUNNING);
+            stmt.setInt(2, STATUS_INTERRUPTED);
+            stmt.setInt(3, STATUS_UNDONE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Cancel a player's running task. Changes already applied stay applied.
+     *
+     * @return False if the player has no task running
+     */
+    public boolean cancel(UUID owner) {
+        RollbackTask task = tasks.get(owner);
+        if (task == null || task.state != RollbackTask.State.RUNNING) {
+            return false;
+        }
+        task.state = RollbackTask.State.CANCELLED;
+        return true;
+    }
+
+    /**
+     * Load the most recent interrupted task of a player (off the main thread).
+     *
+     * @return The task ready to be started, or null if there is none
+     */
+    public RollbackTask loadInterrupted(UUID owner) throws SQLException {
+        String sql = "SELECT * FROM vp_rollback_task WHERE owner = ? AND status = ? ORDER BY id DESC LIMIT 1";
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, owner.toString());
+            stmt.setInt(2, STATUS_INTERRUPTED);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                RollbackTask task = new RollbackTask(owner, rs.getString("world"), rs.getInt("is_rollback") == 1,
+                        rs.getInt("center_x"), rs.getInt("center_y"), rs.getInt("center_z"), rs.getInt("radius"),
+                        rs.getString("user_filter"), rs.getString("block_filter"), rs.getLong("min_time"),
+                        rs.getLong("undo_of"));
+                task.id = rs.getLong("id");
+                task.blocksChanged.set(rs.getLong("blocks_changed"));
+                task.rowsApplied.set(rs.getLong("rows_done"));
+                long resumeId = rs.getLong("resume_id");
+                if (!rs.wasNull()) {
+                    task.hasResume = true;
+                    task.resumeId = resumeId;
+                    task.resumeTime = rs.getLong("resume_time");
+                    task.resumeCompact = rs.getInt("resume_compact") == 1;
+                }
+                return task;
+            }
+        }
+    }
+
+    /**
+     * Build a task reversing the most recent finished rollback or restore of a
+     * player (off the main thread). Only the rows that task journaled are
+     * touched, so it works across restarts.
+     *
+     * @return The undo task ready to be started, or null if there is nothing
+     *         to undo
+     */
+    public RollbackTask loadUndo(UUID owner) throws SQLException {
+        String sql = "SELECT id, world, is_rollback, center_x, center_y, center_z, radius FROM vp_rollback_task "
+                + "WHERE owner = ? AND undo_of IS NULL AND status IN (?, ?) ORDER BY id DESC LIMIT 1";
+        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, owner.toString());
+            stmt.setInt(2, STATUS_COMPLETED);
+            stmt.setInt(3, STATUS_CANCELLED);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new RollbackTask(owner, rs.getString("world"), rs.getInt("is_rollback") != 1,
+                        rs.getInt("center_x"), rs.getInt("center_y"), rs.getInt("center_z"), rs.getInt("radius"),
+                        null, null, 0, rs.getLong("id"));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || instance == null || instance.tasks.isEmpty()) {
+            return;
+        }
+        instance.tick(event.getServer());
+    }
+
+    private void tick(MinecraftServer server) {
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(ProtectionConfig.CONFIG.rollbackTickBudget.get());
+        long deadline = System.nanoTime() + budgetNanos;
+
+        for (RollbackTask task : tasks.values()) {
+            ServerLevel level = server.getLevel(
+                    ResourceKey.create(Registries.DIMENSION, new ResourceLocation(task.world)));
+
+            if (task.state != RollbackTask.State.RUNNING || level == null) {
+                finish(server, level, task, task.state == RollbackTask.State.RUNNING
+                        ? RollbackTask.State.FAILED
+                        : task.state);
+                continue;
+            }
+
+            while (System.nanoTime() < deadline) {
+                RollbackTask.Window done = task.tick(level, this, deadline);
+                if (done == null) {
+                    break;
+                }
+                saveProgress(task, STATUS_RUNNING, done);
+            }
+
+            if (task.isDrained()) {
+                finish(server, level, task, task.state == RollbackTask.State.RUNNING
+                        ? RollbackTask.State.COMPLETED
+                        : task.state);
+            } else {
+                reportProgress(server, task);
+            }
+        }
+    }
+
+    private void finish(MinecraftServer server, ServerLevel level, RollbackTask task, RollbackTask.State result) {
+        task.state = result;
+        // Rows already applied from the current window are flagged and journaled
+        // with the final status, so undo can revert them and resume skips them
+        RollbackTask.Window applied = task.discard(level, this);
+        tasks.remove(task.owner, task);
+
+        int status = switch (result) {
+            case COMPLETED -> STATUS_COMPLETED;
+            case CANCELLED -> STATUS_CANCELLED;
+            default -> STATUS_INTERRUPTED;
+        };
+        saveProgress(task, status, applied);
+        if (result == RollbackTask.State.COMPLETED && task.undoOf > 0) {
+            markUndone(task.undoOf);
+        }
+
+        String operation = task.undoOf > 0 ? "Undo" : task.rollback ? "Rollback" : "Restore";
+        String message = switch (result) {
+            case COMPLETED -> String.format("§6[VonixCore] §f%s complete. §a%,d §fblocks modified.", operation,
+                    task.blocksChanged.get());
+            case CANCELLED -> String.format("§6[VonixCore] §f%s cancelled after §a%,d §fblocks.", operation,
+                    task.blocksChanged.get());
+            default -> String.format("§c%s failed after %,d blocks. Run /co resume to try again.", operation,
+                    task.blocksChanged.get());
+        };
+        sendMessage(server, task.owner, message);
+    }
+
+    private void reportProgress(MinecraftServer server, RollbackTask task) {
+        long now = System.currentTimeMillis();
+        if (now - task.lastProgressMillis < PROGRESS_INTERVAL_MS) {
+            return;
+        }
+        task.lastProgressMillis = now;
+        sendMessage(server, task.owner, String.format(
+                "§6[VonixCore] §7%s in progress: §f%,d §7blocks changed, §f%,d §7rows read... §8(/co cancel)",
+                task.undoOf > 0 ? "Undo" : task.rollback ? "Rollback" : "Restore", task.blocksChanged.get(), task.rowsRead.get()));
+    }
+
+    private static void sendMessage(MinecraftServer server, UUID owner, String message) {
+        ServerPlayer player = server.getPlayerList().getPlayer(owner);
+        if (player != null) {
+            player.sendSystemMessage(Component.literal(message));
+        }
+    }
+
+    /**
+     * Hold a chunk loaded for a batch and start loading it (main thread).
+     */
+    void preload(ServerLevel level, RollbackTask.ChunkBatch batch) {
+        ChunkPos pos = new ChunkPos(batch.chunkX, batch.chunkZ);
+        level.getChunkSource().addRegionTicket(ROLLBACK_TICKET, pos, 1, pos);
+        batch.ticketed = true;
+
+        if (level.hasChunk(batch.chunkX, batch.chunkZ)) {
+            batch.loaded = true;
+            return;
+        }
+        level.getChunkSource().getChunkFuture(batch.chunkX, batch.chunkZ, ChunkStatus.FULL, true)
+                .whenComplete((result, error) -> batch.loaded = true);
+    }
+
+    /**
+     * Drop a batch's chunk ticket (main thread).
+     */
+    void release(ServerLevel level, RollbackTask.ChunkBatch batch) {
+        if (!batch.ticketed) {
+            return;
+        }
+        batch.ticketed = false;
+        ChunkPos pos = new ChunkPos(batch.chunkX, batch.chunkZ);
+        level.getChunkSource().removeRegionTicket(ROLLBACK_TICKET, pos, 1, pos);
+    }
+
+    private boolean persistStart(Database database, RollbackTask task) {
+        try (Connection conn = database.getConnection()) {
+            if (task.id > 0) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE vp_rollback_task SET status = ? WHERE id = ?")) {
+                    stmt.setInt(1, STATUS_RUNNING);
+                    stmt.setLong(2, task.id);
+                    stmt.executeUpdate();
+                }
+                return true;
+            }
+
+            String sql = "INSERT INTO vp_rollback_task (owner, world, is_rollback, center_x, center_y, center_z, "
+                    + "radius, user_filter, block_filter, min_time, status, undo_of, created) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, task.owner.toString());
+                stmt.setString(2, task.world);
+                stmt.setInt(3, task.rollback ? 1 : 0);
+                stmt.setInt(4, task.centerX);
+                stmt.setInt(5, task.centerY);
+                stmt.setInt(6, task.centerZ);
+                stmt.setInt(7, task.radius);
+                stmt.setString(8, task.user);
+                stmt.setString(9, task.block);
+                stmt.setLong(10, task.minTime);
+                stmt.setInt(11, STATUS_RUNNING);
+                if (task.undoOf > 0) {
+                    stmt.setLong(12, task.undoOf);
+                } else {
+                    stmt.setNull(12, java.sql.Types.BIGINT);
+                }
+                stmt.setLong(13, System.currentTimeMillis() / 1000L);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        task.id = keys.getLong(1);
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            VonixCore.LOGGER.error("[Protection] Failed to record rollback task: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Store the resume point, together with the flags and journal entries for
+     * the rows of a just-applied window, in one transaction.
+     *
+     * @param window The rows applied since the last save, or null
+     */
+    private void saveProgress(RollbackTask task, int status, RollbackTask.Window window) {
+        if (task.id <= 0) {
+            return;
+        }
+        boolean rollback = task.rollback;
+        // Undo tasks only reverse an existing journal
+        long journalTaskId = task.undoOf > 0 ? 0 : task.id;
+        long id = task.id;
+        boolean hasResume = task.hasResume;
+        long resumeTime = task.resumeTime;
+        boolean resumeCompact = task.resumeCompact;
+        long resumeId = task.resumeId;
+        long rowsDone = task.rowsApplied.get();
+        long blocksChanged = task.blocksChanged.get();
+
+        io.execute(() -> {
+            String sql = "UPDATE vp_rollback_task SET resume_time = ?, resume_id = ?, rows_done = ?, "
+                    + "blocks_changed = ?, status = ?, resume_compact = ? WHERE id = ?";
+            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    if (window != null) {
+                        RollbackJournal.recordWindow(conn, window, rollback, journalTaskId);
+                    }
+                    if (hasResume) {
+                        stmt.setLong(1, resumeTime);
+                        stmt.setLong(2, resumeId);
+                    } else {
+                        stmt.setNull(1, java.sql.Types.BIGINT);
+                        stmt.setNull(2, java.sql.Types.BIGINT);
+                    }
+                    stmt.setLong(3, rowsDone);
+                    stmt.setLong(4, blocksChanged);
+                    stmt.setInt(5, status);
+                    stmt.setInt(6, resumeCompact ? 1 : 0);
+                    stmt.setLong(7, id);
+                    stmt.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[Protection] Failed to save rollback progress: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void markUndone(long taskId) {
+        io.execute(() -> {
+            try (Connection conn = VonixCore.getInstance().getDatabase().getConnection();
+                    PreparedStatement stmt = conn.prepareStatement(
+                            "UPDATE vp_rollback_task SET status = ? WHERE id = ?")) {
+                stmt.setInt(1, STATUS_UNDONE);
+                stmt.setLong(2, taskId);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[Protection] Failed to mark rollback as undone: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stop readers and flush progress. Running tasks stay marked as running
+     * and are offered for resume on the next start.
+     */
+    public void shutdown() {
+        for (RollbackTask task : tasks.values()) {
+            task.state = RollbackTask.State.INTERRUPTED;
+        }
+        tasks.clear();
+        readers.shutdownNow();
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                io.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            io.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        instance = null;
+    }
+
+    /**
+     * Resolve a block id to its default state.
+     */
+    public static BlockState getBlockState(String blockId) {
+        if (blockId == null || blockId.isEmpty())
+            return Blocks.AIR.defaultBlockState();
+
+        try {
+            ResourceLocation loc = new ResourceLocation(blockId);
+            return net.minecraftforge.registries.ForgeRegistries.BLOCKS.getValue(loc).defaultBlockState();
+        } catch (Exception e) {
+            return Blocks.AIR.defaultBlockState();
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package network.vonix.vonixcore.protection;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.consumer.ChunkIndex;
+import network.vonix.vonixcore.database.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single rollback or restore in progress.
+ * A reader thread streams matching rows from a forward-only cursor and hands
+ * them to the main thread in windows of up to {@link #WINDOW_ROWS} rows,
+ * grouped by chunk. The main thread applies them within its tick budget.
+ * The resume point advances only once a whole window has been applied.
+ *
+ * Applied rows are flagged rolled_back, so rolling back the same area again
+ * skips them. An undo task replays exactly the rows journaled by an earlier
+ * task, in the opposite direction.
+ */
+public class RollbackTask {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED, INTERRUPTED
+    }
+
+    /** Rows per window handed to the main thread. */
+    static final int WINDOW_ROWS = 1024;
+    private static final int MAX_PENDING_WINDOWS = 4;
+    private static final int FETCH_SIZE = 500;
+
+    // What to roll back
+    final UUID owner;
+    final String world;
+    final boolean rollback;
+    final int centerX, centerY, centerZ, radius;
+    final String user;
+    final String block;
+    final long minTime;
+    // Task being undone, or 0
+    final long undoOf;
+
+    volatile long id;
+    volatile State state = State.RUNNING;
+    volatile boolean readerDone = false;
+
+    // Last row of the last fully applied window, in cursor order
+    volatile boolean hasResume = false;
+    volatile long resumeTime;
+    volatile boolean resumeCompact;
+    volatile long resumeId;
+
+    final AtomicLong rowsRead = new AtomicLong(0);
+    final AtomicLong rowsApplied = new AtomicLong(0);
+    final AtomicLong blocksChanged = new AtomicLong(0);
+
+    // Main thread only
+    long lastProgressMillis = System.currentTimeMillis();
+
+    // Windows read but not fully applied yet, oldest first
+    final BlockingQueue<Window> windows = new ArrayBlockingQueue<>(MAX_PENDING_WINDOWS);
+
+    public RollbackTask(UUID owner, String world, boolean rollback, int centerX, int centerY, int centerZ,
+            int radius, String user, String block, long minTime) {
+        this(owner, world, rollback, centerX, centerY, centerZ, radius, user, block, minTime, 0);
+    }
+
+    RollbackTask(UUID owner, String world, boolean rollback, int centerX, int centerY, int centerZ,
+            int radius, String user, String block, long minTime, long undoOf) {
+        this.owner = owner;
+        this.world = world;
+        this.rollback = rollback;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.user = user;
+        this.block = block;
+        this.minTime = minTime;
+        this.undoOf = undoOf;
+    }
+
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public boolean isRollback() {
+        return rollback;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getBlocksChanged() {
+        return blocksChanged.get();
+    }
+
+    public boolean isUndo() {
+        return undoOf > 0;
+    }
+
+    /**
+     * Stream matching rows into windows. Runs on a reader thread and blocks
+     * while the main thread is behind.
+     */
+    void read(Database database) {
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(database.isMySQL(), params);
+
+        try (Connection conn = database.getConnection()) {
+            // PostgreSQL only streams inside a transaction
+            if (database.isPostgreSQL()) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                // MySQL streams row by row only with this sentinel fetch size
+                stmt.setFetchSize(database.isMySQL() ? Integer.MIN_VALUE : FETCH_SIZE);
+                LogQuery.bind(stmt, params);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    Window window = new Window();
+                    while (rs.next()) {
+                        if (state != State.RUNNING) {
+                            return;
+                        }
+                        BlockChange change = new BlockChange();
+                        change.id = rs.getLong("id");
+                        change.time = rs.getLong("time");
+                        change.x = rs.getInt("x");
+                        change.y = rs.getInt("y");
+                        change.z = rs.getInt("z");
+                        change.oldType = rs.getString("old_type");
+                        change.oldData = rs.getString("old_data");
+                        change.newType = rs.getString("new_type");
+                        change.newData = rs.getString("new_data");
+                        change.action = rs.getInt("action");
+                        change.compact = rs.getInt("compact") == 1;
+                        window.add(change);
+                        rowsRead.incrementAndGet();
+
+                        if (window.size >= WINDOW_ROWS) {
+                            publish(window);
+                            window = new Window();
+                        }
+                    }
+                    if (window.size > 0) {
+                        publish(window);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            VonixCore.LOGGER.error("[Protection] Rollback read error: {}", e.getMessage());
+            if (state == State.RUNNING) {
+                state = State.FAILED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            readerDone = true;
+        }
+    }
+
+    /**
+     * Build the row query, continuing after the resume point if there is one.
+     */
+    String buildQuery(boolean mysql, List<Object> params) {
+        // Rollbacks skip rows already rolled back, restores only take rolled back rows
+        StringBuilder sql = new StringBuilder();
+        if (undoOf > 0) {
+            // Exactly the rows the original task changed
+            sql.append(LogQuery.journalQuery(undoOf, world, !rollback, mysql, params));
+        } else {
+            LogQuery.BlockFilter filter = new LogQuery.BlockFilter(world)
+                    .since(minTime)
+                    .radius(centerX, centerY, centerZ, radius)
+                    .user(user)
+                    .block(block)
+                    .rolledBack(!rollback);
+            sql.append(LogQuery.blockQuery(filter, mysql, params));
+        }
+
+        // Continue after the last applied row; ids repeat across the two tables, so compact is part of the key
+        if (hasResume) {
+            String op = rollback ? "<" : ">";
+            sql.append("WHERE (b.time ").append(op).append(" ? OR (b.time = ? AND (b.compact ").append(op)
+                    .append(" ? OR (b.compact = ? AND b.id ").append(op).append(" ?)))) ");
+            params.add(resumeTime);
+            params.add(resumeTime);
+            params.add(resumeCompact ? 1 : 0);
+            params.add(resumeCompact ? 1 : 0);
+            params.add(resumeId);
+        }
+
+        // Rollback walks newest to oldest so each position ends at its oldest state
+        String direction = rollback ? "DESC" : "ASC";
+        sql.append("ORDER BY b.time ").append(direction).append(", b.compact ").append(direction)
+                .append(", b.id ").append(direction);
+        return sql.toString();
+    }
+
+    private void publish(Window window) throws InterruptedException {
+        while (state == State.RUNNING) {
+            if (windows.offer(window, 250, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apply queued changes on the main thread until the deadline.
+     *
+     * @return The window that was completed by this call, or null
+     */
+    Window tick(ServerLevel level, RollbackManager manager, long deadlineNanos) {
+        // Request the chunks of the current and next window ahead of time
+        int lookahead = 0;
+        for (Iterator<Window> it = windows.iterator(); it.hasNext() && lookahead < 2; lookahead++) {
+            Window window = it.next();
+            if (!window.preloadRequested) {
+                window.preloadRequested = true;
+                for (ChunkBatch batch : window.batches.values()) {
+                    manager.preload(level, batch);
+                }
+            }
+        }
+
+        Window current = windows.peek();
+        if (current == null) {
+            return null;
+        }
+
+        boolean waiting = false;
+        int count = 0;
+        for (ChunkBatch batch : current.batches.values()) {
+            if (batch.next >= batch.changes.size()) {
+                continue;
+            }
+            if (!batch.loaded) {
+                waiting = true;
+                continue;
+            }
+            while (batch.next < batch.changes.size()) {
+                if ((count++ & 31) == 0 && System.nanoTime() >= deadlineNanos) {
+                    return null;
+                }
+                apply(level, batch.changes.get(batch.next++));
+            }
+            manager.release(level, batch);
+        }
+
+        if (waiting) {
+            return null;
+        }
+        windows.poll();
+        hasResume = true;
+        resumeTime = current.lastTime;
+        resumeCompact = current.lastCompact;
+        resumeId = current.lastId;
+        return current;
+    }
+
+    private void apply(ServerLevel level, BlockChange change) {
+        rowsApplied.incrementAndGet();
+        String targetBlock = rollback ? change.oldType : change.newType;
+        if (targetBlock == null || targetBlock.isEmpty()) {
+            return;
+        }
+        BlockState state = RollbackManager.getBlockState(targetBlock);
+        if (state != null) {
+            level.setBlock(new BlockPos(change.x, change.y, change.z), state, 3);
+            blocksChanged.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return True once every row has been read and applied
+     */
+    boolean isDrained() {
+        return readerDone && windows.isEmpty();
+    }
+
+    /**
+     * Drop queued windows, releasing their chunk tickets (main thread).
+     *
+     * @return The rows of the current window that were already applied, which
+     *         still have to be flagged and journaled, or null if there are none
+     */
+    Window discard(ServerLevel level, RollbackManager manager) {
+        Window applied = appliedPart(windows.peek());
+        Window window;
+        while ((window = windows.poll()) != null) {
+            if (level != null) {
+                for (ChunkBatch batch : window.batches.values()) {
+                    manager.release(level, batch);
+                }
+            }
+        }
+        return applied;
+    }
+
+    // Only the current window can be partly applied: the first next rows of each chunk batch
+    private static Window appliedPart(Window window) {
+        if (window == null) {
+            return null;
+        }
+        Window applied = new Window();
+        for (ChunkBatch batch : window.batches.values()) {
+            for (int i = 0; i < batch.next; i++) {
+                applied.add(batch.changes.get(i));
+            }
+        }
+        return applied.size > 0 ? applied : null;
+    }
+
+    /**
+     * Rows of one window, grouped by chunk in first-seen order. Changes to the
+     * same position stay in cursor order because they share a chunk.
+     */
+    static final class Window {
+        final Map<Long, ChunkBatch> batches = new LinkedHashMap<>();
+        int size;
+        long lastTime;
+        boolean lastCompact;
+        long lastId;
+        boolean preloadRequested;
+
+        void add(BlockChange change) {
+            batches.computeIfAbsent(ChunkIndex.chunkKey(change.x, change.z),
+                    key -> new ChunkBatch(change.x >> 4, change.z >> 4)).changes.add(change);
+            size++;
+            lastTime = change.time;
+            lastCompact = change.compact;
+            lastId = change.id;
+        }
+    }
+
+    static final class ChunkBatch {
+        final int chunkX;
+        final int chunkZ;
+        final List<BlockChange> changes = new ArrayList<>();
+        int next;
+        volatile boolean loaded;
+        boolean ticketed;
+
+        ChunkBatch(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+}
@@ -2,21 +2,46 @@ package network.vonix.vonixcore.warps;
 
 import net.minecraft.server.level.ServerPlayer;
 import network.vonix.vonixcore.VonixCore;
+import network.vonix.vonixcore.config.DatabaseConfig;
+import network.vonix.vonixcore.database.Database;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages server warps - named teleport locations accessible to all players.
+ *
+ * Every warp is kept in memory as an immutable snapshot, so teleports and tab
+ * completion never touch the database. Changes replace the snapshot and are
+ * written on a background thread, which retries failed writes and also
+ * reloads the warps when another server sharing the database changed them.
  */
 public class WarpManager {
 
     private static WarpManager instance;
 
+    // Age of the warp change log rows kept for other servers
+    private static final long CHANGE_RETENTION_SECONDS = 24 * 60 * 60;
+    // Seconds between retries of failed warp writes
+    private static final int RETRY_INTERVAL_SECONDS = 5;
+
+    private volatile WarpSnapshot snapshot = WarpSnapshot.EMPTY;
+    // Rows waiting to be written, by warp name; a reload waits until there are none
+    private final Map<String, Write> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private volatile long lastChangeId;
+    private ScheduledExecutorService executor;
+
     public static WarpManager getInstance() {
         if (instance == null) {
             instance = new WarpManager();
@@ -41,86 +66,215 @@ public class WarpManager {
                         created_at INTEGER NOT NULL
                     )
                 """);
+
+        // Warp change log, polled by other servers sharing the database
+        Database db = VonixCore.getInstance().getDatabase();
+        conn.createStatement().execute("CREATE TABLE IF NOT EXISTS vc_warp_changes (" + Database.idColumnSql(db)
+                + ", changed_at BIGINT NOT NULL)");
+    }
+
+    /**
+     * Load every warp into memory and start the writer thread, which also
+     * polls for changes made by other servers if that is enabled.
+     */
+    public void loadWarps(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM vc_warp_changes WHERE changed_at < ?")) {
+            stmt.setLong(1, System.currentTimeMillis() / 1000L - CHANGE_RETENTION_SECONDS);
+            stmt.executeUpdate();
+        }
+        lastChangeId = latestChangeId(conn);
+        snapshot = readWarps(conn);
+        VonixCore.LOGGER.info("[VonixCore] Loaded {} warp(s)", snapshot.size());
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "VonixCore-Warps");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.scheduleWithFixedDelay(this::flush, RETRY_INTERVAL_SECONDS, RETRY_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
+            int syncInterval = DatabaseConfig.CONFIG.warpSyncInterval.get();
+            if (syncInterval > 0) {
+                executor.scheduleWithFixedDelay(this::pollChanges, syncInterval, syncInterval, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stop polling and finish the pending warp writes.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        flush();
     }
 
     /**
      * Create or update a warp.
      */
     public boolean setWarp(String name, ServerPlayer player) {
-        String world = player.level().dimension().location().toString();
-        double x = player.getX();
-        double y = player.getY();
-        double z = player.getZ();
-        float yaw = player.getYRot();
-        float pitch = player.getXRot();
-
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "INSERT OR REPLACE INTO vc_warps (name, world, x, y, z, yaw, pitch, created_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
-            stmt.setString(1, name.toLowerCase());
-            stmt.setString(2, world);
-            stmt.setDouble(3, x);
-            stmt.setDouble(4, y);
-            stmt.setDouble(5, z);
-            stmt.setFloat(6, yaw);
-            stmt.setFloat(7, pitch);
-            stmt.setString(8, player.getUUID().toString());
-            stmt.setLong(9, System.currentTimeMillis() / 1000L);
-            stmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to set warp: {}", e.getMessage());
+        if (executor == null) {
             return false;
         }
+        Warp warp = new Warp(name.toLowerCase(), player.level().dimension().location().toString(),
+                player.getX(), player.getY(), player.getZ(), player.getYRot(), player.getXRot());
+        String createdBy = player.getUUID().toString();
+        long createdAt = System.currentTimeMillis() / 1000L;
+
+        synchronized (this) {
+            snapshot = snapshot.with(warp);
+            pending.put(warp.name(), new Write(warp, createdBy, createdAt));
+        }
+        executor.execute(this::flush);
+        return true;
     }
 
     /**
      * Delete a warp.
      */
     public boolean deleteWarp(String name) {
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement("DELETE FROM vc_warps WHERE name = ?");
-            stmt.setString(1, name.toLowerCase());
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to delete warp: {}", e.getMessage());
+        if (executor == null) {
             return false;
         }
+        String key = name.toLowerCase();
+        synchronized (this) {
+            WarpSnapshot current = snapshot;
+            if (current.get(key) == null) {
+                return false;
+            }
+            snapshot = current.without(key);
+            pending.put(key, new Write(null, null, 0));
+        }
+        executor.execute(this::flush);
+        return true;
     }
 
     /**
      * Get a warp location.
      */
     public Warp getWarp(String name) {
+        return snapshot.get(name.toLowerCase());
+    }
+
+    /**
+     * Get all warps, sorted by name.
+     */
+    public List<Warp> getWarps() {
+        return snapshot.all();
+    }
+
+    /**
+     * Get the names of the warps starting with a prefix, for tab completion.
+     */
+    public List<String> getWarpNames(String prefix) {
+        return snapshot.namesStartingWith(prefix.toLowerCase());
+    }
+
+    // Write every changed warp and one change log row in one transaction
+    private void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<String, Write> batch = new HashMap<>();
+            for (String name : pending.keySet()) {
+                Write write = pending.remove(name);
+                if (write != null) {
+                    batch.put(name, write);
+                }
+            }
+
+            Database db = VonixCore.getInstance().getDatabase();
+            try (Connection conn = db.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement upsert = conn.prepareStatement(Database.upsertSql(db, "vc_warps", 1, "name",
+                        "world", "x", "y", "z", "yaw", "pitch", "created_by", "created_at"));
+                        PreparedStatement delete = conn.prepareStatement("DELETE FROM vc_warps WHERE name = ?");
+                        PreparedStatement change = conn.prepareStatement(
+                                "INSERT INTO vc_warp_changes (changed_at) VALUES (?)")) {
+                    for (Map.Entry<String, Write> entry : batch.entrySet()) {
+                        Write write = entry.getValue();
+                        Warp warp = write.warp();
+                        if (warp == null) {
+                            delete.setString(1, entry.getKey());
+                            delete.addBatch();
+                            continue;
+                        }
+                        upsert.setString(1, warp.name());
+                        upsert.setString(2, warp.world());
+                        upsert.setDouble(3, warp.x());
+                        upsert.setDouble(4, warp.y());
+                        upsert.setDouble(5, warp.z());
+                        upsert.setFloat(6, warp.yaw());
+                        upsert.setFloat(7, warp.pitch());
+                        upsert.setString(8, write.createdBy());
+                        upsert.setLong(9, write.createdAt());
+                        upsert.addBatch();
+                    }
+                    delete.executeBatch();
+                    upsert.executeBatch();
+                    change.setLong(1, System.currentTimeMillis() / 1000L);
+                    change.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                VonixCore.LOGGER.error("[VonixCore] Failed to save {} warp(s), retrying: {}", batch.size(),
+                        e.getMessage());
+                // Anything changed meanwhile is newer and wins
+                batch.forEach(pending::putIfAbsent);
+            }
+        }
+    }
+
+    // Reload every warp if the change log has moved on, our own writes included
+    private void pollChanges() {
         try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            PreparedStatement stmt = conn.prepareStatement(
-                    "SELECT world, x, y, z, yaw, pitch FROM vc_warps WHERE name = ?");
-            stmt.setString(1, name.toLowerCase());
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Warp(
-                        name,
-                        rs.getString("world"),
-                        rs.getDouble("x"),
-                        rs.getDouble("y"),
-                        rs.getDouble("z"),
-                        rs.getFloat("yaw"),
-                        rs.getFloat("pitch"));
+            long changeId = latestChangeId(conn);
+            if (changeId == lastChangeId) {
+                return;
             }
+            WarpSnapshot loaded = readWarps(conn);
+            synchronized (this) {
+                // A local change is newer than what was read; retry on the next poll
+                if (!pending.isEmpty()) {
+                    return;
+                }
+                snapshot = loaded;
+            }
+            lastChangeId = changeId;
         } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to get warp: {}", e.getMessage());
+            VonixCore.LOGGER.error("[VonixCore] Failed to poll warp changes: {}", e.getMessage());
         }
-        return null;
     }
 
-    /**
-     * Get all warps.
-     */
-    public List<Warp> getWarps() {
+    private static long latestChangeId(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(id) FROM vc_warp_changes");
+                ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static WarpSnapshot readWarps(Connection conn) throws SQLException {
         List<Warp> warps = new ArrayList<>();
-        try (Connection conn = VonixCore.getInstance().getDatabase().getConnection()) {
-            ResultSet rs = conn.createStatement().executeQuery(
-                    "SELECT name, world, x, y, z, yaw, pitch FROM vc_warps ORDER BY name");
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT name, world, x, y, z, yaw, pitch FROM vc_warps");
+                ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 warps.add(new Warp(
                         rs.getString("name"),
@@ -131,10 +285,12 @@ public class WarpManager {
                         rs.getFloat("yaw"),
                         rs.getFloat("pitch")));
             }
-        } catch (SQLException e) {
-            VonixCore.LOGGER.error("[VonixCore] Failed to list warps: {}", e.getMessage());
         }
-        return warps;
+        return WarpSnapshot.of(warps);
+    }
+
+    /** Pending row write; a null warp deletes the row. */
+    private record Write(Warp warp, String createdBy, long createdAt) {
     }
 
     /**
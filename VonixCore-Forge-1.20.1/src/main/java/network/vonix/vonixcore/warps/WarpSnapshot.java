@@ -0,0 +1,85 @@
+package network.vonix.vonixcore.warps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of warps, sorted by name.
+ * Readers share one snapshot without locking; a change builds a new snapshot
+ * that replaces the old one. The sorted names double as the prefix index
+ * for tab completion.
+ */
+final class WarpSnapshot {
+
+    static final WarpSnapshot EMPTY = new WarpSnapshot(new TreeMap<>());
+
+    private final NavigableMap<String, WarpManager.Warp> warps;
+    private final List<WarpManager.Warp> list;
+
+    private WarpSnapshot(NavigableMap<String, WarpManager.Warp> warps) {
+        this.warps = Collections.unmodifiableNavigableMap(warps);
+        this.list = List.copyOf(warps.values());
+    }
+
+    static WarpSnapshot of(Collection<WarpManager.Warp> warps) {
+        NavigableMap<String, WarpManager.Warp> map = new TreeMap<>();
+        for (WarpManager.Warp warp : warps) {
+            map.put(warp.name(), warp);
+        }
+        return new WarpSnapshot(map);
+    }
+
+    WarpManager.Warp get(String name) {
+        return warps.get(name);
+    }
+
+    /**
+     * @return Every warp, sorted by name
+     */
+    List<WarpManager.Warp> all() {
+        return list;
+    }
+
+    /**
+     * @return Names of the warps starting with a prefix, sorted
+     */
+    List<String> namesStartingWith(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String name : warps.tailMap(prefix, true).keySet()) {
+            if (!name.startsWith(prefix)) {
+                break;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    int size() {
+        return warps.size();
+    }
+
+    /**
+     * @return A copy with the warp added or replaced
+     */
+    WarpSnapshot with(WarpManager.Warp warp) {
+        NavigableMap<String, WarpManager.Warp> map = new TreeMap<>(warps);
+        map.put(warp.name(), warp);
+        return new WarpSnapshot(map);
+    }
+
+    /**
+     * @return A copy without the warp, or this snapshot if there is none
+     */
+    WarpSnapshot without(String name) {
+        if (!warps.containsKey(name)) {
+            return this;
+        }
+        NavigableMap<String, WarpManager.Warp> map = new TreeMap<>(warps);
+        map.remove(name);
+        return new WarpSnapshot(map);
+    }
+}
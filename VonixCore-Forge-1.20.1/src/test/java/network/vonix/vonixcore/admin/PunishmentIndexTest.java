@@ -0,0 +1,67 @@
+package network.vonix.vonixcore.admin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PunishmentIndex.
+ * Tests lookups around the expiry second, expiry order, and that replaced or
+ * removed punishments are not expired by their old queue entry.
+ */
+class PunishmentIndexTest {
+
+    @Test
+    void testActiveUntilExpirySecond() {
+        PunishmentIndex<String> index = new PunishmentIndex<>();
+        UUID temp = UUID.randomUUID();
+        UUID permanent = UUID.randomUUID();
+        index.put(temp, "temp", 100L);
+        index.put(permanent, "permanent", null);
+
+        assertEquals("temp", index.get(temp, 100));
+        assertNull(index.get(temp, 101));
+        assertEquals("permanent", index.get(permanent, Long.MAX_VALUE - 1));
+        assertNull(index.get(UUID.randomUUID(), 0));
+    }
+
+    @Test
+    void testExpireInOrder() {
+        PunishmentIndex<String> index = new PunishmentIndex<>();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID permanent = UUID.randomUUID();
+        index.put(second, "second", 200L);
+        index.put(first, "first", 100L);
+        index.put(permanent, "permanent", null);
+
+        assertTrue(index.expire(100).isEmpty());
+        assertEquals(List.of(first), index.expire(150));
+        assertEquals(List.of(second), index.expire(1000));
+        assertEquals(1, index.size());
+        assertEquals("permanent", index.get(permanent, 1000));
+    }
+
+    @Test
+    void testReplacedAndRemovedAreSkipped() {
+        PunishmentIndex<String> index = new PunishmentIndex<>();
+        UUID extended = UUID.randomUUID();
+        UUID madePermanent = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        index.put(extended, "short", 100L);
+        index.put(extended, "long", 500L);
+        index.put(madePermanent, "short", 100L);
+        index.put(madePermanent, "permanent", null);
+        index.put(removed, "short", 100L);
+        assertEquals("short", index.remove(removed));
+
+        assertTrue(index.expire(200).isEmpty());
+        assertEquals("long", index.get(extended, 200));
+        assertEquals("permanent", index.get(madePermanent, 200));
+        assertNull(index.get(removed, 50));
+        assertEquals(List.of(extended), index.expire(501));
+    }
+}
@@ -0,0 +1,54 @@
+package network.vonix.vonixcore.chat;
+
+import net.minecraft.world.entity.player.ChatVisiblity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatFilter.
+ * Tests that muted senders are dropped and that ignores and chat visibility
+ * hide messages from recipients.
+ */
+class ChatFilterTest {
+
+    private final UUID sender = UUID.randomUUID();
+    private final UUID recipient = UUID.randomUUID();
+
+    @Test
+    void testMutedSenderCannotChat() {
+        ChatFilter filter = new ChatFilter(Set.of(sender)::contains, (a, b) -> false);
+
+        assertFalse(filter.canChat(sender));
+        assertTrue(filter.canChat(recipient));
+    }
+
+    @Test
+    void testIgnoredSenderIsHidden() {
+        ChatFilter filter = new ChatFilter(uuid -> false,
+                (player, target) -> player.equals(recipient) && target.equals(sender));
+
+        assertFalse(filter.showsChat(recipient, ChatVisiblity.FULL, sender));
+        // Ignoring is one-way
+        assertTrue(filter.showsChat(sender, ChatVisiblity.FULL, recipient));
+    }
+
+    @Test
+    void testChatVisibility() {
+        ChatFilter filter = new ChatFilter(uuid -> false, (a, b) -> false);
+
+        assertTrue(filter.showsChat(recipient, ChatVisiblity.FULL, sender));
+        assertFalse(filter.showsChat(recipient, ChatVisiblity.SYSTEM, sender));
+        assertFalse(filter.showsChat(recipient, ChatVisiblity.HIDDEN, sender));
+    }
+
+    @Test
+    void testBroadcastVisibility() {
+        assertTrue(ChatFilter.showsBroadcast(ChatVisiblity.FULL));
+        assertTrue(ChatFilter.showsBroadcast(ChatVisiblity.SYSTEM));
+        assertFalse(ChatFilter.showsBroadcast(ChatVisiblity.HIDDEN));
+    }
+}
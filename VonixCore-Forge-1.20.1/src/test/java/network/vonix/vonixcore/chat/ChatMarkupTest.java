@@ -0,0 +1,72 @@
+package network.vonix.vonixcore.chat;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.TextColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatMarkup.
+ * Tests legacy codes, hex colors and MiniMessage-style tags compiled into
+ * styled component runs.
+ */
+class ChatMarkupTest {
+
+    @Test
+    void testLegacyCodes() {
+        List<Component> runs = ChatMarkup.parse("&cHello &lWorld").getSiblings();
+
+        assertEquals(2, runs.size());
+        assertEquals("Hello ", runs.get(0).getString());
+        assertEquals(TextColor.fromLegacyFormat(ChatFormatting.RED), runs.get(0).getStyle().getColor());
+        assertFalse(runs.get(0).getStyle().isBold());
+        assertEquals("World", runs.get(1).getString());
+        assertEquals(TextColor.fromLegacyFormat(ChatFormatting.RED), runs.get(1).getStyle().getColor());
+        assertTrue(runs.get(1).getStyle().isBold());
+    }
+
+    @Test
+    void testColorResetsFormatting() {
+        List<Component> runs = ChatMarkup.parse("§l§aGreen&rPlain").getSiblings();
+
+        assertEquals(2, runs.size());
+        assertFalse(runs.get(0).getStyle().isBold());
+        assertEquals(TextColor.fromLegacyFormat(ChatFormatting.GREEN), runs.get(0).getStyle().getColor());
+        assertNull(runs.get(1).getStyle().getColor());
+    }
+
+    @Test
+    void testHexColors() {
+        List<Component> runs = ChatMarkup.parse("&#FF0000A<#00ff00>B").getSiblings();
+
+        assertEquals(2, runs.size());
+        assertEquals(TextColor.fromRgb(0xFF0000), runs.get(0).getStyle().getColor());
+        assertEquals(TextColor.fromRgb(0x00FF00), runs.get(1).getStyle().getColor());
+    }
+
+    @Test
+    void testMiniMessageTags() {
+        List<Component> runs = ChatMarkup.parse("<dark_purple>a</dark_purple><b>b").getSiblings();
+
+        assertEquals(2, runs.size());
+        assertEquals("a", runs.get(0).getString());
+        assertEquals(TextColor.fromLegacyFormat(ChatFormatting.DARK_PURPLE), runs.get(0).getStyle().getColor());
+        assertEquals("b", runs.get(1).getString());
+        assertTrue(runs.get(1).getStyle().isBold());
+    }
+
+    @Test
+    void testUnknownMarkupIsText() {
+        MutableComponent result = ChatMarkup.parse("rock & roll <foo> 5 < 6 &#12 </>");
+
+        assertEquals(1, result.getSiblings().size());
+        assertEquals("rock & roll <foo> 5 < 6 &#12 </>", result.getString());
+        assertEquals("", ChatMarkup.parse("").getString());
+        assertEquals("", ChatMarkup.parse("&a<bold>").getString());
+    }
+}
@@ -0,0 +1,105 @@
+package network.vonix.vonixcore.claims;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClaimIndex.
+ * Tests position lookups, overlap checks and the owner index against a
+ * linear scan over 100k claims.
+ */
+class ClaimIndexTest {
+
+    private static final String WORLD = "minecraft:overworld";
+
+    @Test
+    void testFindMatchesLinearScan() {
+        Random random = new Random(7);
+        ClaimIndex index = new ClaimIndex();
+        List<Claim> claims = new ArrayList<>();
+        // 100k claims of 20x20 blocks on a 32 block grid
+        for (int i = 0; i < 100_000; i++) {
+            int x = (i % 316) * 32 - 5000;
+            int z = (i / 316) * 32 - 5000;
+            Claim claim = claim(i, UUID.randomUUID(), x, z, x + 19, z + 19);
+            claims.add(claim);
+            index.add(claim);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            int x = random.nextInt(12000) - 6000;
+            int y = random.nextInt(384) - 64;
+            int z = random.nextInt(12000) - 6000;
+            Claim expected = null;
+            for (Claim claim : claims) {
+                if (x >= claim.getX1() && x <= claim.getX2() && y >= claim.getY1() && y <= claim.getY2()
+                        && z >= claim.getZ1() && z <= claim.getZ2()) {
+                    expected = claim;
+                    break;
+                }
+            }
+            assertSame(expected, index.find(WORLD, x, y, z));
+        }
+    }
+
+    @Test
+    void testOtherWorldIsSeparate() {
+        ClaimIndex index = new ClaimIndex();
+        index.add(claim(1, UUID.randomUUID(), 0, 0, 10, 10));
+
+        assertNotNull(index.find(WORLD, 5, 64, 5));
+        assertNull(index.find("minecraft:the_nether", 5, 64, 5));
+    }
+
+    @Test
+    void testRemoveAndLargeClaims() {
+        ClaimIndex index = new ClaimIndex();
+        Claim small = claim(1, UUID.randomUUID(), 0, 0, 10, 10);
+        Claim large = claim(2, UUID.randomUUID(), 1000, 1000, 1000 + 16 * 40, 1000 + 16 * 40);
+        index.add(small);
+        index.add(large);
+
+        assertSame(large, index.find(WORLD, 1200, 64, 1200));
+        index.remove(small);
+        index.remove(large);
+        assertNull(index.find(WORLD, 5, 64, 5));
+        assertNull(index.find(WORLD, 1200, 64, 1200));
+    }
+
+    @Test
+    void testFindOverlapping() {
+        ClaimIndex index = new ClaimIndex();
+        Claim claim = claim(1, UUID.randomUUID(), -20, -20, -5, -5);
+        index.add(claim);
+
+        assertSame(claim, index.findOverlapping(WORLD, -5, -5, 30, 30));
+        assertNull(index.findOverlapping(WORLD, -4, -4, 30, 30));
+        assertSame(claim, index.findOverlapping(WORLD, -100000, -100000, 100000, 100000));
+    }
+
+    @Test
+    void testOwnerIndex() {
+        ClaimIndex index = new ClaimIndex();
+        UUID owner = UUID.randomUUID();
+        Claim first = claim(1, owner, 0, 0, 10, 10);
+        Claim second = claim(2, owner, 100, 100, 110, 110);
+        index.add(first);
+        index.add(second);
+        index.add(claim(3, UUID.randomUUID(), 200, 200, 210, 210));
+
+        assertEquals(2, index.countOwned(owner));
+        index.remove(first);
+        assertEquals(List.of(second), index.getOwned(owner));
+    }
+
+    private static Claim claim(int id, UUID owner, int x1, int z1, int x2, int z2) {
+        return new Claim(id, owner, "owner", WORLD, x1, -64, z1, x2, 320, z2, new HashSet<>(), 0L);
+    }
+}
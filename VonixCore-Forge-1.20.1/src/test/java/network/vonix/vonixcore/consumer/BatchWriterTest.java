@@ -0,0 +1,143 @@
+package network.vonix.vonixcore.consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchWriter.
+ * Tests statement generation and how rows are split across batched statements.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchWriterTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+    }
+
+    @Test
+    void testInsertSqlSingleRow() {
+        assertEquals("INSERT INTO test_table (a, b, c) VALUES (?, ?, ?)",
+                BatchWriter.insertSql(new TestEntry(0), 1));
+    }
+
+    @Test
+    void testInsertSqlMultiRow() {
+        assertEquals("INSERT INTO test_table (a, b, c) VALUES (?, ?, ?), (?, ?, ?)",
+                BatchWriter.insertSql(new TestEntry(0), 2));
+    }
+
+    @Test
+    void testInsertSqlKeepsColumnLayoutsApart() {
+        Consumer.RowEntry legacy = new Consumer.RowEntry("test_layout", new String[] { "user", "world" },
+                new Object[2]);
+        Consumer.RowEntry compact = new Consumer.RowEntry("test_layout", new String[] { "user_id", "world_id" },
+                new Object[2]);
+
+        assertEquals("INSERT INTO test_layout (user, world) VALUES (?, ?)", BatchWriter.insertSql(legacy, 1));
+        assertEquals("INSERT INTO test_layout (user_id, world_id) VALUES (?, ?)", BatchWriter.insertSql(compact, 1));
+    }
+
+    @Test
+    void testBindUsesTypedSetters() throws SQLException {
+        BatchWriter.bind(mockStatement, 3, new Object[] { 5L, 7, "stone", null });
+
+        verify(mockStatement).setLong(4, 5L);
+        verify(mockStatement).setInt(5, 7);
+        verify(mockStatement).setString(6, "stone");
+        verify(mockStatement).setNull(eq(7), anyInt());
+    }
+
+    @Test
+    void testJdbcBatchUsesOneStatement() throws SQLException {
+        List<Consumer.BatchableEntry> rows = rows(250);
+
+        int statements = BatchWriter.write(mockConnection, rows, false);
+
+        assertEquals(1, statements);
+        verify(mockConnection, times(1)).prepareStatement(BatchWriter.insertSql(rows.get(0), 1));
+        verify(mockStatement, times(250)).addBatch();
+        verify(mockStatement, times(1)).executeBatch();
+        // Every row binds at offset 0 in a single-row statement
+        verify(mockStatement, times(250)).setInt(eq(1), anyInt());
+    }
+
+    @Test
+    void testMultiRowSplitsIntoFullChunksAndRemainder() throws SQLException {
+        List<Consumer.BatchableEntry> rows = rows(BatchWriter.MULTI_ROW_LIMIT * 2 + 7);
+
+        int statements = BatchWriter.write(mockConnection, rows, true);
+
+        assertEquals(2, statements);
+        verify(mockConnection).prepareStatement(BatchWriter.insertSql(rows.get(0), BatchWriter.MULTI_ROW_LIMIT));
+        verify(mockConnection).prepareStatement(BatchWriter.insertSql(rows.get(0), 7));
+        verify(mockStatement, times(2)).addBatch();
+        verify(mockStatement, times(1)).executeBatch();
+        verify(mockStatement, times(1)).executeUpdate();
+        // Last row of a full chunk is bound after all preceding rows' parameters
+        verify(mockStatement, atLeastOnce()).setInt(eq((BatchWriter.MULTI_ROW_LIMIT - 1) * 3 + 1), anyInt());
+    }
+
+    @Test
+    void testMultiRowWithSmallGroupUsesSingleStatement() throws SQLException {
+        List<Consumer.BatchableEntry> rows = rows(5);
+
+        int statements = BatchWriter.write(mockConnection, rows, true);
+
+        assertEquals(1, statements);
+        verify(mockConnection).prepareStatement(BatchWriter.insertSql(rows.get(0), 5));
+        verify(mockStatement, never()).executeUpdate();
+        verify(mockStatement, times(1)).executeBatch();
+    }
+
+    private static List<Consumer.BatchableEntry> rows(int count) {
+        List<Consumer.BatchableEntry> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new TestEntry(i));
+        }
+        return rows;
+    }
+
+    private static class TestEntry implements Consumer.BatchableEntry {
+        private static final String[] COLUMNS = { "a", "b", "c" };
+        private final int value;
+
+        TestEntry(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getTable() {
+            return "test_table";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public Object[] getValues() {
+            return new Object[] { value, value, value };
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package network.vonix.vonixcore.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkIndex.
+ * Tests chunk key packing and radius to chunk-key expansion.
+ */
+class ChunkIndexTest {
+
+    @Test
+    void testChunkKeyMatchesChunkPosLayout() {
+        // ChunkPos.asLong: chunk x in the low 32 bits, chunk z in the high 32 bits
+        assertEquals(0L, ChunkIndex.chunkKey(15, 15));
+        assertEquals(1L, ChunkIndex.chunkKey(16, 0));
+        assertEquals(1L << 32, ChunkIndex.chunkKey(0, 16));
+        assertEquals(-1L, ChunkIndex.chunkKey(-1, -1));
+    }
+
+    @Test
+    void testChunkKeysCoverRadius() {
+        List<Long> keys = ChunkIndex.chunkKeys(-10, -10, 10, 10);
+
+        assertNotNull(keys);
+        assertEquals(4, keys.size());
+        assertTrue(keys.contains(ChunkIndex.chunkKey(-10, -10)));
+        assertTrue(keys.contains(ChunkIndex.chunkKey(10, -10)));
+        assertTrue(keys.contains(ChunkIndex.chunkKey(-10, 10)));
+        assertTrue(keys.contains(ChunkIndex.chunkKey(10, 10)));
+    }
+
+    @Test
+    void testChunkKeysTooLargeReturnsNull() {
+        assertNull(ChunkIndex.chunkKeys(0, 0, 16 * 20, 16 * 20));
+    }
+}
@@ -0,0 +1,185 @@
+package network.vonix.vonixcore.consumer;
+
+import network.vonix.vonixcore.database.Database;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CompactLogSchema.
+ * Tests position packing, the actor dictionary, the write path and the read
+ * view against an in-memory SQLite database.
+ */
+@ExtendWith(MockitoExtension.class)
+class CompactLogSchemaTest {
+
+    @Mock
+    private Database mockDatabase;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(mockDatabase.isSQLite()).thenReturn(true);
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE vp_block (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, time BIGINT NOT NULL, user TEXT NOT NULL,
+                        world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL,
+                        chunk BIGINT, type TEXT NOT NULL, old_type TEXT, old_data TEXT, new_type TEXT,
+                        new_data TEXT, action INTEGER NOT NULL, rolled_back INTEGER DEFAULT 0)
+                    """);
+            stmt.execute("""
+                    CREATE TABLE vp_container (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, time BIGINT NOT NULL, user TEXT NOT NULL,
+                        world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL,
+                        type TEXT NOT NULL, item TEXT NOT NULL, amount INTEGER NOT NULL, action INTEGER NOT NULL,
+                        rolled_back INTEGER DEFAULT 0)
+                    """);
+            stmt.execute("""
+                    CREATE TABLE vp_user (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, uuid TEXT UNIQUE NOT NULL, username TEXT NOT NULL)
+                    """);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void testPackRoundTrip() {
+        int[][] positions = {
+                { 0, 0, 0 },
+                { -1, -64, -1 },
+                { 123, -5, -456 },
+                { 30000000, 319, -30000000 },
+                { -30000000, -2048, 29999999 }
+        };
+        for (int[] p : positions) {
+            long packed = CompactLogSchema.packPos(p[0], p[1], p[2]);
+            assertEquals(p[0], CompactLogSchema.unpackX(packed));
+            assertEquals(p[1], CompactLogSchema.unpackY(packed));
+            assertEquals(p[2], CompactLogSchema.unpackZ(packed));
+        }
+    }
+
+    @Test
+    void testPackMatchesBlockPosLayout() {
+        // BlockPos.asLong: x in the top 26 bits, z in the next 26, y in the low 12
+        assertEquals((1L << 38) | (2L << 12) | 3L, CompactLogSchema.packPos(1, 3, 2));
+        assertEquals(-1L, CompactLogSchema.packPos(-1, -1, -1));
+    }
+
+    @Test
+    void testUserDictionaryKeysOnNameAndStoresUuid() throws SQLException {
+        CompactLogSchema.createSchema(conn.createStatement(), mockDatabase, "AUTOINCREMENT", "TEXT");
+        UUID steve = UUID.randomUUID();
+        CompactLogSchema.rememberPlayer("Steve", steve);
+
+        CompactLogSchema schema = new CompactLogSchema();
+        write(schema, block(100, "Steve", 1, 64, 1), block(101, "#tnt", 2, 64, 2), block(102, "Steve", 3, 64, 3));
+
+        assertEquals(steve.toString(), queryString("SELECT uuid FROM vp_user WHERE username = 'Steve'"));
+        assertEquals(CompactLogSchema.actorUuid("#tnt").toString(),
+                queryString("SELECT uuid FROM vp_user WHERE username = '#tnt'"));
+        assertEquals("2", queryString("SELECT COUNT(*) FROM vp_user"));
+
+        // A fresh cache resolves the same ids from the table
+        write(new CompactLogSchema(), block(103, "Steve", 4, 64, 4));
+        assertEquals("2", queryString("SELECT COUNT(*) FROM vp_user"));
+        assertEquals("1", queryString("SELECT COUNT(DISTINCT user_id) FROM vp_block_compact "
+                + "WHERE user_id = (SELECT id FROM vp_user WHERE username = 'Steve')"));
+    }
+
+    @Test
+    void testNamesStoredAsUuidAreRepaired() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO vp_user (uuid, username) VALUES ('Alex', 'Alex')");
+        }
+        CompactLogSchema.createSchema(conn.createStatement(), mockDatabase, "AUTOINCREMENT", "TEXT");
+
+        assertEquals(CompactLogSchema.actorUuid("Alex").toString(),
+                queryString("SELECT uuid FROM vp_user WHERE username = 'Alex'"));
+        assertEquals("1", queryString("SELECT id FROM vp_user WHERE username = 'Alex'"));
+    }
+
+    @Test
+    void testWritePathEncodesAndViewDecodes() throws SQLException {
+        CompactLogSchema.createSchema(conn.createStatement(), mockDatabase, "AUTOINCREMENT", "TEXT");
+        assertTrue(CompactLogSchema.isPresent());
+        assertTrue(CompactLogSchema.tablesExist(conn));
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO vp_block (time, user, world, x, y, z, type, old_type, new_type, action) "
+                    + "VALUES (50, 'Alex', 'minecraft:overworld', 7, 70, 7, 'minecraft:dirt', 'minecraft:dirt', "
+                    + "'minecraft:air', 0)");
+        }
+        write(new CompactLogSchema(), block(100, "Steve", -30, -64, 12345));
+
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT time, user, world, x, y, z, chunk, type, old_type, "
+                        + "new_type, action, id, compact FROM " + CompactLogSchema.BLOCK_VIEW + " ORDER BY time")) {
+            assertTrue(rs.next());
+            assertEquals("Alex", rs.getString("user"));
+            assertEquals(1, rs.getLong("id"));
+            assertEquals(0, rs.getInt("compact"));
+
+            assertTrue(rs.next());
+            assertEquals(100, rs.getLong("time"));
+            assertEquals("Steve", rs.getString("user"));
+            assertEquals("minecraft:overworld", rs.getString("world"));
+            assertEquals(-30, rs.getInt("x"));
+            assertEquals(-64, rs.getInt("y"));
+            assertEquals(12345, rs.getInt("z"));
+            assertEquals(ChunkIndex.chunkKey(-30, 12345), rs.getLong("chunk"));
+            assertEquals("minecraft:stone", rs.getString("type"));
+            assertEquals("minecraft:air", rs.getString("old_type"));
+            assertEquals("minecraft:stone", rs.getString("new_type"));
+            assertEquals(1, rs.getInt("action"));
+            // Ids restart in the compact table; only (compact, id) is unique
+            assertEquals(1, rs.getLong("id"));
+            assertEquals(1, rs.getInt("compact"));
+            assertFalse(rs.next());
+        }
+
+        assertEquals(String.valueOf(CompactLogSchema.packPos(-30, -64, 12345)),
+                queryString("SELECT pos FROM vp_block_compact"));
+    }
+
+    private void write(CompactLogSchema schema, Consumer.QueueEntry... entries) throws SQLException {
+        List<Consumer.BatchableEntry> rows = new ArrayList<>();
+        for (Consumer.QueueEntry entry : schema.encode(conn, List.of(entries))) {
+            rows.add((Consumer.BatchableEntry) entry);
+        }
+        BatchWriter.write(conn, rows, false);
+    }
+
+    private static Consumer.BlockLogEntry block(long time, String user, int x, int y, int z) {
+        return new Consumer.BlockLogEntry(time, user, "minecraft:overworld", x, y, z, "minecraft:stone",
+                "minecraft:air", null, "minecraft:stone", null, 1);
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
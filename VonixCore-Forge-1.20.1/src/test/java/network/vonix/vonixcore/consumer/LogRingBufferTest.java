@@ -0,0 +1,81 @@
+package network.vonix.vonixcore.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogRingBuffer.
+ * Tests capacity bounds, FIFO order and concurrent producers.
+ */
+class LogRingBufferTest {
+
+    @Test
+    void testCapacityRoundsUpToPowerOfTwo() {
+        assertEquals(16, new LogRingBuffer<Integer>(10).capacity());
+        assertEquals(1024, new LogRingBuffer<Integer>(1024).capacity());
+    }
+
+    @Test
+    void testOfferFailsWhenFull() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(99));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void testFifoOrderAcrossWrapAround() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            buffer.offer(round * 2);
+            buffer.offer(round * 2 + 1);
+            assertEquals(next++, buffer.poll());
+            assertEquals(next++, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws InterruptedException {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(1 << 16);
+        int producers = 4;
+        int perProducer = 10_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (!buffer.offer(base + i)) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        Set<Integer> seen = new HashSet<>();
+        Integer value;
+        while ((value = buffer.poll()) != null) {
+            assertTrue(seen.add(value));
+        }
+        assertEquals(0, rejected.get());
+        assertEquals(producers * perProducer, seen.size());
+    }
+}
@@ -0,0 +1,145 @@
+package network.vonix.vonixcore.consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpillFile.
+ * Tests the append/read round-trip, recovery after a restart, torn and
+ * corrupt records, and replay progress.
+ */
+class SpillFileTest {
+
+    private static final String[] COLUMNS = { "time", "user", "x", "amount", "note" };
+
+    @TempDir
+    File folder;
+
+    @Test
+    void testRoundTripKeepsTypesAndOrder() throws IOException {
+        String longText = "x".repeat(70_000);
+        SpillFile spill = new SpillFile(folder, 1024 * 1024);
+        spill.append(row(1L, "alice", 10, 1.5, null));
+        spill.append(row(2L, "bob", -3, 0.0, longText));
+
+        List<File> segments = spill.sealedSegments();
+        assertEquals(1, segments.size());
+        assertEquals(2, spill.getPendingRows());
+
+        List<Consumer.RowEntry> rows = spill.read(segments.get(0)).rows();
+        assertEquals(2, rows.size());
+        assertEquals("vp_test", rows.get(0).getTable());
+        assertArrayEquals(COLUMNS, rows.get(0).getColumns());
+        assertArrayEquals(new Object[] { 1L, "alice", 10, 1.5, null }, rows.get(0).getValues());
+        assertArrayEquals(new Object[] { 2L, "bob", -3, 0.0, longText }, rows.get(1).getValues());
+
+        spill.delete(segments.get(0));
+        assertEquals(0, spill.getPendingRows());
+        assertTrue(spill.sealedSegments().isEmpty());
+    }
+
+    @Test
+    void testSegmentsRotateAndSurviveRestart() throws IOException {
+        SpillFile spill = new SpillFile(folder, 64);
+        for (long i = 0; i < 5; i++) {
+            spill.append(row(i, "steve", (int) i, 0.0, "row"));
+        }
+        spill.close();
+
+        SpillFile reopened = new SpillFile(folder, 64);
+        assertEquals(5, reopened.getPendingRows());
+        List<File> segments = reopened.sealedSegments();
+        assertTrue(segments.size() > 1);
+
+        long expected = 0;
+        for (File segment : segments) {
+            for (Consumer.RowEntry entry : reopened.read(segment).rows()) {
+                assertEquals(expected++, entry.getValues()[0]);
+            }
+        }
+        assertEquals(5, expected);
+    }
+
+    @Test
+    void testTornFinalRecordIsIgnored() throws IOException {
+        SpillFile spill = new SpillFile(folder, 1024 * 1024);
+        spill.append(row(1L, "alice", 1, 1.0, "kept"));
+        spill.append(row(2L, "bob", 2, 2.0, "kept"));
+        File segment = spill.sealedSegments().get(0);
+
+        // A crash mid-write leaves a length prefix and only part of the payload
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            out.write(new byte[] { 0, 0, 0, 40, 1, 2, 3, 4, 5, 6 });
+        }
+
+        SpillFile reopened = new SpillFile(folder, 1024 * 1024);
+        assertEquals(2, reopened.getPendingRows());
+        SpillFile.Contents contents = reopened.read(segment);
+        assertFalse(contents.corrupt());
+        assertEquals(2, contents.rows().size());
+        assertEquals("bob", contents.rows().get(1).getValues()[1]);
+    }
+
+    @Test
+    void testCorruptRecordKeepsTheSegment() throws IOException {
+        SpillFile spill = new SpillFile(folder, 1024 * 1024);
+        spill.append(row(1L, "alice", 1, 1.0, "first"));
+        spill.append(row(2L, "bob", 2, 2.0, "middle"));
+        spill.append(row(3L, "carol", 3, 3.0, "last"));
+        File segment = spill.sealedSegments().get(0);
+
+        // Damage the payload of the middle record
+        byte[] bytes = Files.readAllBytes(segment.toPath());
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        bytes[text.indexOf("middle")] = 'x';
+        Files.write(segment.toPath(), bytes);
+
+        SpillFile reopened = new SpillFile(folder, 1024 * 1024);
+        assertEquals(1, reopened.getPendingRows());
+        SpillFile.Contents contents = reopened.read(segment);
+        assertTrue(contents.corrupt());
+        assertEquals(1, contents.rows().size());
+        assertEquals("alice", contents.rows().get(0).getValues()[1]);
+
+        reopened.replayed(segment, 1);
+        reopened.quarantine(segment);
+        assertEquals(0, reopened.getPendingRows());
+        assertTrue(reopened.sealedSegments().isEmpty());
+        assertTrue(new File(folder, segment.getName() + ".corrupt").exists());
+    }
+
+    @Test
+    void testReplayProgressSurvivesRestart() throws IOException {
+        SpillFile spill = new SpillFile(folder, 1024 * 1024);
+        for (long i = 0; i < 5; i++) {
+            spill.append(row(i, "steve", (int) i, 0.0, "row"));
+        }
+        File segment = spill.sealedSegments().get(0);
+        spill.replayed(segment, 3);
+        assertEquals(2, spill.getPendingRows());
+
+        SpillFile reopened = new SpillFile(folder, 1024 * 1024);
+        assertEquals(2, reopened.getPendingRows());
+        List<Consumer.RowEntry> rows = reopened.read(segment).rows();
+        assertEquals(2, rows.size());
+        assertEquals(3L, rows.get(0).getValues()[0]);
+
+        reopened.replayed(segment, 2);
+        reopened.delete(segment);
+        assertEquals(0, reopened.getPendingRows());
+        assertEquals(0, folder.listFiles().length);
+    }
+
+    private static Consumer.RowEntry row(long time, String user, int x, double amount, String note) {
+        return new Consumer.RowEntry("vp_test", COLUMNS, new Object[] { time, user, x, amount, note });
+    }
+}
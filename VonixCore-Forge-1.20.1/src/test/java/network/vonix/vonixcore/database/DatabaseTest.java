@@ -0,0 +1,53 @@
+package network.vonix.vonixcore.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for Database.
+ * Tests the per-dialect upsert and change log id column SQL.
+ */
+@ExtendWith(MockitoExtension.class)
+class DatabaseTest {
+
+    @Mock
+    private Database mockDatabase;
+
+    @Test
+    void testUpsertSqlMySql() {
+        when(mockDatabase.isMySQL()).thenReturn(true);
+
+        assertEquals("INSERT INTO vc_kits (uuid, kit, last_used, uses) VALUES (?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE last_used = VALUES(last_used), uses = VALUES(uses)",
+                Database.upsertSql(mockDatabase, "vc_kits", 2, "uuid", "kit", "last_used", "uses"));
+    }
+
+    @Test
+    void testUpsertSqlPostgreSql() {
+        when(mockDatabase.isPostgreSQL()).thenReturn(true);
+
+        assertEquals("INSERT INTO vc_kits (uuid, kit, last_used, uses) VALUES (?, ?, ?, ?) "
+                + "ON CONFLICT (uuid, kit) DO UPDATE SET last_used = EXCLUDED.last_used, uses = EXCLUDED.uses",
+                Database.upsertSql(mockDatabase, "vc_kits", 2, "uuid", "kit", "last_used", "uses"));
+    }
+
+    @Test
+    void testUpsertSqlSQLite() {
+        assertEquals("INSERT OR REPLACE INTO vc_economy (uuid, balance) VALUES (?, ?)",
+                Database.upsertSql(mockDatabase, "vc_economy", 1, "uuid", "balance"));
+    }
+
+    @Test
+    void testIdColumnSql() {
+        assertEquals("id INTEGER PRIMARY KEY AUTOINCREMENT", Database.idColumnSql(mockDatabase));
+        when(mockDatabase.isPostgreSQL()).thenReturn(true);
+        assertEquals("id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY", Database.idColumnSql(mockDatabase));
+        when(mockDatabase.isMySQL()).thenReturn(true);
+        assertEquals("id BIGINT AUTO_INCREMENT PRIMARY KEY", Database.idColumnSql(mockDatabase));
+    }
+}
@@ -0,0 +1,94 @@
+package network.vonix.vonixcore.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BalanceLeaderboard.
+ * Tests ranking, paging and incremental updates against a sorted reference.
+ */
+class BalanceLeaderboardTest {
+
+    @Test
+    void testRankAndPageOrder() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        UUID rich = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        UUID poor = UUID.randomUUID();
+        leaderboard.update(poor, 100);
+        leaderboard.update(rich, 10000);
+        leaderboard.update(middle, 5000);
+
+        assertEquals(1, leaderboard.rank(rich));
+        assertEquals(2, leaderboard.rank(middle));
+        assertEquals(3, leaderboard.rank(poor));
+
+        List<EconomyManager.BalanceEntry> page = leaderboard.page(1, 10);
+        assertEquals(2, page.size());
+        assertEquals(middle, page.get(0).uuid());
+        assertEquals(50.0, page.get(0).balance(), 0.0001);
+    }
+
+    @Test
+    void testUpdateMovesAccount() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        leaderboard.update(a, 100);
+        leaderboard.update(b, 200);
+        leaderboard.update(a, 300);
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(1, leaderboard.rank(a));
+        assertEquals(2, leaderboard.rank(b));
+    }
+
+    @Test
+    void testSeedDoesNotOverrideNewerBalance() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        UUID a = UUID.randomUUID();
+        leaderboard.update(a, 500);
+        leaderboard.seed(a, 100);
+
+        assertEquals(5.0, leaderboard.page(0, 1).get(0).balance(), 0.0001);
+    }
+
+    @Test
+    void testMatchesSortedReference() {
+        Random random = new Random(42);
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        Map<UUID, Long> reference = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        for (int i = 0; i < 20000; i++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            long cents = random.nextInt(1000);
+            leaderboard.update(id, cents);
+            reference.put(id, cents);
+        }
+
+        List<UUID> sorted = new ArrayList<>(reference.keySet());
+        sorted.sort((x, y) -> reference.get(x).equals(reference.get(y))
+                ? x.compareTo(y)
+                : Long.compare(reference.get(y), reference.get(x)));
+
+        assertEquals(sorted.size(), leaderboard.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, leaderboard.rank(sorted.get(i)));
+        }
+        List<EconomyManager.BalanceEntry> page = leaderboard.page(95, 10);
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals(sorted.get(95 + i), page.get(i).uuid());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package network.vonix.vonixcore.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BalanceLedger.
+ * Tests that transfers are atomic and never lose or create money under
+ * concurrency.
+ */
+class BalanceLedgerTest {
+
+    @Test
+    void testMoveDebitsAndCredits() {
+        BalanceLedger.Account from = new BalanceLedger.Account(1000);
+        BalanceLedger.Account to = new BalanceLedger.Account(0);
+
+        assertEquals(EconomyManager.TransferResult.SUCCESS,
+                BalanceLedger.move(UUID.randomUUID(), from, UUID.randomUUID(), to, 250, () -> {
+                }));
+        assertEquals(750, from.cents);
+        assertEquals(250, to.cents);
+    }
+
+    @Test
+    void testMoveRejectsInsufficientFunds() {
+        BalanceLedger.Account from = new BalanceLedger.Account(100);
+        BalanceLedger.Account to = new BalanceLedger.Account(0);
+
+        assertEquals(EconomyManager.TransferResult.INSUFFICIENT_FUNDS,
+                BalanceLedger.move(UUID.randomUUID(), from, UUID.randomUUID(), to, 101, () -> {
+                }));
+        assertEquals(100, from.cents);
+        assertEquals(0, to.cents);
+    }
+
+    @Test
+    void testMoveWithFeeDebitsFeeOnTop() {
+        BalanceLedger.Account from = new BalanceLedger.Account(1000);
+        BalanceLedger.Account to = new BalanceLedger.Account(0);
+
+        assertEquals(EconomyManager.TransferResult.SUCCESS,
+                BalanceLedger.move(UUID.randomUUID(), from, UUID.randomUUID(), to, 250, 25, () -> {
+                }));
+        assertEquals(725, from.cents);
+        assertEquals(250, to.cents);
+    }
+
+    @Test
+    void testMoveWithFeeRejectsWhenFeeIsNotCovered() {
+        BalanceLedger.Account from = new BalanceLedger.Account(260);
+        BalanceLedger.Account to = new BalanceLedger.Account(0);
+
+        assertEquals(EconomyManager.TransferResult.INSUFFICIENT_FUNDS,
+                BalanceLedger.move(UUID.randomUUID(), from, UUID.randomUUID(), to, 250, 25, () -> {
+                }));
+        assertEquals(260, from.cents);
+        assertEquals(0, to.cents);
+    }
+
+    @Test
+    void testMoveOnEvictedAccountAsksForReload() {
+        BalanceLedger.Account from = new BalanceLedger.Account(100);
+        BalanceLedger.Account to = new BalanceLedger.Account(0);
+        to.evicted = true;
+
+        assertNull(BalanceLedger.move(UUID.randomUUID(), from, UUID.randomUUID(), to, 10, () -> {
+        }));
+        assertEquals(100, from.cents);
+    }
+
+    @Test
+    void testConcurrentTransfersConserveMoney() throws InterruptedException {
+        int accountCount = 8;
+        int threads = 16;
+        int transfersPerThread = 20000;
+        List<UUID> ids = new ArrayList<>();
+        List<BalanceLedger.Account> accounts = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            ids.add(UUID.randomUUID());
+            accounts.add(new BalanceLedger.Account(10000));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    int a = random.nextInt(accountCount);
+                    int b = (a + 1 + random.nextInt(accountCount - 1)) % accountCount;
+                    BalanceLedger.move(ids.get(a), accounts.get(a), ids.get(b), accounts.get(b),
+                            1 + random.nextInt(500), () -> {
+                            });
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        long total = 0;
+        for (BalanceLedger.Account account : accounts) {
+            assertTrue(account.cents >= 0);
+            total += account.cents;
+        }
+        assertEquals(10000L * accountCount, total);
+    }
+}
@@ -0,0 +1,64 @@
+package network.vonix.vonixcore.economy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChestShopIndex.
+ * Tests lookups by block and chunk, including negative coordinates, updates
+ * and removal of emptied chunks.
+ */
+class ChestShopIndexTest {
+
+    private static ShopManager.ChestShop shop(int stock) {
+        return new ShopManager.ChestShop(UUID.randomUUID(), "minecraft:diamond", 10.0, null, stock);
+    }
+
+    @Test
+    void testLookupByBlock() {
+        ChestShopIndex index = new ChestShopIndex();
+        ShopManager.ChestShop shop = shop(5);
+        index.put("minecraft:overworld", -17, 64, 33, shop);
+
+        assertSame(shop, index.get("minecraft:overworld", -17, 64, 33));
+        assertNull(index.get("minecraft:overworld", -17, 65, 33));
+        assertNull(index.get("minecraft:overworld", 17, 64, 33));
+        assertNull(index.get("minecraft:the_nether", -17, 64, 33));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testChunkContents() {
+        ChestShopIndex index = new ChestShopIndex();
+        index.put("minecraft:overworld", -1, 70, -1, shop(1));
+        index.put("minecraft:overworld", -16, -60, -16, shop(2));
+        index.put("minecraft:overworld", 0, 70, 0, shop(3));
+
+        assertEquals(2, index.inChunk("minecraft:overworld", -1, -1).size());
+        assertEquals(1, index.inChunk("minecraft:overworld", 0, 0).size());
+        assertTrue(index.inChunk("minecraft:overworld", 1, 0).isEmpty());
+        assertTrue(index.inChunk("minecraft:the_end", 0, 0).isEmpty());
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        ChestShopIndex index = new ChestShopIndex();
+        index.put("minecraft:overworld", 5, 64, 5, shop(3));
+
+        ShopManager.ChestShop updated = index.update("minecraft:overworld", 5, 64, 5,
+                old -> new ShopManager.ChestShop(old.owner(), old.itemId(), old.buyPrice(), old.sellPrice(),
+                        old.stock() + 2));
+        assertEquals(5, updated.stock());
+        assertEquals(5, index.get("minecraft:overworld", 5, 64, 5).stock());
+        assertNull(index.update("minecraft:overworld", 6, 64, 5, old -> old));
+
+        assertSame(updated, index.remove("minecraft:overworld", 5, 64, 5));
+        assertNull(index.remove("minecraft:overworld", 5, 64, 5));
+        assertNull(index.get("minecraft:overworld", 5, 64, 5));
+        assertTrue(index.inChunk("minecraft:overworld", 0, 0).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,93 @@
+package network.vonix.vonixcore.economy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LedgerJournal.
+ * Tests replay after a crash, segment rotation and torn records.
+ */
+class LedgerJournalTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    void testReplayKeepsLastBalancePerAccount() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        LedgerJournal journal = new LedgerJournal(folder);
+        journal.append(a, 100);
+        journal.append(b, 50);
+        journal.rotate();
+        journal.append(a, 250);
+        journal.close();
+
+        Map<UUID, Long> replayed = new LedgerJournal(folder).replay();
+
+        assertEquals(2, replayed.size());
+        assertEquals(250L, replayed.get(a));
+        assertEquals(50L, replayed.get(b));
+    }
+
+    @Test
+    void testBatchedRecordsReplayInOrder() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        LedgerJournal journal = new LedgerJournal(folder);
+        journal.appendAll(List.of(LedgerJournal.record(a, 10), LedgerJournal.record(a, 20, b, 5),
+                LedgerJournal.record(b, 7)));
+        journal.rotate();
+        journal.close();
+
+        Map<UUID, Long> replayed = new LedgerJournal(folder).replay();
+
+        assertEquals(20L, replayed.get(a));
+        assertEquals(7L, replayed.get(b));
+    }
+
+    @Test
+    void testDeleteBeforeDropsFlushedSegments() throws IOException {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        LedgerJournal journal = new LedgerJournal(folder);
+        journal.append(a, 100);
+        long segment = journal.rotate();
+        journal.append(b, 75);
+        journal.deleteBefore(segment);
+        journal.close();
+
+        Map<UUID, Long> replayed = new LedgerJournal(folder).replay();
+
+        assertEquals(1, replayed.size());
+        assertEquals(75L, replayed.get(b));
+    }
+
+    @Test
+    void testTornRecordIsIgnored() throws IOException {
+        UUID a = UUID.randomUUID();
+        LedgerJournal journal = new LedgerJournal(folder);
+        journal.append(a, 42);
+        journal.close();
+
+        File[] segments = folder.listFiles();
+        assertNotNull(segments);
+        try (FileOutputStream out = new FileOutputStream(segments[0], true)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        Map<UUID, Long> replayed = new LedgerJournal(folder).replay();
+
+        assertEquals(1, replayed.size());
+        assertEquals(42L, replayed.get(a));
+    }
+}
@@ -0,0 +1,132 @@
+package network.vonix.vonixcore.homes;
+
+import network.vonix.vonixcore.database.Database;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HomeManager.
+ * Tests that online players are served from memory and that unwritten changes
+ * overlay the stored rows on a reload, against a SQLite database.
+ */
+@ExtendWith(MockitoExtension.class)
+class HomeManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    private Database mockDatabase;
+
+    private String url;
+    private HomeManager manager;
+    private final UUID player = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        url = "jdbc:sqlite:" + dir.resolve("homes.db");
+        lenient().when(mockDatabase.getConnection()).thenAnswer(invocation -> DriverManager.getConnection(url));
+        manager = new HomeManager(() -> mockDatabase);
+        try (Connection conn = DriverManager.getConnection(url)) {
+            manager.initializeTable(conn);
+        }
+        insert("base", 1);
+        insert("mine", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void testOnlinePlayerIsServedFromMemory() throws Exception {
+        manager.start();
+        manager.loadHomesAsync(player);
+        assertEquals(2, manager.getHomes(player).get(5, TimeUnit.SECONDS).size());
+
+        execute("DELETE FROM vc_homes");
+
+        assertNotNull(manager.getHome(player, "BASE").get(5, TimeUnit.SECONDS));
+        assertEquals(2, manager.getHomeCount(player).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testPendingChangesOverlayStoredRows() throws Exception {
+        assertTrue(manager.setHome(player, home("farm", 3), 5).get(5, TimeUnit.SECONDS));
+        assertTrue(manager.setHome(player, home("base", 10), 5).get(5, TimeUnit.SECONDS));
+        assertTrue(manager.deleteHome(player, "mine").get(5, TimeUnit.SECONDS));
+
+        // Nothing was written yet, a reload still sees the changes
+        assertEquals(2, count());
+        List<HomeManager.Home> homes = manager.getHomes(player).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("base", "farm"), homes.stream().map(HomeManager.Home::name).toList());
+        assertEquals(10, homes.get(0).x());
+    }
+
+    @Test
+    void testShutdownWritesPendingChanges() throws Exception {
+        manager.setHome(player, home("farm", 3), 5).get(5, TimeUnit.SECONDS);
+        manager.deleteHome(player, "mine").get(5, TimeUnit.SECONDS);
+
+        manager.shutdown();
+
+        assertEquals(2, count());
+        assertEquals(List.of("base", "farm"), manager.getHomes(player).get(5, TimeUnit.SECONDS).stream()
+                .map(HomeManager.Home::name).toList());
+    }
+
+    @Test
+    void testHomeLimit() throws Exception {
+        assertFalse(manager.setHome(player, home("farm", 3), 2).get(5, TimeUnit.SECONDS));
+        // Moving an existing home does not count against the limit
+        assertTrue(manager.setHome(player, home("mine", 3), 2).get(5, TimeUnit.SECONDS));
+    }
+
+    private static HomeManager.Home home(String name, double x) {
+        return new HomeManager.Home(name, "minecraft:overworld", x, 64, 0, 0, 0);
+    }
+
+    private void insert(String name, double x) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+                PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO vc_homes (uuid, name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, 64, 0, 0, 0)")) {
+            stmt.setString(1, player.toString());
+            stmt.setString(2, name);
+            stmt.setString(3, "minecraft:overworld");
+            stmt.setDouble(4, x);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url)) {
+            conn.createStatement().execute(sql);
+        }
+    }
+
+    private int count() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+                ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM vc_homes")) {
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package network.vonix.vonixcore.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JobPayouts.
+ * Tests that earnings add up per player and job, and that draining a player
+ * removes exactly their earnings.
+ */
+class JobPayoutsTest {
+
+    @Test
+    void testEarningsAddUp() {
+        JobPayouts payouts = new JobPayouts();
+        UUID player = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            payouts.add(player, "miner", 0.5, 1.0, 0.5);
+        }
+        payouts.add(player, "builder", -2.0, 0, -2.0);
+
+        Map<String, JobPayouts.Payout> earned = payouts.drain(player);
+        assertEquals(2, earned.size());
+        JobPayouts.Payout miner = earned.get("miner");
+        assertEquals(50.0, miner.income, 1e-9);
+        assertEquals(100.0, miner.experience, 1e-9);
+        assertEquals(50.0, miner.points, 1e-9);
+        assertEquals(100, miner.actions);
+        assertEquals(-2.0, earned.get("builder").income, 1e-9);
+
+        assertNull(payouts.drain(player));
+        assertTrue(payouts.isEmpty());
+    }
+
+    @Test
+    void testPlayersAreSeparate() {
+        JobPayouts payouts = new JobPayouts();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        payouts.add(first, "miner", 1.0, 1.0, 1.0);
+        payouts.add(second, "hunter", 3.0, 5.0, 3.0);
+
+        assertEquals(2, payouts.players().size());
+        assertEquals(3.0, payouts.drain(second).get("hunter").income, 1e-9);
+        assertEquals(List.of(first), payouts.players());
+    }
+}
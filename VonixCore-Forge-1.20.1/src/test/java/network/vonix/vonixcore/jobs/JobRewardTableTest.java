@@ -0,0 +1,90 @@
+package network.vonix.vonixcore.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JobRewardTable.
+ * Tests that configured targets resolve to registry objects, that lookups
+ * fall back to the "*" reward, and the per-level multipliers.
+ */
+class JobRewardTableTest {
+
+    // Stand-ins for registry objects, looked up by identity
+    private static final Object STONE = new Object();
+    private static final Object DIRT = new Object();
+    private static final Object ZOMBIE = new Object();
+
+    private static final Map<String, Object> REGISTRY = Map.of(
+            "minecraft:stone", STONE, "minecraft:dirt", DIRT, "minecraft:zombie", ZOMBIE);
+
+    private static final JobRewardTable.TargetResolver RESOLVER = (action, target) -> REGISTRY.get(target);
+
+    @Test
+    void testRewardsResolveToRegistryObjects() {
+        Job miner = new Job("miner");
+        miner.addReward(Job.ActionType.BREAK, "minecraft:stone", 1.0, 2.0);
+        miner.addReward(Job.ActionType.BREAK, "minecraft:unknown", 5.0, 5.0);
+        Job hunter = new Job("hunter");
+        hunter.addReward(Job.ActionType.KILL, "minecraft:zombie", 3.0, 4.0);
+        hunter.addReward(Job.ActionType.BREAK, "minecraft:stone", 0.5, 0.5);
+
+        JobRewardTable table = JobRewardTable.compile(List.of(miner, hunter), 1.0, 1.0, RESOLVER);
+        int minerIndex = table.indexOf("miner");
+        int hunterIndex = table.indexOf("hunter");
+
+        assertSame(miner, table.job(minerIndex));
+        assertEquals(-1, table.indexOf("farmer"));
+        assertEquals(1.0, table.reward(minerIndex, Job.ActionType.BREAK, STONE).income);
+        assertEquals(0.5, table.reward(hunterIndex, Job.ActionType.BREAK, STONE).income);
+        assertEquals(3.0, table.reward(hunterIndex, Job.ActionType.KILL, ZOMBIE).income);
+        assertNull(table.reward(minerIndex, Job.ActionType.KILL, ZOMBIE));
+        assertNull(table.reward(minerIndex, Job.ActionType.BREAK, DIRT));
+        // Looked up by identity, not by an equal name
+        assertNull(table.reward(minerIndex, Job.ActionType.BREAK, "minecraft:stone"));
+        assertEquals(1, table.unresolvedCount());
+    }
+
+    @Test
+    void testWildcardIsTheFallback() {
+        Job builder = new Job("builder");
+        builder.addReward(Job.ActionType.PLACE, "*", 0.1, 0.2);
+        builder.addReward(Job.ActionType.PLACE, "minecraft:stone", 1.0, 1.0);
+
+        JobRewardTable table = JobRewardTable.compile(List.of(builder), 1.0, 1.0, RESOLVER);
+
+        assertEquals(1.0, table.reward(0, Job.ActionType.PLACE, STONE).income);
+        assertEquals(0.1, table.reward(0, Job.ActionType.PLACE, DIRT).income);
+        assertEquals(0.1, table.reward(0, Job.ActionType.PLACE, new Object()).income);
+        assertNull(table.reward(0, Job.ActionType.BREAK, STONE));
+        assertEquals(0, table.unresolvedCount());
+    }
+
+    @Test
+    void testMultipliers() {
+        Job miner = new Job("miner");
+        miner.setMaxLevel(10);
+        miner.setBaseIncomeMultiplier(1.5);
+
+        JobRewardTable table = JobRewardTable.compile(List.of(miner), 2.0, 3.0, RESOLVER);
+
+        // (base + 2% per level above 1) * global
+        assertEquals(3.0, table.incomeMultiplier(0, 1), 1e-9);
+        assertEquals((1.5 + 0.18) * 2.0, table.incomeMultiplier(0, 10), 1e-9);
+        // (base + 1% per level above 1) * global
+        assertEquals((1.0 + 0.04) * 3.0, table.expMultiplier(0, 5), 1e-9);
+        // Levels outside 1..max use the nearest one
+        assertEquals(table.incomeMultiplier(0, 1), table.incomeMultiplier(0, 0), 1e-9);
+        assertEquals(table.incomeMultiplier(0, 10), table.incomeMultiplier(0, 50), 1e-9);
+    }
+
+    @Test
+    void testEmptyTable() {
+        assertEquals(-1, JobRewardTable.EMPTY.indexOf("miner"));
+        assertEquals(0, JobRewardTable.EMPTY.unresolvedCount());
+    }
+}
@@ -0,0 +1,81 @@
+package network.vonix.vonixcore.jobs;
+
+import network.vonix.vonixcore.economy.EconomyManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JobsManager.
+ * Tests that settling pays a player's earnings across all jobs in a single
+ * deposit or withdrawal.
+ */
+@ExtendWith(MockitoExtension.class)
+class JobsManagerTest {
+
+    @Mock
+    private EconomyManager mockEconomy;
+
+    private MockedStatic<EconomyManager> economy;
+    private final UUID player = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        economy = mockStatic(EconomyManager.class);
+        economy.when(EconomyManager::getInstance).thenReturn(mockEconomy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        economy.close();
+    }
+
+    @Test
+    void testSettleDepositsOncePerInterval() {
+        JobsManager jobs = new JobsManager();
+        for (int i = 0; i < 10; i++) {
+            jobs.payouts.add(player, "miner", 1.5, 2.0, 1.5);
+        }
+        jobs.payouts.add(player, "builder", 2.0, 1.0, 2.0);
+
+        jobs.settle(player, null);
+        // Nothing earned since
+        jobs.settle(player, null);
+
+        verify(mockEconomy).deposit(player, 17.0);
+        verifyNoMoreInteractions(mockEconomy);
+    }
+
+    @Test
+    void testSettleNetsLossesAgainstIncome() {
+        JobsManager jobs = new JobsManager();
+        jobs.payouts.add(player, "miner", 1.0, 0, 1.0);
+        jobs.payouts.add(player, "builder", -3.5, 0, -3.5);
+
+        jobs.settle(player, null);
+
+        verify(mockEconomy).withdraw(player, 2.5);
+        verifyNoMoreInteractions(mockEconomy);
+    }
+
+    @Test
+    void testSettleOnlyPaysThatPlayer() {
+        JobsManager jobs = new JobsManager();
+        UUID other = UUID.randomUUID();
+        jobs.payouts.add(player, "miner", 1.0, 0, 1.0);
+        jobs.payouts.add(other, "miner", 4.0, 0, 4.0);
+
+        jobs.settle(player, null);
+
+        verify(mockEconomy).deposit(player, 1.0);
+        verifyNoMoreInteractions(mockEconomy);
+    }
+}
@@ -0,0 +1,51 @@
+package network.vonix.vonixcore.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PlayerJob.
+ * Tests that experience carries over through as many level ups as it covers
+ * and stops at the job's maximum level.
+ */
+class PlayerJobTest {
+
+    @Test
+    void testSingleLevelUp() {
+        Job job = new Job("miner");
+        PlayerJob pJob = new PlayerJob(UUID.randomUUID(), "miner");
+
+        // Level 1 needs 110
+        assertFalse(pJob.addExperience(100, job));
+        assertTrue(pJob.addExperience(20, job));
+        assertEquals(2, pJob.getLevel());
+        assertEquals(10, pJob.getExperience(), 1e-9);
+    }
+
+    @Test
+    void testSeveralLevelUpsAtOnce() {
+        Job job = new Job("miner");
+        PlayerJob pJob = new PlayerJob(UUID.randomUUID(), "miner");
+
+        // 110 + 240 + 390 to reach level 4, 5 left over
+        assertTrue(pJob.addExperience(745, job));
+        assertEquals(4, pJob.getLevel());
+        assertEquals(5, pJob.getExperience(), 1e-9);
+    }
+
+    @Test
+    void testStopsAtMaxLevel() {
+        Job job = new Job("miner");
+        job.setMaxLevel(3);
+        PlayerJob pJob = new PlayerJob(UUID.randomUUID(), "miner");
+
+        assertTrue(pJob.addExperience(100_000, job));
+        assertEquals(3, pJob.getLevel());
+        assertEquals(100_000 - 110 - 240, pJob.getExperience(), 1e-9);
+        assertFalse(pJob.addExperience(1_000, job));
+        assertEquals(3, pJob.getLevel());
+    }
+}
@@ -0,0 +1,69 @@
+package network.vonix.vonixcore.kits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KitCooldowns.
+ * Tests cooldown expiry, one-time kits, and that concurrent claims of one kit
+ * succeed exactly once.
+ */
+class KitCooldownsTest {
+
+    private static final KitManager.Kit HOURLY = new KitManager.Kit("starter", List.of(), 3600, false);
+    private static final KitManager.Kit ONCE = new KitManager.Kit("welcome", List.of(), 0, true);
+
+    @Test
+    void testCooldown() {
+        KitCooldowns cooldowns = new KitCooldowns();
+
+        assertEquals(KitManager.KitResult.SUCCESS, cooldowns.claim("starter", HOURLY, 1000));
+        assertEquals(1000, cooldowns.lastUsed("starter"));
+        assertEquals(KitManager.KitResult.ON_COOLDOWN, cooldowns.claim("starter", HOURLY, 4599));
+        assertEquals(1, cooldowns.remaining("starter", HOURLY, 4599));
+        assertEquals(1000, cooldowns.lastUsed("starter"));
+
+        assertEquals(KitManager.KitResult.SUCCESS, cooldowns.claim("starter", HOURLY, 4600));
+        assertEquals(0, cooldowns.remaining("starter", HOURLY, 9000));
+    }
+
+    @Test
+    void testOneTime() {
+        KitCooldowns cooldowns = new KitCooldowns();
+        cooldowns.set("starter", 500);
+
+        assertEquals(KitManager.KitResult.SUCCESS, cooldowns.claim("welcome", ONCE, 1000));
+        assertEquals(KitManager.KitResult.ALREADY_CLAIMED, cooldowns.claim("welcome", ONCE, 100000));
+        assertEquals(500, cooldowns.lastUsed("starter"));
+        assertEquals(0, cooldowns.lastUsed("tools"));
+    }
+
+    @Test
+    void testConcurrentClaimsSucceedOnce() throws Exception {
+        KitCooldowns cooldowns = new KitCooldowns();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<KitManager.KitResult>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(pool.submit(() -> cooldowns.claim("starter", HOURLY, 1000)));
+            }
+            int claimed = 0;
+            for (Future<KitManager.KitResult> result : results) {
+                if (result.get(5, TimeUnit.SECONDS) == KitManager.KitResult.SUCCESS) {
+                    claimed++;
+                }
+            }
+            assertEquals(1, claimed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
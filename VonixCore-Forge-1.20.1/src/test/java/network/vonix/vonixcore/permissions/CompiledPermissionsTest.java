@@ -0,0 +1,169 @@
+package network.vonix.vonixcore.permissions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompiledPermissions.
+ * Tests wildcard, negation and inheritance resolution against a direct walk
+ * over the user and group maps, and staleness after edits.
+ */
+class CompiledPermissionsTest {
+
+    private static final String[] SEGMENTS = { "vonixcore", "home", "set", "warp", "admin", "*" };
+
+    @Test
+    void testMatchesDirectResolution() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            Map<String, PermissionGroup> groups = new HashMap<>();
+            for (int i = 0; i < 4; i++) {
+                PermissionGroup group = new PermissionGroup("g" + i);
+                group.setWeight(random.nextInt(3));
+                if (i > 0 && random.nextBoolean()) {
+                    group.setParent("g" + random.nextInt(i));
+                }
+                for (int p = 0; p < 6; p++) {
+                    group.setPermission(randomNode(random), random.nextBoolean());
+                }
+                groups.put(group.getName(), group);
+            }
+            PermissionUser user = new PermissionUser(UUID.randomUUID());
+            user.setPrimaryGroup("g" + random.nextInt(4));
+            user.addGroup("g" + random.nextInt(4));
+            for (int p = 0; p < 3; p++) {
+                user.setPermission(randomNode(random), random.nextBoolean());
+            }
+
+            List<PermissionGroup> ordered = userGroups(user, groups);
+            CompiledPermissions compiled = CompiledPermissions.compile(user, ordered, groups, 0);
+            for (int q = 0; q < 50; q++) {
+                String node = randomNode(random).replace(".*", "");
+                assertEquals(resolve(user, ordered, groups, node), compiled.hasPermission(node), node);
+                assertEquals(resolve(user, ordered, groups, node.toUpperCase()),
+                        compiled.hasPermission(node.toUpperCase()), node);
+            }
+        }
+    }
+
+    @Test
+    void testNegationAndWildcards() {
+        PermissionGroup admin = new PermissionGroup("admin");
+        admin.setPermission("*", true);
+        PermissionGroup member = new PermissionGroup("member");
+        member.setPermission("vonixcore.home.*", true);
+        member.setPermission("vonixcore.home.admin", false);
+        Map<String, PermissionGroup> groups = Map.of("admin", admin, "member", member);
+
+        PermissionUser user = new PermissionUser(UUID.randomUUID());
+        user.setPrimaryGroup("member");
+        user.setPermission("vonixcore.warp", false);
+        CompiledPermissions compiled = CompiledPermissions.compile(user, List.of(member), groups, 0);
+
+        assertTrue(compiled.hasPermission("vonixcore.home.set"));
+        assertFalse(compiled.hasPermission("vonixcore.home.admin"));
+        assertFalse(compiled.hasPermission("vonixcore.warp"));
+        assertNull(compiled.getPermission("vonixcore.kit"));
+
+        member.setParent("admin");
+        compiled = CompiledPermissions.compile(user, List.of(member), groups, 0);
+        assertTrue(compiled.hasPermission("vonixcore.kit"));
+        assertFalse(compiled.hasPermission("vonixcore.home.admin"));
+        assertFalse(compiled.hasPermission("vonixcore.warp"));
+    }
+
+    @Test
+    void testParentCycleTerminates() {
+        PermissionGroup a = new PermissionGroup("a");
+        PermissionGroup b = new PermissionGroup("b");
+        a.setParent("b");
+        b.setParent("a");
+        b.setPermission("vonixcore.fly", true);
+        PermissionUser user = new PermissionUser(UUID.randomUUID());
+        user.setPrimaryGroup("a");
+
+        CompiledPermissions compiled = CompiledPermissions.compile(user, List.of(a), Map.of("a", a, "b", b), 0);
+        assertTrue(compiled.hasPermission("vonixcore.fly"));
+        assertFalse(compiled.hasPermission("vonixcore.god"));
+    }
+
+    @Test
+    void testStaleAfterEdits() {
+        PermissionGroup parent = new PermissionGroup("parent");
+        PermissionGroup group = new PermissionGroup("group");
+        group.setParent("parent");
+        Map<String, PermissionGroup> groups = Map.of("parent", parent, "group", group);
+        PermissionUser user = new PermissionUser(UUID.randomUUID());
+        user.setPrimaryGroup("group");
+
+        CompiledPermissions compiled = CompiledPermissions.compile(user, List.of(group), groups, 5);
+        assertTrue(compiled.isCurrent(user, 5));
+        assertFalse(compiled.isCurrent(user, 6));
+
+        parent.setPermission("vonixcore.fly", true);
+        assertFalse(compiled.isCurrent(user, 5));
+
+        compiled = CompiledPermissions.compile(user, List.of(group), groups, 5);
+        assertTrue(compiled.hasPermission("vonixcore.fly"));
+        user.setPermission("vonixcore.fly", false);
+        assertFalse(compiled.isCurrent(user, 5));
+    }
+
+    private static String randomNode(Random random) {
+        int depth = 1 + random.nextInt(3);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            if (i > 0)
+                sb.append('.');
+            sb.append(SEGMENTS[random.nextInt(SEGMENTS.length - (i == depth - 1 ? 0 : 1))]);
+        }
+        return sb.toString();
+    }
+
+    // Same ordering as PermissionManager.getUserGroups
+    private static List<PermissionGroup> userGroups(PermissionUser user, Map<String, PermissionGroup> groups) {
+        List<PermissionGroup> ordered = new ArrayList<>();
+        PermissionGroup primary = groups.get(user.getPrimaryGroup());
+        if (primary != null)
+            ordered.add(primary);
+        for (String name : user.getGroups()) {
+            PermissionGroup group = groups.get(name);
+            if (group != null && !ordered.contains(group))
+                ordered.add(group);
+        }
+        ordered.sort((a, b) -> Integer.compare(b.getWeight(), a.getWeight()));
+        return ordered;
+    }
+
+    // Uncompiled resolution: user, user "*", then each group and its parents
+    private static boolean resolve(PermissionUser user, List<PermissionGroup> ordered,
+            Map<String, PermissionGroup> groups, String node) {
+        Boolean userPerm = user.getPermission(node);
+        if (userPerm != null)
+            return userPerm;
+        if (user.hasPermission("*"))
+            return true;
+        for (PermissionGroup group : ordered) {
+            List<String> visited = new ArrayList<>();
+            PermissionGroup current = group;
+            while (current != null && !visited.contains(current.getName())) {
+                visited.add(current.getName());
+                Boolean perm = current.getPermission(node);
+                if (perm != null)
+                    return perm;
+                if (current.hasPermission("*"))
+                    return true;
+                current = current.getParent() != null ? groups.get(current.getParent()) : null;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,177 @@
+package network.vonix.vonixcore.protection;
+
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+import network.vonix.vonixcore.database.Database;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LogQuery.
+ * Tests that block filters select the same rows from the legacy and the
+ * compact half of the union.
+ */
+@ExtendWith(MockitoExtension.class)
+class LogQueryTest {
+
+    private static final String OVERWORLD = "minecraft:overworld";
+
+    @Mock
+    private Database mockDatabase;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(mockDatabase.isSQLite()).thenReturn(true);
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE vp_block (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, time BIGINT NOT NULL, user TEXT NOT NULL,
+                        world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL,
+                        chunk BIGINT, type TEXT NOT NULL, old_type TEXT, old_data TEXT, new_type TEXT,
+                        new_data TEXT, action INTEGER NOT NULL, rolled_back INTEGER DEFAULT 0)
+                    """);
+            stmt.execute("""
+                    CREATE TABLE vp_container (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, time BIGINT NOT NULL, user TEXT NOT NULL,
+                        world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL,
+                        type TEXT NOT NULL, item TEXT NOT NULL, amount INTEGER NOT NULL, action INTEGER NOT NULL,
+                        rolled_back INTEGER DEFAULT 0)
+                    """);
+            stmt.execute("""
+                    CREATE TABLE vp_user (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, uuid TEXT UNIQUE NOT NULL, username TEXT NOT NULL)
+                    """);
+            CompactLogSchema.createSchema(stmt, mockDatabase, "AUTOINCREMENT", "TEXT");
+            stmt.execute("INSERT INTO vp_user (uuid, username) VALUES ('u1', 'Steve'), ('u2', 'Alex')");
+            stmt.execute("INSERT INTO vp_world (name) VALUES ('" + OVERWORLD + "'), ('minecraft:the_nether')");
+            stmt.execute("INSERT INTO vp_material (name) VALUES ('minecraft:stone'), ('minecraft:dirt')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void testRadiusFilterMatchesBothHalves() throws SQLException {
+        legacy(10, "Steve", OVERWORLD, -3, 64, 2, "minecraft:stone");
+        legacy(11, "Steve", OVERWORLD, 9, 64, 2, "minecraft:stone");
+        compact(12, 1, 1, -5, 60, -4, 1);
+        compact(13, 1, 1, 6, 64, 0, 1);
+        compact(14, 1, 2, 0, 64, 0, 1);
+        compact(15, 1, 1, 0, 80, 0, 1);
+
+        List<Long> times = times(new LogQuery.BlockFilter(OVERWORLD).radius(0, 64, 0, 5));
+        assertEquals(List.of(10L, 12L), times);
+    }
+
+    @Test
+    void testUserBlockAndTimeFilters() throws SQLException {
+        legacy(10, "Steve", OVERWORLD, 0, 64, 0, "minecraft:stone");
+        legacy(11, "Alex", OVERWORLD, 0, 64, 0, "minecraft:stone");
+        legacy(12, "Steve", OVERWORLD, 0, 64, 0, "minecraft:dirt");
+        compact(13, 1, 1, 0, 64, 0, 1);
+        compact(14, 2, 1, 0, 64, 0, 1);
+        compact(15, 1, 1, 0, 64, 0, 2);
+        compact(5, 1, 1, 0, 64, 0, 1);
+
+        LogQuery.BlockFilter filter = new LogQuery.BlockFilter(OVERWORLD).since(10).user("Steve").block("stone");
+        assertEquals(List.of(10L, 13L), times(filter));
+    }
+
+    @Test
+    void testExactPositionAndUnknownNames() throws SQLException {
+        legacy(10, "Steve", OVERWORLD, 4, -10, -4, "minecraft:stone");
+        compact(11, 1, 1, 4, -10, -4, 1);
+        compact(12, 1, 1, 4, -11, -4, 1);
+
+        assertEquals(List.of(10L, 11L), times(new LogQuery.BlockFilter(OVERWORLD).at(4, -10, -4)));
+        assertEquals(List.of(), times(new LogQuery.BlockFilter(OVERWORLD).at(4, -10, -4).user("Nobody")));
+        assertEquals(List.of(), times(new LogQuery.BlockFilter("minecraft:the_end").at(4, -10, -4)));
+    }
+
+    @Test
+    void testRowsCarryCompactDiscriminator() throws SQLException {
+        legacy(10, "Steve", OVERWORLD, 0, 64, 0, "minecraft:stone");
+        compact(11, 1, 1, 0, 64, 0, 1);
+
+        List<Object> params = new ArrayList<>();
+        String sql = LogQuery.blockQuery(new LogQuery.BlockFilter(OVERWORLD), false, params) + "ORDER BY time";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            LogQuery.bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getLong("id"));
+                assertEquals(0, rs.getInt("compact"));
+                assertTrue(rs.next());
+                assertEquals(1, rs.getLong("id"));
+                assertEquals(1, rs.getInt("compact"));
+                assertEquals("Steve", rs.getString("user"));
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    private List<Long> times(LogQuery.BlockFilter filter) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = LogQuery.blockQuery(filter, false, params) + "ORDER BY time";
+        List<Long> times = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            LogQuery.bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    times.add(rs.getLong("time"));
+                }
+            }
+        }
+        return times;
+    }
+
+    private void legacy(long time, String user, String world, int x, int y, int z, String type) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO vp_block (time, user, world, x, y, z, type, "
+                + "old_type, new_type, action) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1)")) {
+            stmt.setLong(1, time);
+            stmt.setString(2, user);
+            stmt.setString(3, world);
+            stmt.setInt(4, x);
+            stmt.setInt(5, y);
+            stmt.setInt(6, z);
+            stmt.setString(7, type);
+            stmt.setString(8, "minecraft:air");
+            stmt.setString(9, type);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void compact(long time, int userId, int worldId, int x, int y, int z, int typeId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO vp_block_compact (time, user_id, world_id, "
+                + "pos, type_id, new_type_id, action) VALUES (?, ?, ?, ?, ?, ?, 1)")) {
+            stmt.setLong(1, time);
+            stmt.setInt(2, userId);
+            stmt.setInt(3, worldId);
+            stmt.setLong(4, CompactLogSchema.packPos(x, y, z));
+            stmt.setInt(5, typeId);
+            stmt.setInt(6, typeId);
+            stmt.executeUpdate();
+        }
+    }
+}
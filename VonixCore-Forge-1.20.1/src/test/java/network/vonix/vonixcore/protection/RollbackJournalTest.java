@@ -0,0 +1,246 @@
+package network.vonix.vonixcore.protection;
+
+import network.vonix.vonixcore.consumer.CompactLogSchema;
+import network.vonix.vonixcore.database.Database;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RollbackJournal.
+ * Tests collapsing row ids into journal ranges, that an undo reads back
+ * exactly the journaled rows of both block tables, that a task cancelled
+ * mid-window still journals the rows it applied, and which tasks hold back a
+ * migration of the legacy rows.
+ */
+class RollbackJournalTest {
+
+    private static final String WORLD = "minecraft:overworld";
+
+    @Test
+    void testEmptyIdsHaveNoRanges() {
+        assertTrue(RollbackJournal.toRanges(new long[0]).isEmpty());
+    }
+
+    @Test
+    void testConsecutiveIdsCollapse() {
+        List<long[]> ranges = RollbackJournal.toRanges(new long[] { 5, 6, 7, 8 });
+
+        assertEquals(1, ranges.size());
+        assertArrayEquals(new long[] { 5, 8 }, ranges.get(0));
+    }
+
+    @Test
+    void testGapsSplitRanges() {
+        List<long[]> ranges = RollbackJournal.toRanges(new long[] { 1, 2, 4, 10, 11, 11, 12 });
+
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new long[] { 1, 2 }, ranges.get(0));
+        assertArrayEquals(new long[] { 4, 4 }, ranges.get(1));
+        assertArrayEquals(new long[] { 10, 12 }, ranges.get(2));
+    }
+
+    @Test
+    void testUndoReadsExactlyTheJournaledRows() throws SQLException {
+        try (Connection conn = openLog()) {
+            // Ids 1..6 in both tables; row i was logged at time 100 + 10 * i
+            RollbackJournal.recordWindow(conn, window(change(false, 2), change(false, 3), change(false, 5),
+                    change(true, 1), change(true, 2), change(true, 6)), true, 42);
+            RollbackJournal.recordWindow(conn, window(change(false, 6), change(true, 4)), true, 43);
+
+            assertEquals(List.of(2L, 3L, 5L, 6L), rolledBack(conn, "vp_block"));
+            assertEquals(List.of(1L, 2L, 4L, 6L), rolledBack(conn, CompactLogSchema.BLOCK_TABLE));
+
+            RollbackTask undo = new RollbackTask(UUID.randomUUID(), WORLD, false, 0, 0, 0, 0, null, null, 0, 42);
+            assertEquals(List.of("1:1", "0:2", "1:2", "0:3", "0:5", "1:6"), read(conn, undo));
+        }
+    }
+
+    @Test
+    void testResumeKeepsRowsWithTheSameTimeAndId() throws SQLException {
+        try (Connection conn = openLog()) {
+            RollbackJournal.recordWindow(conn, window(change(false, 2), change(false, 3), change(true, 2),
+                    change(true, 3)), true, 42);
+
+            // Legacy row 2 and compact row 2 share time and id; only the legacy one was applied
+            RollbackTask undo = new RollbackTask(UUID.randomUUID(), WORLD, false, 0, 0, 0, 0, null, null, 0, 42);
+            undo.hasResume = true;
+            undo.resumeTime = 120;
+            undo.resumeCompact = false;
+            undo.resumeId = 2;
+            assertEquals(List.of("1:2", "0:3", "1:3"), read(conn, undo));
+        }
+    }
+
+    @Test
+    void testCancelMidWindowJournalsTheAppliedRows() throws SQLException {
+        try (Connection conn = openLog()) {
+            RollbackTask task = new RollbackTask(UUID.randomUUID(), WORLD, true, 0, 0, 0, 0, null, null, 0);
+            // Chunk 0 holds ids 1..6 of both tables, chunk 1 holds compact 5
+            RollbackTask.Window window = window(change(false, 1), change(false, 2), change(true, 1),
+                    change(false, 3), change(true, 2));
+            BlockChange far = change(true, 5);
+            far.x = 20;
+            window.add(far);
+            assertEquals(2, window.batches.size());
+            task.windows.add(window);
+
+            // Cancelled after three rows of chunk 0 and nothing of chunk 1
+            window.batches.values().iterator().next().next = 3;
+            task.state = RollbackTask.State.CANCELLED;
+            RollbackTask.Window applied = task.discard(null, null);
+            assertTrue(task.windows.isEmpty());
+            assertEquals(3, applied.size);
+
+            RollbackJournal.recordWindow(conn, applied, true, 42);
+            assertEquals(List.of(1L, 2L), rolledBack(conn, "vp_block"));
+            assertEquals(List.of(1L), rolledBack(conn, CompactLogSchema.BLOCK_TABLE));
+
+            RollbackTask undo = new RollbackTask(UUID.randomUUID(), WORLD, false, 0, 0, 0, 0, null, null, 0, 42);
+            assertEquals(List.of("0:1", "1:1", "0:2"), read(conn, undo));
+        }
+    }
+
+    @Test
+    void testDiscardWithNothingAppliedHasNothingToRecord() {
+        RollbackTask task = new RollbackTask(UUID.randomUUID(), WORLD, true, 0, 0, 0, 0, null, null, 0);
+        task.windows.add(window(change(false, 1), change(false, 2)));
+
+        assertNull(task.discard(null, null));
+        assertNull(new RollbackTask(UUID.randomUUID(), WORLD, true, 0, 0, 0, 0, null, null, 0).discard(null, null));
+    }
+
+    @Test
+    void testLegacyReferencesHoldBackMigration() throws SQLException {
+        try (Connection conn = openLog()) {
+            try (Statement stmt = conn.createStatement()) {
+                RollbackManager.createSchema(stmt, "AUTOINCREMENT", "TEXT");
+            }
+            // Finished tasks journaling compact rows only, or already undone, are fine
+            long compactOnly = insertTask(conn, RollbackManager.STATUS_COMPLETED, null, null);
+            RollbackJournal.recordWindow(conn, window(change(true, 1)), true, compactOnly);
+            long undone = insertTask(conn, RollbackManager.STATUS_UNDONE, null, null);
+            RollbackJournal.recordWindow(conn, window(change(false, 1)), true, undone);
+            insertTask(conn, RollbackManager.STATUS_INTERRUPTED, 3L, 1);
+            assertEquals(0, RollbackManager.countLegacyReferences(conn));
+
+            long undoable = insertTask(conn, RollbackManager.STATUS_CANCELLED, null, null);
+            RollbackJournal.recordWindow(conn, window(change(false, 2), change(true, 2)), true, undoable);
+            assertEquals(1, RollbackManager.countLegacyReferences(conn));
+
+            insertTask(conn, RollbackManager.STATUS_INTERRUPTED, 3L, 0);
+            insertTask(conn, RollbackManager.STATUS_RUNNING, null, null);
+            assertEquals(3, RollbackManager.countLegacyReferences(conn));
+        }
+    }
+
+    private static long insertTask(Connection conn, int status, Long resumeId, Integer resumeCompact)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO vp_rollback_task (owner, world, "
+                + "is_rollback, center_x, center_y, center_z, radius, min_time, resume_id, resume_compact, status, "
+                + "created) VALUES ('owner', '" + WORLD + "', 1, 0, 0, 0, 5, 0, ?, ?, ?, 0)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setObject(1, resumeId);
+            stmt.setObject(2, resumeCompact);
+            stmt.setInt(3, status);
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static Connection openLog() throws SQLException {
+        Database database = mock(Database.class);
+        when(database.isSQLite()).thenReturn(true);
+        Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE vp_block (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, time BIGINT NOT NULL, user TEXT NOT NULL,
+                        world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL,
+                        chunk BIGINT, type TEXT NOT NULL, old_type TEXT, old_data TEXT, new_type TEXT,
+                        new_data TEXT, action INTEGER NOT NULL, rolled_back INTEGER DEFAULT 0)
+                    """);
+            stmt.execute("""
+                    CREATE TABLE vp_container (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, time BIGINT NOT NULL, user TEXT NOT NULL,
+                        world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL,
+                        type TEXT NOT NULL, item TEXT NOT NULL, amount INTEGER NOT NULL, action INTEGER NOT NULL,
+                        rolled_back INTEGER DEFAULT 0)
+                    """);
+            stmt.execute("""
+                    CREATE TABLE vp_user (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT, uuid TEXT UNIQUE NOT NULL, username TEXT NOT NULL)
+                    """);
+            CompactLogSchema.createSchema(stmt, database, "AUTOINCREMENT", "TEXT");
+            RollbackJournal.createSchema(stmt, "AUTOINCREMENT");
+            stmt.execute("INSERT INTO vp_user (uuid, username) VALUES ('u1', 'Steve')");
+            stmt.execute("INSERT INTO vp_world (name) VALUES ('" + WORLD + "')");
+            stmt.execute("INSERT INTO vp_material (name) VALUES ('minecraft:stone')");
+            for (int i = 1; i <= 6; i++) {
+                long time = 100 + 10L * i;
+                stmt.execute("INSERT INTO vp_block (time, user, world, x, y, z, type, new_type, action) VALUES ("
+                        + time + ", 'Steve', '" + WORLD + "', " + i + ", 64, 0, 'minecraft:stone', "
+                        + "'minecraft:stone', 1)");
+                stmt.execute("INSERT INTO vp_block_compact (time, user_id, world_id, pos, type_id, new_type_id, "
+                        + "action) VALUES (" + time + ", 1, 1, " + CompactLogSchema.packPos(i, 64, 0) + ", 1, 1, 1)");
+            }
+        }
+        return conn;
+    }
+
+    private static BlockChange change(boolean compact, long id) {
+        BlockChange change = new BlockChange();
+        change.compact = compact;
+        change.id = id;
+        change.time = 100 + 10 * id;
+        change.x = (int) id;
+        return change;
+    }
+
+    private static RollbackTask.Window window(BlockChange... changes) {
+        RollbackTask.Window window = new RollbackTask.Window();
+        for (BlockChange change : changes) {
+            window.add(change);
+        }
+        return window;
+    }
+
+    private static List<Long> rolledBack(Connection conn, String table) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id FROM " + table + " WHERE rolled_back = 1 ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> read(Connection conn, RollbackTask task) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(task.buildQuery(false, params))) {
+            LogQuery.bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(rs.getInt("compact") + ":" + rs.getLong("id"));
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,57 @@
+package network.vonix.vonixcore.warps;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WarpSnapshot.
+ * Tests sorted listing, prefix lookups for tab completion, and that changes
+ * leave the original snapshot untouched.
+ */
+class WarpSnapshotTest {
+
+    private static WarpManager.Warp warp(String name) {
+        return new WarpManager.Warp(name, "minecraft:overworld", 0, 64, 0, 0f, 0f);
+    }
+
+    @Test
+    void testSortedByName() {
+        WarpSnapshot snapshot = WarpSnapshot.of(List.of(warp("spawn"), warp("arena"), warp("shop")));
+
+        assertEquals(List.of("arena", "shop", "spawn"), snapshot.all().stream().map(WarpManager.Warp::name).toList());
+        assertEquals("shop", snapshot.get("shop").name());
+        assertNull(snapshot.get("nether"));
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    void testNamesStartingWith() {
+        WarpSnapshot snapshot = WarpSnapshot.of(List.of(warp("spawn"), warp("shop"), warp("shops2"), warp("arena"),
+                warp("t")));
+
+        assertEquals(List.of("shop", "shops2"), snapshot.namesStartingWith("sh"));
+        assertEquals(List.of("shop", "shops2", "spawn"), snapshot.namesStartingWith("s"));
+        assertEquals(5, snapshot.namesStartingWith("").size());
+        assertTrue(snapshot.namesStartingWith("x").isEmpty());
+        assertTrue(snapshot.namesStartingWith("spawnpoint").isEmpty());
+    }
+
+    @Test
+    void testCopyOnWrite() {
+        WarpSnapshot original = WarpSnapshot.of(List.of(warp("spawn")));
+
+        WarpSnapshot added = original.with(warp("arena"));
+        assertEquals(1, original.size());
+        assertEquals(2, added.size());
+        assertNull(original.get("arena"));
+
+        WarpSnapshot removed = added.without("spawn");
+        assertNotNull(added.get("spawn"));
+        assertNull(removed.get("spawn"));
+        assertSame(removed, removed.without("missing"));
+        assertThrows(UnsupportedOperationException.class, () -> original.all().add(warp("x")));
+    }
+}